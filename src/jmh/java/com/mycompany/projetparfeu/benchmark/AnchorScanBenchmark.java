@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.benchmark;
+
+import com.mycompany.projetparfeu.model.analyzer.AhoCorasickMatcher;
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recherche des mots suspects dans un payload : parcours octet par octet
+ * de l'automate contre saut aux positions candidates trouvées par le
+ * parcours vectoriel (jdk.incubator.vector). Le payload est du texte
+ * bénin (mots de la configuration par défaut absents), avec un mot
+ * suspect en fin de payload.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="AnchorScanBenchmark"
+ *
+ * Sans le module (--add-modules jdk.incubator.vector), les deux variantes
+ * mesurent le parcours scalaire.
+ *
+ * @author ZGARNI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AnchorScanBenchmark {
+
+    @Param({"64", "1500", "65536"})
+    public int payloadSize;
+
+    private AhoCorasickMatcher scalar;
+    private AhoCorasickMatcher vector;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        List<String> words = new FirewallConfig().getSuspiciousWords();
+        scalar = new AhoCorasickMatcher(words, false);
+        vector = new AhoCorasickMatcher(words, true);
+        if (!vector.isVectorScanEnabled()) {
+            System.err.println("⚠ Parcours vectoriel indisponible : les deux variantes sont scalaires");
+        }
+        payload = benignPayload(payloadSize, words.get(0));
+    }
+
+    /**
+     * Texte ASCII pseudo-aléatoire sans mot suspect, terminé par le mot
+     * donné. Aucune lettre de l'alphabet ne commence un mot par défaut :
+     * seul le dernier mot est une position candidate.
+     */
+    static byte[] benignPayload(int size, String lastWord) {
+        String alphabet = "bcfghkmnpqvwxyz    ,;=&/0123456789";
+        Random random = new Random(23);
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < size - lastWord.length()) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        text.append(lastWord);
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int scalarScan() {
+        return scalar.countMatches(payload, 0, payload.length);
+    }
+
+    @Benchmark
+    public int vectorScan() {
+        return vector.countMatches(payload, 0, payload.length);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.benchmark;
+
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.engine.FirewallEngine;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.ProtocolFilter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût d'un paquet rejeté sans analyse (filtre ou blacklist) :
+ * processPacket (DecisionResult, raison, historique) contre classify
+ * (verdict compact). Lancer avec le profileur GC pour lire les octets
+ * alloués par paquet (gc.alloc.rate.norm, attendu : 0 pour classify) :
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="DropPathBenchmark -prof gc"
+ *
+ * @author ZGARNI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DropPathBenchmark {
+
+    private FirewallEngine engine;
+    private Packet filtered;
+    private Packet blacklisted;
+
+    @Setup
+    public void setUp() {
+        FirewallConfig config = new FirewallConfig();
+        config.addBlacklistedIP("203.0.113.7");
+        engine = new FirewallEngine(config);
+        engine.addFilter(new ProtocolFilter("TCP"));
+        engine.start();
+        filtered = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 53, "UDP", "query");
+        blacklisted = new PaquetSimple("203.0.113.7", "10.0.0.2", 4000, 80, "TCP", "GET /");
+    }
+
+    @Benchmark
+    public DecisionResult filterDropProcessPacket() {
+        return engine.processPacket(filtered);
+    }
+
+    @Benchmark
+    public long filterDropClassify() {
+        return engine.classify(filtered);
+    }
+
+    @Benchmark
+    public DecisionResult blacklistDropProcessPacket() {
+        return engine.processPacket(blacklisted);
+    }
+
+    @Benchmark
+    public long blacklistDropClassify() {
+        return engine.classify(blacklisted);
+    }
+}
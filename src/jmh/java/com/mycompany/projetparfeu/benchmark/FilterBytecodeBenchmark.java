@@ -0,0 +1,134 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.benchmark;
+
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.AbstractFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.CidrIPFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.CompiledFilterSet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.IPFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.PortFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.PortRangeFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.ProtocolFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chaîne interprétée (boucle sur AbstractFilter.accept, site d'appel
+ * mégamorphique) contre l'ensemble compilé, interprété ou généré en
+ * classe cachée (FilterBytecodeCompiler). Le jeu de règles mêle les
+ * types de filtres, dont des filtres résiduels (CIDR, plages de ports,
+ * sous-classe) que seul le bytecode appelle depuis des sites distincts.
+ * Les tailles restent sous FilterBytecodeCompiler.MAX_CHECKS (au-delà,
+ * aucune classe n'est générée).
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="FilterBytecodeBenchmark"
+ *
+ * @author ZGARNI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FilterBytecodeBenchmark {
+
+    private static final int PACKETS = 256;
+
+    @Param({"8", "32", "128"})
+    public int ruleCount;
+
+    private AbstractFilter[] chain;
+    private CompiledFilterSet interpreted;
+    private CompiledFilterSet bytecode;
+    private Packet[] packets;
+
+    @Setup
+    public void setUp() {
+        List<AbstractFilter> filters = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            switch (i % 6) {
+                case 0 -> filters.add(new IPFilter(null, "10.0.0.2"));
+                case 1 -> filters.add(new PortFilter(null, 80));
+                case 2 -> filters.add(new ProtocolFilter("TCP"));
+                case 3 -> {
+                    CidrIPFilter cidr = new CidrIPFilter(CidrIPFilter.Direction.SOURCE, true);
+                    cidr.deny("192.168.0.0/16");
+                    filters.add(cidr);
+                }
+                case 4 -> filters.add(new PortRangeFilter("1024-65535", null));
+                default -> filters.add(new PortFilter(null, 80) { });
+            }
+        }
+        chain = filters.toArray(new AbstractFilter[0]);
+        interpreted = CompiledFilterSet.compile(filters);
+        bytecode = CompiledFilterSet.compile(filters, true);
+        if (!bytecode.isBytecodeCompiled()) {
+            throw new IllegalStateException("Génération du bytecode impossible pour " + ruleCount + " règles");
+        }
+
+        // Trafic mixte : une partie des paquets est rejetée par les règles résiduelles
+        packets = new Packet[PACKETS];
+        for (int i = 0; i < PACKETS; i++) {
+            String src = i % 7 == 0 ? "192.168.1." + i % 250 : "10.0.0." + i % 250;
+            int srcPort = i % 11 == 0 ? 22 : 40000 + i;
+            packets[i] = new PaquetSimple(src, "10.0.0.2", srcPort, 80, "TCP", "GET /");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public int interpretedChain() {
+        int rejected = 0;
+        for (Packet packet : packets) {
+            for (AbstractFilter filter : chain) {
+                if (!filter.accept(packet)) {
+                    rejected++;
+                    break;
+                }
+            }
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public int compiledSet() {
+        int rejected = 0;
+        for (Packet packet : packets) {
+            if (interpreted.firstRejecting(packet) >= 0) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public int hiddenClass() {
+        int rejected = 0;
+        for (Packet packet : packets) {
+            if (bytecode.firstRejecting(packet) >= 0) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+}
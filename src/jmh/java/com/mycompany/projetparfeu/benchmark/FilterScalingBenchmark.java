@@ -0,0 +1,109 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.benchmark;
+
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.AbstractFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.CompiledFilterSet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.IPFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.PortFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.ProtocolFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût du filtrage selon le nombre de règles (jusqu'à 10 000) : chaîne
+ * linéaire d'AbstractFilter contre CompiledFilterSet. Le paquet accepté
+ * passe toutes les règles, le paquet rejeté n'est refusé que par la
+ * dernière : la chaîne linéaire évalue toutes les règles dans les deux cas.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="FilterScalingBenchmark"
+ *
+ * @author ZGARNI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FilterScalingBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int ruleCount;
+
+    private AbstractFilter[] chain;
+    private CompiledFilterSet compiled;
+    private Packet allowed;
+    private Packet rejected;
+
+    @Setup
+    public void setUp() {
+        List<AbstractFilter> filters = buildRules(ruleCount);
+        chain = filters.toArray(new AbstractFilter[0]);
+        compiled = CompiledFilterSet.compile(filters);
+        allowed = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 80, "TCP", "GET /");
+        rejected = new PaquetSimple("10.0.0.1", "10.0.0.2", 5000, 80, "TCP", "GET /");
+    }
+
+    /**
+     * ACL de ruleCount règles mêlant les trois types de filtres ; seule
+     * la dernière contraint le port source.
+     */
+    static List<AbstractFilter> buildRules(int ruleCount) {
+        List<AbstractFilter> filters = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount - 1; i++) {
+            switch (i % 3) {
+                case 0 -> filters.add(new IPFilter(null, "10.0.0.2"));
+                case 1 -> filters.add(new PortFilter(null, 80));
+                default -> filters.add(new ProtocolFilter("TCP"));
+            }
+        }
+        filters.add(new PortFilter(4000, null));
+        return filters;
+    }
+
+    private int linearFirstRejecting(Packet packet) {
+        for (int i = 0; i < chain.length; i++) {
+            if (!chain[i].accept(packet)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int linearAllowed() {
+        return linearFirstRejecting(allowed);
+    }
+
+    @Benchmark
+    public int linearRejected() {
+        return linearFirstRejecting(rejected);
+    }
+
+    @Benchmark
+    public int compiledAllowed() {
+        return compiled.firstRejecting(allowed);
+    }
+
+    @Benchmark
+    public int compiledRejected() {
+        return compiled.firstRejecting(rejected);
+    }
+}
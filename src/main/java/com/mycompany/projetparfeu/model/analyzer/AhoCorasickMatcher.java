@@ -0,0 +1,678 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Automate d'Aho-Corasick : recherche simultanée de tous les mots d'un
+ * dictionnaire en une seule passe sur le texte, quel que soit le nombre
+ * de mots (coût proportionnel à la longueur du texte, plus les mots
+ * trouvés).
+ *
+ * La casse est ignorée caractère par caractère (Character.toLowerCase) :
+ * les mots sont repliés à la construction, le texte pendant le parcours,
+ * sans copie. Comme String.toLowerCase, U+0130 (I majuscule pointé) se
+ * replie en deux caractères, i puis U+0307 (point suscrit combinant) :
+ * "İf" ne contient pas "if". Seule différence avec String.toLowerCase :
+ * le sigma majuscule final reste σ (pas de forme finale ς). Le texte
+ * peut aussi être une zone d'octets UTF-8 (payload brut), parcourue sans
+ * décodage préalable.
+ *
+ * Représentation compacte pour de grands dictionnaires (dizaines de
+ * milliers d'indicateurs) : transitions triées par état (recherche
+ * dichotomique), liens d'échec et liens de sortie vers le plus long
+ * suffixe terminal. La racine et ses enfants, où le parcours passe
+ * l'essentiel de son temps, ont en plus une ligne complète pour l'ASCII
+ * (échecs déjà résolus) : un caractère y coûte une seule lecture de
+ * tableau. Les états sont des int.
+ *
+ * Immuable, thread-safe.
+ *
+ * @author ZGARNI
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int DENSE_ALPHABET = 128;
+    private static final int[] NO_MATCH = new int[0];
+    private static final char REPLACEMENT = '\uFFFD';
+    // Zone restante minimale pour tenter un saut vers la position candidate suivante
+    private static final int MIN_SKIP = 256;
+    // Le saut est abandonné pour la zone si, après MIN_SKIPS sauts, il
+    // avance en moyenne de moins de MIN_AVERAGE_SKIP octets
+    private static final int MIN_SKIPS = 2;
+    private static final int MIN_AVERAGE_SKIP = 64;
+
+    /**
+     * État initial d'un flux (voir findAll(byte[], int, int, long[], int)).
+     * Un état de flux tient dans un long : nœud de l'automate (32 bits),
+     * puis la séquence UTF-8 coupée en fin de zone (octets attendus, lus,
+     * bits du point de code).
+     */
+    public static final long STREAM_START = 0L;
+    private static final int STREAM_NEEDED_SHIFT = 32;
+    private static final int STREAM_READ_SHIFT = 34;
+    private static final int STREAM_CODE_POINT_SHIFT = 36;
+
+    // Seul caractère dont la minuscule (String.toLowerCase) compte deux caractères
+    private static final char CAPITAL_I_DOT = '\u0130';
+    private static final char COMBINING_DOT_ABOVE = '\u0307';
+
+    // Repliement de casse pour l'ASCII (le reste passe par Character.toLowerCase)
+    private static final char[] LOWER_ASCII = new char[128];
+    static {
+        for (char c = 0; c < 128; c++) {
+            LOWER_ASCII[c] = Character.toLowerCase(c);
+        }
+    }
+
+    private final int patternCount;
+    private final int stateCount;
+
+    // Transitions triées par état : edgeStart[s] .. edgeStart[s + 1] - 1
+    private final int[] edgeStart;
+    private final char[] edgeLabels;
+    private final int[] edgeTargets;
+
+    private final int[] fail;
+    private final int[] output;        // plus long suffixe terminal strict (ou NONE)
+    private final int[] report;        // l'état s'il est terminal, sinon output
+
+    // Lignes complètes (ASCII, échecs résolus) des états 0 .. denseStates - 1 :
+    // la racine et ses enfants
+    private final int denseStates;
+    private final int[] dense;
+
+    // Mots reconnus par état terminal : premier mot, puis chaînage des doublons
+    private final int[] terminalIndex; // index de terminal, NONE si l'état n'est pas terminal
+    private final int[] firstPattern;  // par terminal
+    private final int[] nextPattern;   // par mot : mot suivant du même terminal
+    private final int terminalCount;
+    private final int[] emptyPatterns; // mots vides : toujours trouvés
+
+    // Positions candidates (parcours vectoriel), null si indisponible
+    private final AnchorScanner anchors;
+
+    // État de passe par thread (voir Scan)
+    private final ThreadLocal<Scan> scans = ThreadLocal.withInitial(Scan::new);
+
+    /**
+     * Construit l'automate, avec le parcours vectoriel des zones d'octets
+     * s'il est disponible.
+     *
+     * @param patterns mots à rechercher (l'index d'un mot identifie ses occurrences)
+     */
+    public AhoCorasickMatcher(List<String> patterns) {
+        this(patterns, true);
+    }
+
+    /**
+     * Construit l'automate.
+     *
+     * @param patterns mots à rechercher (l'index d'un mot identifie ses occurrences)
+     * @param vectorScan true pour sauter, dans les zones d'octets, aux
+     *        positions candidates trouvées par le parcours vectoriel
+     *        (jdk.incubator.vector) ; sans le module, parcours octet par octet
+     */
+    public AhoCorasickMatcher(List<String> patterns, boolean vectorScan) {
+        Objects.requireNonNull(patterns, "patterns ne peut pas être null");
+        this.patternCount = patterns.size();
+
+        // 1. Trie des mots repliés (table de hachage (état, caractère) -> état)
+        List<String> expanded = new ArrayList<>(patternCount);
+        for (String pattern : patterns) {
+            expanded.add(expandCapitalIDot(Objects.requireNonNull(pattern, "un mot ne peut pas être null")));
+        }
+        Builder builder = new Builder(expanded);
+        this.stateCount = builder.stateCount;
+
+        // 2. Transitions triées par état (numérotation du trie)
+        int[] treeStart = new int[stateCount + 1];
+        for (int t = 1; t < stateCount; t++) {
+            treeStart[builder.parent[t] + 1]++;
+        }
+        for (int t = 0; t < stateCount; t++) {
+            treeStart[t + 1] += treeStart[t];
+        }
+        long[] edges = new long[Math.max(stateCount - 1, 0)];
+        int[] fill = Arrays.copyOf(treeStart, stateCount);
+        for (int t = 1; t < stateCount; t++) {
+            edges[fill[builder.parent[t]]++] = (long) builder.label[t] << 32 | t;
+        }
+        for (int t = 0; t < stateCount; t++) {
+            if (treeStart[t + 1] - treeStart[t] > 1) {
+                Arrays.sort(edges, treeStart[t], treeStart[t + 1]);
+            }
+        }
+
+        // 3. Renumérotation en largeur : la racine et ses enfants prennent
+        // les premiers numéros, les enfants d'un état sont consécutifs
+        int[] order = new int[stateCount];
+        int[] renumber = new int[stateCount];
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            for (int e = treeStart[order[head]]; e < treeStart[order[head] + 1]; e++) {
+                int child = (int) edges[e];
+                renumber[child] = tail;
+                order[tail++] = child;
+            }
+        }
+        edgeStart = new int[stateCount + 1];
+        edgeLabels = new char[edges.length];
+        edgeTargets = new int[edges.length];
+        for (int state = 0; state < stateCount; state++) {
+            int next = edgeStart[state];
+            for (int e = treeStart[order[state]]; e < treeStart[order[state] + 1]; e++) {
+                edgeLabels[next] = (char) (edges[e] >>> 32);
+                edgeTargets[next++] = renumber[(int) edges[e]];
+            }
+            edgeStart[state + 1] = next;
+        }
+
+        // 4. Mots par état terminal
+        terminalIndex = new int[stateCount];
+        Arrays.fill(terminalIndex, NONE);
+        nextPattern = new int[patternCount];
+        int[] firsts = new int[patternCount];
+        int terminals = 0;
+        int emptyCount = 0;
+        int[] empties = new int[patternCount];
+        for (int p = patternCount - 1; p >= 0; p--) {
+            int state = renumber[builder.patternState[p]];
+            if (state == ROOT) {
+                empties[emptyCount++] = p;
+                continue;
+            }
+            if (terminalIndex[state] == NONE) {
+                terminalIndex[state] = terminals;
+                firsts[terminals++] = NONE;
+            }
+            int terminal = terminalIndex[state];
+            nextPattern[p] = firsts[terminal];
+            firsts[terminal] = p;
+        }
+        terminalCount = terminals;
+        firstPattern = Arrays.copyOf(firsts, terminals);
+        emptyPatterns = Arrays.copyOf(empties, emptyCount);
+        Arrays.sort(emptyPatterns);
+
+        // 5. Liens d'échec et de sortie (les numéros suivent l'ordre en largeur)
+        fail = new int[stateCount];
+        output = new int[stateCount];
+        report = new int[stateCount];
+        Arrays.fill(output, NONE);
+        report[ROOT] = NONE;
+        for (int state = 0; state < stateCount; state++) {
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int child = edgeTargets[e];
+                if (state != ROOT) {
+                    char c = edgeLabels[e];
+                    int f = fail[state];
+                    int target;
+                    while ((target = transition(f, c)) == NONE && f != ROOT) {
+                        f = fail[f];
+                    }
+                    fail[child] = target == NONE ? ROOT : target;
+                }
+                int suffix = fail[child];
+                output[child] = terminalIndex[suffix] != NONE ? suffix : output[suffix];
+                report[child] = terminalIndex[child] != NONE ? child : output[child];
+            }
+        }
+
+        // 6. Lignes complètes de la racine et de ses enfants (leur échec est la racine)
+        denseStates = 1 + edgeStart[ROOT + 1] - edgeStart[ROOT];
+        dense = new int[denseStates * DENSE_ALPHABET];
+        for (int state = 0; state < denseStates; state++) {
+            for (char c = 0; c < DENSE_ALPHABET; c++) {
+                int target = transition(state, c);
+                if (target == NONE) {
+                    target = state == ROOT ? ROOT : dense[fail[state] * DENSE_ALPHABET + c];
+                }
+                dense[state * DENSE_ALPHABET + c] = target;
+            }
+        }
+
+        // 7. Positions candidates (mots non vides)
+        List<String> anchored = new ArrayList<>(patternCount);
+        for (String pattern : expanded) {
+            if (!pattern.isEmpty()) {
+                anchored.add(pattern);
+            }
+        }
+        anchors = vectorScan ? AnchorScanner.create(anchored) : null;
+    }
+
+    /**
+     * Caractère replié (minuscule). Pour U+0130, premier des deux
+     * caractères repliés (i) : les parcours y ajoutent U+0307.
+     */
+    public static char fold(char c) {
+        return c < 128 ? LOWER_ASCII[c] : Character.toLowerCase(c);
+    }
+
+    /**
+     * Mot où chaque U+0130 est remplacé par son repli en deux caractères.
+     */
+    private static String expandCapitalIDot(String pattern) {
+        return pattern.indexOf(CAPITAL_I_DOT) < 0 ? pattern
+                : pattern.replace(String.valueOf(CAPITAL_I_DOT), "i" + COMBINING_DOT_ABOVE);
+    }
+
+    /**
+     * Transition sans lien d'échec, NONE si absente.
+     */
+    private int transition(int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = edgeLabels[middle];
+            if (label < c) {
+                low = middle + 1;
+            } else if (label > c) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Avance d'un caractère (déjà replié), en suivant les liens d'échec.
+     *
+     * @param state état courant (0 = début de texte)
+     * @return nouvel état
+     */
+    public int step(int state, char folded) {
+        if (state < denseStates && folded < DENSE_ALPHABET) {
+            return dense[state * DENSE_ALPHABET + folded];
+        }
+        while (true) {
+            int target = transition(state, folded);
+            if (target != NONE) {
+                return target;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Index des mots présents dans le texte, chacun une fois, par ordre
+     * croissant (ordre du dictionnaire).
+     *
+     * @return index trouvés (tableau vide partagé si aucun)
+     */
+    public int[] findAll(CharSequence text) {
+        Objects.requireNonNull(text, "text ne peut pas être null");
+        Scan scan = null;
+        if (terminalCount > 0) {
+            int state = ROOT;
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == CAPITAL_I_DOT) {
+                    state = step(state, 'i');
+                    if (report[state] != NONE) {
+                        scan = collect(report[state], scan);
+                    }
+                    c = COMBINING_DOT_ABOVE;
+                }
+                state = step(state, fold(c));
+                if (report[state] != NONE) {
+                    scan = collect(report[state], scan);
+                }
+            }
+        }
+        return result(scan);
+    }
+
+    /**
+     * Index des mots présents dans une zone d'octets UTF-8, sans décodage
+     * préalable ni copie : mêmes résultats que findAll(CharSequence) sur
+     * le texte décodé. Les octets ASCII passent par la table de
+     * repliement ; les séquences multi-octets sont converties au vol en
+     * caractères (une séquence invalide compte comme U+FFFD). Sur les
+     * longues zones, les portions où aucun mot ne peut commencer sont
+     * sautées par le parcours vectoriel (AnchorScanner).
+     *
+     * @return index trouvés (tableau vide partagé si aucun)
+     */
+    public int[] findAll(byte[] data, int offset, int length) {
+        return result(scan(data, offset, length, null, 0));
+    }
+
+    /**
+     * Nombre de mots distincts présents dans une zone d'octets UTF-8
+     * (voir findAll(byte[], int, int)), sans allocation.
+     */
+    public int countMatches(byte[] data, int offset, int length) {
+        Scan scan = scan(data, offset, length, null, 0);
+        return (scan == null ? 0 : scan.foundCount) + emptyPatterns.length;
+    }
+
+    /**
+     * Poursuit le parcours d'un flux : la zone est la suite des zones
+     * précédemment passées avec le même état. Les mots à cheval sur deux
+     * zones (ex : deux segments d'une connexion) sont trouvés sans garder
+     * ni relire les zones précédentes ; un mot est rapporté avec la zone
+     * où il se termine. Les mots vides ne sont pas rapportés.
+     *
+     * @param streamStates états des flux (un long par flux, STREAM_START au début)
+     * @param stream index du flux : streamStates[stream] est lu puis mis à jour
+     * @return index des mots se terminant dans la zone (tableau vide partagé si aucun)
+     */
+    public int[] findAll(byte[] data, int offset, int length, long[] streamStates, int stream) {
+        Objects.requireNonNull(streamStates, "streamStates ne peut pas être null");
+        Scan scan = scan(data, offset, length, streamStates, stream);
+        if (scan == null || scan.foundCount == 0) {
+            return NO_MATCH;
+        }
+        int[] result = Arrays.copyOf(scan.found, scan.foundCount);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Nombre de mots distincts se terminant dans la zone d'un flux (voir
+     * findAll(byte[], int, int, long[], int)), sans allocation.
+     */
+    public int countMatches(byte[] data, int offset, int length, long[] streamStates, int stream) {
+        Objects.requireNonNull(streamStates, "streamStates ne peut pas être null");
+        Scan scan = scan(data, offset, length, streamStates, stream);
+        return scan == null ? 0 : scan.foundCount;
+    }
+
+    /**
+     * Parcours d'une zone, depuis la racine ou depuis l'état d'un flux
+     * (streamStates non null). L'état d'un flux garde le nœud de
+     * l'automate et, si la zone précédente finissait au milieu d'une
+     * séquence UTF-8, le début de cette séquence (voir STREAM_START).
+     */
+    private Scan scan(byte[] data, int offset, int length, long[] streamStates, int stream) {
+        Objects.requireNonNull(data, "data ne peut pas être null");
+        Objects.checkFromIndexSize(offset, length, data.length);
+        if (terminalCount == 0) {
+            return null;
+        }
+        Scan scan = null;
+        int state = ROOT;
+        // Séquence multi-octets reprise de la zone précédente (pendingNeeded = 0 : aucune)
+        int pendingNeeded = 0;
+        int pendingRead = 0;
+        int pendingCodePoint = 0;
+        if (streamStates != null) {
+            long resumed = streamStates[stream];
+            state = (int) resumed;
+            pendingNeeded = (int) (resumed >>> STREAM_NEEDED_SHIFT) & 0x3;
+            pendingRead = (int) (resumed >>> STREAM_READ_SHIFT) & 0x3;
+            pendingCodePoint = (int) (resumed >>> STREAM_CODE_POINT_SHIFT);
+            if (state < 0 || state >= stateCount || pendingRead >= Math.max(pendingNeeded, 1)) {
+                throw new IllegalArgumentException("État de flux invalide : " + resumed);
+            }
+        }
+        int end = offset + length;
+        int i = offset;
+        boolean skipping = anchors != null && length >= MIN_SKIP;
+        int skips = 0;
+        long skipped = 0;
+        while (i < end) {
+            if (skipping && state == ROOT && end - i >= MIN_SKIP && pendingNeeded == 0) {
+                // Aucun mot en cours : saut à la prochaine position où un mot peut commencer
+                int target = anchors.next(data, i, end);
+                // Flux : un mot peut commencer sur le dernier octet de la zone,
+                // son second octet n'arrive qu'avec la zone suivante
+                if (target == end && streamStates != null && anchors.mayStart(data[end - 1])) {
+                    target = end - 1;
+                }
+                skipped += target - i;
+                i = target;
+                if (i == end) {
+                    break;
+                }
+                // Sauts trop courts (débuts de mots fréquents) : parcours simple
+                if (++skips >= MIN_SKIPS && skipped < (long) skips * MIN_AVERAGE_SKIP) {
+                    skipping = false;
+                }
+            }
+            int needed;
+            int read;
+            int codePoint;
+            if (pendingNeeded != 0) {
+                needed = pendingNeeded;
+                read = pendingRead;
+                codePoint = pendingCodePoint;
+                pendingNeeded = 0;
+            } else {
+                int b = data[i++];
+                if (b >= 0) {
+                    state = step(state, LOWER_ASCII[b]);
+                    if (report[state] != NONE) {
+                        scan = collect(report[state], scan);
+                    }
+                    continue;
+                }
+                // Séquence multi-octets : point de code, U+FFFD si invalide
+                int lead = b & 0xFF;
+                if (lead >= 0xC2 && lead <= 0xDF) {
+                    needed = 1; codePoint = lead & 0x1F;
+                } else if (lead >= 0xE0 && lead <= 0xEF) {
+                    needed = 2; codePoint = lead & 0x0F;
+                } else if (lead >= 0xF0 && lead <= 0xF4) {
+                    needed = 3; codePoint = lead & 0x07;
+                } else {
+                    needed = 0; codePoint = REPLACEMENT;
+                }
+                read = 0;
+            }
+            while (read < needed && i < end && (data[i] & 0xC0) == 0x80) {
+                codePoint = codePoint << 6 | (data[i++] & 0x3F);
+                read++;
+            }
+            if (read < needed && i == end && streamStates != null) {
+                // Séquence coupée en fin de zone : terminée par la zone suivante du flux
+                pendingNeeded = needed;
+                pendingRead = read;
+                pendingCodePoint = codePoint;
+                break;
+            }
+            int min = needed == 1 ? 0x80 : needed == 2 ? 0x800 : 0x10000;
+            if (read < needed || (needed > 0 && codePoint < min) || codePoint > Character.MAX_CODE_POINT
+                    || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                codePoint = REPLACEMENT;
+            }
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                state = step(state, fold(Character.highSurrogate(codePoint)));
+                if (report[state] != NONE) {
+                    scan = collect(report[state], scan);
+                }
+                state = step(state, fold(Character.lowSurrogate(codePoint)));
+            } else {
+                if (codePoint == CAPITAL_I_DOT) {
+                    state = step(state, 'i');
+                    if (report[state] != NONE) {
+                        scan = collect(report[state], scan);
+                    }
+                    codePoint = COMBINING_DOT_ABOVE;
+                }
+                state = step(state, fold((char) codePoint));
+            }
+            if (report[state] != NONE) {
+                scan = collect(report[state], scan);
+            }
+        }
+        if (streamStates != null) {
+            streamStates[stream] = pendingNeeded == 0 ? state
+                    : state | (long) pendingNeeded << STREAM_NEEDED_SHIFT
+                            | (long) pendingRead << STREAM_READ_SHIFT
+                            | (long) pendingCodePoint << STREAM_CODE_POINT_SHIFT;
+        }
+        return scan;
+    }
+
+    /**
+     * Rapporte un état terminal et la chaîne de ses suffixes terminaux ;
+     * arrêt au premier déjà rapporté (ses propres suffixes l'ont été en
+     * même temps). La passe commence au premier terminal rencontré.
+     */
+    private Scan collect(int terminal, Scan scan) {
+        if (scan == null) {
+            scan = scans.get();
+            scan.begin(terminalCount);
+        }
+        int[] marks = scan.marks;
+        int epoch = scan.epoch;
+        while (terminal != NONE && marks[terminalIndex[terminal]] != epoch) {
+            marks[terminalIndex[terminal]] = epoch;
+            for (int p = firstPattern[terminalIndex[terminal]]; p != NONE; p = nextPattern[p]) {
+                scan.add(p);
+            }
+            terminal = output[terminal];
+        }
+        return scan;
+    }
+
+    /**
+     * Mots trouvés d'une passe, plus les mots vides, triés.
+     */
+    private int[] result(Scan scan) {
+        int foundCount = scan == null ? 0 : scan.foundCount;
+        if (foundCount == 0) {
+            return emptyPatterns.length == 0 ? NO_MATCH : emptyPatterns.clone();
+        }
+        int[] result = Arrays.copyOf(scan.found, foundCount + emptyPatterns.length);
+        System.arraycopy(emptyPatterns, 0, result, foundCount, emptyPatterns.length);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * État d'une passe, réutilisé par thread : marques des terminaux déjà
+     * rapportés (numéro de passe par terminal) et mots trouvés.
+     */
+    private static final class Scan {
+        int[] marks = new int[0];
+        int epoch;
+        int[] found = new int[8];
+        int foundCount;
+
+        void begin(int terminalCount) {
+            if (marks.length < terminalCount) {
+                marks = new int[terminalCount];
+                epoch = 0;
+            }
+            foundCount = 0;
+            // Marques remises à zéro quand le numéro fait le tour
+            if (++epoch == 0) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        void add(int pattern) {
+            if (foundCount == found.length) {
+                found = Arrays.copyOf(found, foundCount * 2);
+            }
+            found[foundCount++] = pattern;
+        }
+    }
+
+    // ========== CONSULTATION ==========
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Indique si les zones d'octets profitent du parcours vectoriel.
+     */
+    public boolean isVectorScanEnabled() {
+        return anchors != null;
+    }
+
+    @Override
+    public String toString() {
+        return "AhoCorasickMatcher{patterns=" + patternCount + ", states=" + stateCount
+                + ", vectorScan=" + isVectorScanEnabled() + '}';
+    }
+
+    /**
+     * Construction du trie : table de hachage à adressage ouvert sur la
+     * clé (état << 16 | caractère), sans objet par nœud.
+     */
+    private static final class Builder {
+        int[] parent;
+        char[] label;
+        final int[] patternState;
+        int stateCount = 1;
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+
+        Builder(List<String> patterns) {
+            int totalChars = 0;
+            for (String pattern : patterns) {
+                totalChars += Objects.requireNonNull(pattern, "un mot ne peut pas être null").length();
+            }
+            parent = new int[totalChars + 1];
+            label = new char[totalChars + 1];
+            int capacity = Integer.highestOneBit(Math.max(totalChars * 2, 16) - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, -1L);
+            mask = capacity - 1;
+
+            patternState = new int[patterns.size()];
+            for (int p = 0; p < patterns.size(); p++) {
+                String pattern = patterns.get(p);
+                int state = ROOT;
+                for (int i = 0; i < pattern.length(); i++) {
+                    state = child(state, fold(pattern.charAt(i)));
+                }
+                patternState[p] = state;
+            }
+        }
+
+        private int child(int state, char c) {
+            long key = (long) state << 16 | c;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != -1L) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            int created = stateCount++;
+            keys[slot] = key;
+            values[slot] = created;
+            parent[created] = state;
+            label[created] = c;
+            return created;
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Recherche des positions où un mot du dictionnaire peut commencer, dans
+ * une zone d'octets UTF-8 : l'automate d'Aho-Corasick, revenu à sa racine,
+ * saute directement à la position candidate suivante.
+ *
+ * Une position est candidate si ses deux premiers octets forment le début
+ * possible d'un mot (casse ignorée, mêmes règles que l'automate), d'après
+ * une table exacte des paires d'octets : aucune occurrence n'est manquée.
+ * Les caractères non ASCII sont traités de façon prudente (tout octet de
+ * tête accepté).
+ *
+ * L'implémentation vectorielle (VectorAnchorScanner, jdk.incubator.vector)
+ * est chargée par réflexion : sans le module, create() retourne null et
+ * l'automate garde son parcours octet par octet.
+ *
+ * Immuable, thread-safe.
+ *
+ * @author ZGARNI
+ */
+abstract class AnchorScanner {
+
+    private static final String VECTOR_IMPLEMENTATION =
+        "com.mycompany.projetparfeu.model.analyzer.VectorAnchorScanner";
+
+    // Nature du premier octet d'une position
+    static final byte NONE = 0;
+    static final byte CONSTRAINED = 1;     // candidat si l'octet suivant convient (table des paires)
+    static final byte UNCONSTRAINED = 2;   // candidat quel que soit l'octet suivant
+
+    // Octets de tête des caractères non ASCII dont le repli commence par un
+    // caractère ASCII (U+0130 -> i puis U+0307, U+212A -> k) : premier
+    // octet UTF-8 par caractère replié. Les mots reçus ont déjà leurs
+    // U+0130 remplacés par i et U+0307 (voir AhoCorasickMatcher)
+    private static final byte[][] WIDE_LEADS = new byte[128][];
+    static {
+        int[][] leads = new int[128][256];
+        for (int c = 0x80; c <= 0xFFFF; c++) {
+            if (Character.isSurrogate((char) c)) {
+                continue;
+            }
+            char folded = AhoCorasickMatcher.fold((char) c);
+            if (folded < 128) {
+                byte lead = String.valueOf((char) c).getBytes(StandardCharsets.UTF_8)[0];
+                leads[folded][lead & 0xFF] = 1;
+            }
+        }
+        for (int c = 0; c < 128; c++) {
+            int count = 0;
+            for (int b = 0; b < 256; b++) {
+                count += leads[c][b];
+            }
+            WIDE_LEADS[c] = new byte[count];
+            for (int b = 0, k = 0; b < 256; b++) {
+                if (leads[c][b] != 0) {
+                    WIDE_LEADS[c][k++] = (byte) b;
+                }
+            }
+        }
+    }
+
+    // Nature de chaque premier octet, et paires (premier, second) acceptées
+    final byte[] kinds = new byte[256];
+    private final long[] pairs = new long[256 * 256 / Long.SIZE];
+
+    /**
+     * @param patterns mots du dictionnaire (non vides)
+     */
+    AnchorScanner(List<String> patterns) {
+        for (String pattern : patterns) {
+            char first = AhoCorasickMatcher.fold(pattern.charAt(0));
+            if (first >= 128) {
+                // Tout octet non ASCII peut commencer ce caractère (séquences invalides comprises)
+                for (int b = 0x80; b < 256; b++) {
+                    kinds[b] = UNCONSTRAINED;
+                }
+                continue;
+            }
+            for (byte lead : WIDE_LEADS[first]) {
+                kinds[lead & 0xFF] = UNCONSTRAINED;
+            }
+            if (pattern.length() == 1) {
+                for (int b = 0; b < 128; b++) {
+                    if (AhoCorasickMatcher.fold((char) b) == first) {
+                        kinds[b] = UNCONSTRAINED;
+                    }
+                }
+                continue;
+            }
+            char second = AhoCorasickMatcher.fold(pattern.charAt(1));
+            for (int b1 = 0; b1 < 128; b1++) {
+                if (AhoCorasickMatcher.fold((char) b1) != first) {
+                    continue;
+                }
+                if (kinds[b1] == NONE) {
+                    kinds[b1] = CONSTRAINED;
+                }
+                if (second >= 128) {
+                    for (int b2 = 0x80; b2 < 256; b2++) {
+                        addPair(b1, b2);
+                    }
+                    continue;
+                }
+                for (int b2 = 0; b2 < 128; b2++) {
+                    if (AhoCorasickMatcher.fold((char) b2) == second) {
+                        addPair(b1, b2);
+                    }
+                }
+                for (byte lead : WIDE_LEADS[second]) {
+                    addPair(b1, lead & 0xFF);
+                }
+            }
+        }
+    }
+
+    private void addPair(int first, int second) {
+        int bit = first << 8 | second;
+        pairs[bit >>> 6] |= 1L << bit;
+    }
+
+    /**
+     * Crée le parcours vectoriel pour un dictionnaire.
+     *
+     * @param patterns mots du dictionnaire (non vides)
+     * @return null si le module jdk.incubator.vector est absent ou si le
+     *         dictionnaire a trop de premiers octets pour en tirer profit
+     */
+    static AnchorScanner create(List<String> patterns) {
+        if (patterns.isEmpty()) {
+            return null;
+        }
+        try {
+            Class<?> type = Class.forName(VECTOR_IMPLEMENTATION);
+            AnchorScanner scanner = (AnchorScanner) type.getDeclaredConstructor(List.class).newInstance(patterns);
+            return scanner.isUseful() ? scanner : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Module jdk.incubator.vector non chargé (--add-modules) : parcours scalaire
+            return null;
+        }
+    }
+
+    /**
+     * Indique si le parcours rapide écarte assez de positions pour être utile.
+     */
+    abstract boolean isUseful();
+
+    /**
+     * Première position candidate de [from, end), ou end s'il n'y en a pas.
+     * from doit être une frontière de caractère. Un octet contraint en
+     * end - 1 n'est pas candidat : l'octet suivant est hors de la zone.
+     */
+    abstract int next(byte[] data, int from, int end);
+
+    /**
+     * Vérification exacte d'une position (octet de tête déjà lu).
+     */
+    final boolean accept(byte[] data, int position, int end) {
+        int first = data[position] & 0xFF;
+        byte kind = kinds[first];
+        if (kind == UNCONSTRAINED) {
+            return true;
+        }
+        if (kind == NONE || position + 1 >= end) {
+            return false;
+        }
+        return acceptsPair(first, data[position + 1] & 0xFF);
+    }
+
+    /**
+     * Indique si un mot peut commencer par cet octet, quel que soit
+     * l'octet suivant (fin de zone d'un flux : la paire n'est pas visible).
+     */
+    final boolean mayStart(byte first) {
+        return kinds[first & 0xFF] != NONE;
+    }
+
+    /**
+     * Indique si la paire (premier octet contraint, second octet) est acceptée.
+     */
+    final boolean acceptsPair(int first, int second) {
+        int bit = first << 8 | second;
+        return (pairs[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Recherche octet par octet (fin de zone trop courte pour un vecteur).
+     */
+    final int scalarNext(byte[] data, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (accept(data, i, end)) {
+                return i;
+            }
+        }
+        return end;
+    }
+}
@@ -11,6 +11,9 @@ import com.mycompany.projetparfeu.model.generator.Packet;
  * @author ZGARNI
  */
 public final class HeuristicSignal implements DetectionSignal {
+    private static final int LARGE_PACKET_SIZE = 1500;
+    private static final int PRIVILEGED_PORT_LIMIT = 1024;
+
     private final int score;
     private final String description;
 
@@ -28,11 +31,11 @@ public final class HeuristicSignal implements DetectionSignal {
         int heuristicScore = 0;
         StringBuilder desc = new StringBuilder();
         
-        if (packet.getSize() > 1500) {
+        if (isLarge(packet.getSize())) {
             heuristicScore += 1;
             desc.append("Paquet volumineux. ");
         }
-        if (packet.getDestPort() < 1024) {
+        if (isPrivilegedPort(packet.getDestPort())) {
             heuristicScore += 1;
             desc.append("Port privilégié. ");
         }
@@ -43,6 +46,22 @@ public final class HeuristicSignal implements DetectionSignal {
         return null;
     }
 
+    /**
+     * Score heuristique à partir des champs du paquet, sans objet : mêmes
+     * règles qu'analyze (traitement par lots).
+     */
+    static int score(int size, int destPort) {
+        return (isLarge(size) ? 1 : 0) + (isPrivilegedPort(destPort) ? 1 : 0);
+    }
+
+    private static boolean isLarge(int size) {
+        return size > LARGE_PACKET_SIZE;
+    }
+
+    private static boolean isPrivilegedPort(int destPort) {
+        return destPort < PRIVILEGED_PORT_LIMIT;
+    }
+
     @Override
     public int getScore() {
         return score;
@@ -5,6 +5,8 @@
 package com.mycompany.projetparfeu.model.analyzer;
 
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.statistics.StageProfiler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,7 +14,8 @@ import java.util.Objects;
 
 /**
  * Analyseur de paquets orchestrant tous les types de détection.
- * VERSION SANS analyse par signatures.
+ * L'analyse par signatures (expressions régulières) n'est active que si
+ * des règles sont fournies.
  * 
  * @author ZGARNI
  */
@@ -20,6 +23,20 @@ public class PacketAnalyzer {
     private final int minSize;
     private final int maxSize;
     private final List<String> suspiciousWords;
+    // Automate des mots suspects (casse ignorée), construit une fois
+    private final AhoCorasickMatcher wordMatcher;
+    // Automate des règles de signature, null sans règles
+    private final SignatureMatcher signatureMatcher;
+    
+    // Détecteurs (ordre canonique des signaux)
+    private static final int SIZE_DETECTOR = 0;
+    private static final int WORD_DETECTOR = 1;
+    private static final int HEURISTIC_DETECTOR = 2;
+    private static final int SIGNATURE_DETECTOR = 3;
+    private static final int DETECTOR_COUNT = 4;
+    
+    // Ordre adaptatif des détecteurs (null = ordre fixe)
+    private StageProfiler profiler;
 
     /**
      * Constructeur simplifié (sans signatures).
@@ -28,13 +45,27 @@ public class PacketAnalyzer {
      * @param suspiciousWords liste de mots suspects
      */
     public PacketAnalyzer(int minSize, int maxSize, List<String> suspiciousWords) {
+        this(minSize, maxSize, suspiciousWords, List.of());
+    }
+
+    /**
+     * Constructeur complet.
+     * @param minSize taille minimale acceptable
+     * @param maxSize taille maximale acceptable
+     * @param suspiciousWords liste de mots suspects
+     * @param signatureRules règles de signature (vide : sans signatures)
+     * @throws IllegalArgumentException si une expression est hors de la syntaxe acceptée
+     */
+    public PacketAnalyzer(int minSize, int maxSize, List<String> suspiciousWords,
+                          List<SignatureRule> signatureRules) {
         this.minSize = minSize;
         this.maxSize = maxSize;
         this.suspiciousWords = new ArrayList<>(
             Objects.requireNonNull(suspiciousWords, "suspiciousWords ne peut pas être null")
         );
-        
-        System.out.println("✓ Analyseur de paquets initialisé (sans signatures)");
+        this.wordMatcher = new AhoCorasickMatcher(this.suspiciousWords);
+        Objects.requireNonNull(signatureRules, "signatureRules ne peut pas être null");
+        this.signatureMatcher = signatureRules.isEmpty() ? null : new SignatureMatcher(signatureRules);
     }
 
     /**
@@ -43,23 +74,193 @@ public class PacketAnalyzer {
      * @return liste de tous les signaux détectés
      */
     public List<DetectionSignal> analyze(Packet packet) {
-        List<DetectionSignal> signals = new ArrayList<>();
+        return analyze(packet, Integer.MAX_VALUE);
+    }
 
-        // 1. Détection par taille
-        SizeSignal sizeSig = SizeSignal.analyze(packet, minSize, maxSize);
-        if (sizeSig != null) signals.add(sizeSig);
+    /**
+     * Analyse un paquet en s'arrêtant dès que le score cumulé atteint stopScore.
+     * En ordre adaptatif, les détecteurs les moins coûteux et les plus
+     * sélectifs passent en premier ; avec stopScore = seuil de blocage, la
+     * décision (DROP) reste la même mais les détecteurs restants sont évités.
+     * Les signaux sont toujours retournés dans l'ordre taille, mots,
+     * heuristique, signatures.
+     *
+     * @param packet paquet à analyser
+     * @param stopScore score à partir duquel l'analyse s'arrête
+     * @return signaux détectés
+     */
+    public List<DetectionSignal> analyze(Packet packet, int stopScore) {
+        return analyze(packet, stopScore, null, 0);
+    }
 
-        // 2. Détection par mots suspects (avec Stream + Lambda)
-        WordPatternSignal wordSig = WordPatternSignal.analyze(packet, suspiciousWords);
-        if (wordSig != null) signals.add(wordSig);
+    /**
+     * Analyse un paquet comme suite de son flux : les mots suspects sont
+     * cherchés en reprenant l'état laissé par le paquet précédent du flux
+     * (mots coupés entre deux paquets trouvés, sans garder les payloads).
+     * L'état est mis à jour même si l'analyse s'arrête avant les mots.
+     * Les autres détecteurs restent propres au paquet.
+     *
+     * @param packet paquet à analyser
+     * @param stopScore score à partir duquel l'analyse s'arrête
+     * @param streamStates états des flux (voir AhoCorasickMatcher.STREAM_START),
+     *        null pour analyser le paquet seul
+     * @param stream index du flux dans streamStates
+     * @return signaux détectés
+     */
+    public List<DetectionSignal> analyze(Packet packet, int stopScore, long[] streamStates, int stream) {
+        if (profiler == null) {
+            List<DetectionSignal> signals = new ArrayList<>();
+
+            // 1. Détection par taille
+            SizeSignal sizeSig = SizeSignal.analyze(packet, minSize, maxSize);
+            if (sizeSig != null) signals.add(sizeSig);
+
+            // 2. Détection par mots suspects (avec Stream + Lambda)
+            WordPatternSignal wordSig = streamStates == null
+                ? WordPatternSignal.analyze(packet, suspiciousWords, wordMatcher)
+                : WordPatternSignal.analyze(packet, suspiciousWords, wordMatcher, streamStates, stream);
+            if (wordSig != null) signals.add(wordSig);
+
+            // 3. Analyse heuristique
+            HeuristicSignal heurSig = HeuristicSignal.analyze(packet);
+            if (heurSig != null) signals.add(heurSig);
+
+            // 4. Signatures (toutes les règles en une passe)
+            if (signatureMatcher != null) {
+                SignatureSignal sigSig = SignatureSignal.analyze(packet, signatureMatcher);
+                if (sigSig != null) signals.add(sigSig);
+            }
 
-        // 3. Analyse heuristique
-        HeuristicSignal heurSig = HeuristicSignal.analyze(packet);
-        if (heurSig != null) signals.add(heurSig);
+            return signals;
+        }
 
+        DetectionSignal[] found = new DetectionSignal[DETECTOR_COUNT];
+        boolean sample = profiler.shouldSample();
+        int score = 0;
+        boolean wordsScanned = false;
+        for (int position = 0; position < DETECTOR_COUNT && score < stopScore; position++) {
+            int detector = profiler.stageAt(position);
+            wordsScanned |= detector == WORD_DETECTOR;
+            long start = sample ? System.nanoTime() : 0;
+            DetectionSignal signal = runDetector(detector, packet, streamStates, stream);
+            if (sample) {
+                profiler.recordCost(detector, System.nanoTime() - start);
+            }
+            profiler.recordEvaluation(detector, signal != null);
+            if (signal != null) {
+                found[detector] = signal;
+                score += signal.getScore();
+            }
+        }
+        profiler.endPacket();
+        // Mots non cherchés (arrêt anticipé) : l'état du flux doit tout de même avancer
+        if (streamStates != null && !wordsScanned) {
+            countWordMatches(packet, streamStates, stream);
+        }
+
+        List<DetectionSignal> signals = new ArrayList<>(DETECTOR_COUNT);
+        for (DetectionSignal signal : found) {
+            if (signal != null) signals.add(signal);
+        }
         return signals;
     }
 
+    private DetectionSignal runDetector(int detector, Packet packet, long[] streamStates, int stream) {
+        return switch (detector) {
+            case SIZE_DETECTOR -> SizeSignal.analyze(packet, minSize, maxSize);
+            case WORD_DETECTOR -> streamStates == null
+                ? WordPatternSignal.analyze(packet, suspiciousWords, wordMatcher)
+                : WordPatternSignal.analyze(packet, suspiciousWords, wordMatcher, streamStates, stream);
+            case HEURISTIC_DETECTOR -> HeuristicSignal.analyze(packet);
+            case SIGNATURE_DETECTOR -> signatureMatcher == null ? null
+                                       : SignatureSignal.analyze(packet, signatureMatcher);
+            default -> throw new IllegalArgumentException("Détecteur inconnu : " + detector);
+        };
+    }
+
+    /**
+     * Nombre de mots suspects se terminant dans le payload, comme suite de
+     * son flux (voir analyze(Packet, int, long[], int)), sans allocation.
+     * Suffit à faire avancer l'état du flux quand le paquet n'est pas
+     * analysé complètement.
+     */
+    public int countWordMatches(Packet packet, long[] streamStates, int stream) {
+        return wordMatcher.countMatches(packet.payloadArray(), packet.getPayloadOffset(),
+                                        packet.getPayloadLength(), streamStates, stream);
+    }
+
+    /**
+     * Active l'ordre adaptatif des détecteurs (0 pour revenir à l'ordre fixe).
+     *
+     * @param reorderInterval nombre de paquets entre deux réordonnancements
+     */
+    public void enableAdaptiveOrdering(int reorderInterval) {
+        this.profiler = reorderInterval > 0 ? new StageProfiler(DETECTOR_COUNT, reorderInterval) : null;
+    }
+
+    public StageProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Nombre de règles de signature actives (0 : sans signatures).
+     */
+    public int getSignatureCount() {
+        return signatureMatcher == null ? 0 : signatureMatcher.getRuleCount();
+    }
+
+    /**
+     * Automate des signatures, null sans règles.
+     */
+    public SignatureMatcher getSignatureMatcher() {
+        return signatureMatcher;
+    }
+
+    /**
+     * Analyse un bloc colonnaire avec tous les détecteurs, en boucles
+     * serrées sur les tableaux (aucun objet créé par paquet).
+     * Mêmes scores que analyze() : taille (1), un point par mot suspect,
+     * heuristique (1 par anomalie), somme des scores des signatures. Mots
+     * et signatures sont cherchés par leurs automates directement dans
+     * l'arène d'octets du bloc.
+     *
+     * @param block bloc de paquets
+     * @param skip paquets déjà traités (ignorés)
+     * @param totalScores reçoit le score total de chaque paquet
+     * @param maxSignalScores reçoit le plus grand score individuel de chaque paquet
+     */
+    public void analyzeBatch(PacketBlock block, boolean[] skip, int[] totalScores, int[] maxSignalScores) {
+        int n = block.size();
+        int[] lengths = block.payloadLengthColumn();
+        int[] offsets = block.payloadOffsetColumn();
+        int[] destPorts = block.destPortColumn();
+        byte[] arena = block.payloadArena();
+
+        for (int i = 0; i < n; i++) {
+            if (skip[i]) {
+                continue;
+            }
+            int size = 20 + lengths[i];
+
+            // 1. Taille
+            int sizeScore = (size < minSize || size > maxSize) ? 1 : 0;
+
+            // 2. Mots suspects
+            int wordScore = wordMatcher.countMatches(arena, offsets[i], lengths[i]);
+
+            // 3. Heuristique
+            int heuristicScore = HeuristicSignal.score(size, destPorts[i]);
+
+            // 4. Signatures
+            int signatureScore = signatureMatcher == null ? 0
+                                 : signatureMatcher.totalScore(arena, offsets[i], lengths[i]);
+
+            totalScores[i] = sizeScore + wordScore + heuristicScore + signatureScore;
+            maxSignalScores[i] = Math.max(Math.max(sizeScore, signatureScore),
+                                          Math.max(wordScore, heuristicScore));
+        }
+    }
+
     /**
      * Calcule le score total de tous les signaux.
      * Utilise Stream + Method Reference.
@@ -0,0 +1,469 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recherche simultanée de toutes les règles de signature en une seule
+ * passe sur les octets du payload, quel que soit le nombre de règles.
+ *
+ * Les expressions sont réunies en un seul automate non déterministe
+ * (SignatureNfa) ; l'automate déterministe équivalent est construit à la
+ * demande, un état à la fois, au fil des octets lus (un état = ensemble
+ * d'états de l'automate non déterministe). Une transition déjà construite
+ * coûte une lecture de tableau. Les octets sont regroupés en classes
+ * (octets jamais distingués par les expressions), ce qui réduit la
+ * largeur des lignes de transitions.
+ *
+ * Mémoire bornée : chaque thread garde au plus maxCachedStates états ;
+ * au-delà, le cache est vidé et la construction reprend depuis l'état
+ * courant (les résultats ne changent pas, seul le coût augmente).
+ *
+ * Immuable, thread-safe (un cache d'états par thread).
+ *
+ * @author ZGARNI
+ */
+public final class SignatureMatcher {
+
+    public static final int DEFAULT_MAX_CACHED_STATES = 4096;
+    private static final int MIN_CACHED_STATES = 4;
+    private static final int UNKNOWN = -1;
+    private static final int[] NO_MATCH = new int[0];
+
+    // Indicateurs d'un état déterministe
+    private static final byte ACCEPT = 1;       // règles reconnues en entrant dans l'état
+    private static final byte ACCEPT_END = 2;   // règles reconnues si la zone finit ici ($)
+    private static final byte DEAD = 4;         // plus aucune règle possible
+
+    private final List<SignatureRule> rules;
+    private final SignatureNfa nfa;
+    private final int maxCachedStates;
+
+    // Classes d'octets : byteClass[b], et un octet représentant chaque classe
+    private final int[] byteClass = new int[256];
+    private final int[] classByte;
+    private final int classCount;
+
+    // Départs : position 0 (toutes les règles), puis à chaque octet (règles non ancrées)
+    private final int[] initialStarts;
+    private final int[] floatingStarts;
+
+    private final LongAdder builtStates = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    // Cache d'états et passe en cours, par thread (voir Cache)
+    private final ThreadLocal<Cache> caches = ThreadLocal.withInitial(Cache::new);
+
+    /**
+     * @param rules règles de signature (l'index d'une règle identifie ses occurrences)
+     */
+    public SignatureMatcher(List<SignatureRule> rules) {
+        this(rules, DEFAULT_MAX_CACHED_STATES);
+    }
+
+    /**
+     * @param rules règles de signature (l'index d'une règle identifie ses occurrences)
+     * @param maxCachedStates nombre maximal d'états déterministes gardés par thread
+     * @throws IllegalArgumentException si une expression est hors de la syntaxe acceptée
+     */
+    public SignatureMatcher(List<SignatureRule> rules, int maxCachedStates) {
+        Objects.requireNonNull(rules, "rules ne peut pas être null");
+        if (maxCachedStates < MIN_CACHED_STATES) {
+            throw new IllegalArgumentException("maxCachedStates doit etre >= " + MIN_CACHED_STATES);
+        }
+        this.rules = List.copyOf(rules);
+        this.maxCachedStates = maxCachedStates;
+        this.nfa = new SignatureNfa(this.rules);
+
+        // Classes d'octets : partition raffinée par chaque ensemble de l'automate
+        int classes = 1;
+        int[] split = new int[256 * 2];
+        for (long[] set : nfa.sets) {
+            Arrays.fill(split, 0, classes * 2, UNKNOWN);
+            int refined = 0;
+            for (int b = 0; b < 256; b++) {
+                int key = byteClass[b] * 2 + (SignatureNfa.contains(set, b) ? 1 : 0);
+                if (split[key] == UNKNOWN) {
+                    split[key] = refined++;
+                }
+                byteClass[b] = split[key];
+            }
+            classes = refined;
+        }
+        this.classCount = classes;
+        this.classByte = new int[classes];
+        for (int b = 255; b >= 0; b--) {
+            classByte[byteClass[b]] = b;
+        }
+
+        this.floatingStarts = nfa.floatingStarts;
+        this.initialStarts = new int[nfa.anchoredStarts.length + nfa.floatingStarts.length];
+        System.arraycopy(nfa.anchoredStarts, 0, initialStarts, 0, nfa.anchoredStarts.length);
+        System.arraycopy(nfa.floatingStarts, 0, initialStarts, nfa.anchoredStarts.length,
+                         nfa.floatingStarts.length);
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Index des règles reconnues dans une zone d'octets (au moins une
+     * occurrence quelque part), chacune une fois, par ordre croissant.
+     * Le parcours s'arrête dès que toutes les règles sont trouvées ou
+     * qu'aucune ne peut plus l'être.
+     *
+     * @return index trouvés (tableau vide partagé si aucun)
+     */
+    public int[] findAll(byte[] data, int offset, int length) {
+        Cache cache = scan(data, offset, length);
+        if (cache.foundCount == 0) {
+            return NO_MATCH;
+        }
+        int[] result = Arrays.copyOf(cache.found, cache.foundCount);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Somme des scores des règles reconnues dans une zone d'octets
+     * (voir findAll), sans allocation.
+     */
+    public int totalScore(byte[] data, int offset, int length) {
+        Cache cache = scan(data, offset, length);
+        int total = 0;
+        for (int i = 0; i < cache.foundCount; i++) {
+            total += rules.get(cache.found[i]).getScore();
+        }
+        return total;
+    }
+
+    private Cache scan(byte[] data, int offset, int length) {
+        Objects.requireNonNull(data, "data ne peut pas être null");
+        Objects.checkFromIndexSize(offset, length, data.length);
+        Cache cache = caches.get();
+        cache.begin();
+        if (rules.isEmpty()) {
+            return cache;
+        }
+        int state = 0;
+        byte initialFlags = cache.flags[state];
+        cache.report(state);
+        if ((initialFlags & DEAD) != 0 && (initialFlags & ACCEPT_END) == 0) {
+            return cache;
+        }
+        // $ : fin de zone, ou juste avant un saut de ligne final (comme java.util.regex)
+        int end = offset + length;
+        int terminator = length >= 2 && data[end - 2] == '\r' && data[end - 1] == '\n' ? 2
+                         : length >= 1 && (data[end - 1] == '\n' || data[end - 1] == '\r') ? 1 : 0;
+        state = run(cache, state, data, offset, end - terminator);
+        if (state == UNKNOWN) {
+            return cache;
+        }
+        if ((cache.flags[state] & ACCEPT_END) != 0) {
+            cache.reportEnd(state);
+        }
+        if (terminator > 0) {
+            state = run(cache, state, data, end - terminator, end);
+            if (state != UNKNOWN && (cache.flags[state] & ACCEPT_END) != 0) {
+                cache.reportEnd(state);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Parcourt data[from .. to - 1] depuis state.
+     *
+     * @return état atteint, UNKNOWN si le parcours peut s'arrêter (toutes
+     *         les règles trouvées, ou plus aucune possible)
+     */
+    private int run(Cache cache, int state, byte[] data, int from, int to) {
+        int ruleCount = rules.size();
+        int[] next = cache.next;
+        byte[] flags = cache.flags;
+        for (int i = from; i < to; i++) {
+            int symbol = byteClass[data[i] & 0xFF];
+            int target = next[state * classCount + symbol];
+            if (target == UNKNOWN) {
+                target = cache.transition(state, symbol);
+                // Tableaux éventuellement agrandis ou vidés
+                next = cache.next;
+                flags = cache.flags;
+            }
+            state = target;
+            byte stateFlags = flags[state];
+            if (stateFlags != 0) {
+                if ((stateFlags & ACCEPT) != 0) {
+                    cache.report(state);
+                    if (cache.foundCount == ruleCount) {
+                        return UNKNOWN;
+                    }
+                }
+                // Plus rien à reconnaître (sauf une règle en $ si la zone finit ici)
+                if ((stateFlags & (DEAD | ACCEPT_END)) == DEAD) {
+                    return UNKNOWN;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * États déterministes et passe en cours d'un thread.
+     *
+     * L'état 0 est toujours l'état initial ; un état vidé du cache est
+     * reconstruit à l'identique si le parcours le rencontre de nouveau.
+     */
+    private final class Cache {
+        // Transitions : next[état * classCount + classe], UNKNOWN si pas encore construite
+        int[] next = new int[0];
+        byte[] flags = new byte[0];
+        int[][] members = new int[0][];     // états non déterministes (BYTES et MATCH), triés
+        int[][] accepts = new int[0][];
+        int[][] endAccepts = new int[0][];
+        int stateCount;
+        final Map<StateKey, Integer> index = new HashMap<>();
+
+        // Fermeture : marques par état non déterministe, pile de parcours
+        final int[] visited = new int[nfa.stateCount];
+        int visit;
+        final int[] stack = new int[nfa.stateCount];
+        final int[] collected = new int[nfa.stateCount];
+
+        // Règles reconnues pendant la passe en cours
+        final int[] marks = new int[rules.size()];
+        int epoch;
+        final int[] found = new int[rules.size()];
+        int foundCount;
+
+        Cache() {
+            intern(closure(NO_MATCH, 0, initialStarts));
+        }
+
+        void begin() {
+            foundCount = 0;
+            if (++epoch == 0) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        void report(int state) {
+            for (int r : accepts[state]) {
+                if (marks[r] != epoch) {
+                    marks[r] = epoch;
+                    found[foundCount++] = r;
+                }
+            }
+        }
+
+        void reportEnd(int state) {
+            for (int r : endAccepts[state]) {
+                if (marks[r] != epoch) {
+                    marks[r] = epoch;
+                    found[foundCount++] = r;
+                }
+            }
+        }
+
+        /**
+         * Construit la transition (état, classe) et retourne l'état atteint.
+         * Si le cache est plein, il est vidé avant d'y placer l'état atteint
+         * (l'état de départ n'y figure alors plus).
+         */
+        int transition(int state, int symbol) {
+            int b = classByte[symbol];
+            int[] sources = members[state];
+            int moved = 0;
+            for (int q : sources) {
+                if (nfa.kind[q] == SignatureNfa.BYTES && SignatureNfa.contains(nfa.sets[nfa.set[q]], b)) {
+                    stack[moved++] = nfa.out[q];
+                }
+            }
+            int[] targets = closure(stack, moved, floatingStarts);
+            StateKey key = new StateKey(targets);
+            Integer known = index.get(key);
+            if (known != null) {
+                next[state * classCount + symbol] = known;
+                return known;
+            }
+            if (stateCount == maxCachedStates) {
+                flush();
+                Integer initial = index.get(key);
+                return initial != null ? initial : intern(key);
+            }
+            int target = intern(key);
+            next[state * classCount + symbol] = target;
+            return target;
+        }
+
+        private void flush() {
+            flushes.increment();
+            int[] initial = members[0];
+            Arrays.fill(next, 0, stateCount * classCount, UNKNOWN);
+            Arrays.fill(members, 0, stateCount, null);
+            Arrays.fill(accepts, 0, stateCount, null);
+            Arrays.fill(endAccepts, 0, stateCount, null);
+            index.clear();
+            stateCount = 0;
+            intern(initial);
+        }
+
+        private int intern(int[] states) {
+            return intern(new StateKey(states));
+        }
+
+        private int intern(StateKey key) {
+            int state = stateCount++;
+            if (state == flags.length) {
+                int capacity = Math.min(Math.max(16, state * 2), maxCachedStates);
+                int used = next.length;
+                next = Arrays.copyOf(next, capacity * classCount);
+                Arrays.fill(next, used, next.length, UNKNOWN);
+                flags = Arrays.copyOf(flags, capacity);
+                members = Arrays.copyOf(members, capacity);
+                accepts = Arrays.copyOf(accepts, capacity);
+                endAccepts = Arrays.copyOf(endAccepts, capacity);
+            }
+            int[] states = key.states;
+            List<Integer> accepted = new ArrayList<>();
+            List<Integer> acceptedAtEnd = new ArrayList<>();
+            boolean consuming = false;
+            for (int q : states) {
+                if (nfa.kind[q] == SignatureNfa.MATCH) {
+                    (nfa.atEnd[q] ? acceptedAtEnd : accepted).add(nfa.rule[q]);
+                } else {
+                    consuming = true;
+                }
+            }
+            members[state] = states;
+            accepts[state] = accepted.stream().mapToInt(Integer::intValue).toArray();
+            endAccepts[state] = acceptedAtEnd.stream().mapToInt(Integer::intValue).toArray();
+            flags[state] = (byte) ((accepted.isEmpty() ? 0 : ACCEPT)
+                                   | (acceptedAtEnd.isEmpty() ? 0 : ACCEPT_END)
+                                   | (consuming ? 0 : DEAD));
+            index.put(key, state);
+            builtStates.increment();
+            return state;
+        }
+
+        /**
+         * Fermeture par transitions vides de seeds[0 .. seedCount - 1] et
+         * de starts : états BYTES et MATCH atteints, triés.
+         */
+        private int[] closure(int[] seeds, int seedCount, int[] starts) {
+            if (++visit == 0) {
+                Arrays.fill(visited, 0);
+                visit = 1;
+            }
+            // Un état est marqué à l'empilement : pile bornée par le nombre d'états
+            int top = 0;
+            for (int i = 0; i < seedCount; i++) {
+                top = push(seeds[i], top);
+            }
+            for (int q : starts) {
+                top = push(q, top);
+            }
+            int count = 0;
+            while (top > 0) {
+                int q = stack[--top];
+                switch (nfa.kind[q]) {
+                    case SignatureNfa.SPLIT:
+                        top = push(nfa.out2[q], top);
+                        top = push(nfa.out[q], top);
+                        break;
+                    case SignatureNfa.EPSILON:
+                        top = push(nfa.out[q], top);
+                        break;
+                    default:
+                        collected[count++] = q;
+                        break;
+                }
+            }
+            int[] result = Arrays.copyOf(collected, count);
+            Arrays.sort(result);
+            return result;
+        }
+
+        private int push(int q, int top) {
+            if (visited[q] != visit) {
+                visited[q] = visit;
+                stack[top++] = q;
+            }
+            return top;
+        }
+    }
+
+    /**
+     * Clé d'un état déterministe : ses états non déterministes, triés.
+     */
+    private static final class StateKey {
+        final int[] states;
+        private final int hash;
+
+        StateKey(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(states, ((StateKey) o).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // ========== CONSULTATION ==========
+
+    public List<SignatureRule> getRules() {
+        return rules;
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    public int getNfaStateCount() {
+        return nfa.stateCount;
+    }
+
+    public int getByteClassCount() {
+        return classCount;
+    }
+
+    public int getMaxCachedStates() {
+        return maxCachedStates;
+    }
+
+    /**
+     * Nombre d'états déterministes construits (tous threads, depuis la création).
+     */
+    public long getBuiltStateCount() {
+        return builtStates.sum();
+    }
+
+    /**
+     * Nombre de fois où un cache d'états plein a été vidé.
+     */
+    public long getCacheFlushCount() {
+        return flushes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SignatureMatcher{rules=" + rules.size() + ", nfaStates=" + nfa.stateCount
+                + ", byteClasses=" + classCount + ", maxCachedStates=" + maxCachedStates + '}';
+    }
+}
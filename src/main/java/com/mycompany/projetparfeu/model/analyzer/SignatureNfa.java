@@ -0,0 +1,610 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Automate non déterministe (construction de Thompson) réunissant les
+ * expressions de toutes les règles de signature, sur l'alphabet des
+ * octets. Chaque règle aboutit à son propre état final.
+ *
+ * Les états sont des int ; leur description tient dans des tableaux
+ * parallèles (nature, successeurs, ensemble d'octets, règle).
+ *
+ * Immuable après construction.
+ *
+ * @author ZGARNI
+ */
+final class SignatureNfa {
+
+    // Nature des états
+    static final byte BYTES = 0;    // consomme un octet de l'ensemble sets[set[s]]
+    static final byte SPLIT = 1;    // epsilon vers out et out2
+    static final byte EPSILON = 2;  // epsilon vers out
+    static final byte MATCH = 3;    // règle rule[s] reconnue (en fin de zone seulement si atEnd)
+
+    private static final int MAX_STATES = 1 << 20;
+    private static final int MAX_REPEAT = 1000;
+
+    final byte[] kind;
+    final int[] out;
+    final int[] out2;
+    final int[] set;
+    final int[] rule;
+    final boolean[] atEnd;
+    final int stateCount;
+    // Ensembles d'octets (4 mots de 64 bits)
+    final long[][] sets;
+    // États de départ : règles ancrées (^, position 0 seulement) et règles flottantes
+    final int[] anchoredStarts;
+    final int[] floatingStarts;
+
+    SignatureNfa(List<SignatureRule> rules) {
+        Builder builder = new Builder();
+        int[] anchored = new int[rules.size()];
+        int[] floating = new int[rules.size()];
+        int anchoredCount = 0;
+        int floatingCount = 0;
+        for (int r = 0; r < rules.size(); r++) {
+            SignatureRule signature = rules.get(r);
+            Parser parser = new Parser(signature.getPattern());
+            Node tree;
+            try {
+                tree = parser.parse();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Signature " + signature.getId() + " : " + e.getMessage(), e);
+            }
+            int[] fragment = builder.compile(tree);
+            int match = builder.add(MATCH);
+            builder.rule[match] = r;
+            builder.atEnd[match] = parser.anchoredEnd;
+            builder.out[fragment[1]] = match;
+            if (parser.anchoredStart) {
+                anchored[anchoredCount++] = fragment[0];
+            } else {
+                floating[floatingCount++] = fragment[0];
+            }
+        }
+        this.stateCount = builder.count;
+        this.kind = Arrays.copyOf(builder.kind, stateCount);
+        this.out = Arrays.copyOf(builder.out, stateCount);
+        this.out2 = Arrays.copyOf(builder.out2, stateCount);
+        this.set = Arrays.copyOf(builder.set, stateCount);
+        this.rule = Arrays.copyOf(builder.rule, stateCount);
+        this.atEnd = Arrays.copyOf(builder.atEnd, stateCount);
+        this.sets = builder.sets.toArray(new long[0][]);
+        this.anchoredStarts = Arrays.copyOf(anchored, anchoredCount);
+        this.floatingStarts = Arrays.copyOf(floating, floatingCount);
+    }
+
+    static boolean contains(long[] bytes, int b) {
+        return (bytes[b >>> 6] & (1L << b)) != 0;
+    }
+
+    // ========== ARBRE SYNTAXIQUE ==========
+
+    /**
+     * Nœud de l'expression : ensemble d'octets, suite, alternative ou répétition.
+     */
+    private static final class Node {
+        static final int BYTES = 0;
+        static final int CONCAT = 1;
+        static final int ALTERNATE = 2;
+        static final int REPEAT = 3;
+
+        final int type;
+        final long[] bytes;
+        final List<Node> children;
+        final int min;
+        final int max;   // -1 : sans limite
+
+        private Node(int type, long[] bytes, List<Node> children, int min, int max) {
+            this.type = type;
+            this.bytes = bytes;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Node bytes(long[] bytes) {
+            return new Node(BYTES, bytes, List.of(), 0, 0);
+        }
+
+        static Node concat(List<Node> children) {
+            return children.size() == 1 ? children.get(0) : new Node(CONCAT, null, children, 0, 0);
+        }
+
+        static Node alternate(List<Node> children) {
+            return children.size() == 1 ? children.get(0) : new Node(ALTERNATE, null, children, 0, 0);
+        }
+
+        static Node repeat(Node child, int min, int max) {
+            return new Node(REPEAT, null, List.of(child), min, max);
+        }
+    }
+
+    // ========== ANALYSE DU MOTIF ==========
+
+    /**
+     * Analyse descendante récursive du motif.
+     */
+    private static final class Parser {
+        private final String pattern;
+        private int position;
+        private boolean ignoreCase;
+        boolean anchoredStart;
+        boolean anchoredEnd;
+
+        Parser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        Node parse() {
+            if (pattern.startsWith("(?i)")) {
+                ignoreCase = true;
+                position = 4;
+            }
+            if (position < pattern.length() && pattern.charAt(position) == '^') {
+                anchoredStart = true;
+                position++;
+            }
+            List<Node> branches = alternatives(true);
+            if (position < pattern.length()) {
+                throw error("parenthèse fermante sans ouvrante");
+            }
+            if ((anchoredStart || anchoredEnd) && branches.size() > 1) {
+                throw new IllegalArgumentException("ancre devant une alternative : écrire ^(?:a|b)$");
+            }
+            return Node.alternate(branches);
+        }
+
+        private List<Node> alternatives(boolean topLevel) {
+            List<Node> branches = new ArrayList<>();
+            branches.add(sequence(topLevel));
+            while (position < pattern.length() && pattern.charAt(position) == '|') {
+                position++;
+                branches.add(sequence(topLevel));
+            }
+            return branches;
+        }
+
+        private Node sequence(boolean topLevel) {
+            List<Node> items = new ArrayList<>();
+            while (position < pattern.length()) {
+                char c = pattern.charAt(position);
+                if (c == '|' || c == ')') {
+                    break;
+                }
+                if (c == '$') {
+                    if (!topLevel || position != pattern.length() - 1) {
+                        throw error("ancre $ acceptée seulement en fin de motif");
+                    }
+                    anchoredEnd = true;
+                    position++;
+                    break;
+                }
+                items.add(quantified(atom()));
+            }
+            return Node.concat(items);
+        }
+
+        private Node atom() {
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case '(': {
+                    if (pattern.startsWith("?:", position)) {
+                        position += 2;
+                    } else if (position < pattern.length() && pattern.charAt(position) == '?') {
+                        throw error("construction (?...) non supportée");
+                    }
+                    Node group = Node.alternate(alternatives(false));
+                    if (position >= pattern.length() || pattern.charAt(position) != ')') {
+                        throw error("parenthèse non fermée");
+                    }
+                    position++;
+                    return group;
+                }
+                case '[':
+                    return Node.bytes(charClass());
+                case '.': {
+                    long[] any = range(0, 255);
+                    any[0] &= ~(1L << '\n' | 1L << '\r');
+                    return Node.bytes(any);
+                }
+                case '\\':
+                    return Node.bytes(withCase(escape()));
+                case '^':
+                    throw error("ancre ^ acceptée seulement en tête de motif");
+                case '*': case '+': case '?': case '{':
+                    throw error("quantificateur sans opérande");
+                default:
+                    return literal(c);
+            }
+        }
+
+        /**
+         * Caractère littéral : un octet (ASCII, casse éventuellement
+         * ignorée) ou la suite de ses octets UTF-8.
+         */
+        private Node literal(char c) {
+            if (c < 128) {
+                return Node.bytes(withCase(single(c)));
+            }
+            String text = String.valueOf(c);
+            if (Character.isHighSurrogate(c) && position < pattern.length()
+                    && Character.isLowSurrogate(pattern.charAt(position))) {
+                text = pattern.substring(position - 1, position + 1);
+                position++;
+            }
+            byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+            List<Node> bytes = new ArrayList<>(encoded.length);
+            for (byte b : encoded) {
+                bytes.add(Node.bytes(single(b & 0xFF)));
+            }
+            return Node.concat(bytes);
+        }
+
+        private Node quantified(Node atom) {
+            if (position >= pattern.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            char c = pattern.charAt(position);
+            if (c == '*') {
+                min = 0; max = -1; position++;
+            } else if (c == '+') {
+                min = 1; max = -1; position++;
+            } else if (c == '?') {
+                min = 0; max = 1; position++;
+            } else if (c == '{') {
+                position++;
+                min = number();
+                max = min;
+                if (position < pattern.length() && pattern.charAt(position) == ',') {
+                    position++;
+                    max = position < pattern.length() && pattern.charAt(position) == '}' ? -1 : number();
+                }
+                if (position >= pattern.length() || pattern.charAt(position) != '}') {
+                    throw error("répétition {n,m} mal formée");
+                }
+                position++;
+                if (max != -1 && max < min) {
+                    throw error("répétition {n,m} avec m < n");
+                }
+                if (Math.max(min, max) > MAX_REPEAT) {
+                    throw error("répétition supérieure à " + MAX_REPEAT);
+                }
+            } else {
+                return atom;
+            }
+            if (position < pattern.length()) {
+                char modifier = pattern.charAt(position);
+                if (modifier == '?') {
+                    // Forme paresseuse : même ensemble de textes reconnus
+                    position++;
+                } else if (modifier == '+') {
+                    throw error("quantificateur possessif non supporté");
+                }
+            }
+            if (position < pattern.length() && "*+?{".indexOf(pattern.charAt(position)) >= 0) {
+                throw error("quantificateurs successifs");
+            }
+            return Node.repeat(atom, min, max);
+        }
+
+        private int number() {
+            int start = position;
+            while (position < pattern.length() && Character.isDigit(pattern.charAt(position))
+                    && position - start < 6) {
+                position++;
+            }
+            if (start == position) {
+                throw error("nombre attendu dans {n,m}");
+            }
+            return Integer.parseInt(pattern.substring(start, position));
+        }
+
+        private long[] charClass() {
+            boolean negated = position < pattern.length() && pattern.charAt(position) == '^';
+            if (negated) {
+                position++;
+            }
+            long[] result = new long[4];
+            boolean first = true;
+            while (true) {
+                if (position >= pattern.length()) {
+                    throw error("classe [...] non fermée");
+                }
+                char c = pattern.charAt(position++);
+                if (c == ']' && !first) {
+                    break;
+                }
+                first = false;
+                if (c == '[') {
+                    throw error("classes imbriquées non supportées");
+                }
+                long[] item;
+                int low;
+                if (c == '\\') {
+                    item = escape();
+                    low = singleValue(item);
+                } else {
+                    item = single(requireAscii(c));
+                    low = c;
+                }
+                // Intervalle a-b (le '-' final est littéral)
+                if (low >= 0 && position + 1 < pattern.length() && pattern.charAt(position) == '-'
+                        && pattern.charAt(position + 1) != ']') {
+                    position++;
+                    char end = pattern.charAt(position++);
+                    int high;
+                    if (end == '\\') {
+                        high = singleValue(escape());
+                        if (high < 0) {
+                            throw error("borne d'intervalle invalide");
+                        }
+                    } else {
+                        high = requireAscii(end);
+                    }
+                    if (high < low) {
+                        throw error("intervalle inversé");
+                    }
+                    item = range(low, high);
+                }
+                or(result, withCase(item));
+            }
+            if (negated) {
+                for (int i = 0; i < 4; i++) {
+                    result[i] = ~result[i];
+                }
+            }
+            return result;
+        }
+
+        private int requireAscii(char c) {
+            if (c >= 128) {
+                throw error("classe [...] limitée aux caractères ASCII");
+            }
+            return c;
+        }
+
+        /**
+         * Séquence d'échappement (après '\').
+         */
+        private long[] escape() {
+            if (position >= pattern.length()) {
+                throw error("échappement en fin de motif");
+            }
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case 'd': return range('0', '9');
+                case 'D': return not(range('0', '9'));
+                case 'w': return word();
+                case 'W': return not(word());
+                case 's': return space();
+                case 'S': return not(space());
+                case 't': return single('\t');
+                case 'n': return single('\n');
+                case 'r': return single('\r');
+                case 'f': return single('\f');
+                case 'x': {
+                    if (position + 2 > pattern.length()) {
+                        throw error("\\xHH attendu");
+                    }
+                    try {
+                        int value = Integer.parseInt(pattern.substring(position, position + 2), 16);
+                        position += 2;
+                        return single(value);
+                    } catch (NumberFormatException e) {
+                        throw error("\\xHH attendu");
+                    }
+                }
+                default:
+                    if (Character.isLetterOrDigit(c) || c >= 128) {
+                        throw error("échappement \\" + c + " non supporté");
+                    }
+                    return single(c);
+            }
+        }
+
+        private long[] withCase(long[] bytes) {
+            if (ignoreCase) {
+                for (int c = 'a'; c <= 'z'; c++) {
+                    if (contains(bytes, c) || contains(bytes, c - 32)) {
+                        bytes[c >>> 6] |= 1L << c;
+                        bytes[(c - 32) >>> 6] |= 1L << (c - 32);
+                    }
+                }
+            }
+            return bytes;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " (position " + position + " dans \"" + pattern + "\")");
+        }
+    }
+
+    // ========== ENSEMBLES D'OCTETS ==========
+
+    private static long[] single(int b) {
+        long[] bytes = new long[4];
+        bytes[b >>> 6] |= 1L << b;
+        return bytes;
+    }
+
+    private static long[] range(int low, int high) {
+        long[] bytes = new long[4];
+        for (int b = low; b <= high; b++) {
+            bytes[b >>> 6] |= 1L << b;
+        }
+        return bytes;
+    }
+
+    private static long[] word() {
+        long[] bytes = range('a', 'z');
+        or(bytes, range('A', 'Z'));
+        or(bytes, range('0', '9'));
+        or(bytes, single('_'));
+        return bytes;
+    }
+
+    private static long[] space() {
+        long[] bytes = range('\t', '\r');
+        or(bytes, single(' '));
+        return bytes;
+    }
+
+    private static long[] not(long[] bytes) {
+        for (int i = 0; i < 4; i++) {
+            bytes[i] = ~bytes[i];
+        }
+        return bytes;
+    }
+
+    private static void or(long[] target, long[] bytes) {
+        for (int i = 0; i < 4; i++) {
+            target[i] |= bytes[i];
+        }
+    }
+
+    /**
+     * Octet unique d'un ensemble, -1 s'il en contient plusieurs.
+     */
+    private static int singleValue(long[] bytes) {
+        int found = -1;
+        for (int i = 0; i < 4; i++) {
+            if (bytes[i] != 0) {
+                if (found >= 0 || Long.bitCount(bytes[i]) != 1) {
+                    return -1;
+                }
+                found = i * 64 + Long.numberOfTrailingZeros(bytes[i]);
+            }
+        }
+        return found;
+    }
+
+    // ========== CONSTRUCTION DE THOMPSON ==========
+
+    /**
+     * Tableaux extensibles de l'automate ; un fragment est un couple
+     * (entrée, sortie), la sortie étant un état EPSILON à raccorder.
+     */
+    private static final class Builder {
+        byte[] kind = new byte[64];
+        int[] out = new int[64];
+        int[] out2 = new int[64];
+        int[] set = new int[64];
+        int[] rule = new int[64];
+        boolean[] atEnd = new boolean[64];
+        int count;
+        final List<long[]> sets = new ArrayList<>();
+
+        int add(byte type) {
+            if (count == MAX_STATES) {
+                throw new IllegalArgumentException("Signatures trop volumineuses (plus de " + MAX_STATES + " états)");
+            }
+            if (count == kind.length) {
+                int capacity = count * 2;
+                kind = Arrays.copyOf(kind, capacity);
+                out = Arrays.copyOf(out, capacity);
+                out2 = Arrays.copyOf(out2, capacity);
+                set = Arrays.copyOf(set, capacity);
+                rule = Arrays.copyOf(rule, capacity);
+                atEnd = Arrays.copyOf(atEnd, capacity);
+            }
+            kind[count] = type;
+            out[count] = -1;
+            out2[count] = -1;
+            set[count] = -1;
+            rule[count] = -1;
+            return count++;
+        }
+
+        int[] compile(Node node) {
+            switch (node.type) {
+                case Node.BYTES: {
+                    int state = add(BYTES);
+                    set[state] = sets.size();
+                    sets.add(node.bytes);
+                    int exit = add(EPSILON);
+                    out[state] = exit;
+                    return new int[] {state, exit};
+                }
+                case Node.CONCAT: {
+                    if (node.children.isEmpty()) {
+                        int exit = add(EPSILON);
+                        return new int[] {exit, exit};
+                    }
+                    int[] first = compile(node.children.get(0));
+                    int exit = first[1];
+                    for (int i = 1; i < node.children.size(); i++) {
+                        int[] next = compile(node.children.get(i));
+                        out[exit] = next[0];
+                        exit = next[1];
+                    }
+                    return new int[] {first[0], exit};
+                }
+                case Node.ALTERNATE: {
+                    int exit = add(EPSILON);
+                    int entry = -1;
+                    for (int i = node.children.size() - 1; i >= 0; i--) {
+                        int[] branch = compile(node.children.get(i));
+                        out[branch[1]] = exit;
+                        if (entry < 0) {
+                            entry = branch[0];
+                        } else {
+                            int split = add(SPLIT);
+                            out[split] = branch[0];
+                            out2[split] = entry;
+                            entry = split;
+                        }
+                    }
+                    return new int[] {entry, exit};
+                }
+                default:
+                    return repeat(node.children.get(0), node.min, node.max);
+            }
+        }
+
+        private int[] repeat(Node child, int min, int max) {
+            int entry = add(EPSILON);
+            int exit = entry;
+            // min exemplaires obligatoires
+            for (int i = 0; i < min; i++) {
+                int[] copy = compile(child);
+                out[exit] = copy[0];
+                exit = copy[1];
+            }
+            if (max == -1) {
+                // Boucle : split -> (exemplaire -> split) | sortie
+                int split = add(SPLIT);
+                int[] copy = compile(child);
+                int end = add(EPSILON);
+                out[exit] = split;
+                out[split] = copy[0];
+                out2[split] = end;
+                out[copy[1]] = split;
+                return new int[] {entry, end};
+            }
+            // max - min exemplaires facultatifs
+            for (int i = min; i < max; i++) {
+                int split = add(SPLIT);
+                int[] copy = compile(child);
+                int end = add(EPSILON);
+                out[exit] = split;
+                out[split] = copy[0];
+                out2[split] = end;
+                out[copy[1]] = end;
+                exit = end;
+            }
+            return new int[] {entry, exit};
+        }
+    }
+}
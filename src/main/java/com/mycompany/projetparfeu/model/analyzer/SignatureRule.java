@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.util.Objects;
+
+/**
+ * Règle de signature : expression régulière recherchée dans le payload,
+ * identifiée par un nom court (ex : "SQLI-001") et associée à un score.
+ *
+ * Syntaxe acceptée (sous-ensemble de java.util.regex, sur les octets) :
+ * littéraux et échappements (\d \w \s \D \W \S \t \n \r \f \xHH), point
+ * (un octet, sauf \n et \r), classes ASCII [a-z] et [^...], groupes (...)
+ * et (?:...), alternative |, quantificateurs * + ? {n} {n,} {n,m} (les
+ * formes paresseuses *? +? ?? sont acceptées, sans effet sur la
+ * détection), ancres ^ en tête et $ en fin de motif (fin de zone ou saut
+ * de ligne final), option (?i) en tête (casse ASCII ignorée). Les
+ * références arrière, assertions et quantificateurs possessifs ne sont
+ * pas acceptés.
+ *
+ * Immuable. Le motif est vérifié à la compilation (SignatureMatcher).
+ *
+ * @author ZGARNI
+ */
+public final class SignatureRule {
+
+    private final String id;
+    private final String pattern;
+    private final int score;
+
+    /**
+     * @param id identifiant (lettres, chiffres, '_', '-', '.')
+     * @param pattern expression régulière
+     * @param score score du signal (1 à 10)
+     */
+    public SignatureRule(String id, String pattern, int score) {
+        this.id = Objects.requireNonNull(id, "id ne peut pas être null");
+        this.pattern = Objects.requireNonNull(pattern, "pattern ne peut pas être null");
+        if (id.isEmpty() || !id.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+            throw new IllegalArgumentException("Identifiant de signature invalide : " + id);
+        }
+        if (score < 1 || score > 10) {
+            throw new IllegalArgumentException("score doit etre entre 1 et 10");
+        }
+        this.score = score;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SignatureRule)) return false;
+        SignatureRule rule = (SignatureRule) o;
+        return score == rule.score && id.equals(rule.id) && pattern.equals(rule.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, pattern, score);
+    }
+
+    @Override
+    public String toString() {
+        return id + " /" + pattern + "/ (score " + score + ")";
+    }
+}
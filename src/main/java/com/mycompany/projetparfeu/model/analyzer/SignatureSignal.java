@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import com.mycompany.projetparfeu.model.generator.Packet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Signal de détection basé sur les règles de signature (expressions
+ * régulières) reconnues dans le payload.
+ * @author ZGARNI
+ */
+public final class SignatureSignal implements DetectionSignal {
+    private final List<SignatureRule> matchedRules;
+    private final int score;
+
+    // Constructeur privé
+    private SignatureSignal(List<SignatureRule> matchedRules, int score) {
+        this.matchedRules = Collections.unmodifiableList(new ArrayList<>(matchedRules));
+        this.score = score;
+    }
+
+    /**
+     * Analyse le payload avec toutes les règles de signature.
+     * Une seule passe sur les octets du payload, quel que soit le nombre
+     * de règles ; les règles reconnues sont rapportées dans l'ordre du
+     * matcher et leurs scores additionnés.
+     * @param packet paquet à analyser
+     * @param matcher automate construit sur les règles
+     * @return SignatureSignal si au moins une règle est reconnue, null sinon
+     */
+    public static SignatureSignal analyze(Packet packet, SignatureMatcher matcher) {
+        int[] matches = matcher.findAll(packet.payloadArray(), packet.getPayloadOffset(),
+                                        packet.getPayloadLength());
+        if (matches.length == 0) {
+            return null;
+        }
+        List<SignatureRule> matched = new ArrayList<>(matches.length);
+        int total = 0;
+        for (int index : matches) {
+            SignatureRule rule = matcher.getRules().get(index);
+            matched.add(rule);
+            total += rule.getScore();
+        }
+        return new SignatureSignal(matched, total);
+    }
+
+    public List<SignatureRule> getMatchedRules() {
+        return matchedRules;
+    }
+
+    /**
+     * Identifiants des règles reconnues.
+     */
+    public List<String> getMatchedIds() {
+        List<String> ids = new ArrayList<>(matchedRules.size());
+        for (SignatureRule rule : matchedRules) {
+            ids.add(rule.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Signatures détectées: " + String.join(", ", getMatchedIds());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.List;
+
+/**
+ * Recherche vectorielle des positions candidates : un vecteur d'octets
+ * (16 à 64 selon le processeur) est comparé d'un coup aux premiers et
+ * seconds octets possibles des mots, puis chaque position retenue est
+ * vérifiée dans la table exacte des paires (AnchorScanner.accept).
+ *
+ * Les comparaisons portent sur les octets passés en minuscules ASCII par
+ * un simple OU avec 0x20 (quelques faux candidats, écartés par la
+ * vérification exacte).
+ *
+ * Demande le module jdk.incubator.vector (--add-modules) : chargée
+ * uniquement par réflexion depuis AnchorScanner.create().
+ *
+ * @author ZGARNI
+ */
+final class VectorAnchorScanner extends AnchorScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    // Au-delà, les comparaisons coûtent plus que le parcours de l'automate
+    private static final int MAX_COMPARES = 40;
+    private static final byte CASE_BIT = 0x20;
+
+    private final byte[] firsts;         // premiers octets (contraints), repliés
+    private final byte[] seconds;        // seconds octets acceptés, repliés
+    private final boolean secondHigh;    // tout octet non ASCII accepté en second
+    private final byte[] unconstrained;  // premiers octets suffisant seuls (bruts)
+    private final boolean firstHigh;     // tout octet non ASCII suffit seul
+
+    VectorAnchorScanner(List<String> patterns) {
+        super(patterns);
+        boolean[] first = new boolean[256];
+        boolean[] second = new boolean[256];
+        boolean[] alone = new boolean[256];
+        int highSeconds = 0;
+        int highAlone = 0;
+        for (int b1 = 0; b1 < 256; b1++) {
+            if (kinds[b1] == UNCONSTRAINED) {
+                alone[b1] = true;
+                highAlone += b1 >= 0x80 ? 1 : 0;
+            } else if (kinds[b1] == CONSTRAINED) {
+                first[b1 | CASE_BIT] = true;
+                for (int b2 = 0; b2 < 256; b2++) {
+                    if (acceptsPair(b1, b2) && !second[b2 | CASE_BIT]) {
+                        second[b2 | CASE_BIT] = true;
+                        highSeconds += b2 >= 0x80 ? 1 : 0;
+                    }
+                }
+            }
+        }
+        this.firstHigh = highAlone == 0x80;
+        this.secondHigh = highSeconds > 8;
+        this.firsts = members(first, 0, 256);
+        this.seconds = secondHigh ? members(second, 0, 0x80) : members(second, 0, 256);
+        this.unconstrained = firstHigh ? members(alone, 0, 0x80) : members(alone, 0, 256);
+    }
+
+    private static byte[] members(boolean[] set, int from, int to) {
+        int count = 0;
+        for (int b = from; b < to; b++) {
+            count += set[b] ? 1 : 0;
+        }
+        byte[] result = new byte[count];
+        for (int b = from, k = 0; b < to; b++) {
+            if (set[b]) {
+                result[k++] = (byte) b;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    boolean isUseful() {
+        return firsts.length + seconds.length + unconstrained.length <= MAX_COMPARES;
+    }
+
+    @Override
+    int next(byte[] data, int from, int end) {
+        int lanes = SPECIES.length();
+        int i = from;
+        // i + lanes < end : le vecteur décalé d'un octet reste dans la zone
+        for (; i + lanes < end; i += lanes) {
+            ByteVector bytes = ByteVector.fromArray(SPECIES, data, i);
+            VectorMask<Byte> candidates = candidates(bytes, data, i);
+            if (candidates.anyTrue()) {
+                long bits = candidates.toLong();
+                while (bits != 0) {
+                    int position = i + Long.numberOfTrailingZeros(bits);
+                    if (accept(data, position, end)) {
+                        return position;
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return scalarNext(data, i, end);
+    }
+
+    private VectorMask<Byte> candidates(ByteVector bytes, byte[] data, int offset) {
+        VectorMask<Byte> result = firstHigh
+            ? bytes.compare(VectorOperators.LT, (byte) 0)
+            : SPECIES.maskAll(false);
+        for (byte b : unconstrained) {
+            result = result.or(bytes.eq(b));
+        }
+        if (firsts.length == 0) {
+            return result;
+        }
+        ByteVector folded = bytes.or(CASE_BIT);
+        VectorMask<Byte> head = SPECIES.maskAll(false);
+        for (byte b : firsts) {
+            head = head.or(folded.eq(b));
+        }
+        if (!head.anyTrue()) {
+            return result;
+        }
+        ByteVector following = ByteVector.fromArray(SPECIES, data, offset + 1).or(CASE_BIT);
+        VectorMask<Byte> tail = secondHigh
+            ? following.compare(VectorOperators.LT, (byte) 0)
+            : SPECIES.maskAll(false);
+        for (byte b : seconds) {
+            tail = tail.or(following.eq(b));
+        }
+        return result.or(head.and(tail));
+    }
+}
@@ -25,24 +25,48 @@ public final class WordPatternSignal implements DetectionSignal {
 
     /**
      * Analyse le payload pour détecter des mots suspects.
+     * Une seule passe sur les octets du payload, quel que soit le nombre
+     * de mots, sans construire de String ; les mots trouvés sont rapportés
+     * dans l'ordre de la liste.
      * @param packet paquet à analyser
      * @param suspiciousWords liste des mots à rechercher
+     * @param matcher automate construit sur suspiciousWords (même ordre)
      * @return WordPatternSignal si mots trouvés, null sinon
      */
-    public static WordPatternSignal analyze(Packet packet, List<String> suspiciousWords) {
-        List<String> found = new ArrayList<>();
-        String payload = packet.getPayload().toLowerCase();
-        
-        for (String word : suspiciousWords) {
-            if (payload.contains(word.toLowerCase())) {
-                found.add(word);
-            }
+    public static WordPatternSignal analyze(Packet packet, List<String> suspiciousWords,
+                                            AhoCorasickMatcher matcher) {
+        int[] matches = matcher.findAll(packet.payloadArray(), packet.getPayloadOffset(),
+                                        packet.getPayloadLength());
+        return create(matches, suspiciousWords);
+    }
+
+    /**
+     * Analyse le payload comme suite du flux auquel appartient le paquet :
+     * le parcours reprend l'état laissé par le paquet précédent du flux,
+     * et les mots coupés entre deux paquets sont trouvés.
+     * @param packet paquet à analyser
+     * @param suspiciousWords liste des mots à rechercher
+     * @param matcher automate construit sur suspiciousWords (même ordre)
+     * @param streamStates états des flux (voir AhoCorasickMatcher.STREAM_START)
+     * @param stream index du flux, dont l'état est mis à jour
+     * @return WordPatternSignal si des mots se terminent dans ce paquet, null sinon
+     */
+    public static WordPatternSignal analyze(Packet packet, List<String> suspiciousWords,
+                                            AhoCorasickMatcher matcher, long[] streamStates, int stream) {
+        int[] matches = matcher.findAll(packet.payloadArray(), packet.getPayloadOffset(),
+                                        packet.getPayloadLength(), streamStates, stream);
+        return create(matches, suspiciousWords);
+    }
+
+    private static WordPatternSignal create(int[] matches, List<String> suspiciousWords) {
+        if (matches.length == 0) {
+            return null;
         }
-        
-        if (!found.isEmpty()) {
-            return new WordPatternSignal(found, found.size());
+        List<String> found = new ArrayList<>(matches.length);
+        for (int index : matches) {
+            found.add(suspiciousWords.get(index));
         }
-        return null;
+        return new WordPatternSignal(found, found.size());
     }
 
     public List<String> getFoundWords() {
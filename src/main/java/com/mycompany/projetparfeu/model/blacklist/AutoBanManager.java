@@ -0,0 +1,467 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.decision.Action;
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Bannissement automatique et temporaire des sources agressives.
+ *
+ * Chaque décision DROP ou ALERT issue de l'analyse compte comme une
+ * infraction pour l'IP source. Une source qui cumule threshold infractions
+ * dans une fenêtre de windowMillis est bannie pour banMillis ; ses paquets
+ * sont alors rejetés comme s'ils étaient blacklistés. Les rejets par
+ * filtre ou par blacklist ne comptent pas.
+ *
+ * Les fenêtres de comptage et les bannissements expirent sur une roue
+ * temporelle hiérarchique (TimingWheel) : insertion et expiration en O(1),
+ * sans parcours des sources suivies. Les sources sont rangées dans une
+ * table à adressage ouvert sur des clés de 128 bits (IpAddress), dans des
+ * tableaux primitifs. Le nombre de sources suivies est borné
+ * (maxTrackedSources) : au-delà, les nouvelles infractions sont ignorées
+ * et comptées.
+ *
+ * Thread-safe. Les consultations (isBanned), faites pour chaque paquet,
+ * ne prennent pas de verrou : elles lisent une table des bannissements
+ * (BanTable) publiée par le gestionnaire. Seules les écritures
+ * (infractions, bannissements manuels, expiration) prennent le verrou
+ * interne ; une source déjà bannie n'y entre plus. Un même gestionnaire
+ * peut ainsi être partagé par les étapes de StagedPipeline et par les
+ * shards de ShardedFirewallEngine.
+ *
+ * @author ZGARNI
+ */
+public final class AutoBanManager {
+
+    private static final int EMPTY = 0;   // case vide de la table (sinon : source + 1)
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int threshold;
+    private final long windowTicks;
+    private final long banTicks;
+    private final long tickMillis;
+    private final int maxTrackedSources;
+    private final LongSupplier clock;
+
+    private final TimingWheel wheel;
+    private final IntConsumer expiry = this::onExpire;
+
+    // Sources suivies (index = valeur transmise à la roue)
+    private long[] keyHigh;
+    private long[] keyLow;
+    private int[] offenses;
+    private boolean[] banned;
+    private int[] timers;
+    private int[] freeNext;
+    private int freeHead = NONE;
+    private int allocated;
+    private int trackedCount;
+
+    // Table à adressage ouvert : index de source + 1
+    private int[] table;
+    private int mask;
+
+    // Bannissements en cours, lus sans verrou ; remplacée quand elle est pleine
+    private volatile BanTable bans = new BanTable(0);
+
+    // Métriques
+    private volatile int activeBans;   // lu sans verrou par isBanned
+    private long totalBans;
+    private long expiredBans;
+    private long ignoredOffenses;
+
+    /**
+     * Fenêtre et durée au tick d'une seconde, horloge système.
+     *
+     * @param threshold nombre d'infractions déclenchant un bannissement
+     * @param windowMillis durée de la fenêtre de comptage
+     * @param banMillis durée d'un bannissement
+     */
+    public AutoBanManager(int threshold, long windowMillis, long banMillis) {
+        this(threshold, windowMillis, banMillis, 1000, 1_000_000, System::currentTimeMillis);
+    }
+
+    /**
+     * @param threshold nombre d'infractions déclenchant un bannissement
+     * @param windowMillis durée de la fenêtre de comptage
+     * @param banMillis durée d'un bannissement
+     * @param tickMillis résolution des échéances
+     * @param maxTrackedSources nombre maximal de sources suivies
+     * @param clock horloge en millisecondes
+     */
+    public AutoBanManager(int threshold, long windowMillis, long banMillis, long tickMillis,
+                          int maxTrackedSources, LongSupplier clock) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold doit etre >= 1");
+        }
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis doit etre >= 1");
+        }
+        if (windowMillis < tickMillis || banMillis < tickMillis) {
+            throw new IllegalArgumentException("windowMillis et banMillis doivent etre >= tickMillis");
+        }
+        if (maxTrackedSources < 1) {
+            throw new IllegalArgumentException("maxTrackedSources doit etre >= 1");
+        }
+        this.threshold = threshold;
+        this.tickMillis = tickMillis;
+        this.windowTicks = windowMillis / tickMillis;
+        this.banTicks = banMillis / tickMillis;
+        this.maxTrackedSources = maxTrackedSources;
+        this.clock = Objects.requireNonNull(clock, "clock ne peut pas être null");
+
+        int capacity = Math.min(INITIAL_CAPACITY, maxTrackedSources);
+        this.wheel = new TimingWheel(currentTick(), capacity);
+        keyHigh = new long[capacity];
+        keyLow = new long[capacity];
+        offenses = new int[capacity];
+        banned = new boolean[capacity];
+        timers = new int[capacity];
+        freeNext = new int[capacity];
+        table = new int[tableCapacityFor(capacity)];
+        mask = table.length - 1;
+    }
+
+    // ========== INFRACTIONS ==========
+
+    /**
+     * Prend en compte une décision : DROP et ALERT comptent comme infractions.
+     *
+     * @return true si la source vient d'être bannie
+     */
+    public boolean recordVerdict(Packet packet, Action action) {
+        if (action != Actions.DROP && action != Actions.ALERT) {
+            return false;
+        }
+        long ipv4 = packet.getSrcIPv4();
+        if (ipv4 != Ipv4.INVALID) {
+            return recordOffense(0, IpAddress.mappedLow((int) ipv4));
+        }
+        IpAddress address = packet.getSrcAddress();
+        return address != null && recordOffense(address.getHigh(), address.getLow());
+    }
+
+    /**
+     * Infraction d'une source IPv4 (traitement par lots).
+     *
+     * @return true si la source vient d'être bannie
+     */
+    public boolean recordOffenseIpv4(int address) {
+        return recordOffense(0, IpAddress.mappedLow(address));
+    }
+
+    private boolean recordOffense(long high, long low) {
+        // Source déjà bannie : pas de verrou
+        if (activeBans != 0 && isBanned(high, low)) {
+            return false;
+        }
+        return recordOffenseLocked(high, low);
+    }
+
+    private synchronized boolean recordOffenseLocked(long high, long low) {
+        long now = advance();
+        int source = find(high, low);
+        if (source == NONE) {
+            if (trackedCount == maxTrackedSources) {
+                ignoredOffenses++;
+                return false;
+            }
+            source = track(high, low);
+            timers[source] = wheel.schedule(now + windowTicks, source);
+        } else if (banned[source]) {
+            return false;
+        }
+        if (++offenses[source] < threshold) {
+            return false;
+        }
+        // Seuil atteint : la fin de fenêtre est remplacée par la fin du bannissement
+        wheel.cancel(timers[source]);
+        startBan(source, now + banTicks);
+        return true;
+    }
+
+    private void startBan(int source, long untilTick) {
+        banned[source] = true;
+        timers[source] = wheel.schedule(untilTick, source);
+        if (!bans.put(keyHigh[source], keyLow[source], untilTick)) {
+            BanTable grown = bans.copyActive(wheel.getCurrentTick(), activeBans + 1);
+            grown.put(keyHigh[source], keyLow[source], untilTick);
+            bans = grown;
+        }
+        activeBans++;
+        totalBans++;
+    }
+
+    // ========== BANNISSEMENTS ==========
+
+    /**
+     * Vérifie si la source du paquet est bannie (sans verrou).
+     */
+    public boolean isBanned(Packet packet) {
+        if (activeBans == 0) {
+            return false;
+        }
+        long ipv4 = packet.getSrcIPv4();
+        if (ipv4 != Ipv4.INVALID) {
+            return isBanned(0, IpAddress.mappedLow((int) ipv4));
+        }
+        IpAddress address = packet.getSrcAddress();
+        return address != null && isBanned(address.getHigh(), address.getLow());
+    }
+
+    /**
+     * Vérifie si une source IPv4 est bannie (traitement par lots).
+     */
+    public boolean isBannedIpv4(int address) {
+        return activeBans != 0 && isBanned(0, IpAddress.mappedLow(address));
+    }
+
+    public boolean isBanned(IpAddress address) {
+        return isBanned(address.getHigh(), address.getLow());
+    }
+
+    private boolean isBanned(long high, long low) {
+        return bans.isBanned(high, low, currentTick());
+    }
+
+    /**
+     * Bannit une source manuellement (remplace un bannissement en cours).
+     *
+     * @param durationMillis durée du bannissement
+     * @return false si la table des sources est pleine
+     */
+    public synchronized boolean ban(IpAddress address, long durationMillis) {
+        Objects.requireNonNull(address, "address ne peut pas être null");
+        if (durationMillis < 1) {
+            throw new IllegalArgumentException("durationMillis doit etre >= 1");
+        }
+        long now = advance();
+        int source = find(address.getHigh(), address.getLow());
+        if (source == NONE) {
+            if (trackedCount == maxTrackedSources) {
+                return false;
+            }
+            source = track(address.getHigh(), address.getLow());
+        } else {
+            wheel.cancel(timers[source]);
+            if (banned[source]) {
+                activeBans--;
+                totalBans--;
+            }
+        }
+        startBan(source, now + Math.max(durationMillis / tickMillis, 1));
+        return true;
+    }
+
+    /**
+     * Lève un bannissement (et oublie les infractions de la source).
+     *
+     * @return true si la source était bannie
+     */
+    public synchronized boolean unban(IpAddress address) {
+        Objects.requireNonNull(address, "address ne peut pas être null");
+        int source = find(address.getHigh(), address.getLow());
+        if (source == NONE) {
+            return false;
+        }
+        wheel.cancel(timers[source]);
+        boolean wasBanned = banned[source];
+        if (wasBanned) {
+            activeBans--;
+            bans.remove(address.getHigh(), address.getLow());
+        }
+        untrack(source);
+        return wasBanned;
+    }
+
+    /**
+     * Fait expirer les fenêtres et bannissements échus (appelé aussi à
+     * chaque consultation).
+     */
+    public synchronized void expire() {
+        advance();
+    }
+
+    private long currentTick() {
+        return Math.max(clock.getAsLong(), 0) / tickMillis;
+    }
+
+    /**
+     * Avance la roue jusqu'au tick courant.
+     */
+    private long advance() {
+        long now = currentTick();
+        if (now > wheel.getCurrentTick()) {
+            wheel.advance(now, expiry);
+        }
+        return now;
+    }
+
+    /**
+     * Fin de fenêtre (infractions oubliées) ou fin de bannissement.
+     */
+    private void onExpire(int source) {
+        if (banned[source]) {
+            activeBans--;
+            expiredBans++;
+            bans.remove(keyHigh[source], keyLow[source]);
+        }
+        untrack(source);
+    }
+
+    // ========== TABLE DES SOURCES ==========
+
+    private int find(long high, long low) {
+        int slot = LongPairHashSet.hash(high, low) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return NONE;
+            }
+            int source = entry - 1;
+            if (keyHigh[source] == high && keyLow[source] == low) {
+                return source;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int track(long high, long low) {
+        int source;
+        if (freeHead != NONE) {
+            source = freeHead;
+            freeHead = freeNext[source];
+        } else {
+            if (allocated == keyHigh.length) {
+                grow();
+            }
+            source = allocated++;
+        }
+        keyHigh[source] = high;
+        keyLow[source] = low;
+        offenses[source] = 0;
+        banned[source] = false;
+        timers[source] = TimingWheel.NO_TIMER;
+        insertIntoTable(source);
+        trackedCount++;
+        return source;
+    }
+
+    private void untrack(int source) {
+        removeFromTable(source);
+        freeNext[source] = freeHead;
+        freeHead = source;
+        trackedCount--;
+    }
+
+    private void insertIntoTable(int source) {
+        int slot = LongPairHashSet.hash(keyHigh[source], keyLow[source]) & mask;
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = source + 1;
+    }
+
+    private void removeFromTable(int source) {
+        int slot = LongPairHashSet.hash(keyHigh[source], keyLow[source]) & mask;
+        while (table[slot] != source + 1) {
+            slot = (slot + 1) & mask;
+        }
+        // Décalage arrière (voir IntHashSet)
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (table[next] != EMPTY) {
+            int other = table[next] - 1;
+            int home = LongPairHashSet.hash(keyHigh[other], keyLow[other]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = EMPTY;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min((long) keyHigh.length * 2, maxTrackedSources);
+        keyHigh = Arrays.copyOf(keyHigh, capacity);
+        keyLow = Arrays.copyOf(keyLow, capacity);
+        offenses = Arrays.copyOf(offenses, capacity);
+        banned = Arrays.copyOf(banned, capacity);
+        timers = Arrays.copyOf(timers, capacity);
+        freeNext = Arrays.copyOf(freeNext, capacity);
+
+        int tableCapacity = tableCapacityFor(capacity);
+        if (tableCapacity > table.length) {
+            int[] old = table;
+            table = new int[tableCapacity];
+            mask = tableCapacity - 1;
+            for (int entry : old) {
+                if (entry != EMPTY) {
+                    insertIntoTable(entry - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Table remplie au plus à moitié.
+     */
+    private static int tableCapacityFor(int sources) {
+        return Integer.highestOneBit(Math.max(sources, 8) * 2 - 1) << 1;
+    }
+
+    // ========== CONSULTATION ==========
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public synchronized int getActiveBanCount() {
+        return activeBans;
+    }
+
+    public synchronized int getTrackedSourceCount() {
+        return trackedCount;
+    }
+
+    public synchronized long getTotalBans() {
+        return totalBans;
+    }
+
+    public synchronized long getExpiredBans() {
+        return expiredBans;
+    }
+
+    /**
+     * Infractions ignorées faute de place dans la table des sources.
+     */
+    public synchronized long getIgnoredOffenses() {
+        return ignoredOffenses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AutoBanManager{" +
+                "threshold=" + threshold +
+                ", windowMillis=" + windowTicks * tickMillis +
+                ", banMillis=" + banTicks * tickMillis +
+                ", tracked=" + trackedCount +
+                ", activeBans=" + activeBans +
+                ", totalBans=" + totalBans +
+                ", expiredBans=" + expiredBans +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Table des bannissements d'AutoBanManager, lue sans verrou.
+ *
+ * Adressage ouvert sur des clés de 128 bits ; chaque case contient le mot
+ * haut, le mot bas et le tick de fin du bannissement. Un seul thread écrit
+ * à la fois (sous le verrou du gestionnaire), les lecteurs sont quelconques.
+ *
+ * La fin est écrite après la clé et lue avant elle : un lecteur qui voit
+ * une case occupée voit aussi sa clé. Une case occupée ne change jamais de
+ * clé : un bannissement levé y laisse la fin REMOVED, et la clé peut y être
+ * bannie à nouveau. Quand la moitié des cases est occupée, le gestionnaire
+ * publie une copie réduite aux bannissements en cours (copyActive).
+ *
+ * Un bannissement échu (fin <= tick courant) n'est plus vu par isBanned,
+ * même si la roue ne l'a pas encore fait expirer.
+ *
+ * @author ZGARNI
+ */
+final class BanTable {
+
+    private static final long EMPTY = 0;      // case jamais occupée
+    private static final long REMOVED = -1;   // bannissement levé ou expiré
+    private static final int MIN_CAPACITY = 16;
+
+    // [3 * case] = mot haut, [3 * case + 1] = mot bas, [3 * case + 2] = tick de fin
+    private final AtomicLongArray slots;
+    private final int mask;
+    private int used;   // écrit sous le verrou du gestionnaire
+
+    BanTable(int expectedBans) {
+        int capacity = Integer.highestOneBit(Math.max(expectedBans, MIN_CAPACITY / 4) * 4 - 1) << 1;
+        slots = new AtomicLongArray(capacity * 3);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Vrai si la clé est bannie au tick donné.
+     */
+    boolean isBanned(long high, long low, long nowTick) {
+        int slot = LongPairHashSet.hash(high, low) & mask;
+        while (true) {
+            long until = slots.get(3 * slot + 2);
+            if (until == EMPTY) {
+                return false;
+            }
+            if (slots.get(3 * slot) == high && slots.get(3 * slot + 1) == low) {
+                return until > nowTick;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Bannit une clé jusqu'à untilTick (remplace un bannissement en cours).
+     *
+     * @param untilTick tick de fin, > 0
+     * @return false si la table est trop remplie pour une nouvelle clé
+     */
+    boolean put(long high, long low, long untilTick) {
+        int slot = LongPairHashSet.hash(high, low) & mask;
+        while (true) {
+            long until = slots.get(3 * slot + 2);
+            if (until == EMPTY) {
+                break;
+            }
+            if (slots.get(3 * slot) == high && slots.get(3 * slot + 1) == low) {
+                slots.set(3 * slot + 2, untilTick);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((used + 1) * 2L > mask + 1L) {
+            return false;
+        }
+        slots.set(3 * slot, high);
+        slots.set(3 * slot + 1, low);
+        slots.set(3 * slot + 2, untilTick);   // publie la case
+        used++;
+        return true;
+    }
+
+    /**
+     * Lève le bannissement d'une clé (sans effet si elle n'est pas présente).
+     */
+    void remove(long high, long low) {
+        int slot = LongPairHashSet.hash(high, low) & mask;
+        while (true) {
+            long until = slots.get(3 * slot + 2);
+            if (until == EMPTY) {
+                return;
+            }
+            if (slots.get(3 * slot) == high && slots.get(3 * slot + 1) == low) {
+                slots.set(3 * slot + 2, REMOVED);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Nouvelle table contenant les bannissements en cours au tick donné,
+     * avec de la place pour extra bannissements supplémentaires.
+     */
+    BanTable copyActive(long nowTick, int extra) {
+        int active = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (slots.get(3 * slot + 2) > nowTick) {
+                active++;
+            }
+        }
+        BanTable copy = new BanTable(active + extra);
+        for (int slot = 0; slot <= mask; slot++) {
+            long until = slots.get(3 * slot + 2);
+            if (until > nowTick) {
+                copy.put(slots.get(3 * slot), slots.get(3 * slot + 1), until);
+            }
+        }
+        return copy;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.IpPrefixTrie;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtre de Bloom par blocs placé devant une BlacklistStore : une adresse
+ * absente de la blacklist (cas de presque tous les paquets) est écartée
+ * sans consulter les tables.
+ *
+ * Les bits d'une adresse tombent tous dans un même bloc de 512 bits
+ * (64 octets) : une réponse négative coûte une ou deux lignes de cache,
+ * quelle que soit la taille de la liste.
+ *
+ * Le filtre contient les adresses IPv4 et IPv6 (instantané compris). Les
+ * préfixes CIDR, peu nombreux, sont recopiés dans un IpPrefixTrie exact
+ * qui tient en cache : les mettre dans le filtre demanderait une sonde
+ * par longueur de préfixe. Les entrées textuelles ne sont pas couvertes.
+ *
+ * Aucun faux négatif ; le taux de faux positifs visé est fixé à la
+ * construction, le taux estimé et le taux observé sont consultables.
+ * Le filtre correspond à une version de la blacklist (isCurrentFor) : un
+ * filtre périmé ne couvre pas les entrées ajoutées depuis. La blacklist
+ * garde un filtre partagé et le reconstruit en arrière-plan
+ * (BlacklistStore.getPrefilter) ; la construction parcourt les tables et
+ * l'instantané sur place, sans les recopier.
+ *
+ * Immuable après construction (seuls les compteurs évoluent), thread-safe.
+ *
+ * @author ZGARNI
+ */
+public final class BlacklistPrefilter {
+
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+    private static final int MAX_HASHES = 16;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / BLOCK_WORDS;
+    private static final long MAPPED_IPV4 = 0x0000_FFFF_0000_0000L;
+
+    private final BlacklistStore store;
+    private final long storeVersion;
+    private final double targetRate;
+    private final double expectedRate;
+    private final int keyCount;
+    private final int hashCount;
+
+    private final long[] words;
+    private final int blockCount;
+
+    private final IpPrefixTrie prefixes;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private BlacklistPrefilter(BlacklistStore store, double targetRate) {
+        this.store = store;
+        // Version lue avant le contenu : une modification concurrente rend le filtre périmé
+        this.storeVersion = store.getVersion();
+        this.targetRate = targetRate;
+
+        Set<String> prefixEntries = store.prefixEntries();
+        this.keyCount = store.getIpv4Count() + store.getIpv6Count();
+
+        // Taille minimale atteignant le taux visé, d'après l'estimation par blocs
+        long bits = Math.max((long) Math.ceil(-Math.max(keyCount, 1) * Math.log(targetRate) / (Math.log(2) * Math.log(2))),
+                             BLOCK_BITS);
+        int hashes = hashCountFor(bits, keyCount);
+        double estimate = estimateRate(bits / BLOCK_BITS, keyCount, hashes);
+        while (estimate > targetRate && bits / BLOCK_BITS < MAX_BLOCKS) {
+            bits += bits / 16;
+            hashes = hashCountFor(bits, keyCount);
+            estimate = estimateRate(bits / BLOCK_BITS, keyCount, hashes);
+        }
+        this.blockCount = (int) Math.min(Math.max(bits / BLOCK_BITS, 1), MAX_BLOCKS);
+        this.hashCount = hashes;
+        this.expectedRate = estimateRate(blockCount, keyCount, hashCount);
+        this.words = new long[blockCount * BLOCK_WORDS];
+
+        store.forEachIpv4(address -> insert(0, MAPPED_IPV4 | (address & 0xFFFF_FFFFL)));
+        store.forEachIpv6(this::insert);
+        this.prefixes = new IpPrefixTrie(prefixEntries.size());
+        for (String prefix : prefixEntries) {
+            prefixes.insert(prefix, 0);
+        }
+    }
+
+    /**
+     * Construit le filtre du contenu actuel d'une blacklist.
+     *
+     * @param targetRate taux de faux positifs visé (entre 0 et 1 exclus)
+     */
+    public static BlacklistPrefilter build(BlacklistStore store, double targetRate) {
+        Objects.requireNonNull(store, "store ne peut pas être null");
+        if (!(targetRate > 0 && targetRate < 1)) {
+            throw new IllegalArgumentException("targetRate doit etre entre 0 et 1 exclus");
+        }
+        return new BlacklistPrefilter(store, targetRate);
+    }
+
+    private static int hashCountFor(long bits, int keys) {
+        long perKey = bits / Math.max(keys, 1);
+        return (int) Math.max(1, Math.min(MAX_HASHES, Math.round(perKey * Math.log(2))));
+    }
+
+    /**
+     * Taux de faux positifs d'un filtre par blocs : moyenne, sur la loi de
+     * Poisson du nombre de clés par bloc, du taux d'un filtre de 512 bits.
+     */
+    private static double estimateRate(long blocks, int keys, int hashes) {
+        if (keys == 0) {
+            return 0;
+        }
+        double lambda = (double) keys / Math.max(blocks, 1);
+        int limit = (int) (lambda + 10 * Math.sqrt(lambda) + 20);
+        double poisson = Math.exp(-lambda);   // P(0 clé)
+        double rate = 0;
+        for (int j = 1; j <= limit; j++) {
+            poisson *= lambda / j;
+            double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashes * j);
+            rate += poisson * Math.pow(bitSet, hashes);
+        }
+        return Math.min(rate, 1);
+    }
+
+    // ========== HACHAGE ==========
+
+    /**
+     * Mélange final de MurmurHash3 (64 bits).
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long hash(long high, long low) {
+        return mix(high * 0x9E3779B97F4A7C15L ^ low);
+    }
+
+    /**
+     * Positions des bits dans le bloc : 9 bits chacune, tirées de hachages
+     * successifs indépendants de celui qui choisit le bloc (un double
+     * hachage h1 + i * h2 ne donnerait que 2^17 motifs distincts).
+     */
+    private void insert(long high, long low) {
+        long h = hash(high, low);
+        int base = block(h) * BLOCK_WORDS;
+        long positions = mix(h + 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            if (i == 7) {
+                positions = mix(positions + 0x9E3779B97F4A7C15L);
+            }
+            int bit = (int) (positions >>> (9 * (i % 7))) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean probe(long high, long low) {
+        long h = hash(high, low);
+        int base = block(h) * BLOCK_WORDS;
+        long positions = mix(h + 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            if (i == 7) {
+                positions = mix(positions + 0x9E3779B97F4A7C15L);
+            }
+            int bit = (int) (positions >>> (9 * (i % 7))) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bloc choisi par les 32 bits de poids fort (réduction sans division).
+     */
+    private int block(long h) {
+        return (int) (((h >>> 32) * blockCount) >>> 32);
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * @return false si l'adresse IPv4 n'est certainement pas blacklistée
+     */
+    public boolean mightContainIpv4(int address) {
+        queries.increment();
+        if (probe(0, MAPPED_IPV4 | (address & 0xFFFF_FFFFL))
+                || (prefixes.size() > 0 && prefixes.containsIpv4(address))) {
+            positives.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return false si l'adresse n'est certainement pas blacklistée
+     */
+    public boolean mightContain(IpAddress address) {
+        queries.increment();
+        if (probe(address.getHigh(), address.getLow())
+                || (prefixes.size() > 0 && prefixes.contains(address))) {
+            positives.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Signale qu'une réponse positive a été démentie par la blacklist.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Vérifie si le filtre reflète encore le contenu de la blacklist.
+     */
+    public boolean isCurrentFor(BlacklistStore blacklist) {
+        return blacklist == store && blacklist.getVersion() == storeVersion;
+    }
+
+    /**
+     * Version de la blacklist couverte par le filtre.
+     */
+    long getStoreVersion() {
+        return storeVersion;
+    }
+
+    // ========== CONSULTATION ==========
+
+    public double getTargetFalsePositiveRate() {
+        return targetRate;
+    }
+
+    /**
+     * Taux de faux positifs attendu pour la taille et le nombre de clés réels.
+     */
+    public double getExpectedFalsePositiveRate() {
+        return expectedRate;
+    }
+
+    /**
+     * Taux de faux positifs observé : réponses positives démenties
+     * (recordFalsePositive) sur les recherches d'adresses non blacklistées.
+     */
+    public double getObservedFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long negatives = queries.sum() - (positives.sum() - fp);
+        return negatives > 0 ? (double) fp / negatives : 0;
+    }
+
+    public long getQueryCount() {
+        return queries.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getSizeBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "BlacklistPrefilter{keys=%d, bits/key=%.1f, hashes=%d, prefixes=%d, fpp target=%.4f%% expected=%.4f%% observed=%.4f%%}",
+            keyCount, keyCount > 0 ? (double) words.length * Long.SIZE / keyCount : 0.0, hashCount,
+            prefixes.size(), targetRate * 100, expectedRate * 100, getObservedFalsePositiveRate() * 100);
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.IpPrefixTrie;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Instantané binaire d'une blacklist, projeté en mémoire (mmap) et
+ * interrogé sur place : l'ouverture ne lit ni ne convertit les adresses,
+ * son coût ne dépend pas de la taille de la liste.
+ *
+ * Format (little-endian) :
+ * - en-tête de 64 octets (voir HEADER_*) ;
+ * - index IPv4 : (1 << indexBits) + 1 int, position de la première
+ *   adresse de chaque seau (bits de poids fort de l'adresse) ;
+ * - adresses IPv4 triées (int non signés) ;
+ * - adresses IPv6 triées (paires de long, mot haut puis mot bas) ;
+ * - préfixes CIDR (mot haut, mot bas, longueur sur 128 bits) ;
+ * - textes (longueur puis octets UTF-8).
+ *
+ * Une recherche IPv4 lit une case de l'index puis fait une recherche
+ * dichotomique dans un seau d'une dizaine d'adresses contiguës. Les
+ * préfixes et les textes, peu nombreux, sont chargés dans un IpPrefixTrie
+ * et un HashSet à l'ouverture.
+ *
+ * Immuable et thread-safe. Le fichier ne doit pas être modifié tant qu'il
+ * est projeté : write() écrit un fichier temporaire puis le renomme, ce
+ * qui laisse intacts les instantanés déjà ouverts. La projection est
+ * libérée quand l'instantané n'est plus référencé.
+ *
+ * @author ZGARNI
+ */
+public final class BlacklistSnapshot {
+
+    private static final long MAGIC = 0x31504E534C424650L;   // "PFBLSNP1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_FORMAT = 8;
+    private static final int HEADER_INDEX_BITS = 12;
+    private static final int HEADER_IPV4_COUNT = 16;
+    private static final int HEADER_IPV6_COUNT = 20;
+    private static final int HEADER_PREFIX_COUNT = 24;
+    private static final int HEADER_NAME_COUNT = 28;
+    private static final int HEADER_NAMES_OFFSET = 32;
+
+    // Environ 8 adresses par seau, index de 2^16 seaux au plus (256 Ko)
+    private static final int MAX_INDEX_BITS = 16;
+    private static final int ADDRESSES_PER_BUCKET = 8;
+
+    private final Path file;
+    private final int indexBits;
+    private final IntBuffer ipv4Index;
+    private final IntBuffer ipv4Addresses;
+    private final LongBuffer ipv6Addresses;
+    private final int ipv4Count;
+    private final int ipv6Count;
+    private final IpPrefixTrie prefixes;
+    private final List<String> prefixEntries;
+    private final int prefixCount;
+    private final Set<String> names;
+    private final long mappedBytes;
+
+    private BlacklistSnapshot(Path file, ByteBuffer mapped) throws IOException {
+        this.file = file;
+        this.mappedBytes = mapped.capacity();
+        if (mapped.capacity() < HEADER_SIZE || mapped.getLong(HEADER_MAGIC) != MAGIC) {
+            throw new IOException("Fichier d'instantané invalide : " + file);
+        }
+        if (mapped.getInt(HEADER_FORMAT) != FORMAT_VERSION) {
+            throw new IOException("Version d'instantané non supportée : " + mapped.getInt(HEADER_FORMAT));
+        }
+        indexBits = mapped.getInt(HEADER_INDEX_BITS);
+        ipv4Count = mapped.getInt(HEADER_IPV4_COUNT);
+        ipv6Count = mapped.getInt(HEADER_IPV6_COUNT);
+        prefixCount = mapped.getInt(HEADER_PREFIX_COUNT);
+        int nameCount = mapped.getInt(HEADER_NAME_COUNT);
+        long namesOffset = mapped.getLong(HEADER_NAMES_OFFSET);
+        if (indexBits < 0 || indexBits > MAX_INDEX_BITS || ipv4Count < 0 || ipv6Count < 0
+                || prefixCount < 0 || nameCount < 0) {
+            throw new IOException("En-tête d'instantané invalide : " + file);
+        }
+
+        long indexOffset = HEADER_SIZE;
+        long ipv4Offset = indexOffset + ((1L << indexBits) + 1) * Integer.BYTES;
+        long ipv6Offset = align(ipv4Offset + (long) ipv4Count * Integer.BYTES);
+        long prefixOffset = ipv6Offset + (long) ipv6Count * 2 * Long.BYTES;
+        if (namesOffset != prefixOffset + (long) prefixCount * 3 * Long.BYTES || namesOffset > mappedBytes) {
+            throw new IOException("Fichier d'instantané tronqué : " + file);
+        }
+
+        ipv4Index = section(mapped, indexOffset, (1 << indexBits) + 1, Integer.BYTES).asIntBuffer();
+        ipv4Addresses = section(mapped, ipv4Offset, ipv4Count, Integer.BYTES).asIntBuffer();
+        ipv6Addresses = section(mapped, ipv6Offset, ipv6Count * 2, Long.BYTES).asLongBuffer();
+        if (ipv4Index.get(1 << indexBits) != ipv4Count) {
+            throw new IOException("Index d'instantané invalide : " + file);
+        }
+
+        LongBuffer prefixRecords = section(mapped, prefixOffset, prefixCount * 3, Long.BYTES).asLongBuffer();
+        prefixes = new IpPrefixTrie(prefixCount);
+        prefixEntries = new ArrayList<>(prefixCount);
+        for (int i = 0; i < prefixCount; i++) {
+            IpAddress network = IpAddress.of(prefixRecords.get(3 * i), prefixRecords.get(3 * i + 1));
+            int length128 = (int) prefixRecords.get(3 * i + 2);
+            if (length128 < 0 || length128 > 128) {
+                throw new IOException("Préfixe d'instantané invalide : " + file);
+            }
+            prefixes.insert(network, length128, 0);
+            prefixEntries.add(network + "/" + (network.isIpv4() ? length128 - 96 : length128));
+        }
+
+        names = new HashSet<>(nameCount * 2);
+        ByteBuffer nameRecords = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        nameRecords.position((int) namesOffset);
+        try {
+            for (int i = 0; i < nameCount; i++) {
+                byte[] bytes = new byte[nameRecords.getInt()];
+                nameRecords.get(bytes);
+                names.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Fichier d'instantané tronqué : " + file, e);
+        }
+    }
+
+    private static ByteBuffer section(ByteBuffer mapped, long offset, int count, int width) throws IOException {
+        long end = offset + (long) count * width;
+        if (end > mapped.capacity()) {
+            throw new IOException("Fichier d'instantané tronqué");
+        }
+        return mapped.slice((int) offset, count * width).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long align(long offset) {
+        return (offset + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    // ========== OUVERTURE / ÉCRITURE ==========
+
+    /**
+     * Projette un instantané en mémoire (lecture seule).
+     *
+     * @throws IOException si le fichier est illisible ou invalide
+     */
+    public static BlacklistSnapshot open(Path file) throws IOException {
+        Objects.requireNonNull(file, "file ne peut pas être null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Instantané trop grand (2 Go au plus) : " + file);
+            }
+            // La projection reste valide après la fermeture du canal
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+            return new BlacklistSnapshot(file, mapped);
+        }
+    }
+
+    /**
+     * Écrit le contenu d'une blacklist (instantané éventuel compris) sous
+     * forme d'instantané. Le fichier est écrit à côté puis renommé : un
+     * instantané ouvert sur l'ancien fichier reste utilisable.
+     *
+     * @throws IOException si l'écriture échoue
+     */
+    public static void write(BlacklistStore store, Path file) throws IOException {
+        Objects.requireNonNull(store, "store ne peut pas être null");
+        Objects.requireNonNull(file, "file ne peut pas être null");
+
+        // L'instantané attaché au store peut recouper ses tables : tri puis dédoublonnage
+        int[] ipv4 = sortUnsigned(store.ipv4Array());
+        long[] ipv6 = sortPairs(store.ipv6Array());
+        List<long[]> prefixRecords = new ArrayList<>();
+        for (String prefix : store.prefixEntries()) {
+            prefixRecords.add(prefixRecord(prefix));
+        }
+        List<byte[]> nameRecords = new ArrayList<>();
+        long namesBytes = 0;
+        for (String name : store.nameEntries()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            nameRecords.add(bytes);
+            namesBytes += Integer.BYTES + bytes.length;
+        }
+
+        int indexBits = indexBitsFor(ipv4.length);
+        long ipv4Offset = HEADER_SIZE + ((1L << indexBits) + 1) * Integer.BYTES;
+        long ipv6Offset = align(ipv4Offset + (long) ipv4.length * Integer.BYTES);
+        long prefixOffset = ipv6Offset + (long) ipv6.length * Long.BYTES;
+        long namesOffset = prefixOffset + (long) prefixRecords.size() * 3 * Long.BYTES;
+        if (namesOffset + namesBytes > Integer.MAX_VALUE) {
+            throw new IOException("Instantané trop grand (2 Go au plus)");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) (namesOffset + namesBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(HEADER_MAGIC, MAGIC);
+        out.putInt(HEADER_FORMAT, FORMAT_VERSION);
+        out.putInt(HEADER_INDEX_BITS, indexBits);
+        out.putInt(HEADER_IPV4_COUNT, ipv4.length);
+        out.putInt(HEADER_IPV6_COUNT, ipv6.length / 2);
+        out.putInt(HEADER_PREFIX_COUNT, prefixRecords.size());
+        out.putInt(HEADER_NAME_COUNT, nameRecords.size());
+        out.putLong(HEADER_NAMES_OFFSET, namesOffset);
+
+        // Index : position de la première adresse de chaque seau
+        out.position(HEADER_SIZE);
+        int address = 0;
+        for (int bucket = 0; bucket <= 1 << indexBits; bucket++) {
+            while (address < ipv4.length && bucketOf(ipv4[address], indexBits) < bucket) {
+                address++;
+            }
+            out.putInt(address);
+        }
+        out.asIntBuffer().put(ipv4);
+        out.position((int) ipv6Offset);
+        out.asLongBuffer().put(ipv6);
+        out.position((int) prefixOffset);
+        for (long[] record : prefixRecords) {
+            out.putLong(record[0]).putLong(record[1]).putLong(record[2]);
+        }
+        for (byte[] bytes : nameRecords) {
+            out.putInt(bytes.length).put(bytes);
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp)) {
+                stream.write(out.array());
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int indexBitsFor(int count) {
+        int bits = 32 - Integer.numberOfLeadingZeros(count / ADDRESSES_PER_BUCKET);
+        return Math.min(bits, MAX_INDEX_BITS);
+    }
+
+    private static int bucketOf(int address, int indexBits) {
+        return indexBits == 0 ? 0 : address >>> (32 - indexBits);
+    }
+
+    /**
+     * Tri par ordre non signé (bit de signe inversé le temps du tri),
+     * sans doublons.
+     */
+    private static int[] sortUnsigned(int[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] ^= Integer.MIN_VALUE;
+        }
+        Arrays.sort(values);
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (count == 0 || values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            values[i] ^= Integer.MIN_VALUE;
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Tri des paires (mot haut, mot bas) par ordre non signé, sans doublons.
+     */
+    private static long[] sortPairs(long[] pairs) {
+        IpAddress[] addresses = new IpAddress[pairs.length / 2];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = IpAddress.of(pairs[2 * i], pairs[2 * i + 1]);
+        }
+        Arrays.sort(addresses);
+        int count = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            if (count == 0 || !addresses[i].equals(addresses[i - 1])) {
+                pairs[2 * count] = addresses[i].getHigh();
+                pairs[2 * count + 1] = addresses[i].getLow();
+                count++;
+            }
+        }
+        return Arrays.copyOf(pairs, 2 * count);
+    }
+
+    /**
+     * (mot haut, mot bas, longueur sur 128 bits) d'un préfixe normalisé.
+     */
+    private static long[] prefixRecord(String prefix) {
+        int slash = prefix.indexOf('/');
+        String text = prefix.substring(0, slash);
+        IpAddress network = IpAddress.parse(text);
+        int length = Integer.parseInt(prefix.substring(slash + 1));
+        int length128 = text.indexOf(':') >= 0 ? length : length + 96;
+        return new long[] {network.getHigh(), network.getLow(), length128};
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Vérifie si une adresse IPv4 (sur 32 bits) figure dans l'instantané,
+     * directement ou par un préfixe.
+     */
+    public boolean containsIpv4(int address) {
+        int bucket = bucketOf(address, indexBits);
+        int low = ipv4Index.get(bucket);
+        int high = ipv4Index.get(bucket + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = Integer.compareUnsigned(ipv4Addresses.get(middle), address);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return prefixCount > 0 && prefixes.containsIpv4(address);
+    }
+
+    /**
+     * Vérifie si une adresse IPv4 ou IPv6 figure dans l'instantané,
+     * directement ou par un préfixe.
+     */
+    public boolean contains(IpAddress address) {
+        if (address.isIpv4()) {
+            return containsIpv4(address.toIpv4());
+        }
+        long keyHigh = address.getHigh();
+        long keyLow = address.getLow();
+        int low = 0;
+        int high = ipv6Count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = Long.compareUnsigned(ipv6Addresses.get(2 * middle), keyHigh);
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(ipv6Addresses.get(2 * middle + 1), keyLow);
+            }
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return prefixCount > 0 && prefixes.contains(address);
+    }
+
+    /**
+     * Vérifie si un texte qui n'est pas une adresse IP figure tel quel.
+     */
+    public boolean containsName(String entry) {
+        return !names.isEmpty() && names.contains(entry);
+    }
+
+    // ========== CONSULTATION ==========
+
+    /**
+     * Nombre total d'entrées (adresses, préfixes et textes).
+     */
+    public int size() {
+        return ipv4Count + ipv6Count + prefixCount + names.size();
+    }
+
+    public int getIpv4Count() {
+        return ipv4Count;
+    }
+
+    public int getIpv6Count() {
+        return ipv6Count;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Taille de la projection en octets.
+     */
+    public long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    /**
+     * Toutes les entrées sous forme textuelle (copie). Coûteux sur une
+     * grande liste.
+     */
+    public List<String> entries() {
+        List<String> entries = new ArrayList<>(size());
+        for (int i = 0; i < ipv4Count; i++) {
+            entries.add(Ipv4.toString(ipv4Addresses.get(i)));
+        }
+        for (int i = 0; i < ipv6Count; i++) {
+            entries.add(IpAddress.of(ipv6Addresses.get(2 * i), ipv6Addresses.get(2 * i + 1)).toString());
+        }
+        entries.addAll(prefixEntries);
+        entries.addAll(names);
+        return entries;
+    }
+
+    /**
+     * Copie les adresses IPv4 dans target à partir de offset.
+     */
+    void copyIpv4(int[] target, int offset) {
+        ipv4Addresses.get(0, target, offset, ipv4Count);
+    }
+
+    /**
+     * Parcourt les adresses IPv4 sur place, sans copie.
+     */
+    void forEachIpv4(IntConsumer action) {
+        for (int i = 0; i < ipv4Count; i++) {
+            action.accept(ipv4Addresses.get(i));
+        }
+    }
+
+    /**
+     * Parcourt les adresses IPv6 (mot haut, mot bas) sur place, sans copie.
+     */
+    void forEachIpv6(LongPairHashSet.PairConsumer action) {
+        for (int i = 0; i < ipv6Count; i++) {
+            action.accept(ipv6Addresses.get(2 * i), ipv6Addresses.get(2 * i + 1));
+        }
+    }
+
+    /**
+     * Copie les paires (mot haut, mot bas) IPv6 dans target à partir de offset.
+     */
+    void copyIpv6(long[] target, int offset) {
+        ipv6Addresses.get(0, target, offset, ipv6Count * 2);
+    }
+
+    List<String> prefixEntries() {
+        return prefixEntries;
+    }
+
+    Set<String> nameEntries() {
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return "BlacklistSnapshot{" +
+                "file=" + file +
+                ", ipv4=" + ipv4Count +
+                ", ipv6=" + ipv6Count +
+                ", prefixes=" + prefixCount +
+                ", names=" + names.size() +
+                ", mappedBytes=" + mappedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,668 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.IpPrefixTrie;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * Blacklist d'adresses IP prévue pour des millions d'entrées (flux de
+ * renseignement sur les menaces).
+ *
+ * Chaque entrée est rangée selon sa forme :
+ * - adresse IPv4 : ensemble d'int à adressage ouvert (4 octets par case,
+ *   soit 5 à 11 octets par adresse selon le remplissage) ;
+ * - adresse IPv6 : ensemble de paires de long (16 octets par case) ;
+ * - préfixe CIDR ("10.0.0.0/8", "2001:db8::/32") : IpPrefixTrie ;
+ * - autre texte (ex : nom d'hôte) : comparé tel quel.
+ *
+ * Une recherche est un accès en O(1) au tableau, sans String ni autoboxing.
+ * Les tables peuvent être placées hors tas (mémoire directe) pour ne pas
+ * peser sur le ramasse-miettes.
+ *
+ * Un instantané binaire (BlacklistSnapshot) peut s'ajouter à ces tables :
+ * il est projeté en mémoire et interrogé sur place, et se remplace d'un
+ * bloc (loadSnapshot, attachSnapshot) pour basculer sur un nouveau flux.
+ * Ses entrées ne se retirent pas une à une.
+ *
+ * Non thread-safe : les modifications ne doivent pas être concurrentes
+ * des recherches. Seul le remplacement de l'instantané est atomique.
+ *
+ * @author ZGARNI
+ */
+public final class BlacklistStore {
+
+    private static final int LOAD_BUFFER_SIZE = 1 << 16;
+
+    private final boolean offHeap;
+    private final IntHashSet ipv4Addresses;
+    private final LongPairHashSet ipv6Addresses;
+    // Préfixes CIDR sous forme normalisée ; le trie est reconstruit après une suppression
+    private final Set<String> prefixEntries = new LinkedHashSet<>();
+    private IpPrefixTrie prefixes = new IpPrefixTrie();
+    private final Set<String> names = new HashSet<>();
+    // Instantané projeté en mémoire (null si aucun), remplacé d'un bloc
+    private volatile BlacklistSnapshot snapshot;
+
+    // Incrémentée à chaque modification (invalidation des caches)
+    private volatile long version;
+
+    // Filtre de Bloom partagé par les moteurs qui le consultent (null si aucun),
+    // reconstruit hors du chemin des paquets après une modification
+    private volatile BlacklistPrefilter prefilter;
+    private final AtomicBoolean prefilterRebuilding = new AtomicBoolean();
+
+    public BlacklistStore() {
+        this(16, false);
+    }
+
+    /**
+     * @param expectedEntries nombre d'adresses prévu (les tables s'agrandissent si besoin)
+     * @param offHeap true pour placer les tables en mémoire directe
+     */
+    public BlacklistStore(int expectedEntries, boolean offHeap) {
+        if (expectedEntries < 0) {
+            throw new IllegalArgumentException("expectedEntries doit etre >= 0");
+        }
+        this.offHeap = offHeap;
+        this.ipv4Addresses = new IntHashSet(expectedEntries, offHeap);
+        this.ipv6Addresses = new LongPairHashSet(16, offHeap);
+    }
+
+    // ========== MODIFICATION ==========
+
+    /**
+     * Ajoute une entrée : adresse IPv4/IPv6, préfixe CIDR, ou texte quelconque.
+     *
+     * @return true si l'entrée n'était pas déjà présente
+     */
+    public boolean add(String entry) {
+        Objects.requireNonNull(entry, "entry ne peut pas être null");
+        boolean added = apply(entry, true);
+        if (added) {
+            version++;
+        }
+        return added;
+    }
+
+    /**
+     * Retire une entrée (sous la même forme qu'à l'ajout ; les adresses
+     * et préfixes sont comparés après normalisation). Les entrées de
+     * l'instantané ne sont pas concernées.
+     *
+     * @return true si l'entrée était présente
+     */
+    public boolean remove(String entry) {
+        if (entry == null) {
+            return false;
+        }
+        boolean removed = apply(entry, false);
+        if (removed) {
+            version++;
+        }
+        return removed;
+    }
+
+    private boolean apply(String entry, boolean add) {
+        // Chemin rapide : IPv4 seule (cas de la quasi-totalité des flux)
+        long ipv4 = Ipv4.tryParse(entry);
+        if (ipv4 != Ipv4.INVALID) {
+            return add ? ipv4Addresses.add((int) ipv4) : ipv4Addresses.remove((int) ipv4);
+        }
+
+        int slash = entry.indexOf('/');
+        String text = slash < 0 ? entry : entry.substring(0, slash);
+        IpAddress address = IpAddress.tryParse(text);
+        int maxLength = text.indexOf(':') >= 0 ? 128 : 32;
+        int length = slash < 0 ? maxLength : parseLength(entry.substring(slash + 1), maxLength);
+        if (address == null || length < 0) {
+            return add ? names.add(entry) : names.remove(entry);
+        }
+        if (length == maxLength) {
+            return applyAddress(address, add);
+        }
+
+        String prefix = normalizePrefix(address, length, maxLength);
+        if (add) {
+            if (!prefixEntries.add(prefix)) {
+                return false;
+            }
+            prefixes.insert(prefix, 0);
+            return true;
+        }
+        if (!prefixEntries.remove(prefix)) {
+            return false;
+        }
+        // Le trie ne supporte pas la suppression
+        IpPrefixTrie rebuilt = new IpPrefixTrie(prefixEntries.size());
+        for (String remaining : prefixEntries) {
+            rebuilt.insert(remaining, 0);
+        }
+        prefixes = rebuilt;
+        return true;
+    }
+
+    private boolean applyAddress(IpAddress address, boolean add) {
+        if (address.isIpv4()) {
+            int ipv4 = address.toIpv4();
+            return add ? ipv4Addresses.add(ipv4) : ipv4Addresses.remove(ipv4);
+        }
+        return add ? ipv6Addresses.add(address.getHigh(), address.getLow())
+                   : ipv6Addresses.remove(address.getHigh(), address.getLow());
+    }
+
+    /**
+     * @return longueur, ou -1 si invalide
+     */
+    private static int parseLength(String text, int maxLength) {
+        try {
+            int length = Integer.parseInt(text);
+            return length >= 0 && length <= maxLength ? length : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Forme normalisée d'un préfixe (bits d'hôte à zéro, IPv4 mappée
+     * écrite en IPv4) : "10.1.2.3/8" et "10.0.0.0/8" sont la même entrée.
+     */
+    private static String normalizePrefix(IpAddress address, int length, int maxLength) {
+        int length128 = maxLength == 32 ? 96 + length : length;
+        long high = address.getHigh() & (length128 == 0 ? 0 : length128 >= 64 ? -1L : -1L << (64 - length128));
+        long low = address.getLow() & (length128 <= 64 ? 0 : -1L << (128 - length128));
+        IpAddress network = IpAddress.of(high, low);
+        // Une adresse mappée n'est possible que pour une longueur >= 96
+        return network + "/" + (network.isIpv4() ? length128 - 96 : length128);
+    }
+
+    /**
+     * Ajoute des entrées en masse (tables dimensionnées une seule fois).
+     *
+     * @return nombre d'entrées ajoutées
+     */
+    public int addAll(Collection<String> entries) {
+        Objects.requireNonNull(entries, "entries ne peut pas être null");
+        ipv4Addresses.ensureCapacity(ipv4Addresses.size() + entries.size());
+        int added = 0;
+        for (String entry : entries) {
+            if (entry != null && !entry.isEmpty() && apply(entry, true)) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            version++;
+        }
+        return added;
+    }
+
+    /**
+     * Ajoute des adresses IPv4 déjà converties (flux binaires).
+     *
+     * @param addresses adresses sur 32 bits
+     * @param count nombre d'adresses à lire dans le tableau
+     * @return nombre d'adresses ajoutées
+     */
+    public int addAllIpv4(int[] addresses, int count) {
+        Objects.requireNonNull(addresses, "addresses ne peut pas être null");
+        if (count < 0 || count > addresses.length) {
+            throw new IllegalArgumentException("count invalide : " + count);
+        }
+        ipv4Addresses.ensureCapacity(ipv4Addresses.size() + count);
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            if (ipv4Addresses.add(addresses[i])) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            version++;
+        }
+        return added;
+    }
+
+    /**
+     * Charge un fichier de flux : une entrée par ligne, lignes vides et
+     * commentaires ('#') ignorés.
+     *
+     * Le fichier est lu par blocs d'octets : les lignes IPv4 sont converties
+     * sans créer de String (les autres passent par add).
+     *
+     * @param expectedEntries nombre de lignes prévu (0 si inconnu)
+     * @return nombre d'entrées ajoutées
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public int load(Path file, int expectedEntries) throws IOException {
+        Objects.requireNonNull(file, "file ne peut pas être null");
+        ipv4Addresses.ensureCapacity(ipv4Addresses.size() + Math.max(expectedEntries, 0));
+        FeedLoader loader = new FeedLoader();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[LOAD_BUFFER_SIZE];
+            int length = 0;   // octets valides dans buffer
+            boolean eof = false;
+            while (!eof) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2); // ligne plus longue que le tampon
+                }
+                int read = in.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    length += read;
+                }
+                int start = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buffer[i] == '\n') {
+                        loader.line(buffer, start, i);
+                        start = i + 1;
+                    }
+                }
+                if (eof && start < length) {
+                    loader.line(buffer, start, length); // dernière ligne sans fin de ligne
+                    start = length;
+                }
+                // Ligne incomplète ramenée en tête du tampon
+                System.arraycopy(buffer, start, buffer, 0, length - start);
+                length -= start;
+            }
+        }
+        loader.flush();
+        if (loader.added > 0) {
+            version++;
+        }
+        return loader.added;
+    }
+
+    /**
+     * Conversion des lignes d'un flux. Les adresses IPv4 sont insérées par
+     * lots : la boucle d'insertion seule laisse le processeur recouvrir les
+     * défauts de cache des cases visitées, ce que l'analyse du texte empêche
+     * quand les deux sont entrelacées.
+     */
+    private final class FeedLoader {
+        private final int[] pending = new int[4096];
+        private int pendingCount;
+        int added;
+
+        void line(byte[] buffer, int from, int to) {
+            while (from < to && buffer[from] <= ' ') {
+                from++;
+            }
+            while (to > from && buffer[to - 1] <= ' ') {
+                to--;
+            }
+            if (from == to || buffer[from] == '#') {
+                return;
+            }
+            long ipv4 = parseIpv4(buffer, from, to);
+            if (ipv4 != Ipv4.INVALID) {
+                pending[pendingCount++] = (int) ipv4;
+                if (pendingCount == pending.length) {
+                    flush();
+                }
+            } else if (apply(new String(buffer, from, to - from, StandardCharsets.UTF_8), true)) {
+                added++;
+            }
+        }
+
+        void flush() {
+            for (int i = 0; i < pendingCount; i++) {
+                if (ipv4Addresses.add(pending[i])) {
+                    added++;
+                }
+            }
+            pendingCount = 0;
+        }
+    }
+
+    /**
+     * Projette un instantané et l'attache à la place du précédent.
+     *
+     * @return instantané remplacé (null si aucun)
+     * @throws IOException si le fichier est illisible ou invalide
+     */
+    public BlacklistSnapshot loadSnapshot(Path file) throws IOException {
+        return attachSnapshot(BlacklistSnapshot.open(file));
+    }
+
+    /**
+     * Remplace atomiquement l'instantané (null pour le détacher) : une
+     * recherche concurrente voit l'ancien ou le nouveau, jamais un mélange.
+     *
+     * @return instantané remplacé (null si aucun)
+     */
+    public BlacklistSnapshot attachSnapshot(BlacklistSnapshot newSnapshot) {
+        BlacklistSnapshot previous = snapshot;
+        snapshot = newSnapshot;
+        version++;
+        return previous;
+    }
+
+    public BlacklistSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Équivalent d'Ipv4.tryParse sur des octets ASCII (mêmes adresses
+     * acceptées, zéros non significatifs refusés).
+     */
+    private static long parseIpv4(byte[] bytes, int from, int to) {
+        if (to - from < 7 || to - from > 15) {
+            return Ipv4.INVALID;
+        }
+        long address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = from; i < to; i++) {
+            byte c = bytes[i];
+            if (c == '.') {
+                if (digits == 0 || ++dots > 3) {
+                    return Ipv4.INVALID;
+                }
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (digits == 1 && octet == 0) {
+                    return Ipv4.INVALID;   // zéro non significatif
+                }
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return Ipv4.INVALID;
+                }
+            } else {
+                return Ipv4.INVALID;
+            }
+        }
+        if (dots != 3 || digits == 0) {
+            return Ipv4.INVALID;
+        }
+        return (address << 8) | octet;
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Vérifie si une adresse IPv4 (sur 32 bits) est blacklistée,
+     * directement ou par un préfixe.
+     */
+    public boolean containsIpv4(int address) {
+        if (ipv4Addresses.contains(address)
+                || (!prefixEntries.isEmpty() && prefixes.containsIpv4(address))) {
+            return true;
+        }
+        BlacklistSnapshot current = snapshot;
+        return current != null && current.containsIpv4(address);
+    }
+
+    /**
+     * Vérifie si une adresse IPv4 ou IPv6 est blacklistée,
+     * directement ou par un préfixe.
+     */
+    public boolean contains(IpAddress address) {
+        if (address.isIpv4()) {
+            return containsIpv4(address.toIpv4());
+        }
+        if (ipv6Addresses.contains(address.getHigh(), address.getLow())
+                || (!prefixEntries.isEmpty() && prefixes.contains(address))) {
+            return true;
+        }
+        BlacklistSnapshot current = snapshot;
+        return current != null && current.contains(address);
+    }
+
+    /**
+     * Vérifie si un texte qui n'est pas une adresse IP figure tel quel.
+     */
+    public boolean containsName(String entry) {
+        if (!names.isEmpty() && names.contains(entry)) {
+            return true;
+        }
+        BlacklistSnapshot current = snapshot;
+        return current != null && current.containsName(entry);
+    }
+
+    // ========== CONSULTATION ==========
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Nombre total d'entrées (adresses, préfixes et textes), instantané
+     * compris (une entrée présente des deux côtés compte deux fois).
+     */
+    public int size() {
+        BlacklistSnapshot current = snapshot;
+        return ipv4Addresses.size() + ipv6Addresses.size() + prefixEntries.size() + names.size()
+             + (current != null ? current.size() : 0);
+    }
+
+    public int getIpv4Count() {
+        BlacklistSnapshot current = snapshot;
+        return ipv4Addresses.size() + (current != null ? current.getIpv4Count() : 0);
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Mémoire occupée par les tables d'adresses, en octets.
+     */
+    public long getTableBytes() {
+        return ipv4Addresses.tableBytes() + ipv6Addresses.tableBytes();
+    }
+
+    /**
+     * Version, incrémentée à chaque modification.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Toutes les entrées sous forme textuelle (copie ; adresses et
+     * préfixes normalisés), instantané compris. Coûteux sur une grande liste.
+     */
+    public List<String> entries() {
+        List<String> entries = ownEntries();
+        BlacklistSnapshot current = snapshot;
+        if (current != null) {
+            entries.addAll(current.entries());
+        }
+        return entries;
+    }
+
+    /**
+     * Entrées des tables sous forme textuelle (copie), sans celles de
+     * l'instantané, qui restent dans son fichier (getSnapshot().getFile()).
+     */
+    public List<String> ownEntries() {
+        List<String> entries = new ArrayList<>(ipv4Addresses.size() + ipv6Addresses.size()
+                + prefixEntries.size() + names.size());
+        ipv4Addresses.forEach(address -> entries.add(Ipv4.toString(address)));
+        ipv6Addresses.forEach((high, low) -> entries.add(IpAddress.of(high, low).toString()));
+        entries.addAll(prefixEntries);
+        entries.addAll(names);
+        return entries;
+    }
+
+    // ========== FILTRE DE BLOOM ==========
+
+    /**
+     * Construit sur le thread appelant le filtre de Bloom partagé de la
+     * blacklist et le publie (remplace le précédent). Coût proportionnel
+     * à la taille de la liste : à appeler à la configuration.
+     *
+     * @param targetRate taux de faux positifs visé (entre 0 et 1 exclus)
+     */
+    public BlacklistPrefilter buildPrefilter(double targetRate) {
+        BlacklistPrefilter filter = BlacklistPrefilter.build(this, targetRate);
+        prefilter = filter;
+        return filter;
+    }
+
+    /**
+     * Filtre de Bloom partagé, tel quel : il peut être périmé (voir
+     * BlacklistPrefilter.isCurrentFor) et ne couvre alors pas les entrées
+     * ajoutées depuis sa construction. Un filtre absent ou périmé est
+     * (re)construit sur un thread à part puis remplacé d'un bloc ; le
+     * chemin des paquets ne paie jamais la construction.
+     *
+     * @param targetRate taux visé si aucun filtre n'existe encore
+     * @return filtre courant, ou null tant que le premier n'est pas prêt
+     */
+    public BlacklistPrefilter getPrefilter(double targetRate) {
+        BlacklistPrefilter filter = prefilter;
+        if (filter == null || filter.getStoreVersion() != version) {
+            refreshPrefilter(filter == null ? targetRate : filter.getTargetFalsePositiveRate());
+        }
+        return filter;
+    }
+
+    /**
+     * Filtre de Bloom partagé courant (éventuellement périmé), ou null.
+     */
+    public BlacklistPrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * Reconstruction en arrière-plan, une à la fois. Une modification
+     * concurrente de la liste peut faire échouer ou périmer la
+     * construction : elle est alors reprise (quelques fois au plus, la
+     * recherche suivante relance la reconstruction).
+     */
+    private void refreshPrefilter(double targetRate) {
+        if (!prefilterRebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    BlacklistPrefilter filter;
+                    try {
+                        filter = BlacklistPrefilter.build(this, targetRate);
+                    } catch (RuntimeException e) {
+                        continue;   // tables modifiées pendant le parcours
+                    }
+                    prefilter = filter;
+                    if (filter.isCurrentFor(this)) {
+                        break;
+                    }
+                }
+            } finally {
+                prefilterRebuilding.set(false);
+            }
+        }, "blacklist-prefilter");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Parcourt les adresses IPv4 (tables et instantané, sur place).
+     */
+    void forEachIpv4(IntConsumer action) {
+        ipv4Addresses.forEach(action);
+        BlacklistSnapshot current = snapshot;
+        if (current != null) {
+            current.forEachIpv4(action);
+        }
+    }
+
+    /**
+     * Parcourt les adresses IPv6 (tables et instantané, sur place).
+     */
+    void forEachIpv6(LongPairHashSet.PairConsumer action) {
+        ipv6Addresses.forEach(action);
+        BlacklistSnapshot current = snapshot;
+        if (current != null) {
+            current.forEachIpv6(action);
+        }
+    }
+
+    int getIpv6Count() {
+        BlacklistSnapshot current = snapshot;
+        return ipv6Addresses.size() + (current != null ? current.getIpv6Count() : 0);
+    }
+
+    // ========== EXPORT (BlacklistSnapshot.write) ==========
+
+    int[] ipv4Array() {
+        BlacklistSnapshot current = snapshot;
+        int own = ipv4Addresses.size();
+        int[] addresses = new int[own + (current != null ? current.getIpv4Count() : 0)];
+        int[] count = {0};
+        ipv4Addresses.forEach(address -> addresses[count[0]++] = address);
+        if (current != null) {
+            current.copyIpv4(addresses, own);
+        }
+        return addresses;
+    }
+
+    long[] ipv6Array() {
+        BlacklistSnapshot current = snapshot;
+        int own = ipv6Addresses.size();
+        long[] pairs = new long[2 * (own + (current != null ? current.getIpv6Count() : 0))];
+        int[] count = {0};
+        ipv6Addresses.forEach((high, low) -> {
+            pairs[count[0]++] = high;
+            pairs[count[0]++] = low;
+        });
+        if (current != null) {
+            current.copyIpv6(pairs, 2 * own);
+        }
+        return pairs;
+    }
+
+    Set<String> prefixEntries() {
+        Set<String> all = new LinkedHashSet<>(prefixEntries);
+        BlacklistSnapshot current = snapshot;
+        if (current != null) {
+            all.addAll(current.prefixEntries());
+        }
+        return all;
+    }
+
+    Set<String> nameEntries() {
+        Set<String> all = new HashSet<>(names);
+        BlacklistSnapshot current = snapshot;
+        if (current != null) {
+            all.addAll(current.nameEntries());
+        }
+        return all;
+    }
+
+    @Override
+    public String toString() {
+        return "BlacklistStore{" +
+                "ipv4=" + ipv4Addresses.size() +
+                ", ipv6=" + ipv6Addresses.size() +
+                ", prefixes=" + prefixEntries.size() +
+                ", names=" + names.size() +
+                ", offHeap=" + offHeap +
+                ", snapshot=" + snapshot +
+                '}';
+    }
+}
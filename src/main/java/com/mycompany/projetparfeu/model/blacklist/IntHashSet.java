@@ -0,0 +1,202 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.function.IntConsumer;
+
+/**
+ * Ensemble d'int à adressage ouvert (sondage linéaire), sans autoboxing.
+ *
+ * La table est un IntBuffer : sur le tas, ou hors tas (mémoire directe,
+ * invisible du ramasse-miettes) pour les très grandes listes. La valeur 0
+ * marque une case vide ; la clé 0 est mémorisée à part. Les suppressions
+ * recompactent la suite de sondage (pas de pierre tombale).
+ *
+ * Non thread-safe.
+ *
+ * @author ZGARNI
+ */
+final class IntHashSet {
+
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private final boolean offHeap;
+    private IntBuffer table;
+    private int mask;
+    private int size;          // clés non nulles dans la table
+    private boolean hasZero;
+
+    IntHashSet(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Capacité (puissance de 2) pour un taux de remplissage <= 3/4.
+     */
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max((long) expectedSize * 4 / 3 + 1, MIN_CAPACITY);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Ensemble trop grand : " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        table = offHeap
+            ? ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer()
+            : IntBuffer.allocate(capacity);
+        mask = capacity - 1;
+    }
+
+    static int hash(int key) {
+        // Mélange final de MurmurHash3 : les adresses proches se dispersent
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasZero;
+        }
+        int slot = hash(key) & mask;
+        while (true) {
+            int current = table.get(slot);
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return true si la clé a été ajoutée
+     */
+    boolean add(int key) {
+        if (key == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        if ((size + 1) * 4L > (mask + 1) * 3L) {
+            resize(capacityFor(size + 1));
+        }
+        int slot = hash(key) & mask;
+        while (true) {
+            int current = table.get(slot);
+            if (current == key) {
+                return false;
+            }
+            if (current == EMPTY) {
+                table.put(slot, key);
+                size++;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return true si la clé était présente
+     */
+    boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int slot = hash(key) & mask;
+        while (true) {
+            int current = table.get(slot);
+            if (current == EMPTY) {
+                return false;
+            }
+            if (current == key) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Décalage arrière : chaque clé qui suit reste atteignable depuis sa case d'origine
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (true) {
+            int current = table.get(next);
+            if (current == EMPTY) {
+                break;
+            }
+            int home = hash(current) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table.put(hole, current);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table.put(hole, EMPTY);
+        size--;
+        return true;
+    }
+
+    /**
+     * Prépare la table pour expectedSize clés (évite les agrandissements
+     * successifs d'un chargement en masse).
+     */
+    void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > mask + 1) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int capacity) {
+        IntBuffer old = table;
+        int oldCapacity = mask + 1;
+        allocate(capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int key = old.get(i);
+            if (key != EMPTY) {
+                int slot = hash(key) & mask;
+                while (table.get(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table.put(slot, key);
+            }
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY);
+        }
+        for (int i = 0; i <= mask; i++) {
+            int key = table.get(i);
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    /**
+     * Taille de la table en octets.
+     */
+    long tableBytes() {
+        return (mask + 1L) * Integer.BYTES;
+    }
+}
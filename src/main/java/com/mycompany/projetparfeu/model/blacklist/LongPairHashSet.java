@@ -0,0 +1,204 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Ensemble de clés de 128 bits (deux long : adresses IPv6) à adressage
+ * ouvert, même organisation qu'IntHashSet : les deux mots d'une clé sont
+ * contigus dans un LongBuffer, sur le tas ou hors tas. La paire (0, 0)
+ * marque une case vide ; l'adresse :: est mémorisée à part.
+ *
+ * Non thread-safe.
+ *
+ * @author ZGARNI
+ */
+final class LongPairHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final boolean offHeap;
+    private LongBuffer table;   // [2 * case] = mot haut, [2 * case + 1] = mot bas
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    LongPairHashSet(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max((long) expectedSize * 4 / 3 + 1, MIN_CAPACITY);
+        if (needed > 1 << 29) {
+            throw new IllegalArgumentException("Ensemble trop grand : " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        table = offHeap
+            ? ByteBuffer.allocateDirect(capacity * 2 * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+            : LongBuffer.allocate(capacity * 2);
+        mask = capacity - 1;
+    }
+
+    static int hash(long high, long low) {
+        // Mélange final de MurmurHash3 (64 bits) sur la combinaison des deux mots
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static boolean isEmpty(long high, long low) {
+        return (high | low) == 0;
+    }
+
+    boolean contains(long high, long low) {
+        if (isEmpty(high, low)) {
+            return hasZero;
+        }
+        int slot = hash(high, low) & mask;
+        while (true) {
+            long currentHigh = table.get(2 * slot);
+            long currentLow = table.get(2 * slot + 1);
+            if (currentHigh == high && currentLow == low) {
+                return true;
+            }
+            if (isEmpty(currentHigh, currentLow)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    boolean add(long high, long low) {
+        if (isEmpty(high, low)) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        if ((size + 1) * 4L > (mask + 1) * 3L) {
+            resize(capacityFor(size + 1));
+        }
+        int slot = hash(high, low) & mask;
+        while (true) {
+            long currentHigh = table.get(2 * slot);
+            long currentLow = table.get(2 * slot + 1);
+            if (currentHigh == high && currentLow == low) {
+                return false;
+            }
+            if (isEmpty(currentHigh, currentLow)) {
+                table.put(2 * slot, high);
+                table.put(2 * slot + 1, low);
+                size++;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    boolean remove(long high, long low) {
+        if (isEmpty(high, low)) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int slot = hash(high, low) & mask;
+        while (true) {
+            long currentHigh = table.get(2 * slot);
+            long currentLow = table.get(2 * slot + 1);
+            if (isEmpty(currentHigh, currentLow)) {
+                return false;
+            }
+            if (currentHigh == high && currentLow == low) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Décalage arrière (voir IntHashSet)
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (true) {
+            long currentHigh = table.get(2 * next);
+            long currentLow = table.get(2 * next + 1);
+            if (isEmpty(currentHigh, currentLow)) {
+                break;
+            }
+            int home = hash(currentHigh, currentLow) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table.put(2 * hole, currentHigh);
+                table.put(2 * hole + 1, currentLow);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table.put(2 * hole, 0);
+        table.put(2 * hole + 1, 0);
+        size--;
+        return true;
+    }
+
+    void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > mask + 1) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int capacity) {
+        LongBuffer old = table;
+        int oldCapacity = mask + 1;
+        allocate(capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            long high = old.get(2 * i);
+            long low = old.get(2 * i + 1);
+            if (!isEmpty(high, low)) {
+                int slot = hash(high, low) & mask;
+                while (!isEmpty(table.get(2 * slot), table.get(2 * slot + 1))) {
+                    slot = (slot + 1) & mask;
+                }
+                table.put(2 * slot, high);
+                table.put(2 * slot + 1, low);
+            }
+        }
+    }
+
+    /**
+     * Action sur chaque clé (mot haut, mot bas).
+     */
+    void forEach(PairConsumer action) {
+        if (hasZero) {
+            action.accept(0, 0);
+        }
+        for (int i = 0; i <= mask; i++) {
+            long high = table.get(2 * i);
+            long low = table.get(2 * i + 1);
+            if (!isEmpty(high, low)) {
+                action.accept(high, low);
+            }
+        }
+    }
+
+    int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    long tableBytes() {
+        return (mask + 1L) * 2 * Long.BYTES;
+    }
+
+    @FunctionalInterface
+    interface PairConsumer {
+        void accept(long high, long low);
+    }
+}
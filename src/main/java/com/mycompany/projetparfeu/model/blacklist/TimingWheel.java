@@ -0,0 +1,286 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Roue temporelle hiérarchique : échéances en O(1) à l'insertion, à
+ * l'annulation et à l'expiration, sans parcours des minuteries en attente.
+ *
+ * Le temps est compté en ticks. Quatre niveaux de 256 cases couvrent près
+ * de 2^32 ticks (les échéances plus lointaines sont reprogrammées en
+ * chemin) : le niveau 0 a une case par tick, le niveau 1 une case pour 256
+ * ticks, etc. Une minuterie est rangée au niveau le plus fin qui contient
+ * son échéance ; quand le niveau inférieur termine un tour, la case
+ * suivante du niveau supérieur est redistribuée (cascade). Une bitmap
+ * d'occupation par niveau permet de sauter directement à la prochaine
+ * case non vide lors d'une longue avance.
+ *
+ * Les minuteries sont stockées dans des tableaux primitifs (listes
+ * doublement chaînées par index, liste libre), sans objet par minuterie.
+ *
+ * Non thread-safe.
+ *
+ * @author ZGARNI
+ */
+public final class TimingWheel {
+
+    /** Identifiant invalide (aucune minuterie). */
+    public static final int NO_TIMER = -1;
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    // Au-delà, la case du dernier niveau serait celle du tour courant
+    private static final long MAX_DELAY = (1L << (LEVELS * SLOT_BITS)) - (1L << ((LEVELS - 1) * SLOT_BITS)) - 1;
+
+    private static final int NONE = -1;
+
+    // Têtes de liste : heads[niveau * SLOTS + case]
+    private final int[] heads = new int[LEVELS * SLOTS];
+    // Occupation des cases : occupied[niveau * 4 + mot]
+    private final long[] occupied = new long[LEVELS * (SLOTS / 64)];
+
+    // Minuteries
+    private long[] deadlines;
+    private int[] payloads;
+    private int[] next;
+    private int[] prev;
+    private int[] slots;       // index dans heads, NONE si libre
+    private int freeHead = NONE;
+    private int allocated;
+    private int size;
+
+    private long currentTick;
+
+    /**
+     * @param startTick tick courant initial
+     * @param expectedTimers nombre de minuteries prévu (les tableaux s'agrandissent si besoin)
+     */
+    public TimingWheel(long startTick, int expectedTimers) {
+        if (startTick < 0) {
+            throw new IllegalArgumentException("startTick doit etre >= 0");
+        }
+        this.currentTick = startTick;
+        Arrays.fill(heads, NONE);
+        int capacity = Math.max(expectedTimers, 16);
+        deadlines = new long[capacity];
+        payloads = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        slots = new int[capacity];
+    }
+
+    /**
+     * Programme une minuterie.
+     *
+     * @param deadlineTick tick d'expiration (une échéance passée expire à la prochaine avance)
+     * @param payload valeur transmise à l'expiration
+     * @return identifiant de la minuterie (pour cancel)
+     */
+    public int schedule(long deadlineTick, int payload) {
+        int timer = allocate();
+        deadlines[timer] = deadlineTick;
+        payloads[timer] = payload;
+        place(timer, currentTick + 1);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Annule une minuterie en attente.
+     *
+     * @return true si la minuterie était en attente
+     */
+    public boolean cancel(int timer) {
+        if (timer < 0 || timer >= allocated || slots[timer] == NONE) {
+            return false;
+        }
+        unlink(timer);
+        release(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Avance jusqu'à un tick et déclenche les minuteries échues,
+     * par échéance croissante (à tick égal, ordre non garanti).
+     *
+     * @param tick nouveau tick courant (sans effet s'il n'est pas plus grand)
+     * @param onExpire reçoit la valeur de chaque minuterie échue
+     */
+    public void advance(long tick, IntConsumer onExpire) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                currentTick = tick;
+                return;
+            }
+            // Prochain tick utile : case occupée du niveau 0 dans ce tour, ou fin du tour (cascade)
+            int index = (int) (currentTick & SLOT_MASK);
+            int nextSlot = index == SLOT_MASK ? NONE : nextOccupied(0, index + 1);
+            long step = nextSlot != NONE
+                ? currentTick - index + nextSlot
+                : (currentTick | SLOT_MASK) + 1;
+            if (step > tick) {
+                currentTick = tick;
+                return;
+            }
+            currentTick = step;
+            if ((currentTick & SLOT_MASK) == 0) {
+                cascade();
+            }
+            expireSlot((int) (currentTick & SLOT_MASK), onExpire);
+        }
+    }
+
+    /**
+     * Redistribue vers les niveaux inférieurs les cases supérieures dont
+     * le tour commence au tick courant (du niveau le plus haut au plus bas).
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS - 1 && ((currentTick >>> (level * SLOT_BITS)) & SLOT_MASK) == 0) {
+            level++;
+        }
+        for (; level >= 1; level--) {
+            int slot = (int) ((currentTick >>> (level * SLOT_BITS)) & SLOT_MASK);
+            int head = takeSlot(level, slot);
+            while (head != NONE) {
+                int following = next[head];
+                // Une échéance égale au tick courant tombe dans la case traitée juste après
+                place(head, currentTick);
+                head = following;
+            }
+        }
+    }
+
+    private void expireSlot(int slot, IntConsumer onExpire) {
+        int head = takeSlot(0, slot);
+        while (head != NONE) {
+            int following = next[head];
+            if (deadlines[head] > currentTick) {
+                place(head, currentTick + 1); // échéance au-delà de la portée de la roue
+            } else {
+                int payload = payloads[head];
+                release(head);
+                size--;
+                onExpire.accept(payload);
+            }
+            head = following;
+        }
+    }
+
+    /**
+     * Détache toute la liste d'une case.
+     */
+    private int takeSlot(int level, int slot) {
+        int index = level * SLOTS + slot;
+        int head = heads[index];
+        heads[index] = NONE;
+        occupied[index >>> 6] &= ~(1L << index);
+        return head;
+    }
+
+    /**
+     * Range une minuterie au niveau le plus fin contenant son échéance.
+     *
+     * @param earliest tick minimal de la case choisie (les cases passées ne sont plus lues)
+     */
+    private void place(int timer, long earliest) {
+        long deadline = Math.max(deadlines[timer], earliest);
+        deadline = Math.min(deadline, currentTick + MAX_DELAY);
+        long diff = deadline ^ currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && (diff >>> ((level + 1) * SLOT_BITS)) != 0) {
+            level++;
+        }
+        int slot = (int) ((deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+        int index = level * SLOTS + slot;
+
+        int head = heads[index];
+        next[timer] = head;
+        prev[timer] = NONE;
+        if (head != NONE) {
+            prev[head] = timer;
+        }
+        heads[index] = timer;
+        slots[timer] = index;
+        occupied[index >>> 6] |= 1L << index;
+    }
+
+    private void unlink(int timer) {
+        int index = slots[timer];
+        if (prev[timer] != NONE) {
+            next[prev[timer]] = next[timer];
+        } else {
+            heads[index] = next[timer];
+            if (next[timer] == NONE) {
+                occupied[index >>> 6] &= ~(1L << index);
+            }
+        }
+        if (next[timer] != NONE) {
+            prev[next[timer]] = prev[timer];
+        }
+    }
+
+    /**
+     * Première case occupée du niveau à partir de from, ou NONE.
+     */
+    private int nextOccupied(int level, int from) {
+        int base = level * (SLOTS / 64);
+        for (int word = from >>> 6; word < SLOTS / 64; word++) {
+            long bits = occupied[base + word];
+            if (word == from >>> 6) {
+                bits &= -1L << from;
+            }
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return NONE;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int timer = freeHead;
+            freeHead = next[timer];
+            return timer;
+        }
+        if (allocated == deadlines.length) {
+            int capacity = deadlines.length * 2;
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int timer) {
+        slots[timer] = NONE;
+        next[timer] = freeHead;
+        freeHead = timer;
+    }
+
+    /**
+     * Nombre de minuteries en attente.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    @Override
+    public String toString() {
+        return "TimingWheel{tick=" + currentTick + ", timers=" + size + '}';
+    }
+}
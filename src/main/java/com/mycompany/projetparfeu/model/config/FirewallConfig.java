@@ -4,10 +4,15 @@
  */
 package com.mycompany.projetparfeu.model.config;
 
+import com.mycompany.projetparfeu.model.analyzer.SignatureRule;
+import com.mycompany.projetparfeu.model.blacklist.BlacklistStore;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Configuration centralisee du pare-feu.
@@ -17,6 +22,7 @@ import java.util.List;
  * - Seuils de decision (blocage, alerte)
  * - Limites de taille des paquets
  * - Liste de mots suspects
+ * - Regles de signature (expressions regulieres, aucune par defaut)
  * - IPs blacklistees
  * - Ports a surveiller
  * - Configuration base de donnees
@@ -36,12 +42,23 @@ public class FirewallConfig {
     // Mots suspects
     private List<String> suspiciousWords;
     
-    // IPs blacklistees
-    private List<String> blacklistedIPs;
+    // Regles de signature (identifiants uniques)
+    private final List<SignatureRule> signatureRules;
+    
+    // IPs blacklistees (adresses, prefixes CIDR, textes)
+    private BlacklistStore blacklist;
     
     // Ports a surveiller
     private List<Integer> monitoredPorts;
     
+    // Vues en lecture seule, creees une seule fois (aucune allocation par appel)
+    private final List<String> suspiciousWordsView;
+    private final List<SignatureRule> signatureRulesView;
+    private final List<Integer> monitoredPortsView;
+    
+    // Version incrementee a chaque modification (invalidation des caches)
+    private volatile long version;
+    
    
 
     /**
@@ -60,11 +77,17 @@ public class FirewallConfig {
             "<script>", "javascript:", "../", "etc/passwd"
         ));
         
-        this.blacklistedIPs = new ArrayList<>();
+        this.signatureRules = new ArrayList<>();
+        
+        this.blacklist = new BlacklistStore();
         
         this.monitoredPorts = new ArrayList<>(Arrays.asList(
             21, 22, 23, 25, 80, 443, 3306, 3389, 8080
         ));
+        
+        this.suspiciousWordsView = Collections.unmodifiableList(suspiciousWords);
+        this.signatureRulesView = Collections.unmodifiableList(signatureRules);
+        this.monitoredPortsView = Collections.unmodifiableList(monitoredPorts);
     }
       
     // Getters
@@ -85,15 +108,63 @@ public class FirewallConfig {
     }
     
     public List<String> getSuspiciousWords() { 
-        return Collections.unmodifiableList(suspiciousWords); 
+        return suspiciousWordsView; 
     }
     
+    public List<SignatureRule> getSignatureRules() {
+        return signatureRulesView;
+    }
+    
+    /**
+     * Entrees de la blacklist (copie en lecture seule, couteuse sur une
+     * grande liste : utiliser getBlacklist() ou isBlacklisted* pour les recherches).
+     * Les entrees d'un instantane attache n'en font pas partie : elles
+     * restent dans son fichier (getBlacklist().getSnapshot()).
+     */
     public List<String> getBlacklistedIPs() { 
-        return Collections.unmodifiableList(blacklistedIPs); 
+        return Collections.unmodifiableList(blacklist.ownEntries()); 
+    }
+    
+    /**
+     * Blacklist indexee. Ses modifications directes (ex : chargement en
+     * masse) sont prises en compte par getVersion().
+     */
+    public BlacklistStore getBlacklist() {
+        return blacklist;
     }
     
     public List<Integer> getMonitoredPorts() { 
-        return Collections.unmodifiableList(monitoredPorts); 
+        return monitoredPortsView; 
+    }
+    
+    /**
+     * Verifie si une adresse IPv4 (sur 32 bits) est couverte par la blacklist.
+     */
+    public boolean isBlacklistedIPv4(int address) {
+        return blacklist.containsIpv4(address);
+    }
+
+    /**
+     * Verifie si une adresse IPv4 ou IPv6 est couverte par la blacklist.
+     */
+    public boolean isBlacklisted(IpAddress address) {
+        return blacklist.contains(address);
+    }
+
+    /**
+     * Verifie si une entree qui n'est pas une adresse IP (ex : nom d'hote)
+     * figure telle quelle dans la blacklist.
+     */
+    public boolean isBlacklistedName(String ip) {
+        return blacklist.containsName(ip);
+    }
+
+    /**
+     * Version de la configuration, incrementee a chaque modification.
+     * Permet aux caches de detecter qu'ils doivent etre invalides.
+     */
+    public long getVersion() {
+        return version + blacklist.getVersion();
     }
     
    
@@ -104,6 +175,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("blockThreshold doit etre >= 1");
         }
         this.blockThreshold = blockThreshold;
+        version++;
     }
 
     public void setAlertThreshold(int alertThreshold) {
@@ -111,6 +183,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("alertThreshold doit etre >= 1");
         }
         this.alertThreshold = alertThreshold;
+        version++;
     }
 
     public void setMinPacketSize(int minPacketSize) {
@@ -118,6 +191,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("minPacketSize doit etre >= 0");
         }
         this.minPacketSize = minPacketSize;
+        version++;
     }
 
     public void setMaxPacketSize(int maxPacketSize) {
@@ -125,6 +199,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("maxPacketSize doit etre > 0");
         }
         this.maxPacketSize = maxPacketSize;
+        version++;
     }
 
     /**
@@ -134,6 +209,7 @@ public class FirewallConfig {
     public void addSuspiciousWord(String word) {
         if (word != null && !word.isEmpty()) {
             this.suspiciousWords.add(word);
+            version++;
         }
     }
 
@@ -142,16 +218,50 @@ public class FirewallConfig {
      * @param word mot a supprimer
      */
     public void removeSuspiciousWord(String word) {
-        this.suspiciousWords.remove(word);
+        if (this.suspiciousWords.remove(word)) {
+            version++;
+        }
+    }
+
+    /**
+     * Ajoute une regle de signature.
+     * L'expression est verifiee a la construction de l'analyseur.
+     * @param rule regle a ajouter
+     * @throws IllegalArgumentException si une regle du meme identifiant existe deja
+     */
+    public void addSignatureRule(SignatureRule rule) {
+        Objects.requireNonNull(rule, "rule ne peut pas etre null");
+        for (SignatureRule existing : signatureRules) {
+            if (existing.getId().equals(rule.getId())) {
+                throw new IllegalArgumentException("Signature deja definie : " + rule.getId());
+            }
+        }
+        this.signatureRules.add(rule);
+        version++;
+    }
+
+    /**
+     * Supprime une regle de signature.
+     * @param id identifiant de la regle
+     * @return true si la regle existait
+     */
+    public boolean removeSignatureRule(String id) {
+        if (this.signatureRules.removeIf(rule -> rule.getId().equals(id))) {
+            version++;
+            return true;
+        }
+        return false;
     }
 
     /**
      * Ajoute une IP a la blacklist.
-     * @param ip adresse IP a blacklister
+     * Accepte une adresse IPv4 ou IPv6, ou un prefixe CIDR ("10.0.0.0/8",
+     * "2001:db8::/32") qui bloque toutes les adresses qu'il couvre.
+     * @param ip adresse IP ou prefixe a blacklister
      */
     public void addBlacklistedIP(String ip) {
-        if (ip != null && !ip.isEmpty() && !blacklistedIPs.contains(ip)) {
-            this.blacklistedIPs.add(ip);
+        if (ip != null && !ip.isEmpty()) {
+            blacklist.add(ip);
         }
     }
 
@@ -160,7 +270,18 @@ public class FirewallConfig {
      * @param ip adresse IP a retirer
      */
     public void removeBlacklistedIP(String ip) {
-        this.blacklistedIPs.remove(ip);
+        blacklist.remove(ip);
+    }
+
+    /**
+     * Remplace la blacklist (ex : liste chargee a part, ou tables hors tas).
+     * @param blacklist nouvelle blacklist
+     */
+    public void setBlacklist(BlacklistStore blacklist) {
+        Objects.requireNonNull(blacklist, "blacklist ne peut pas etre null");
+        // getVersion() doit rester croissante malgre le changement de compteur
+        version += this.blacklist.getVersion() + 1;
+        this.blacklist = blacklist;
     }
 
     /**
@@ -170,6 +291,7 @@ public class FirewallConfig {
     public void addMonitoredPort(int port) {
         if (port >= 0 && port <= 65535 && !monitoredPorts.contains(port)) {
             this.monitoredPorts.add(port);
+            version++;
         }
     }
 
@@ -178,7 +300,9 @@ public class FirewallConfig {
      * @param port numero de port a retirer
      */
     public void removeMonitoredPort(int port) {
-        this.monitoredPorts.remove(Integer.valueOf(port));
+        if (this.monitoredPorts.remove(Integer.valueOf(port))) {
+            version++;
+        }
     }
 
     
@@ -191,7 +315,8 @@ public class FirewallConfig {
                 ", minPacketSize=" + minPacketSize +
                 ", maxPacketSize=" + maxPacketSize +
                 ", suspiciousWords=" + suspiciousWords.size() +
-                ", blacklistedIPs=" + blacklistedIPs.size() +
+                ", signatureRules=" + signatureRules.size() +
+                ", blacklistedIPs=" + blacklist.size() +
                 ", monitoredPorts=" + monitoredPorts.size() +
                 '}';
     }
@@ -8,6 +8,12 @@ public final class Actions {
     public static final Action ALERT = AlertAction.getInstance();
     public static final Action LOG = LogAction.getInstance();
     
+    // ========== CODES PRIMITIFS (traitement par lots) ==========
+    public static final byte ACCEPT_CODE = 0;
+    public static final byte LOG_CODE = 1;
+    public static final byte ALERT_CODE = 2;
+    public static final byte DROP_CODE = 3;
+    
     // Constructeur privé (classe utilitaire non instanciable)
     private Actions() {
         throw new AssertionError("Classe utilitaire non instanciable");
@@ -44,6 +50,36 @@ public final class Actions {
                upper.equals("ALERT") || upper.equals("LOG");
     }
     
+    /**
+     * Retourne le code primitif d'une action.
+     * 
+     * @param action action
+     * @return code (ACCEPT_CODE, LOG_CODE, ALERT_CODE ou DROP_CODE)
+     */
+    public static byte code(Action action) {
+        if (action instanceof DropAction) return DROP_CODE;
+        if (action instanceof AlertAction) return ALERT_CODE;
+        if (action instanceof LogAction) return LOG_CODE;
+        return ACCEPT_CODE;
+    }
+    
+    /**
+     * Retourne l'action correspondant à un code primitif.
+     * 
+     * @param code code de l'action
+     * @return instance de l'action
+     * @throws IllegalArgumentException si le code est invalide
+     */
+    public static Action fromCode(int code) {
+        return switch (code) {
+            case ACCEPT_CODE -> ACCEPT;
+            case LOG_CODE -> LOG;
+            case ALERT_CODE -> ALERT;
+            case DROP_CODE -> DROP;
+            default -> throw new IllegalArgumentException("Code d'action inconnu : " + code);
+        };
+    }
+    
     /**
      * Retourne toutes les actions disponibles.
      * 
@@ -0,0 +1,91 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.decision;
+
+/**
+ * Verdict compact codé dans un long (aucune allocation).
+ *
+ * Disposition des bits :
+ * - 0..7   : code d'action (voir Actions.*_CODE)
+ * - 8..15  : code de raison + 1 (0 = verdict issu de l'analyse)
+ * - 16..31 : score total (borné à 0..65535)
+ * - 32..63 : détail de la raison (ex : index du filtre)
+ *
+ * @author ZGARNI
+ */
+public final class CompactVerdict {
+
+    private static final int NO_REASON = 0;
+
+    // Constructeur privé (classe utilitaire non instanciable)
+    private CompactVerdict() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Verdict de rejet sans analyse.
+     *
+     * @param reason raison du rejet
+     * @param score score total
+     * @param detail détail de la raison (ex : index du filtre)
+     */
+    public static long drop(DropReason reason, int score, int detail) {
+        return encode(Actions.DROP_CODE, reason.ordinal() + 1, score, detail);
+    }
+
+    /**
+     * Verdict issu de l'analyse complète.
+     */
+    public static long analyzed(byte actionCode, int score) {
+        return encode(actionCode, NO_REASON, score, 0);
+    }
+
+    private static long encode(byte actionCode, int reasonCode, int score, int detail) {
+        int boundedScore = Math.min(Math.max(score, 0), 0xFFFF);
+        return (actionCode & 0xFFL)
+             | ((long) reasonCode << 8)
+             | ((long) boundedScore << 16)
+             | ((long) detail << 32);
+    }
+
+    public static byte actionCode(long verdict) {
+        return (byte) verdict;
+    }
+
+    public static Action action(long verdict) {
+        return Actions.fromCode(actionCode(verdict));
+    }
+
+    public static boolean isDrop(long verdict) {
+        return actionCode(verdict) == Actions.DROP_CODE;
+    }
+
+    /**
+     * Indique si le verdict est un rejet sans analyse (filtre, blacklist).
+     */
+    public static boolean hasDropReason(long verdict) {
+        return ((verdict >>> 8) & 0xFF) != NO_REASON;
+    }
+
+    /**
+     * Raison du rejet.
+     *
+     * @throws IllegalStateException si le verdict est issu de l'analyse
+     */
+    public static DropReason dropReason(long verdict) {
+        if (!hasDropReason(verdict)) {
+            throw new IllegalStateException("Verdict issu de l'analyse : aucune raison de rejet");
+        }
+        return DropReason.fromCode((int) ((verdict >>> 8) & 0xFF) - 1);
+    }
+
+    public static int score(long verdict) {
+        return (int) ((verdict >>> 16) & 0xFFFF);
+    }
+
+    public static int detail(long verdict) {
+        return (int) (verdict >>> 32);
+    }
+}
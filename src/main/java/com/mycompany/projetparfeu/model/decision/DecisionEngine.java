@@ -5,9 +5,13 @@
 package com.mycompany.projetparfeu.model.decision;
 
 import com.mycompany.projetparfeu.model.analyzer.DetectionSignal;
+import com.mycompany.projetparfeu.model.blacklist.BlacklistPrefilter;
 import com.mycompany.projetparfeu.model.config.FirewallConfig;
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
 import com.mycompany.projetparfeu.model.generator.PaquetMalicieux;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.Ipv4;
 
 import java.util.List;
 import java.util.Objects;
@@ -34,7 +38,14 @@ import java.util.Objects;
  */
 public final class DecisionEngine {
     
+    /** Score attribué aux paquets dont une IP est blacklistée. */
+    public static final int BLACKLIST_SCORE = 99;
+    
     private final FirewallConfig config;
+    
+    // Filtre de Bloom devant la blacklist (taux visé 0 = désactivé) : celui de
+    // la BlacklistStore, partagé par les moteurs et reconstruit en arrière-plan
+    private volatile double prefilterRate;
 
     public DecisionEngine(FirewallConfig config) {
         this.config = Objects.requireNonNull(config, "config ne peut pas etre null");
@@ -123,25 +134,144 @@ public final class DecisionEngine {
     public boolean shouldBlockImmediately(Packet packet) {
         Objects.requireNonNull(packet, "packet ne peut pas etre null");
         
-        if (config.getBlacklistedIPs().contains(packet.getSrcIP())) {
-            return true;
+        return isBlacklisted(packet.getSrcIPv4(), packet, true)
+            || isBlacklisted(packet.getDestIPv4(), packet, false);
+    }
+
+    /**
+     * Une adresse du paquet : recherche IPv4 directe, sinon adresse binaire
+     * (IPv6), sinon comparaison du texte.
+     */
+    private boolean isBlacklisted(long ipv4, Packet packet, boolean source) {
+        if (ipv4 != Ipv4.INVALID) {
+            return isBlacklistedIPv4((int) ipv4, currentPrefilter());
         }
-        
-        if (config.getBlacklistedIPs().contains(packet.getDestIP())) {
-            return true;
+        IpAddress address = source ? packet.getSrcAddress() : packet.getDestAddress();
+        if (address != null) {
+            BlacklistPrefilter filter = currentPrefilter();
+            if (filter == null) {
+                return config.isBlacklisted(address);
+            }
+            if (filter.mightContain(address)) {
+                return confirm(filter, config.isBlacklisted(address));
+            }
+            return isStale(filter) && config.isBlacklisted(address);
         }
-        
-        return false;
+        return config.isBlacklistedName(source ? packet.getSrcIP() : packet.getDestIP());
+    }
+
+    private boolean isBlacklistedIPv4(int address, BlacklistPrefilter filter) {
+        if (filter == null) {
+            return config.isBlacklistedIPv4(address);
+        }
+        if (filter.mightContainIpv4(address)) {
+            return confirm(filter, config.isBlacklistedIPv4(address));
+        }
+        return isStale(filter) && config.isBlacklistedIPv4(address);
+    }
+
+    /**
+     * Filtre périmé (reconstruction en cours) : une réponse négative ne
+     * vaut pas pour les entrées ajoutées depuis, la blacklist est consultée.
+     */
+    private boolean isStale(BlacklistPrefilter filter) {
+        return !filter.isCurrentFor(config.getBlacklist());
+    }
+
+    private static boolean confirm(BlacklistPrefilter filter, boolean blacklisted) {
+        if (!blacklisted) {
+            filter.recordFalsePositive();
+        }
+        return blacklisted;
+    }
+
+    /**
+     * Filtre de Bloom de la blacklist (éventuellement périmé), ou null s'il
+     * est désactivé ou pas encore construit.
+     */
+    private BlacklistPrefilter currentPrefilter() {
+        double rate = prefilterRate;
+        return rate == 0 ? null : config.getBlacklist().getPrefilter(rate);
+    }
+
+    /**
+     * Active un filtre de Bloom devant la blacklist (0 pour le désactiver).
+     * Les adresses absentes sont écartées en une ou deux lignes de cache.
+     * Le filtre appartient à la BlacklistStore : les moteurs qui partagent
+     * la configuration (shards) partagent aussi le filtre. Il est construit
+     * ici s'il n'existe pas encore avec ce taux, puis reconstruit en
+     * arrière-plan après chaque modification de la blacklist ; en attendant,
+     * les adresses écartées par le filtre périmé sont vérifiées dans la liste.
+     *
+     * @param falsePositiveRate taux de faux positifs visé (ex : 0.01)
+     */
+    public synchronized void enableBlacklistPrefilter(double falsePositiveRate) {
+        if (falsePositiveRate == 0) {
+            prefilterRate = 0;
+            return;
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate doit etre entre 0 et 1 exclus");
+        }
+        BlacklistPrefilter existing = config.getBlacklist().getPrefilter();
+        if (existing == null || existing.getTargetFalsePositiveRate() != falsePositiveRate) {
+            config.getBlacklist().buildPrefilter(falsePositiveRate);
+        }
+        prefilterRate = falsePositiveRate;
+    }
+
+    /**
+     * Filtre de Bloom courant (taux visé, estimé et observé), ou null.
+     */
+    public BlacklistPrefilter getBlacklistPrefilter() {
+        return prefilterRate == 0 ? null : config.getBlacklist().getPrefilter();
     }
 
     public DecisionResult createImmediateBlockResult(Packet packet) {
-        return new DecisionResult(
-            packet,
-            List.of(),
-            99,
-            Actions.DROP,
-            "IP source blacklistee : " + packet.getSrcIP()
-        );
+        // Raison construite seulement si elle est lue
+        return new DecisionResult(packet, BLACKLIST_SCORE, DropReason.BLACKLIST, packet.getSrcIP());
+    }
+
+    /**
+     * Version primitive de decide() pour le traitement par lots.
+     * Applique les memes regles sans construire de DecisionResult.
+     * 
+     * @param totalScore somme des scores des signaux
+     * @param maxSignalScore plus grand score individuel d'un signal
+     * @param malicious true si le paquet est un paquet malicieux connu
+     * @return code d'action (voir Actions)
+     */
+    public byte decideCode(int totalScore, int maxSignalScore, boolean malicious) {
+        if (malicious || totalScore >= config.getBlockThreshold()) {
+            return Actions.DROP_CODE;
+        }
+        if (totalScore >= config.getAlertThreshold()) {
+            return maxSignalScore >= 2 ? Actions.ALERT_CODE : Actions.LOG_CODE;
+        }
+        return totalScore == 0 ? Actions.ACCEPT_CODE : Actions.LOG_CODE;
+    }
+
+    /**
+     * Version par lots de shouldBlockImmediately (adresses IPv4 du bloc
+     * recherchees dans l'index de la blacklist).
+     * 
+     * @param block bloc de paquets
+     * @param skip paquets deja traites (ignores)
+     * @param blocked blocked[i] passe a true si une IP du paquet i est blacklistee
+     */
+    public void markBlacklisted(PacketBlock block, boolean[] skip, boolean[] blocked) {
+        if (config.getBlacklist().isEmpty()) {
+            return;
+        }
+
+        BlacklistPrefilter filter = currentPrefilter();
+        int[] src = block.srcIPColumn();
+        int[] dest = block.destIPColumn();
+        for (int i = 0; i < block.size(); i++) {
+            if (!skip[i]) {
+                blocked[i] = isBlacklistedIPv4(src[i], filter) || isBlacklistedIPv4(dest[i], filter);
+            }
+        }
     }
 
     public String evaluateRiskLevel(int score) {
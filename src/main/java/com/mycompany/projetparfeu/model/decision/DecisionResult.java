@@ -32,8 +32,12 @@ public final class DecisionResult {
     private final List<DetectionSignal> signals;
     private final int totalScore;
     private final Action action;
-    private final String reason;
     private final LocalDateTime timestamp;
+    
+    // Raison textuelle, ou construite à la première lecture (rejets sans analyse)
+    private String reason;
+    private final DropReason dropReason;
+    private final String reasonDetail;
 
     public DecisionResult(Packet packet, 
                          List<DetectionSignal> signals, 
@@ -47,6 +51,28 @@ public final class DecisionResult {
         this.totalScore = totalScore;
         this.action = Objects.requireNonNull(action, "action ne peut pas etre null");
         this.reason = Objects.requireNonNull(reason, "reason ne peut pas etre null");
+        this.dropReason = null;
+        this.reasonDetail = null;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    /**
+     * Constructeur d'un rejet sans analyse (action DROP, aucun signal).
+     * Le texte de la raison n'est construit qu'à la lecture.
+     * 
+     * @param dropReason code de la raison
+     * @param reasonDetail détail de la raison (nom du filtre, IP...)
+     */
+    public DecisionResult(Packet packet, 
+                         int totalScore, 
+                         DropReason dropReason, 
+                         String reasonDetail) {
+        this.packet = Objects.requireNonNull(packet, "packet ne peut pas etre null");
+        this.signals = List.of();
+        this.totalScore = totalScore;
+        this.action = Actions.DROP;
+        this.dropReason = Objects.requireNonNull(dropReason, "dropReason ne peut pas etre null");
+        this.reasonDetail = Objects.requireNonNull(reasonDetail, "reasonDetail ne peut pas etre null");
         this.timestamp = LocalDateTime.now();
     }
 
@@ -67,7 +93,20 @@ public final class DecisionResult {
     }
     
     public String getReason() { 
-        return reason; 
+        String text = reason;
+        if (text == null) {
+            // Course bénigne : au pire la raison est construite deux fois
+            text = dropReason.render(reasonDetail);
+            reason = text;
+        }
+        return text; 
+    }
+    
+    /**
+     * Code de la raison d'un rejet sans analyse, null sinon.
+     */
+    public DropReason getDropReason() {
+        return dropReason;
     }
     
     public LocalDateTime getTimestamp() { 
@@ -94,7 +133,7 @@ public final class DecisionResult {
                 action,
                 totalScore,
                 signals.size(),
-                reason);
+                getReason());
     }
 
     public String getDetailedSummary() {
@@ -107,7 +146,7 @@ public final class DecisionResult {
         sb.append("Action    : ").append(action.getSymbol()).append(" ")
           .append(action.getDescription()).append("\n");
         sb.append("Score     : ").append(totalScore).append("/10\n");
-        sb.append("Raison    : ").append(reason).append("\n\n");
+        sb.append("Raison    : ").append(getReason()).append("\n\n");
         
         sb.append("Paquet analyse :\n");
         sb.append("   ").append(packet.summary()).append("\n\n");
@@ -0,0 +1,54 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.decision;
+
+/**
+ * Codes de raison précalculés des rejets sans analyse.
+ *
+ * Le texte de la raison n'est construit qu'à la lecture (render) :
+ * le chemin de rejet ne concatène aucune chaîne.
+ *
+ * @author ZGARNI
+ */
+public enum DropReason {
+
+    /** Paquet refusé par un filtre initial (détail : nom du filtre). */
+    FILTER("Bloqué par filtre : "),
+
+    /** IP blacklistée (détail : IP source du paquet). */
+    BLACKLIST("IP source blacklistee : "),
+
+    /** Source bannie automatiquement (détail : IP source du paquet). */
+    AUTO_BAN("Source bannie temporairement : ");
+
+    private static final DropReason[] VALUES = values();
+
+    private final String prefix;
+
+    DropReason(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Construit le texte de la raison.
+     *
+     * @param detail détail propre au rejet (nom du filtre, IP...)
+     */
+    public String render(String detail) {
+        return prefix + detail;
+    }
+
+    /**
+     * Retourne la raison correspondant à un code (ordinal).
+     *
+     * @throws IllegalArgumentException si le code est invalide
+     */
+    public static DropReason fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Code de raison inconnu : " + code);
+        }
+        return VALUES[code];
+    }
+}
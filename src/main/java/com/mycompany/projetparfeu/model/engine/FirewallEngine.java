@@ -6,27 +6,38 @@ package com.mycompany.projetparfeu.model.engine;
 
 import com.mycompany.projetparfeu.model.analyzer.DetectionSignal;
 import com.mycompany.projetparfeu.model.analyzer.PacketAnalyzer;
+import com.mycompany.projetparfeu.model.blacklist.AutoBanManager;
+import com.mycompany.projetparfeu.model.blacklist.BlacklistPrefilter;
 import com.mycompany.projetparfeu.model.config.FirewallConfig;
 import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.decision.CompactVerdict;
 import com.mycompany.projetparfeu.model.decision.DecisionEngine;
 import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.decision.DropReason;
+import com.mycompany.projetparfeu.model.flow.FlowTable;
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.generator.PaquetMalicieux;
 import com.mycompany.projetparfeu.model.initialPacketFIltering.AbstractFilter;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.CompiledFilterSet;
+import com.mycompany.projetparfeu.model.logging.AsyncDecisionLogger;
+import com.mycompany.projetparfeu.model.statistics.StageProfiler;
 import com.mycompany.projetparfeu.model.statistics.StatisticsManager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Moteur principal du pare-feu.
- * VERSION SANS analyse par signatures.
  * 
  * Détections disponibles :
  * - Taille anormale
  * - Mots suspects
  * - Heuristique (comportement)
+ * - Signatures (expressions régulières), si la configuration en contient
  * 
  * @author ZGARNI
  */
@@ -36,28 +47,91 @@ public final class FirewallEngine {
     private final PacketAnalyzer analyzer;
     private final DecisionEngine decisionEngine;
     private final List<AbstractFilter> filters;
+    // Filtres compilés (null = à recompiler après une modification de la liste) ;
+    // remplacés d'un bloc, y compris le programme généré
+    private volatile CompiledFilterSet compiledFilters;
+    private boolean bytecodeFilters;
     private final StatisticsManager statistics;
+    private AsyncDecisionLogger decisionLogger;
+    private OverloadManager overloadManager;
+    
+    // Suivi de connexions (optionnel)
+    private FlowTable flowTable;
+    private int reinspectInterval;
+    private boolean lastInspectionDegraded;
+    private long flowConfigVersion;
+    
+    // Inspection par flux (mots coupés entre paquets) : état du flux en cours d'inspection
+    private boolean streamInspection;
+    private boolean inspectingStream;
+    private final long[] streamState = new long[1];
+    
+    // Cache de verdicts (optionnel)
+    private VerdictCache verdictCache;
+    
+    // Bannissement automatique des sources (optionnel)
+    private AutoBanManager autoBanManager;
+    
+    // Ordre adaptatif des filtres et détecteurs (0 = désactivé)
+    private int reorderInterval;
+    private StageProfiler filterProfiler;
+    
+    // Tableaux de travail réutilisés par processBatch
+    private boolean[] batchRejected = new boolean[0];
+    private boolean[] batchBlacklisted = new boolean[0];
+    private int[] batchScores = new int[0];
+    private int[] batchMaxScores = new int[0];
     
     private final AtomicBoolean running = new AtomicBoolean(false);
+    // Moteur d'un shard : pas de messages (affichés une fois par ShardedFirewallEngine)
+    private final boolean silent;
 
     /**
      * Constructeur avec configuration.
      */
     public FirewallEngine(FirewallConfig config) {
+        this(config, new AsyncDecisionLogger(), false);
+        printBanner();
+    }
+
+    /**
+     * Moteur d'un shard de ShardedFirewallEngine : journal des décisions
+     * partagé par tous les shards, aucune bannière ni message sur les
+     * filtres (le moteur partitionné les affiche une seule fois).
+     */
+    FirewallEngine(FirewallConfig config, AsyncDecisionLogger decisionLogger) {
+        this(config, decisionLogger, true);
+    }
+
+    private FirewallEngine(FirewallConfig config, AsyncDecisionLogger decisionLogger, boolean silent) {
         this.config = Objects.requireNonNull(config, "config ne peut pas être null");
+        this.decisionLogger = Objects.requireNonNull(decisionLogger, "decisionLogger ne peut pas être null");
+        this.silent = silent;
         this.filters = new ArrayList<>();
         this.statistics = new StatisticsManager();
         
-        // Initialiser l'analyseur SANS signatures
+        // Initialiser l'analyseur (signatures de la configuration, éventuellement aucune)
         this.analyzer = new PacketAnalyzer(
             config.getMinPacketSize(),
             config.getMaxPacketSize(),
-            config.getSuspiciousWords()
+            config.getSuspiciousWords(),
+            config.getSignatureRules()
         );
         
         this.decisionEngine = new DecisionEngine(config);
-        
-        System.out.println("✓ Pare-feu initialisé (mode sans signatures)");
+    }
+
+    /**
+     * Bannière d'initialisation (analyseur et moteur).
+     */
+    void printBanner() {
+        if (analyzer.getSignatureCount() == 0) {
+            System.out.println("✓ Analyseur de paquets initialisé (sans signatures)");
+            System.out.println("✓ Pare-feu initialisé (mode sans signatures)");
+        } else {
+            System.out.println("✓ Analyseur de paquets initialisé (" + analyzer.getSignatureCount() + " signatures)");
+            System.out.println("✓ Pare-feu initialisé (" + analyzer.getSignatureCount() + " signatures)");
+        }
     }
 
     /**
@@ -70,12 +144,33 @@ public final class FirewallEngine {
     public void addFilter(AbstractFilter filter) {
         Objects.requireNonNull(filter, "filter ne peut pas être null");
         filters.add(filter);
-        System.out.println("✓ Filtre ajouté : " + filter.getClass().getSimpleName());
+        invalidateFilters();
+        if (!silent) {
+            System.out.println("✓ Filtre ajouté : " + filter.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Ajoute un ensemble de règles (ex : ACL de plusieurs milliers d'entrées).
+     * Les filtres sont compilés une seule fois, au premier paquet traité.
+     */
+    public void addFilters(List<? extends AbstractFilter> newFilters) {
+        Objects.requireNonNull(newFilters, "newFilters ne peut pas être null");
+        for (AbstractFilter filter : newFilters) {
+            filters.add(Objects.requireNonNull(filter, "filter ne peut pas être null"));
+        }
+        invalidateFilters();
+        if (!silent) {
+            System.out.println("✓ " + newFilters.size() + " filtres ajoutés");
+        }
     }
 
     public void clearFilters() {
         filters.clear();
-        System.out.println("Tous les filtres ont été supprimés");
+        invalidateFilters();
+        if (!silent) {
+            System.out.println("Tous les filtres ont été supprimés");
+        }
     }
 
     public void start() {
@@ -85,10 +180,18 @@ public final class FirewallEngine {
             System.out.println("╚══════════════════════════════════════════════════════════════╝");
             System.out.println("Configuration : " + config);
             System.out.println("Filtres actifs : " + filters.size());
-            System.out.println("Mode : Sans signatures (3 détections actives)");
+            int signatureCount = analyzer.getSignatureCount();
+            if (signatureCount == 0) {
+                System.out.println("Mode : Sans signatures (3 détections actives)");
+            } else {
+                System.out.println("Mode : " + signatureCount + " signatures (4 détections actives)");
+            }
             System.out.println("  - Détection par taille");
             System.out.println("  - Détection par mots suspects");
             System.out.println("  - Analyse heuristique");
+            if (signatureCount > 0) {
+                System.out.println("  - Détection par signatures");
+            }
             System.out.println("Prêt à traiter les paquets\n");
         } else {
             System.out.println("Le pare-feu est déjà démarré");
@@ -98,6 +201,7 @@ public final class FirewallEngine {
     public void stop() {
         if (running.compareAndSet(true, false)) {
             System.out.println("\nArrêt du pare-feu...");
+            decisionLogger.flush();
             System.out.println("Pare-feu arrêté");
             printStatistics();
         } else {
@@ -105,6 +209,26 @@ public final class FirewallEngine {
         }
     }
 
+    /**
+     * Démarre le moteur sans afficher la bannière.
+     * Utilisé par les moteurs composites (ex : ShardedFirewallEngine)
+     * qui affichent leur propre bannière.
+     *
+     * @return true si le moteur vient d'être démarré
+     */
+    boolean startSilently() {
+        return running.compareAndSet(false, true);
+    }
+
+    /**
+     * Arrête le moteur sans afficher le rapport.
+     *
+     * @return true si le moteur vient d'être arrêté
+     */
+    boolean stopSilently() {
+        return running.compareAndSet(true, false);
+    }
+
     /**
      * Traite un paquet.
      * Workflow :
@@ -121,44 +245,313 @@ public final class FirewallEngine {
             throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
         }
 
+        if (overloadManager == null) {
+            return process(packet);
+        }
+
+        long start = System.nanoTime();
+        DecisionResult result = process(packet);
+        overloadManager.recordLatency(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Chemin rapide du suivi de connexions : un flux déjà jugé bénin est
+     * accepté sans repasser par le pipeline, sauf tous les reinspectInterval
+     * paquets où il est réinspecté complètement.
+     */
+    private DecisionResult process(Packet packet) {
+        if (flowTable == null || !FlowTable.isTrackable(packet) || packet instanceof PaquetMalicieux) {
+            return inspect(packet);
+        }
+
+        // Un changement de configuration (ex : blacklist) invalide les verdicts des flux
+        long version = config.getVersion();
+        if (version != flowConfigVersion) {
+            flowConfigVersion = version;
+            flowTable.clear();
+        }
+
+        long now = System.nanoTime();
+        long addressKey = FlowTable.addressKey(packet);
+        long portKey = FlowTable.portKey(packet);
+
+        int slot = flowTable.find(addressKey, portKey, now);
+        if (slot >= 0 && flowTable.getVerdict(slot) == Actions.ACCEPT_CODE
+                && flowTable.touch(slot, now) < reinspectInterval
+                && (autoBanManager == null || !autoBanManager.isBanned(packet))
+                && (!streamInspection || acceptsStream(packet, slot))) {
+            DecisionResult result = new DecisionResult(
+                packet, List.of(), 0, Actions.ACCEPT, "Flux établi : verdict en cache");
+            recordWithoutLog(result);
+            return result;
+        }
+
+        streamState[0] = slot >= 0 ? flowTable.getStreamState(slot) : FlowTable.STREAM_START;
+        inspectingStream = streamInspection;
+        DecisionResult result;
+        try {
+            result = inspect(packet);
+        } finally {
+            inspectingStream = false;
+        }
+        // Un verdict obtenu sans analyse (délestage) n'est pas mis en cache
+        if (!lastInspectionDegraded) {
+            slot = flowTable.recordInspection(addressKey, portKey, Actions.code(result.getAction()), now);
+            flowTable.setStreamState(slot, streamState[0]);
+        } else if (slot >= 0) {
+            // Payload non inspecté : le flux reprend sans état
+            flowTable.setStreamState(slot, FlowTable.STREAM_START);
+        }
+        return result;
+    }
+
+    /**
+     * Chemin rapide en inspection par flux : le payload fait avancer l'état
+     * du flux (aucune copie). Un mot suspect, éventuellement commencé dans
+     * un paquet précédent, impose l'inspection complète, qui reprend depuis
+     * l'état d'avant ce paquet.
+     *
+     * @return true si le paquet peut être accepté sans inspection
+     */
+    private boolean acceptsStream(Packet packet, int slot) {
+        streamState[0] = flowTable.getStreamState(slot);
+        if (analyzer.countWordMatches(packet, streamState, 0) > 0) {
+            return false;
+        }
+        flowTable.setStreamState(slot, streamState[0]);
+        return true;
+    }
+
+    /**
+     * Pipeline complet d'un paquet.
+     */
+    private DecisionResult inspect(Packet packet) {
+        lastInspectionDegraded = false;
+
         // ÉTAPE 1 : Filtrage initial
-        for (AbstractFilter filter : filters) {
-            if (!filter.accept(packet)) {
-                DecisionResult result = new DecisionResult(
-                    packet,
-                    List.of(),
-                    0,
-                    Actions.DROP,
-                    "Bloqué par filtre : " + filter.getClass().getSimpleName()
-                );
-                statistics.recordDecision(result);
-                return result;
-            }
+        DecisionResult filtered = applyFilters(packet);
+        if (filtered != null) {
+            recordWithoutLog(filtered);
+            return filtered;
         }
 
         // ÉTAPE 2 : Vérification blacklist
-        if (decisionEngine.shouldBlockImmediately(packet)) {
-            DecisionResult result = decisionEngine.createImmediateBlockResult(packet);
-            statistics.recordDecision(result);
-            logDecision(result);
-            return result;
+        DecisionResult blocked = checkBlacklist(packet);
+        if (blocked != null) {
+            recordAndLog(blocked);
+            return blocked;
         }
 
-        // ÉTAPE 3 : Analyse approfondie (3 détections)
-        List<DetectionSignal> signals = analyzer.analyze(packet);
+        return analyzeAndDecide(packet);
+    }
+
+    /**
+     * Suite du pipeline pour un paquet qui a passé filtres et blacklist :
+     * délestage, cache de verdicts, analyse, décision, statistiques.
+     */
+    private DecisionResult analyzeAndDecide(Packet packet) {
+        // Délestage éventuel (surcharge)
+        if (overloadManager != null) {
+            DecisionResult degraded = applyOverloadLevel(packet);
+            if (degraded != null) {
+                lastInspectionDegraded = true;
+                statistics.recordDegradedDecision(degraded);
+                return degraded;
+            }
+        }
+
+        // Cache de verdicts : paquet identique déjà analysé (hors inspection par
+        // flux, où le verdict dépend aussi des paquets précédents)
+        long fingerprint = 0;
+        boolean cacheable = verdictCache != null && !inspectingStream;
+        if (cacheable) {
+            fingerprint = VerdictCache.fingerprint(packet);
+            DecisionResult cached = verdictCache.lookup(packet, fingerprint);
+            if (cached != null) {
+                recordVerdict(packet, cached);
+                recordAndLog(cached);
+                return cached;
+            }
+        }
+
+        // ÉTAPE 3 : Analyse approfondie
+        List<DetectionSignal> signals = analyze(packet);
 
         // ÉTAPE 4 : Décision basée sur les signaux
+        DecisionResult result = decide(packet, signals);
+        if (cacheable && !mayBeTruncated(result)) {
+            verdictCache.store(fingerprint, result);
+        }
+
+        // ÉTAPE 5 & 6 : Statistiques et log si nécessaire
+        recordAndLog(result);
+
+        return result;
+    }
+
+    /**
+     * Applique le palier de surcharge courant.
+     * @return décision sans analyse si le paquet est délesté, null sinon
+     */
+    private DecisionResult applyOverloadLevel(Packet packet) {
+        OverloadManager.Level level = overloadManager.getLevel();
+        if (level == OverloadManager.Level.NORMAL) {
+            return null;
+        }
+
+        if (level == OverloadManager.Level.SHED) {
+            overloadManager.recordShed();
+            return overloadManager.getPolicy() == OverloadManager.SheddingPolicy.FAIL_OPEN
+                ? new DecisionResult(packet, List.of(), 0, Actions.ACCEPT, "Surcharge : accepté sans analyse (fail-open)")
+                : new DecisionResult(packet, List.of(), 0, Actions.DROP, "Surcharge : bloqué sans analyse (fail-closed)");
+        }
+
+        if (statistics.isTrustedSource(packet.getSrcIP(), overloadManager.getTrustedMinPackets())) {
+            overloadManager.recordSkippedAnalysis();
+            return new DecisionResult(packet, List.of(), 0, Actions.ACCEPT, "Surcharge : source de confiance, analyse ignorée");
+        }
+
+        if (level == OverloadManager.Level.SAMPLE_LOW_RISK
+                && !config.getMonitoredPorts().contains(packet.getDestPort())
+                && !overloadManager.sampleLowRisk()) {
+            return new DecisionResult(packet, List.of(), 0, Actions.ACCEPT, "Surcharge : trafic à faible risque non échantillonné");
+        }
+        return null;
+    }
+
+    // ========== ÉTAPES DU TRAITEMENT ==========
+    // Utilisées par processPacket et par StagedPipeline (une étape par thread)
+
+    /**
+     * Étape 1 : filtrage initial.
+     * @return résultat DROP si un filtre refuse le paquet, null sinon
+     */
+    DecisionResult applyFilters(Packet packet) {
+        int rejecting = findRejectingFilter(packet);
+        if (rejecting < 0) {
+            return null;
+        }
+        // Raison construite seulement si elle est lue
+        return new DecisionResult(packet, 0, DropReason.FILTER, compiledFilters().getFilterName(rejecting));
+    }
+
+    /**
+     * Recherche le premier filtre qui refuse le paquet.
+     * Les filtres standards sont évalués par l'ensemble compilé, en temps
+     * constant quel que soit le nombre de règles.
+     * @return index du filtre, ou -1 si tous l'acceptent
+     */
+    private int findRejectingFilter(Packet packet) {
+        CompiledFilterSet compiled = compiledFilters();
+        if (filterProfiler == null || compiled.getResidualCount() == 0) {
+            return compiled.firstRejecting(packet);
+        }
+        int rejecting = compiled.firstCompiledRejection(packet);
+        return rejecting >= 0 ? rejecting : findRejectingFilterAdaptive(packet, compiled);
+    }
+
+    /**
+     * Filtres résiduels (non compilés) dans l'ordre adaptatif : filtres bon
+     * marché et sélectifs d'abord. Un paquet est refusé si au moins un filtre
+     * le refuse : le verdict ne dépend pas de l'ordre, seule la raison peut
+     * citer un autre filtre.
+     */
+    private int findRejectingFilterAdaptive(Packet packet, CompiledFilterSet compiled) {
+        StageProfiler profiler = filterProfiler;
+        boolean sample = profiler.shouldSample();
+        int rejecting = -1;
+        for (int position = 0; position < profiler.getStageCount(); position++) {
+            int stage = profiler.stageAt(position);
+            int index = compiled.getResidualIndex(stage);
+            AbstractFilter filter = compiled.getFilter(index);
+            long start = sample ? System.nanoTime() : 0;
+            boolean accepted = filter.accept(packet);
+            if (sample) {
+                profiler.recordCost(stage, System.nanoTime() - start);
+            }
+            profiler.recordEvaluation(stage, !accepted);
+            if (!accepted) {
+                rejecting = index;
+                break;
+            }
+        }
+        profiler.endPacket();
+        return rejecting;
+    }
+
+    /**
+     * Étape 2 : vérification blacklist et bannissements automatiques.
+     * @return résultat DROP si une IP est blacklistée ou la source bannie, null sinon
+     */
+    DecisionResult checkBlacklist(Packet packet) {
+        if (decisionEngine.shouldBlockImmediately(packet)) {
+            return decisionEngine.createImmediateBlockResult(packet);
+        }
+        if (autoBanManager != null && autoBanManager.isBanned(packet)) {
+            return new DecisionResult(packet, DecisionEngine.BLACKLIST_SCORE, DropReason.AUTO_BAN, packet.getSrcIP());
+        }
+        return null;
+    }
+
+    /**
+     * Étape 3 : analyse approfondie. En ordre adaptatif, l'analyse s'arrête
+     * dès que le score atteint le seuil de blocage : la décision (DROP) est
+     * la même, mais score et signaux du résultat peuvent être partiels.
+     */
+    List<DetectionSignal> analyze(Packet packet) {
+        long[] streams = inspectingStream ? streamState : null;
+        if (reorderInterval > 0) {
+            // Au-delà du seuil de blocage la décision est DROP : inutile de continuer
+            return analyzer.analyze(packet, config.getBlockThreshold(), streams, 0);
+        }
+        return analyzer.analyze(packet, Integer.MAX_VALUE, streams, 0);
+    }
+
+    /**
+     * Vrai si l'analyse ayant produit ce résultat a pu s'arrêter avant la fin
+     * (voir analyze) : un tel résultat n'est pas mis en cache, un paquet
+     * identique servi par le cache aurait sinon un score tronqué.
+     */
+    private boolean mayBeTruncated(DecisionResult result) {
+        return reorderInterval > 0 && result.getTotalScore() >= config.getBlockThreshold();
+    }
+
+    /**
+     * Étape 4 : décision.
+     */
+    DecisionResult decide(Packet packet, List<DetectionSignal> signals) {
         DecisionResult result = decisionEngine.decide(packet, signals);
+        recordVerdict(packet, result);
+        return result;
+    }
 
-        // ÉTAPE 5 : Enregistrement statistiques
+    /**
+     * Compte les DROP et ALERT issus de l'analyse pour le bannissement automatique.
+     */
+    private void recordVerdict(Packet packet, DecisionResult result) {
+        if (autoBanManager != null) {
+            autoBanManager.recordVerdict(packet, result.getAction());
+        }
+    }
+
+    /**
+     * Étape 5 : statistiques, et log des décisions autres que ACCEPT.
+     * Les rejets par filtre ne sont pas loggés (voir processPacket).
+     */
+    void recordAndLog(DecisionResult result) {
         statistics.recordDecision(result);
-        
-        // ÉTAPE 6 : Logger si nécessaire
         if (!(result.getAction() == Actions.ACCEPT)) {
             logDecision(result);
         }
+    }
 
-        return result;
+    /**
+     * Étape 5 sans log : rejets par filtre, chemin rapide. Les décisions de
+     * délestage passent par StatisticsManager.recordDegradedDecision.
+     */
+    void recordWithoutLog(DecisionResult result) {
+        statistics.recordDecision(result);
     }
 
     /**
@@ -173,14 +566,354 @@ public final class FirewallEngine {
             .toList();                               // ✅ COLLECTOR
     }
 
-    private void logDecision(DecisionResult result) {
-        System.out.println(result);
+    /**
+     * Traite un paquet et retourne un verdict compact (voir CompactVerdict).
+     * 
+     * Les rejets par filtre ou par blacklist ne créent aucun objet : ni
+     * DecisionResult, ni texte de raison, ni entrée d'historique. Ils sont
+     * comptés dans les statistiques (globales, par IP et par protocole) mais
+     * ne sont pas loggés. Les autres paquets suivent le pipeline complet
+     * (délestage, cache, analyse, décision) ; la table des flux n'est pas
+     * consultée sur ce chemin.
+     *
+     * @return verdict compact ; le texte de la raison s'obtient via describe()
+     */
+    public long classify(Packet packet) {
+        Objects.requireNonNull(packet, "packet ne peut pas être null");
+        
+        if (!running.get()) {
+            throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
+        }
+
+        long start = overloadManager != null ? System.nanoTime() : 0;
+        long verdict;
+
+        int rejecting = findRejectingFilter(packet);
+        if (rejecting >= 0) {
+            statistics.recordCompactDrop(packet, 0);
+            verdict = CompactVerdict.drop(DropReason.FILTER, 0, rejecting);
+        } else if (decisionEngine.shouldBlockImmediately(packet)) {
+            statistics.recordCompactDrop(packet, DecisionEngine.BLACKLIST_SCORE);
+            verdict = CompactVerdict.drop(DropReason.BLACKLIST, DecisionEngine.BLACKLIST_SCORE, 0);
+        } else if (autoBanManager != null && autoBanManager.isBanned(packet)) {
+            statistics.recordCompactDrop(packet, DecisionEngine.BLACKLIST_SCORE);
+            verdict = CompactVerdict.drop(DropReason.AUTO_BAN, DecisionEngine.BLACKLIST_SCORE, 0);
+        } else {
+            lastInspectionDegraded = false;
+            DecisionResult result = analyzeAndDecide(packet);
+            verdict = CompactVerdict.analyzed(Actions.code(result.getAction()), result.getTotalScore());
+        }
+
+        if (overloadManager != null) {
+            overloadManager.recordLatency(System.nanoTime() - start);
+        }
+        return verdict;
+    }
+
+    /**
+     * Construit le texte de la raison d'un verdict compact.
+     * A appeler avant toute modification des filtres (l'index du filtre
+     * fait référence à la liste courante).
+     *
+     * @param verdict verdict retourné par classify
+     * @param packet paquet classé
+     */
+    public String describe(long verdict, Packet packet) {
+        if (!CompactVerdict.hasDropReason(verdict)) {
+            return "Décision après analyse : " + CompactVerdict.action(verdict)
+                 + " (score " + CompactVerdict.score(verdict) + ")";
+        }
+        DropReason reason = CompactVerdict.dropReason(verdict);
+        return switch (reason) {
+            case FILTER -> reason.render(compiledFilters().getFilterName(CompactVerdict.detail(verdict)));
+            case BLACKLIST, AUTO_BAN -> reason.render(packet.getSrcIP());
+        };
+    }
+
+    /**
+     * Traite un bloc de paquets en colonnes.
+     * Chaque étape (filtres, blacklist, analyse, décision) est une boucle
+     * serrée sur les tableaux du bloc ; aucun DecisionResult n'est créé.
+     * Seuls les compteurs globaux des statistiques sont mis à jour et
+     * rien n'est loggé.
+     *
+     * @param block bloc de paquets
+     * @param actions tableau de sortie (réutilisé s'il est assez grand)
+     * @return code d'action de chaque paquet (voir Actions.*_CODE)
+     */
+    public byte[] processBatch(PacketBlock block, byte[] actions) {
+        Objects.requireNonNull(block, "block ne peut pas être null");
         
-        if (result.needsAlert()) {
-            System.out.println(result.getDetailedSummary());
+        if (!running.get()) {
+            throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
+        }
+
+        int n = block.size();
+        if (actions == null || actions.length < n) {
+            actions = new byte[n];
+        }
+        ensureBatchCapacity(n);
+        Arrays.fill(batchRejected, 0, n, false);
+        Arrays.fill(batchBlacklisted, 0, n, false);
+
+        // ÉTAPE 1 : Filtrage initial (une passe par champ contraint)
+        compiledFilters().rejectBatch(block, batchRejected);
+
+        // ÉTAPE 2 : Vérification blacklist et bannissements
+        decisionEngine.markBlacklisted(block, batchRejected, batchBlacklisted);
+        if (autoBanManager != null && autoBanManager.getActiveBanCount() > 0) {
+            markBanned(block);
+        }
+        for (int i = 0; i < n; i++) {
+            batchRejected[i] |= batchBlacklisted[i];
+        }
+
+        // ÉTAPE 3 : Analyse
+        analyzer.analyzeBatch(block, batchRejected, batchScores, batchMaxScores);
+
+        // ÉTAPE 4 : Décision
+        int accepted = 0, dropped = 0, alerted = 0, logged = 0;
+        for (int i = 0; i < n; i++) {
+            byte action = batchRejected[i]
+                ? Actions.DROP_CODE
+                : decisionEngine.decideCode(batchScores[i], batchMaxScores[i], block.isMalicious(i));
+            actions[i] = action;
+            if (autoBanManager != null && !batchRejected[i]
+                    && (action == Actions.DROP_CODE || action == Actions.ALERT_CODE)) {
+                autoBanManager.recordOffenseIpv4(block.getSrcIP(i));
+            }
+            switch (action) {
+                case Actions.ACCEPT_CODE -> accepted++;
+                case Actions.DROP_CODE -> dropped++;
+                case Actions.ALERT_CODE -> alerted++;
+                default -> logged++;
+            }
+        }
+
+        // ÉTAPE 5 : Statistiques
+        statistics.recordBatch(accepted, dropped, alerted, logged);
+        return actions;
+    }
+
+    /**
+     * Marque les paquets dont la source est bannie.
+     */
+    private void markBanned(PacketBlock block) {
+        int n = block.size();
+        int[] src = block.srcIPColumn();
+        for (int i = 0; i < n; i++) {
+            if (!batchRejected[i] && !batchBlacklisted[i] && autoBanManager.isBannedIpv4(src[i])) {
+                batchBlacklisted[i] = true;
+            }
+        }
+    }
+
+    private void ensureBatchCapacity(int n) {
+        if (batchRejected.length < n) {
+            batchRejected = new boolean[n];
+            batchBlacklisted = new boolean[n];
+            batchScores = new int[n];
+            batchMaxScores = new int[n];
+        }
+    }
+
+    /**
+     * Dépose la décision dans le journal asynchrone.
+     * Le formatage et l'écriture se font sur le thread du journal.
+     */
+    private void logDecision(DecisionResult result) {
+        decisionLogger.log(result);
+    }
+
+    /**
+     * Remplace le journal des décisions (capacité, politique de débordement...).
+     * Un même journal peut être partagé par plusieurs moteurs.
+     */
+    public void setDecisionLogger(AsyncDecisionLogger decisionLogger) {
+        this.decisionLogger = Objects.requireNonNull(decisionLogger, "decisionLogger ne peut pas être null");
+    }
+
+    public AsyncDecisionLogger getDecisionLogger() {
+        return decisionLogger;
+    }
+
+    /**
+     * Active le contrôle de surcharge (null pour le désactiver).
+     * Un gestionnaire ne doit être attaché qu'à un seul moteur.
+     */
+    public void setOverloadManager(OverloadManager overloadManager) {
+        this.overloadManager = overloadManager;
+    }
+
+    public OverloadManager getOverloadManager() {
+        return overloadManager;
+    }
+
+    /**
+     * Active le suivi de connexions avec chemin rapide (null pour le désactiver).
+     * Les paquets d'un flux déjà accepté sont acceptés sans analyse, et le flux
+     * est réinspecté complètement tous les reinspectInterval paquets.
+     *
+     * @param flowTable table des flux (propre à ce moteur)
+     * @param reinspectInterval nombre de paquets entre deux inspections complètes
+     */
+    public void setFlowTable(FlowTable flowTable, int reinspectInterval) {
+        if (flowTable != null && reinspectInterval < 1) {
+            throw new IllegalArgumentException("reinspectInterval doit etre >= 1");
+        }
+        this.flowTable = flowTable;
+        this.reinspectInterval = reinspectInterval;
+        if (flowTable == null) {
+            streamInspection = false;
+        }
+    }
+
+    public FlowTable getFlowTable() {
+        return flowTable;
+    }
+
+    /**
+     * Active l'inspection par flux : les mots suspects sont cherchés dans
+     * chaque paquet d'un flux suivi en reprenant l'état laissé par le
+     * paquet précédent (un long par flux dans la table), ce qui trouve les
+     * mots coupés entre deux paquets sans garder ni relire les payloads.
+     * Les paquets du chemin rapide font aussi avancer l'état ; un mot
+     * trouvé déclenche l'inspection complète. Le cache de verdicts est
+     * ignoré pour ces paquets.
+     *
+     * @param enabled true pour activer
+     * @throws IllegalStateException sans table des flux (setFlowTable)
+     */
+    public void setStreamInspection(boolean enabled) {
+        if (enabled && flowTable == null) {
+            throw new IllegalStateException("L'inspection par flux demande une table des flux (setFlowTable)");
+        }
+        this.streamInspection = enabled;
+    }
+
+    public boolean isStreamInspection() {
+        return streamInspection;
+    }
+
+    /**
+     * Active un cache LRU de verdicts devant l'analyse (0 pour le désactiver).
+     * Les paquets identiques (IPs, ports, protocole, payload) réutilisent
+     * la décision déjà calculée tant que la configuration ne change pas.
+     *
+     * @param maxEntries nombre maximal de verdicts conservés
+     */
+    public void enableVerdictCache(int maxEntries) {
+        this.verdictCache = maxEntries > 0 ? new VerdictCache(maxEntries, config, statistics) : null;
+    }
+
+    public VerdictCache getVerdictCache() {
+        return verdictCache;
+    }
+
+    /**
+     * Active un filtre de Bloom devant la blacklist (0 pour le désactiver).
+     * Voir DecisionEngine.enableBlacklistPrefilter.
+     *
+     * @param falsePositiveRate taux de faux positifs visé (ex : 0.01)
+     */
+    public void enableBlacklistPrefilter(double falsePositiveRate) {
+        decisionEngine.enableBlacklistPrefilter(falsePositiveRate);
+    }
+
+    public BlacklistPrefilter getBlacklistPrefilter() {
+        return decisionEngine.getBlacklistPrefilter();
+    }
+
+    /**
+     * Active le bannissement automatique des sources (null pour le désactiver).
+     * Les DROP et ALERT issus de l'analyse sont comptés par source ; une
+     * source bannie est rejetée après la blacklist jusqu'à expiration.
+     * Un même gestionnaire peut être partagé par plusieurs moteurs.
+     */
+    public void setAutoBanManager(AutoBanManager autoBanManager) {
+        this.autoBanManager = autoBanManager;
+    }
+
+    public AutoBanManager getAutoBanManager() {
+        return autoBanManager;
+    }
+
+    /**
+     * Active l'ordre adaptatif des filtres et des détecteurs (0 pour le désactiver).
+     * Le coût et le taux de rejet de chaque étape sont mesurés, et l'ordre
+     * est recalculé tous les reorderInterval paquets. Le verdict reste le même ;
+     * l'analyse d'un paquet s'arrête au seuil de blocage, le score et les
+     * signaux d'un DROP peuvent donc être partiels (résultats non mis en cache).
+     *
+     * @param reorderInterval nombre de paquets entre deux réordonnancements
+     */
+    public void enableAdaptiveOrdering(int reorderInterval) {
+        this.reorderInterval = Math.max(reorderInterval, 0);
+        analyzer.enableAdaptiveOrdering(this.reorderInterval);
+        invalidateFilters();
+    }
+
+    /**
+     * Active la génération de bytecode pour l'ensemble de filtres compilé
+     * (classe cachée régénérée à chaque modification de la liste).
+     * Le verdict est identique à celui du chemin interprété.
+     */
+    public void enableBytecodeFilters(boolean enabled) {
+        this.bytecodeFilters = enabled;
+        invalidateFilters();
+    }
+
+    /**
+     * Après une modification des filtres : recompilation au prochain paquet,
+     * et les verdicts des flux ne sont plus valables.
+     */
+    private void invalidateFilters() {
+        compiledFilters = null;
+        filterProfiler = null;
+        if (flowTable != null) {
+            flowTable.clear();
         }
     }
 
+    /**
+     * Filtres compilés, recompilés si la liste a changé.
+     */
+    private CompiledFilterSet compiledFilters() {
+        CompiledFilterSet compiled = compiledFilters;
+        if (compiled == null) {
+            compiled = CompiledFilterSet.compile(filters, bytecodeFilters);
+            compiledFilters = compiled;
+            // Seuls les filtres résiduels sont réordonnés
+            filterProfiler = reorderInterval > 0
+                ? new StageProfiler(compiled.getResidualCount(), reorderInterval)
+                : null;
+        }
+        return compiled;
+    }
+
+    /**
+     * Ensemble compilé des filtres courants.
+     */
+    public CompiledFilterSet getCompiledFilters() {
+        return compiledFilters();
+    }
+
+    /**
+     * Profileur des filtres résiduels, non compilés
+     * (null si l'ordre adaptatif est désactivé).
+     */
+    public StageProfiler getFilterProfiler() {
+        compiledFilters();
+        return filterProfiler;
+    }
+
+    /**
+     * Profileur des détecteurs (null si l'ordre adaptatif est désactivé).
+     */
+    public StageProfiler getDetectorProfiler() {
+        return analyzer.getProfiler();
+    }
+
     public void printStatistics() {
         statistics.printFullReport();
     }
@@ -0,0 +1,216 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * Contrôle d'admission et délestage en cas de surcharge.
+ *
+ * Surveille la latence moyenne par paquet (moyenne mobile exponentielle)
+ * et, si une source est fournie, la profondeur de la file d'entrée.
+ * En surcharge, le moteur se dégrade par paliers :
+ * 1. SKIP_TRUSTED : pas d'analyse approfondie pour les sources de confiance
+ * 2. SAMPLE_LOW_RISK : en plus, seul un paquet sur sampleRate du trafic
+ *    à faible risque (port non surveillé) est analysé
+ * 3. SHED : plus aucune analyse, chaque paquet est accepté (FAIL_OPEN)
+ *    ou bloqué (FAIL_CLOSED) après les filtres et la blacklist
+ *
+ * Un gestionnaire est attaché à un seul moteur : il est mis à jour par
+ * le thread de traitement et lu par n'importe quel thread.
+ *
+ * @author ZGARNI
+ */
+public final class OverloadManager {
+
+    /**
+     * Paliers de dégradation, du plus léger au plus sévère.
+     */
+    public enum Level {
+        NORMAL, SKIP_TRUSTED, SAMPLE_LOW_RISK, SHED
+    }
+
+    /**
+     * Comportement au palier SHED.
+     */
+    public enum SheddingPolicy {
+        /** Les paquets non filtrés/non blacklistés sont acceptés. */
+        FAIL_OPEN,
+        /** Les paquets sont bloqués. */
+        FAIL_CLOSED
+    }
+
+    private static final Level[] LEVELS = Level.values();
+    private static final int EVALUATION_INTERVAL = 64;
+    private static final double EWMA_WEIGHT = 0.05;
+    // Redescente d'un palier quand la mesure passe sous 75 % du seuil courant
+    private static final double HYSTERESIS = 0.75;
+
+    private final SheddingPolicy policy;
+
+    // Seuils d'entrée dans SKIP_TRUSTED, SAMPLE_LOW_RISK, SHED
+    private long[] latencyThresholdsNanos = { 200_000L, 1_000_000L, 5_000_000L };
+    private int[] queueDepthThresholds = { 1_000, 5_000, 20_000 };
+    private IntSupplier queueDepthSource;
+
+    private int sampleRate = 10;
+    private int trustedMinPackets = 20;
+
+    // État (écrit par le thread de traitement)
+    private double averageLatencyNanos;
+    private long packetsSinceEvaluation;
+    private long sampleCounter;
+    private volatile Level level = Level.NORMAL;
+
+    // Métriques
+    private final AtomicLong levelChanges = new AtomicLong();
+    private final AtomicLongArray packetsPerLevel = new AtomicLongArray(LEVELS.length);
+    private final AtomicLong skippedAnalyses = new AtomicLong();
+    private final AtomicLong sampledOutPackets = new AtomicLong();
+    private final AtomicLong shedPackets = new AtomicLong();
+
+    public OverloadManager(SheddingPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy ne peut pas être null");
+    }
+
+    /**
+     * Enregistre la latence d'un paquet et réévalue périodiquement le palier.
+     */
+    void recordLatency(long nanos) {
+        averageLatencyNanos += EWMA_WEIGHT * (nanos - averageLatencyNanos);
+        packetsPerLevel.incrementAndGet(level.ordinal());
+        if (++packetsSinceEvaluation >= EVALUATION_INTERVAL) {
+            packetsSinceEvaluation = 0;
+            evaluate();
+        }
+    }
+
+    /**
+     * Recalcule le palier : montée immédiate, descente d'un palier à la fois
+     * avec hystérésis pour éviter les oscillations.
+     */
+    void evaluate() {
+        int depth = queueDepthSource != null ? queueDepthSource.getAsInt() : 0;
+
+        int target = 0;
+        for (int i = 0; i < latencyThresholdsNanos.length; i++) {
+            if (averageLatencyNanos >= latencyThresholdsNanos[i] || depth >= queueDepthThresholds[i]) {
+                target = i + 1;
+            }
+        }
+
+        int current = level.ordinal();
+        int next = current;
+        if (target > current) {
+            next = target;
+        } else if (current > 0) {
+            int i = current - 1;
+            if (averageLatencyNanos < latencyThresholdsNanos[i] * HYSTERESIS
+                    && depth < queueDepthThresholds[i] * HYSTERESIS) {
+                next = current - 1;
+            }
+        }
+
+        if (next != current) {
+            level = LEVELS[next];
+            levelChanges.incrementAndGet();
+        }
+    }
+
+    /**
+     * Au palier SAMPLE_LOW_RISK : indique si ce paquet à faible risque
+     * doit quand même être analysé (un sur sampleRate).
+     */
+    boolean sampleLowRisk() {
+        if (++sampleCounter % sampleRate == 0) {
+            return true;
+        }
+        sampledOutPackets.incrementAndGet();
+        return false;
+    }
+
+    void recordSkippedAnalysis() {
+        skippedAnalyses.incrementAndGet();
+    }
+
+    void recordShed() {
+        shedPackets.incrementAndGet();
+    }
+
+    // Configuration
+
+    /**
+     * Seuils de latence moyenne (en nanosecondes) pour entrer dans chaque palier.
+     */
+    public void setLatencyThresholds(long skipTrustedNanos, long sampleNanos, long shedNanos) {
+        if (skipTrustedNanos <= 0 || sampleNanos < skipTrustedNanos || shedNanos < sampleNanos) {
+            throw new IllegalArgumentException("Les seuils de latence doivent etre positifs et croissants");
+        }
+        this.latencyThresholdsNanos = new long[] { skipTrustedNanos, sampleNanos, shedNanos };
+    }
+
+    /**
+     * Seuils de profondeur de file pour entrer dans chaque palier.
+     */
+    public void setQueueDepthThresholds(int skipTrusted, int sample, int shed) {
+        if (skipTrusted <= 0 || sample < skipTrusted || shed < sample) {
+            throw new IllegalArgumentException("Les seuils de file doivent etre positifs et croissants");
+        }
+        this.queueDepthThresholds = new int[] { skipTrusted, sample, shed };
+    }
+
+    /**
+     * Source de la profondeur de file (ex : PacketIngestionGateway::getQueueDepth).
+     */
+    public void setQueueDepthSource(IntSupplier queueDepthSource) {
+        this.queueDepthSource = queueDepthSource;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate doit etre >= 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Nombre minimal de paquets analysés, tous acceptés, pour qu'une source
+     * soit de confiance (les paquets délestés ne comptent pas).
+     */
+    public void setTrustedMinPackets(int trustedMinPackets) {
+        if (trustedMinPackets < 1) {
+            throw new IllegalArgumentException("trustedMinPackets doit etre >= 1");
+        }
+        this.trustedMinPackets = trustedMinPackets;
+    }
+
+    // Getters
+    public Level getLevel() { return level; }
+    public SheddingPolicy getPolicy() { return policy; }
+    public int getSampleRate() { return sampleRate; }
+    public int getTrustedMinPackets() { return trustedMinPackets; }
+    public double getAverageLatencyNanos() { return averageLatencyNanos; }
+    public long getLevelChanges() { return levelChanges.get(); }
+    public long getPacketsAtLevel(Level level) { return packetsPerLevel.get(level.ordinal()); }
+    public long getSkippedAnalyses() { return skippedAnalyses.get(); }
+    public long getSampledOutPackets() { return sampledOutPackets.get(); }
+    public long getShedPackets() { return shedPackets.get(); }
+
+    @Override
+    public String toString() {
+        return "OverloadManager{" +
+                "level=" + level +
+                ", policy=" + policy +
+                ", avgLatencyNs=" + Math.round(averageLatencyNanos) +
+                ", levelChanges=" + levelChanges.get() +
+                ", skipped=" + skippedAnalyses.get() +
+                ", sampledOut=" + sampledOutPackets.get() +
+                ", shed=" + shedPackets.get() +
+                '}';
+    }
+}
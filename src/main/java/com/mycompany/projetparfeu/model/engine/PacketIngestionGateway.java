@@ -0,0 +1,240 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.Packet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Point d'entrée concurrent du pare-feu.
+ *
+ * Des milliers de producteurs (lecteurs de capture, clients socket...)
+ * peuvent soumettre des paquets en parallèle. Chaque producteur tourne
+ * sur un thread virtuel lorsque la JVM le permet (Java 21+), sinon sur un
+ * thread démon classique. Les paquets passent par une file bornée vers
+ * un unique thread consommateur qui appelle FirewallEngine.processPacket :
+ * le moteur garde ainsi un seul appelant.
+ *
+ * Chaque future rendue par submit se termine, même si la passerelle est
+ * fermée pendant la soumission : le paquet est alors refusé
+ * (IllegalStateException) au lieu de rester en file sans consommateur.
+ *
+ * @author ZGARNI
+ */
+public final class PacketIngestionGateway implements AutoCloseable {
+
+    /**
+     * Producteur de paquets exécuté par la passerelle.
+     */
+    @FunctionalInterface
+    public interface PacketProducer {
+        void produce(PacketIngestionGateway gateway) throws Exception;
+    }
+
+    private static final int DRAIN_BATCH = 256;
+    private static final long OFFER_WAIT_MS = 100;
+
+    private final FirewallEngine engine;
+    private final BlockingQueue<Submission> queue;
+    private final ExecutorService producers;
+    private final Thread consumer;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Constructeur.
+     *
+     * @param engine moteur démarré qui traitera les paquets
+     * @param capacity taille de la file de transfert (back-pressure au-delà)
+     */
+    public PacketIngestionGateway(FirewallEngine engine, int capacity) {
+        this.engine = Objects.requireNonNull(engine, "engine ne peut pas être null");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity doit etre >= 1");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.producers = newProducerExecutor();
+
+        this.consumer = new Thread(this::consumeLoop, "firewall-ingestion");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Lance un producteur sur son propre thread (virtuel si disponible).
+     *
+     * @param producer code du producteur, qui appelle submit()
+     * @return Future terminé lorsque le producteur a fini
+     */
+    public Future<?> startProducer(PacketProducer producer) {
+        Objects.requireNonNull(producer, "producer ne peut pas être null");
+        ensureOpen();
+        return producers.submit(() -> {
+            producer.produce(this);
+            return null;
+        });
+    }
+
+    /**
+     * Soumet un paquet au moteur.
+     * Bloque le producteur si la file est pleine (back-pressure), tant que
+     * la passerelle reste ouverte.
+     *
+     * @param packet paquet à traiter
+     * @return décision du pare-feu, disponible de façon asynchrone
+     *         (terminée en erreur si la passerelle ferme entre-temps)
+     */
+    public CompletableFuture<DecisionResult> submit(Packet packet) {
+        Objects.requireNonNull(packet, "packet ne peut pas être null");
+        ensureOpen();
+
+        Submission submission = new Submission(packet);
+        try {
+            while (!queue.offer(submission, OFFER_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                if (!open.get()) {
+                    submission.future.completeExceptionally(closedException());
+                    return submission.future;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            submission.future.completeExceptionally(e);
+            return submission.future;
+        }
+        // Fermeture pendant la mise en file : le consommateur a pu sortir.
+        // Si le paquet est encore en file, il est retiré et refusé ; sinon
+        // le consommateur ou close() l'a pris et terminera sa future.
+        if (!open.get() && queue.remove(submission)) {
+            submission.future.completeExceptionally(closedException());
+            return submission.future;
+        }
+        submitted.incrementAndGet();
+        return submission.future;
+    }
+
+    /**
+     * Boucle du thread consommateur : vide la file par lots.
+     */
+    private void consumeLoop() {
+        List<Submission> batch = new ArrayList<>(DRAIN_BATCH);
+        while (open.get() || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+            } catch (InterruptedException e) {
+                // Fermeture : on termine les paquets déjà en file
+                queue.drainTo(batch);
+            }
+
+            for (Submission submission : batch) {
+                try {
+                    submission.future.complete(engine.processPacket(submission.packet));
+                    processed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    submission.future.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Ferme la passerelle : attend la fin des producteurs, refuse les
+     * nouveaux paquets puis traite les paquets restant en file. Un paquet
+     * arrivé en file après la sortie du consommateur est refusé.
+     */
+    @Override
+    public void close() {
+        if (!open.get()) {
+            return;
+        }
+        producers.shutdown();
+        try {
+            producers.awaitTermination(30, TimeUnit.SECONDS);
+            open.set(false);
+            consumer.join();
+        } catch (InterruptedException e) {
+            // Le consommateur termine seul les paquets déjà en file
+            open.set(false);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<Submission> stranded = new ArrayList<>();
+        queue.drainTo(stranded);
+        for (Submission submission : stranded) {
+            failed.incrementAndGet();
+            submission.future.completeExceptionally(closedException());
+        }
+    }
+
+    private void ensureOpen() {
+        if (!open.get()) {
+            throw closedException();
+        }
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("La passerelle d'ingestion est fermée");
+    }
+
+    /**
+     * Crée l'exécuteur des producteurs : un thread virtuel par tâche si la
+     * JVM le propose (Java 21+), sinon des threads démons classiques.
+     */
+    private static ExecutorService newProducerExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "firewall-producer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // Métriques
+    public int getQueueDepth() { return queue.size(); }
+    public int getQueueCapacity() { return queue.size() + queue.remainingCapacity(); }
+    public long getSubmittedPackets() { return submitted.get(); }
+    public long getProcessedPackets() { return processed.get(); }
+    public long getFailedPackets() { return failed.get(); }
+    public boolean isOpen() { return open.get(); }
+
+    /**
+     * Paquet en attente et sa future décision.
+     */
+    private static final class Submission {
+        final Packet packet;
+        final CompletableFuture<DecisionResult> future = new CompletableFuture<>();
+
+        Submission(Packet packet) {
+            this.packet = packet;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.blacklist.AutoBanManager;
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.AbstractFilter;
+import com.mycompany.projetparfeu.model.logging.AsyncDecisionLogger;
+import com.mycompany.projetparfeu.model.statistics.StatisticsManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moteur de pare-feu multi-cœurs partitionné par flux.
+ *
+ * Chaque paquet est affecté à un shard selon le hash de son flux
+ * (IP source/destination et ports). Chaque shard possède son propre
+ * FirewallEngine (analyseur, moteur de décision, statistiques) et son
+ * propre thread : l'ordre des paquets d'un même flux est conservé et
+ * les workers ne partagent aucun verrou. Seul le bannissement automatique
+ * (setAutoBanManager), commun à tous les shards, prend un verrou, et
+ * seulement pour compter une infraction.
+ *
+ * @author ZGARNI
+ */
+public final class ShardedFirewallEngine {
+
+    /**
+     * Ordre des résultats retournés par processPackets.
+     */
+    public enum ResultOrder {
+        /** Même ordre que la liste d'entrée. */
+        INPUT,
+        /** Ordre de fin de traitement (dès qu'un shard a terminé un paquet). */
+        COMPLETION
+    }
+
+    private final FirewallConfig config;
+    private final FirewallEngine[] shards;
+    private final List<AbstractFilter> filters = new ArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AsyncDecisionLogger decisionLogger = new AsyncDecisionLogger();
+
+    private ExecutorService[] workers;
+
+    /**
+     * Constructeur.
+     *
+     * @param config configuration partagée (lecture seule pendant le traitement)
+     * @param shardCount nombre de shards (workers)
+     */
+    public ShardedFirewallEngine(FirewallConfig config, int shardCount) {
+        this.config = Objects.requireNonNull(config, "config ne peut pas être null");
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount doit etre >= 1");
+        }
+
+        this.shards = new FirewallEngine[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new FirewallEngine(config, decisionLogger);
+        }
+
+        shards[0].printBanner();
+        System.out.println("✓ Pare-feu partitionné initialisé (" + shardCount + " shards)");
+    }
+
+    /**
+     * Constructeur avec un shard par cœur disponible.
+     */
+    public ShardedFirewallEngine(FirewallConfig config) {
+        this(config, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Ajoute un filtre à tous les shards.
+     * Les filtres sont immuables et peuvent donc être partagés.
+     */
+    public void addFilter(AbstractFilter filter) {
+        Objects.requireNonNull(filter, "filter ne peut pas être null");
+        ensureStopped();
+        filters.add(filter);
+        for (FirewallEngine shard : shards) {
+            shard.addFilter(filter);
+        }
+        System.out.println("✓ Filtre ajouté : " + filter.getClass().getSimpleName());
+    }
+
+    /**
+     * Active le bannissement automatique sur tous les shards (null pour le
+     * désactiver). Le gestionnaire est partagé : les flux d'une même source
+     * peuvent tomber sur des shards différents. Ses consultations sont sans
+     * verrou (voir AutoBanManager).
+     */
+    public void setAutoBanManager(AutoBanManager autoBanManager) {
+        ensureStopped();
+        for (FirewallEngine shard : shards) {
+            shard.setAutoBanManager(autoBanManager);
+        }
+    }
+
+    public AutoBanManager getAutoBanManager() {
+        return shards[0].getAutoBanManager();
+    }
+
+    public void clearFilters() {
+        ensureStopped();
+        filters.clear();
+        for (FirewallEngine shard : shards) {
+            shard.clearFilters();
+        }
+        System.out.println("Tous les filtres ont été supprimés");
+    }
+
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            workers = new ExecutorService[shards.length];
+            for (int i = 0; i < shards.length; i++) {
+                final int index = i;
+                workers[i] = Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "firewall-shard-" + index);
+                    t.setDaemon(true);
+                    return t;
+                });
+                shards[i].startSilently();
+            }
+
+            System.out.println("\n╔══════════════════════════════════════════════════════════════╗");
+            System.out.println("║         PARE-FEU PARTITIONNÉ DÉMARRÉ                         ║");
+            System.out.println("╚══════════════════════════════════════════════════════════════╝");
+            System.out.println("Configuration : " + config);
+            System.out.println("Shards : " + shards.length);
+            System.out.println("Filtres actifs : " + filters.size());
+            System.out.println("Prêt à traiter les paquets\n");
+        } else {
+            System.out.println("Le pare-feu est déjà démarré");
+        }
+    }
+
+    public void stop() {
+        if (running.compareAndSet(true, false)) {
+            System.out.println("\nArrêt du pare-feu partitionné...");
+            for (int i = 0; i < shards.length; i++) {
+                workers[i].shutdown();
+                shards[i].stopSilently();
+            }
+            workers = null;
+            decisionLogger.flush();
+            System.out.println("Pare-feu arrêté");
+            printStatistics();
+        } else {
+            System.out.println("Le pare-feu est déjà arrêté");
+        }
+    }
+
+    /**
+     * Traite plusieurs paquets en parallèle, résultats dans l'ordre d'entrée.
+     */
+    public List<DecisionResult> processPackets(List<Packet> packets) {
+        return processPackets(packets, ResultOrder.INPUT);
+    }
+
+    /**
+     * Traite plusieurs paquets en parallèle sur les shards.
+     *
+     * @param packets paquets à traiter
+     * @param order ordre souhaité des résultats
+     * @return une décision par paquet
+     */
+    public List<DecisionResult> processPackets(List<Packet> packets, ResultOrder order) {
+        Objects.requireNonNull(packets, "packets ne peut pas être null");
+        Objects.requireNonNull(order, "order ne peut pas être null");
+
+        if (!running.get()) {
+            throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
+        }
+
+        // Partition des indices par shard (l'ordre d'un flux est conservé)
+        int[][] indices = partition(packets);
+
+        DecisionResult[] ordered = order == ResultOrder.INPUT ? new DecisionResult[packets.size()] : null;
+        ConcurrentLinkedQueue<DecisionResult> completed = order == ResultOrder.COMPLETION
+            ? new ConcurrentLinkedQueue<>() : null;
+
+        List<Future<?>> futures = new ArrayList<>(shards.length);
+        for (int s = 0; s < shards.length; s++) {
+            int[] shardIndices = indices[s];
+            if (shardIndices.length == 0) {
+                continue;
+            }
+            FirewallEngine shard = shards[s];
+            futures.add(workers[s].submit(() -> {
+                for (int index : shardIndices) {
+                    DecisionResult result = shard.processPacket(packets.get(index));
+                    if (ordered != null) {
+                        ordered[index] = result;
+                    } else {
+                        completed.add(result);
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Traitement interrompu", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erreur dans un shard : " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        return ordered != null
+            ? Collections.unmodifiableList(Arrays.asList(ordered))
+            : List.copyOf(completed);
+    }
+
+    /**
+     * Répartit les indices des paquets entre les shards.
+     */
+    private int[][] partition(List<Packet> packets) {
+        int[] counts = new int[shards.length];
+        int[] shardOf = new int[packets.size()];
+        for (int i = 0; i < shardOf.length; i++) {
+            int shard = shardFor(packets.get(i));
+            shardOf[i] = shard;
+            counts[shard]++;
+        }
+
+        int[][] indices = new int[shards.length][];
+        for (int s = 0; s < shards.length; s++) {
+            indices[s] = new int[counts[s]];
+        }
+        int[] fill = new int[shards.length];
+        for (int i = 0; i < shardOf.length; i++) {
+            int shard = shardOf[i];
+            indices[shard][fill[shard]++] = i;
+        }
+        return indices;
+    }
+
+    /**
+     * Calcule le shard d'un paquet.
+     * Le hash est symétrique : les deux sens d'une connexion vont
+     * sur le même shard.
+     */
+    int shardFor(Packet packet) {
+        int a = 31 * packet.getSrcIP().hashCode() + packet.getSrcPort();
+        int b = 31 * packet.getDestIP().hashCode() + packet.getDestPort();
+        int h = Math.min(a, b) * 0x9E3779B9 ^ Math.max(a, b);
+        h ^= h >>> 16;
+        return Math.floorMod(h, shards.length);
+    }
+
+    private void ensureStopped() {
+        if (running.get()) {
+            throw new IllegalStateException("Arrêtez le pare-feu avant de modifier les filtres");
+        }
+    }
+
+    /**
+     * Affiche le rapport de chaque shard.
+     */
+    public void printStatistics() {
+        for (int i = 0; i < shards.length; i++) {
+            System.out.println("\n──────── Shard " + i + " ────────");
+            shards[i].printStatistics();
+        }
+    }
+
+    // Getters (agrégés sur tous les shards)
+    public boolean isRunning() { return running.get(); }
+    public FirewallConfig getConfig() { return config; }
+    public int getShardCount() { return shards.length; }
+    public AsyncDecisionLogger getDecisionLogger() { return decisionLogger; }
+
+    public StatisticsManager getShardStatistics(int shard) {
+        return shards[shard].getStatistics();
+    }
+
+    public int getTotalPackets() {
+        return Arrays.stream(shards).mapToInt(FirewallEngine::getTotalPackets).sum();
+    }
+
+    public int getAcceptedPackets() {
+        return Arrays.stream(shards).mapToInt(FirewallEngine::getAcceptedPackets).sum();
+    }
+
+    public int getDroppedPackets() {
+        return Arrays.stream(shards).mapToInt(FirewallEngine::getDroppedPackets).sum();
+    }
+
+    public int getAlertedPackets() {
+        return Arrays.stream(shards).mapToInt(FirewallEngine::getAlertedPackets).sum();
+    }
+
+    public int getLoggedPackets() {
+        return Arrays.stream(shards).mapToInt(FirewallEngine::getLoggedPackets).sum();
+    }
+
+    public List<AbstractFilter> getFilters() {
+        return new ArrayList<>(filters);
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.analyzer.DetectionSignal;
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.Packet;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Mode pipeline du pare-feu : une étape par thread.
+ *
+ * Les étapes de FirewallEngine.processPacket (filtres, blacklist, analyse,
+ * décision, statistiques) sont reliées par un anneau de slots préalloués.
+ * Chaque étape possède un curseur : entre deux étapes voisines, l'anneau
+ * se comporte comme une file SPSC (un seul producteur, un seul consommateur)
+ * sans verrou ni allocation. Chaque étape traite par lot tous les slots
+ * disponibles avant de publier son curseur.
+ *
+ * Un seul thread doit appeler submit(). Pendant que le pipeline tourne,
+ * le moteur ne doit pas être utilisé directement via processPacket.
+ *
+ * Une exception levée par une étape ne bloque pas l'anneau : le paquet
+ * reçoit une décision DROP (fail-closed) qui traverse les étapes
+ * suivantes, et l'échec est compté (getFailureCount).
+ *
+ * @author ZGARNI
+ */
+public final class StagedPipeline implements AutoCloseable {
+
+    /**
+     * Étapes du pipeline, dans l'ordre de traitement.
+     */
+    public enum Stage {
+        FILTER, BLACKLIST, ANALYSIS, DECISION, STATISTICS
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    // Un curseur toutes les 16 cases (128 octets) pour éviter le faux partage
+    private static final int STRIDE = 16;
+    private static final int PRODUCER = 0;
+
+    private final FirewallEngine engine;
+    private final Consumer<DecisionResult> sink;
+    private final Slot[] ring;
+    private final int mask;
+
+    // Curseurs : index 0 = producteur, index i+1 = étape i (nombre de slots traités)
+    private final AtomicLongArray cursors;
+    // Attentes : index 0 = producteur (anneau plein), index i+1 = étape i (entrée vide)
+    private final AtomicLongArray stalls;
+    // Exceptions levées, par étape
+    private final AtomicLongArray failures;
+
+    private final Thread[] workers;
+    private volatile boolean running = true;
+
+    // Utilisé uniquement par le thread producteur
+    private long nextSequence;
+
+    /**
+     * Constructeur : démarre un thread par étape.
+     *
+     * @param engine moteur démarré dont les étapes sont utilisées
+     * @param capacity taille de l'anneau (arrondie à la puissance de 2 supérieure)
+     * @param sink reçoit chaque décision, sur le thread de l'étape STATISTICS
+     */
+    public StagedPipeline(FirewallEngine engine, int capacity, Consumer<DecisionResult> sink) {
+        this.engine = Objects.requireNonNull(engine, "engine ne peut pas être null");
+        this.sink = Objects.requireNonNull(sink, "sink ne peut pas être null");
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity doit etre >= 2");
+        }
+        if (!engine.isRunning()) {
+            throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
+        }
+
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = size - 1;
+
+        this.cursors = new AtomicLongArray((STAGES.length + 1) * STRIDE);
+        this.stalls = new AtomicLongArray((STAGES.length + 1) * STRIDE);
+        this.failures = new AtomicLongArray(STAGES.length);
+
+        this.workers = new Thread[STAGES.length];
+        for (Stage stage : STAGES) {
+            Thread t = new Thread(() -> runStage(stage), "firewall-pipeline-" + stage.name().toLowerCase());
+            t.setDaemon(true);
+            workers[stage.ordinal()] = t;
+            t.start();
+        }
+
+        System.out.println("✓ Pipeline à " + STAGES.length + " étapes démarré (anneau de " + size + " slots)");
+    }
+
+    /**
+     * Soumet un paquet au pipeline (thread producteur unique).
+     * Attend activement si l'anneau est plein.
+     */
+    public void submit(Packet packet) {
+        Objects.requireNonNull(packet, "packet ne peut pas être null");
+        if (!running) {
+            throw new IllegalStateException("Le pipeline est fermé");
+        }
+
+        long sequence = nextSequence;
+        int lastStage = cursorIndex(STAGES.length);
+        if (sequence - cursors.get(lastStage) >= ring.length) {
+            stalls.incrementAndGet(PRODUCER);
+            int idle = 0;
+            while (sequence - cursors.get(lastStage) >= ring.length) {
+                idle = idle(idle);
+                checkWorkers(idle);
+            }
+        }
+
+        ring[(int) sequence & mask].packet = packet;
+        nextSequence = sequence + 1;
+        cursors.lazySet(PRODUCER, nextSequence);
+    }
+
+    /**
+     * Attend que tous les paquets soumis aient traversé le pipeline.
+     */
+    public void flush() {
+        int lastStage = cursorIndex(STAGES.length);
+        int idle = 0;
+        while (cursors.get(lastStage) < nextSequence) {
+            idle = idle(idle);
+            checkWorkers(idle);
+        }
+    }
+
+    /**
+     * Termine les paquets en cours puis arrête les threads des étapes.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        flush();
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Boucle d'une étape : traite par lot les slots publiés par l'étape
+     * précédente, puis publie son propre curseur.
+     */
+    private void runStage(Stage stage) {
+        int previous = stage.ordinal() == 0 ? PRODUCER : cursorIndex(stage.ordinal());
+        int own = cursorIndex(stage.ordinal() + 1);
+        long next = 0;
+        int idle = 0;
+
+        while (true) {
+            boolean stillRunning = running;
+            long available = cursors.get(previous);
+
+            if (next >= available) {
+                if (!stillRunning && next >= cursors.get(PRODUCER)) {
+                    return;
+                }
+                if (idle == 0) {
+                    stalls.incrementAndGet(own);
+                }
+                idle = idle(idle);
+                continue;
+            }
+
+            idle = 0;
+            for (; next < available; next++) {
+                Slot slot = ring[(int) next & mask];
+                try {
+                    process(stage, slot);
+                } catch (RuntimeException e) {
+                    fail(stage, slot, e);
+                }
+            }
+            cursors.lazySet(own, available);
+        }
+    }
+
+    /**
+     * Exécute une étape sur un slot.
+     */
+    private void process(Stage stage, Slot slot) {
+        switch (stage) {
+            case FILTER -> {
+                slot.result = engine.applyFilters(slot.packet);
+                slot.filtered = slot.result != null;
+            }
+            case BLACKLIST -> {
+                if (slot.result == null) {
+                    slot.result = engine.checkBlacklist(slot.packet);
+                }
+            }
+            case ANALYSIS -> {
+                if (slot.result == null) {
+                    slot.signals = engine.analyze(slot.packet);
+                }
+            }
+            case DECISION -> {
+                if (slot.result == null) {
+                    slot.result = engine.decide(slot.packet, slot.signals);
+                }
+            }
+            case STATISTICS -> {
+                DecisionResult result = slot.result;
+                if (slot.filtered) {
+                    engine.recordWithoutLog(result);
+                } else {
+                    engine.recordAndLog(result);
+                }
+                slot.clear();
+                sink.accept(result);
+            }
+        }
+    }
+
+    /**
+     * Échec d'une étape sur un slot : le paquet est bloqué et poursuit
+     * son chemin, les étapes suivantes ne le réexaminent pas.
+     */
+    private void fail(Stage stage, Slot slot, RuntimeException e) {
+        failures.incrementAndGet(stage.ordinal());
+        if (stage == Stage.STATISTICS) {
+            // Statistiques ou sink : le slot est terminé quoi qu'il arrive
+            slot.clear();
+            return;
+        }
+        slot.result = new DecisionResult(slot.packet, List.of(), 0, Actions.DROP,
+                "Erreur à l'étape " + stage + " : " + e);
+        slot.filtered = false;
+    }
+
+    /**
+     * Pendant une attente longue, vérifie que les étapes tournent encore
+     * (une Error aurait arrêté leur thread) au lieu d'attendre sans fin.
+     */
+    private void checkWorkers(int idle) {
+        if (idle > 200 && idle % 1000 == 0) {
+            for (Thread worker : workers) {
+                if (!worker.isAlive()) {
+                    throw new IllegalStateException("L'étape " + worker.getName() + " est arrêtée");
+                }
+            }
+        }
+    }
+
+    /**
+     * Stratégie d'attente : spin, puis yield, puis park court.
+     */
+    private static int idle(int iteration) {
+        if (iteration < 100) {
+            Thread.onSpinWait();
+        } else if (iteration < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+        return iteration + 1;
+    }
+
+    private static int cursorIndex(int position) {
+        return position * STRIDE;
+    }
+
+    // Métriques
+
+    /**
+     * Nombre de paquets en attente devant une étape.
+     */
+    public long getQueueDepth(Stage stage) {
+        int previous = stage.ordinal() == 0 ? PRODUCER : cursorIndex(stage.ordinal());
+        return cursors.get(previous) - cursors.get(cursorIndex(stage.ordinal() + 1));
+    }
+
+    /**
+     * Nombre de fois où une étape a attendu faute de paquets en entrée.
+     */
+    public long getStallCount(Stage stage) {
+        return stalls.get(cursorIndex(stage.ordinal() + 1));
+    }
+
+    /**
+     * Nombre de paquets pour lesquels une étape a levé une exception.
+     */
+    public long getFailureCount(Stage stage) {
+        return failures.get(stage.ordinal());
+    }
+
+    /**
+     * Nombre de fois où le producteur a attendu parce que l'anneau était plein.
+     */
+    public long getProducerStallCount() {
+        return stalls.get(PRODUCER);
+    }
+
+    public long getCompletedPackets() {
+        return cursors.get(cursorIndex(STAGES.length));
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Slot préalloué de l'anneau.
+     */
+    private static final class Slot {
+        Packet packet;
+        List<DetectionSignal> signals;
+        DecisionResult result;
+        boolean filtered;
+
+        void clear() {
+            packet = null;
+            signals = null;
+            result = null;
+            filtered = false;
+        }
+    }
+}
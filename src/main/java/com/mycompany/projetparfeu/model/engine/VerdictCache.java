@@ -0,0 +1,173 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.analyzer.DetectionSignal;
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.Action;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PaquetMalicieux;
+import com.mycompany.projetparfeu.model.statistics.StatisticsManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache LRU borné des verdicts, placé devant PacketAnalyzer et DecisionEngine.
+ *
+ * La clé est une empreinte 64 bits des IPs, ports, protocole et payload
+ * (plus le type d'attaque d'un paquet malicieux, repris dans la raison
+ * de la décision). Le trafic
+ * répétitif (health checks, polling) évite ainsi l'analyse complète.
+ *
+ * Le cache est vidé dès que la version de FirewallConfig change.
+ * Les succès, échecs et évictions sont comptés dans StatisticsManager.
+ *
+ * Non thread-safe : un cache par moteur.
+ *
+ * @author ZGARNI
+ */
+public final class VerdictCache {
+
+    private final int maxEntries;
+    private final FirewallConfig config;
+    private final StatisticsManager statistics;
+    private final LinkedHashMap<Long, CachedVerdict> entries;
+    private long configVersion;
+
+    VerdictCache(int maxEntries, FirewallConfig config, StatisticsManager statistics) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries doit etre >= 1");
+        }
+        this.maxEntries = maxEntries;
+        this.config = Objects.requireNonNull(config, "config ne peut pas être null");
+        this.statistics = Objects.requireNonNull(statistics, "statistics ne peut pas être null");
+        this.configVersion = config.getVersion();
+
+        // accessOrder = true : l'entrée la plus ancienne est la moins récemment utilisée
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1 << 16) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedVerdict> eldest) {
+                if (size() > VerdictCache.this.maxEntries) {
+                    VerdictCache.this.statistics.recordVerdictCacheEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Recherche le verdict d'un paquet identique déjà analysé.
+     *
+     * @return nouvelle décision pour ce paquet, ou null si absent
+     */
+    DecisionResult lookup(Packet packet, long fingerprint) {
+        checkConfigVersion();
+        CachedVerdict cached = entries.get(fingerprint);
+        statistics.recordVerdictCacheLookup(cached != null);
+        if (cached == null) {
+            return null;
+        }
+        return new DecisionResult(packet, cached.signals, cached.totalScore, cached.action, cached.reason);
+    }
+
+    /**
+     * Mémorise le verdict d'un paquet analysé.
+     */
+    void store(long fingerprint, DecisionResult result) {
+        entries.put(fingerprint, new CachedVerdict(result));
+    }
+
+    private void checkConfigVersion() {
+        long version = config.getVersion();
+        if (version != configVersion) {
+            configVersion = version;
+            if (!entries.isEmpty()) {
+                entries.clear();
+                statistics.recordVerdictCacheInvalidation();
+            }
+        }
+    }
+
+    /**
+     * Empreinte 64 bits (FNV-1a puis mélange final) des champs qui
+     * déterminent le verdict.
+     */
+    static long fingerprint(Packet packet) {
+        long h = 0xCBF29CE484222325L;
+        h = mix(h, packet.getSrcIP());
+        h = mix(h, packet.getDestIP());
+        h = (h ^ packet.getSrcPort()) * 0x100000001B3L;
+        h = (h ^ packet.getDestPort()) * 0x100000001B3L;
+        h = (h ^ packet.getProtocolId()) * 0x100000001B3L;
+        h = mix(h, packet.payloadArray(), packet.getPayloadOffset(), packet.getPayloadLength());
+        if (packet instanceof PaquetMalicieux malicious) {
+            h = (h ^ 0xFF) * 0x100000001B3L;
+            h = mix(h, malicious.getTypeAttaque());
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mix(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        // Séparateur entre champs
+        return (h ^ 0x1F) * 0x100000001B3L;
+    }
+
+    private static long mix(long h, byte[] value, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (value[i] & 0xFF)) * 0x100000001B3L;
+        }
+        return (h ^ 0x1F) * 0x100000001B3L;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public String toString() {
+        return "VerdictCache{" +
+                "entries=" + entries.size() + "/" + maxEntries +
+                ", hits=" + statistics.getVerdictCacheHits() +
+                ", misses=" + statistics.getVerdictCacheMisses() +
+                ", evictions=" + statistics.getVerdictCacheEvictions() +
+                '}';
+    }
+
+    /**
+     * Verdict mémorisé (sans le paquet ni l'horodatage).
+     */
+    private static final class CachedVerdict {
+        final List<DetectionSignal> signals;
+        final int totalScore;
+        final Action action;
+        final String reason;
+
+        CachedVerdict(DecisionResult result) {
+            this.signals = result.getSignals();
+            this.totalScore = result.getTotalScore();
+            this.action = result.getAction();
+            this.reason = result.getReason();
+        }
+    }
+}
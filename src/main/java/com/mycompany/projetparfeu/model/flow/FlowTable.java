@@ -0,0 +1,313 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.flow;
+
+import com.mycompany.projetparfeu.model.analyzer.AhoCorasickMatcher;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.net.ProtocolRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Table de suivi des connexions (conntrack) indexée par 5-tuple.
+ *
+ * Table de hachage à adressage ouvert (sondage linéaire) sur des tableaux
+ * primitifs : aucune allocation par paquet. Chaque flux conserve le dernier
+ * verdict, l'instant du dernier paquet, le nombre de paquets depuis la
+ * dernière inspection complète et l'état d'inspection du flux (un long :
+ * reprise de la recherche des mots suspects au paquet suivant).
+ *
+ * Les flux inactifs depuis plus de idleTimeout sont expirés paresseusement
+ * (à la consultation) et par un balayage incrémental à l'insertion. Si la
+ * table est pleine, le flux le moins récent de la fenêtre balayée est évincé.
+ *
+ * Non thread-safe : une table par moteur.
+ *
+ * @author ZGARNI
+ */
+public final class FlowTable {
+
+    private static final int SWEEP_WINDOW = 64;
+    /** État d'inspection d'un nouveau flux (AhoCorasickMatcher.STREAM_START). */
+    public static final long STREAM_START = AhoCorasickMatcher.STREAM_START;
+
+    private final int maxFlows;
+    private final long idleTimeoutNanos;
+    private final int mask;
+
+    // Occupation suivie à part : les clés utilisent leurs 64 bits
+    private final boolean[] used;
+    private final long[] addressKeys;   // src << 32 | dest
+    private final long[] portKeys;      // srcPort << 48 | destPort << 32 | identifiant du protocole
+    private final long[] lastSeen;
+    private final int[] packetsSinceInspection;
+    private final byte[] verdicts;
+    private final long[] streamStates;
+
+    private int size;
+    private int sweepHand;
+
+    // Métriques
+    private long hits;
+    private long misses;
+    private long idleEvictions;
+    private long capacityEvictions;
+
+    /**
+     * Constructeur.
+     *
+     * @param maxFlows nombre maximal de flux suivis
+     * @param idleTimeoutMillis durée d'inactivité avant expiration d'un flux
+     */
+    public FlowTable(int maxFlows, long idleTimeoutMillis) {
+        if (maxFlows < 1 || maxFlows > (1 << 29)) {
+            throw new IllegalArgumentException("maxFlows doit etre entre 1 et 2^29");
+        }
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("idleTimeoutMillis doit etre > 0");
+        }
+        this.maxFlows = maxFlows;
+        this.idleTimeoutNanos = idleTimeoutMillis * 1_000_000L;
+
+        // Facteur de charge <= 0.5 pour des sondages courts
+        int capacity = Integer.highestOneBit(maxFlows * 2 - 1) << 1;
+        capacity = Math.max(capacity, SWEEP_WINDOW);
+        this.mask = capacity - 1;
+        this.used = new boolean[capacity];
+        this.addressKeys = new long[capacity];
+        this.portKeys = new long[capacity];
+        this.lastSeen = new long[capacity];
+        this.packetsSinceInspection = new int[capacity];
+        this.verdicts = new byte[capacity];
+        this.streamStates = new long[capacity];
+    }
+
+    // ========== CLÉS ==========
+
+    /**
+     * Indique si le paquet peut être suivi : adresses IPv4 et protocole
+     * ayant son propre identifiant (OTHER est partagé par plusieurs noms).
+     */
+    public static boolean isTrackable(Packet packet) {
+        return packet.hasIPv4Addresses() && packet.getProtocolId() != ProtocolRegistry.OTHER;
+    }
+
+    /**
+     * Clé des adresses : source sur les 32 bits de poids fort, destination
+     * sur les 32 bits de poids faible. Aucun bit n'est réservé, deux paires
+     * d'adresses distinctes ont toujours des clés distinctes.
+     */
+    public static long addressKey(Packet packet) {
+        return (packet.getSrcIPv4() << 32) | packet.getDestIPv4();
+    }
+
+    public static long portKey(Packet packet) {
+        return ((long) packet.getSrcPort() << 48)
+             | ((long) packet.getDestPort() << 32)
+             | packet.getProtocolId();
+    }
+
+    private int home(long addressKey, long portKey) {
+        long h = addressKey * 0x9E3779B97F4A7C15L + portKey;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (int) h & mask;
+    }
+
+    // ========== OPÉRATIONS ==========
+
+    /**
+     * Recherche un flux actif.
+     *
+     * @return slot du flux, ou -1 s'il est absent ou expiré
+     */
+    public int find(long addressKey, long portKey, long nowNanos) {
+        int slot = home(addressKey, portKey);
+        while (used[slot]) {
+            if (addressKeys[slot] == addressKey && portKeys[slot] == portKey) {
+                if (nowNanos - lastSeen[slot] > idleTimeoutNanos) {
+                    remove(slot);
+                    idleEvictions++;
+                    misses++;
+                    return -1;
+                }
+                hits++;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        misses++;
+        return -1;
+    }
+
+    /**
+     * Enregistre le verdict d'une inspection complète (crée le flux si besoin).
+     * Le compteur de paquets depuis l'inspection est remis à zéro.
+     *
+     * @return slot du flux
+     */
+    public int recordInspection(long addressKey, long portKey, byte verdict, long nowNanos) {
+        int slot = home(addressKey, portKey);
+        while (used[slot]) {
+            if (addressKeys[slot] == addressKey && portKeys[slot] == portKey) {
+                setVerdict(slot, verdict, nowNanos);
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Libère de la place avant de chercher le slot libre :
+        // les suppressions peuvent déplacer des entrées
+        if (size >= maxFlows) {
+            makeRoom(nowNanos);
+        } else {
+            sweep(nowNanos, SWEEP_WINDOW / 8);
+        }
+        slot = home(addressKey, portKey);
+        while (used[slot]) {
+            slot = (slot + 1) & mask;
+        }
+
+        used[slot] = true;
+        addressKeys[slot] = addressKey;
+        portKeys[slot] = portKey;
+        streamStates[slot] = STREAM_START;
+        setVerdict(slot, verdict, nowNanos);
+        size++;
+        return slot;
+    }
+
+    private void setVerdict(int slot, byte verdict, long nowNanos) {
+        verdicts[slot] = verdict;
+        lastSeen[slot] = nowNanos;
+        packetsSinceInspection[slot] = 0;
+    }
+
+    /**
+     * Met à jour un flux sur le chemin rapide (paquet non inspecté).
+     *
+     * @return nombre de paquets depuis la dernière inspection complète
+     */
+    public int touch(int slot, long nowNanos) {
+        lastSeen[slot] = nowNanos;
+        return ++packetsSinceInspection[slot];
+    }
+
+    public byte getVerdict(int slot) {
+        return verdicts[slot];
+    }
+
+    public int getPacketsSinceInspection(int slot) {
+        return packetsSinceInspection[slot];
+    }
+
+    /**
+     * État d'inspection du flux (STREAM_START pour un nouveau flux).
+     */
+    public long getStreamState(int slot) {
+        return streamStates[slot];
+    }
+
+    public void setStreamState(int slot, long streamState) {
+        streamStates[slot] = streamState;
+    }
+
+    /**
+     * Vide la table (ex : après un changement de filtres).
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Libère au moins une place : expire les flux inactifs de la fenêtre
+     * balayée, sinon évince le moins récent.
+     */
+    private void makeRoom(long nowNanos) {
+        if (sweep(nowNanos, SWEEP_WINDOW) > 0) {
+            return;
+        }
+
+        int oldest = -1;
+        for (int i = 0, slot = sweepHand; i < SWEEP_WINDOW || oldest < 0; i++, slot = (slot + 1) & mask) {
+            if (used[slot] && (oldest < 0 || lastSeen[slot] < lastSeen[oldest])) {
+                oldest = slot;
+            }
+        }
+        remove(oldest);
+        capacityEvictions++;
+    }
+
+    /**
+     * Balayage incrémental (aiguille d'horloge) des flux inactifs.
+     *
+     * @return nombre de flux expirés
+     */
+    private int sweep(long nowNanos, int window) {
+        int expired = 0;
+        for (int i = 0; i < window; i++) {
+            int slot = sweepHand;
+            if (used[slot] && nowNanos - lastSeen[slot] > idleTimeoutNanos) {
+                // remove() peut ramener une autre entrée dans ce slot : on le réexamine
+                remove(slot);
+                idleEvictions++;
+                expired++;
+            } else {
+                sweepHand = (sweepHand + 1) & mask;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Suppression par décalage arrière (pas de pierre tombale).
+     */
+    private void remove(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (used[next]) {
+            int ideal = home(addressKeys[next], portKeys[next]);
+            // L'entrée peut combler le trou si son slot idéal n'est pas dans ]hole, next]
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                addressKeys[hole] = addressKeys[next];
+                portKeys[hole] = portKeys[next];
+                lastSeen[hole] = lastSeen[next];
+                packetsSinceInspection[hole] = packetsSinceInspection[next];
+                verdicts[hole] = verdicts[next];
+                streamStates[hole] = streamStates[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[hole] = false;
+        size--;
+    }
+
+    // Métriques
+    public int size() { return size; }
+    public int getMaxFlows() { return maxFlows; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getIdleEvictions() { return idleEvictions; }
+    public long getCapacityEvictions() { return capacityEvictions; }
+    public long getEvictions() { return idleEvictions + capacityEvictions; }
+
+    public double getOccupancy() {
+        return (double) size / maxFlows;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FlowTable{flows=%d/%d, hitRate=%.1f%%, evictions=%d}",
+                size, maxFlows, getHitRate() * 100, getEvictions());
+    }
+}
@@ -4,8 +4,13 @@
  */
 package com.mycompany.projetparfeu.model.generator;
 
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+import com.mycompany.projetparfeu.model.net.ProtocolRegistry;
+
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -21,20 +26,67 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
     protected final int srcPort;
     protected final int destPort;
     protected final String protocol;
-    protected final String payload;
+    // Payload : tranche d'un tableau d'octets (UTF-8), jamais recopiée
+    private final byte[] payloadBytes;
+    private final int payloadOffset;
+    private final int payloadLength;
+    // Vue textuelle, décodée à la première demande (course bénigne)
+    private String payloadText;
     protected final int size;
     protected final LocalDateTime timestamp;
+    // Adresses converties une fois (Ipv4.INVALID si non IPv4)
+    private final long srcIPv4;
+    private final long destIPv4;
+    // Identifiant du protocole (voir ProtocolRegistry)
+    private final int protocolId;
+    // Adresses binaires IPv4/IPv6, calculées à la première demande
+    // (null = pas encore calculée ; IpAddress est immuable, la course est bénigne)
+    private IpAddress srcAddress;
+    private IpAddress destAddress;
+
+    // Marque une adresse textuelle qui n'est ni IPv4 ni IPv6 (comparée par référence)
+    private static final IpAddress NOT_AN_ADDRESS = IpAddress.of(0, 0);
+
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
     protected Packet(String srcIP, String destIP, int srcPort, int destPort, 
                      String protocol, String payload, LocalDateTime timestamp) {
+        this(srcIP, destIP, srcPort, destPort, protocol,
+             payload == null ? EMPTY_PAYLOAD : payload.getBytes(StandardCharsets.UTF_8), 0, -1,
+             payload == null ? "" : payload, timestamp);
+    }
+
+    /**
+     * Paquet dont le payload est une tranche d'octets (UTF-8 attendu).
+     * La tranche n'est pas recopiée : l'appelant ne doit plus la modifier.
+     */
+    protected Packet(String srcIP, String destIP, int srcPort, int destPort,
+                     String protocol, byte[] payload, int payloadOffset, int payloadLength,
+                     LocalDateTime timestamp) {
+        this(srcIP, destIP, srcPort, destPort, protocol,
+             Objects.requireNonNull(payload, "payload ne peut pas être null"),
+             Objects.checkFromIndexSize(payloadOffset, payloadLength, payload.length), payloadLength,
+             null, timestamp);
+    }
+
+    private Packet(String srcIP, String destIP, int srcPort, int destPort, String protocol,
+                   byte[] payload, int payloadOffset, int payloadLength, String payloadText,
+                   LocalDateTime timestamp) {
         this.srcIP = Objects.requireNonNull(srcIP, "srcIP ne peut pas être null");
         this.destIP = Objects.requireNonNull(destIP, "destIP ne peut pas être null");
         this.srcPort = validatePort(srcPort);
         this.destPort = validatePort(destPort);
         this.protocol = Objects.requireNonNull(protocol, "protocol ne peut pas être null");
-        this.payload = payload == null ? "" : payload;
+        this.payloadBytes = payload;
+        this.payloadOffset = payloadOffset;
+        // -1 : tout le tableau (payload encodé depuis une String)
+        this.payloadLength = payloadLength < 0 ? payload.length : payloadLength;
+        this.payloadText = payloadText;
         this.timestamp = timestamp == null ? LocalDateTime.now() : timestamp;
         this.size = computeSize();
+        this.srcIPv4 = Ipv4.tryParse(srcIP);
+        this.destIPv4 = Ipv4.tryParse(destIP);
+        this.protocolId = ProtocolRegistry.intern(protocol);
     }
 
     private static int validatePort(int port) {
@@ -45,8 +97,7 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
 
     protected int computeSize() {
         int headerEstimate = 20;
-        int payloadBytes = payload.getBytes(StandardCharsets.UTF_8).length;
-        return headerEstimate + payloadBytes;
+        return headerEstimate + payloadLength;
     }
 
     // ========== OVERRIDE DES MÉTHODES DEFAULT DE L'INTERFACE ==========
@@ -76,9 +127,34 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
         return protocol; 
     }
 
+    /**
+     * Vue textuelle du payload, pour l'affichage et les journaux : décodée
+     * (UTF-8) à la première demande. Les détecteurs lisent les octets.
+     */
     @Override
     public String getPayload() { 
-        return payload; 
+        String text = payloadText;
+        if (text == null) {
+            text = new String(payloadBytes, payloadOffset, payloadLength, StandardCharsets.UTF_8);
+            payloadText = text;
+        }
+        return text; 
+    }
+
+    /**
+     * Tableau contenant le payload (UTF-8), de getPayloadOffset() sur
+     * getPayloadLength() octets. Partagé, ne pas modifier.
+     */
+    public byte[] payloadArray() {
+        return payloadBytes;
+    }
+
+    public int getPayloadOffset() {
+        return payloadOffset;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
     }
 
     @Override
@@ -91,18 +167,90 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
         return timestamp; 
     }
 
+    /**
+     * IP source sur 32 bits (0 à 2^32-1), ou Ipv4.INVALID si non IPv4.
+     */
+    public long getSrcIPv4() {
+        return srcIPv4;
+    }
+
+    /**
+     * IP destination sur 32 bits (0 à 2^32-1), ou Ipv4.INVALID si non IPv4.
+     */
+    public long getDestIPv4() {
+        return destIPv4;
+    }
+
+    /**
+     * IP source binaire (IPv4 sous forme mappée, ou IPv6), ou null si
+     * l'adresse textuelle n'est pas une adresse IP.
+     */
+    public IpAddress getSrcAddress() {
+        IpAddress address = srcAddress;
+        if (address == null) {
+            address = toAddress(srcIPv4, srcIP);
+            srcAddress = address;
+        }
+        return address == NOT_AN_ADDRESS ? null : address;
+    }
+
+    /**
+     * IP destination binaire (IPv4 sous forme mappée, ou IPv6), ou null si
+     * l'adresse textuelle n'est pas une adresse IP.
+     */
+    public IpAddress getDestAddress() {
+        IpAddress address = destAddress;
+        if (address == null) {
+            address = toAddress(destIPv4, destIP);
+            destAddress = address;
+        }
+        return address == NOT_AN_ADDRESS ? null : address;
+    }
+
+    private static IpAddress toAddress(long ipv4, String text) {
+        if (ipv4 != Ipv4.INVALID) {
+            return IpAddress.ofIpv4((int) ipv4);
+        }
+        IpAddress address = IpAddress.tryParse(text);
+        return address == null ? NOT_AN_ADDRESS : address;
+    }
+
+    /**
+     * Identifiant du protocole (ProtocolRegistry), attribué à la construction.
+     * ProtocolRegistry.OTHER si le registre était plein.
+     */
+    public int getProtocolId() {
+        return protocolId;
+    }
+
+    /**
+     * Indique si les deux adresses sont des IPv4.
+     */
+    public boolean hasIPv4Addresses() {
+        return srcIPv4 != Ipv4.INVALID && destIPv4 != Ipv4.INVALID;
+    }
+
     /**
      * IMPLÉMENTATION DE LA MÉTHODE ABSTRAITE (serialize).
      */
     @Override
     public byte[] serialize() {
-        String s = this.getClass().getSimpleName() + "|" +
+        return serialize(this.getClass().getSimpleName() + "|");
+    }
+
+    /**
+     * En-tête textuel suivi des octets du payload, sans décodage.
+     */
+    protected final byte[] serialize(String prefix) {
+        String s = prefix +
                    srcIP + "->" + destIP + "|" +
                    srcPort + "->" + destPort + "|" +
                    protocol + "|" +
-                   timestamp + "|" +
-                   payload;
-        return s.getBytes(StandardCharsets.UTF_8);
+                   timestamp + "|";
+        byte[] header = s.getBytes(StandardCharsets.UTF_8);
+        byte[] result = Arrays.copyOf(header, header.length + payloadLength);
+        System.arraycopy(payloadBytes, payloadOffset, result, header.length, payloadLength);
+        return result;
     }
 
     @Override
@@ -113,7 +261,7 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
                 destIP, destPort,
                 protocol,
                 size,
-                payload.getBytes(StandardCharsets.UTF_8).length);
+                payloadLength);
     }
 
     @Override
@@ -125,7 +273,7 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
                 ", srcPort=" + srcPort +
                 ", destPort=" + destPort +
                 ", protocol='" + protocol + '\'' +
-                ", payload='" + payload + '\'' +
+                ", payload='" + getPayload() + '\'' +
                 ", size=" + size +
                 ", timestamp=" + timestamp +
                 '}';
@@ -142,12 +290,17 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
                 Objects.equals(srcIP, packet.srcIP) &&
                 Objects.equals(destIP, packet.destIP) &&
                 Objects.equals(protocol, packet.protocol) &&
-                Objects.equals(payload, packet.payload) &&
+                Arrays.equals(payloadBytes, payloadOffset, payloadOffset + payloadLength,
+                              packet.payloadBytes, packet.payloadOffset, packet.payloadOffset + packet.payloadLength) &&
                 Objects.equals(timestamp, packet.timestamp);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(srcIP, destIP, srcPort, destPort, protocol, payload, timestamp);
+        int payloadHash = 1;
+        for (int i = payloadOffset; i < payloadOffset + payloadLength; i++) {
+            payloadHash = 31 * payloadHash + payloadBytes[i];
+        }
+        return Objects.hash(srcIP, destIP, srcPort, destPort, protocol, payloadHash, timestamp);
     }
 }
\ No newline at end of file
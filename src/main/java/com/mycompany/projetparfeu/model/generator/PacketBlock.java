@@ -0,0 +1,282 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.generator;
+
+import com.mycompany.projetparfeu.model.net.Ipv4;
+import com.mycompany.projetparfeu.model.net.ProtocolRegistry;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Bloc de paquets en colonnes (struct-of-arrays).
+ *
+ * Chaque champ est stocké dans son propre tableau primitif : adresses IPv4
+ * et ports en int, protocole en identifiant byte, payloads concaténés dans
+ * une arène d'octets commune. Les filtres et détecteurs peuvent ainsi
+ * parcourir un champ avec une boucle serrée, sans objet par paquet.
+ *
+ * Le type d'attaque d'un paquet malicieux est gardé par référence (colonne
+ * de String, null pour les autres paquets) : toPacket le restitue.
+ *
+ * Les protocoles sont codés via un petit dictionnaire propre au bloc
+ * (256 entrées au maximum) : chaque entrée garde le nom et l'identifiant
+ * ProtocolRegistry. Les protocoles partageant l'identifiant OTHER gardent
+ * ainsi des entrées distinctes.
+ *
+ * Le bloc est réutilisable : clear() le vide sans libérer les tableaux.
+ *
+ * @author ZGARNI
+ */
+public final class PacketBlock {
+
+    /** Paquet identifié comme malicieux (PaquetMalicieux). */
+    public static final byte FLAG_MALICIOUS = 1;
+
+    /** Type d'attaque d'un paquet malicieux ajouté sans type. */
+    public static final String UNKNOWN_ATTACK = "INCONNU";
+
+    private int size;
+
+    private int[] srcIPs;
+    private int[] destIPs;
+    private int[] srcPorts;
+    private int[] destPorts;
+    private byte[] protocols;
+    private byte[] flags;
+    private String[] attackTypes;
+
+    private int[] payloadOffsets;
+    private int[] payloadLengths;
+    private byte[] payloadArena;
+    private int arenaSize;
+
+    private final String[] protocolNames = new String[256];
+    private final int[] protocolIds = new int[256];
+    private int protocolCount;
+
+    /**
+     * Constructeur.
+     *
+     * @param capacity nombre de paquets prévu (le bloc s'agrandit si besoin)
+     * @param arenaCapacity taille prévue de l'arène des payloads, en octets
+     */
+    public PacketBlock(int capacity, int arenaCapacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity doit etre >= 1");
+        }
+        this.srcIPs = new int[capacity];
+        this.destIPs = new int[capacity];
+        this.srcPorts = new int[capacity];
+        this.destPorts = new int[capacity];
+        this.protocols = new byte[capacity];
+        this.flags = new byte[capacity];
+        this.attackTypes = new String[capacity];
+        this.payloadOffsets = new int[capacity];
+        this.payloadLengths = new int[capacity];
+        this.payloadArena = new byte[Math.max(arenaCapacity, 16)];
+    }
+
+    /**
+     * Ajoute un paquet à partir de ses champs primitifs.
+     * Le payload est copié dans l'arène.
+     *
+     * @param malicious true pour un paquet malicieux (type UNKNOWN_ATTACK)
+     * @return index du paquet dans le bloc
+     */
+    public int add(int srcIP, int destIP, int srcPort, int destPort, String protocol,
+                   byte[] payload, int payloadOffset, int payloadLength, boolean malicious) {
+        return add(srcIP, destIP, srcPort, destPort, protocol, payload, payloadOffset, payloadLength,
+                   malicious ? UNKNOWN_ATTACK : null);
+    }
+
+    /**
+     * Ajoute un paquet à partir de ses champs primitifs.
+     * Le payload est copié dans l'arène.
+     *
+     * @param attackType type d'attaque d'un paquet malicieux, null sinon
+     * @return index du paquet dans le bloc
+     */
+    public int add(int srcIP, int destIP, int srcPort, int destPort, String protocol,
+                   byte[] payload, int payloadOffset, int payloadLength, String attackType) {
+        if (srcPort < 0 || srcPort > 65535 || destPort < 0 || destPort > 65535) {
+            throw new IllegalArgumentException("Port invalide");
+        }
+        ensureCapacity(size + 1);
+        ensureArenaCapacity(arenaSize + payloadLength);
+
+        int i = size;
+        srcIPs[i] = srcIP;
+        destIPs[i] = destIP;
+        srcPorts[i] = srcPort;
+        destPorts[i] = destPort;
+        protocols[i] = (byte) localProtocol(protocol, ProtocolRegistry.intern(protocol));
+        flags[i] = attackType != null ? FLAG_MALICIOUS : 0;
+        attackTypes[i] = attackType;
+
+        System.arraycopy(payload, payloadOffset, payloadArena, arenaSize, payloadLength);
+        payloadOffsets[i] = arenaSize;
+        payloadLengths[i] = payloadLength;
+        arenaSize += payloadLength;
+
+        size++;
+        return i;
+    }
+
+    /**
+     * Ajoute un paquet objet (conversion en colonnes).
+     *
+     * @throws IllegalArgumentException si une adresse n'est pas IPv4
+     */
+    public int add(Packet packet) {
+        Objects.requireNonNull(packet, "packet ne peut pas être null");
+        if (!packet.hasIPv4Addresses()) {
+            throw new IllegalArgumentException("Adresses IPv4 requises : " + packet.getSrcIP() + " -> " + packet.getDestIP());
+        }
+        String attackType = packet instanceof PaquetMalicieux malicious ? malicious.getTypeAttaque() : null;
+        return add((int) packet.getSrcIPv4(), (int) packet.getDestIPv4(),
+                   packet.getSrcPort(), packet.getDestPort(), packet.getProtocol(),
+                   packet.payloadArray(), packet.getPayloadOffset(), packet.getPayloadLength(),
+                   attackType);
+    }
+
+    /**
+     * Reconstruit un paquet objet (chemin lent, pour l'affichage ou les filtres
+     * qui ne savent pas travailler en colonnes).
+     */
+    public Packet toPacket(int index) {
+        checkIndex(index);
+        // Copie des octets (l'arène est réutilisée après clear()), sans décodage
+        int offset = payloadOffsets[index];
+        byte[] payload = Arrays.copyOfRange(payloadArena, offset, offset + payloadLengths[index]);
+        if (isMalicious(index)) {
+            return new PaquetMalicieux(Ipv4.toString(srcIPs[index]), Ipv4.toString(destIPs[index]),
+                                       srcPorts[index], destPorts[index], getProtocolName(index),
+                                       payload, 0, payload.length, attackTypes[index], null);
+        }
+        return new PaquetSimple(Ipv4.toString(srcIPs[index]), Ipv4.toString(destIPs[index]),
+                                srcPorts[index], destPorts[index], getProtocolName(index),
+                                payload, 0, payload.length, null);
+    }
+
+    /**
+     * Vide le bloc (les tableaux et le dictionnaire sont conservés).
+     */
+    public void clear() {
+        Arrays.fill(attackTypes, 0, size, null);
+        size = 0;
+        arenaSize = 0;
+    }
+
+    /**
+     * Retourne l'entrée d'un protocole dans le dictionnaire du bloc,
+     * en l'ajoutant si besoin.
+     */
+    private int localProtocol(String protocol, int protocolId) {
+        Objects.requireNonNull(protocol, "protocol ne peut pas être null");
+        for (int local = 0; local < protocolCount; local++) {
+            if (protocolIds[local] == protocolId
+                    && (protocolId != ProtocolRegistry.OTHER || protocolNames[local].equalsIgnoreCase(protocol))) {
+                return local;
+            }
+        }
+        if (protocolCount == protocolNames.length) {
+            throw new IllegalStateException("Trop de protocoles distincts dans le bloc (max 256)");
+        }
+        protocolNames[protocolCount] = protocolId == ProtocolRegistry.OTHER
+            ? protocol.toUpperCase(Locale.ROOT)
+            : ProtocolRegistry.name(protocolId);
+        protocolIds[protocolCount] = protocolId;
+        return protocolCount++;
+    }
+
+    /**
+     * Recherche l'entrée locale d'un protocole à partir de son identifiant
+     * ProtocolRegistry (comparaison d'entiers, une fois par bloc).
+     * Ne pas utiliser avec ProtocolRegistry.OTHER, partagé par plusieurs noms.
+     *
+     * @return entrée locale (valeur de protocolColumn()), ou -1 si aucun
+     *         paquet du bloc n'utilise ce protocole
+     */
+    public int findProtocol(int protocolId) {
+        for (int local = 0; local < protocolCount; local++) {
+            if (protocolIds[local] == protocolId) {
+                return local;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= srcIPs.length) {
+            return;
+        }
+        int capacity = Math.max(required, srcIPs.length * 2);
+        srcIPs = Arrays.copyOf(srcIPs, capacity);
+        destIPs = Arrays.copyOf(destIPs, capacity);
+        srcPorts = Arrays.copyOf(srcPorts, capacity);
+        destPorts = Arrays.copyOf(destPorts, capacity);
+        protocols = Arrays.copyOf(protocols, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        attackTypes = Arrays.copyOf(attackTypes, capacity);
+        payloadOffsets = Arrays.copyOf(payloadOffsets, capacity);
+        payloadLengths = Arrays.copyOf(payloadLengths, capacity);
+    }
+
+    private void ensureArenaCapacity(int required) {
+        if (required > payloadArena.length) {
+            payloadArena = Arrays.copyOf(payloadArena, Math.max(required, payloadArena.length * 2));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " hors du bloc (taille " + size + ")");
+        }
+    }
+
+    // ========== ACCÈS PAR INDEX ==========
+
+    public int size() { return size; }
+    public int getSrcIP(int index) { return srcIPs[index]; }
+    public int getDestIP(int index) { return destIPs[index]; }
+    public int getSrcPort(int index) { return srcPorts[index]; }
+    public int getDestPort(int index) { return destPorts[index]; }
+    public int getProtocolId(int index) { return protocolIds[protocols[index] & 0xFF]; }
+    public String getProtocolName(int index) { return protocolNames[protocols[index] & 0xFF]; }
+    public boolean isMalicious(int index) { return (flags[index] & FLAG_MALICIOUS) != 0; }
+    public String getAttackType(int index) { return attackTypes[index]; }
+    public int getPayloadOffset(int index) { return payloadOffsets[index]; }
+    public int getPayloadLength(int index) { return payloadLengths[index]; }
+
+    /**
+     * Taille estimée du paquet (même calcul que Packet : 20 octets d'en-tête + payload).
+     */
+    public int getSize(int index) { return 20 + payloadLengths[index]; }
+
+    // ========== ACCÈS AUX COLONNES (boucles serrées) ==========
+    // Les tableaux peuvent être plus longs que size() : seuls les size() premiers
+    // éléments sont valides. Ils ne doivent pas être modifiés.
+
+    public int[] srcIPColumn() { return srcIPs; }
+    public int[] destIPColumn() { return destIPs; }
+    public int[] srcPortColumn() { return srcPorts; }
+    public int[] destPortColumn() { return destPorts; }
+    public byte[] protocolColumn() { return protocols; }
+    public byte[] flagColumn() { return flags; }
+    public int[] payloadOffsetColumn() { return payloadOffsets; }
+    public int[] payloadLengthColumn() { return payloadLengths; }
+    public byte[] payloadArena() { return payloadArena; }
+
+    @Override
+    public String toString() {
+        return "PacketBlock{" +
+                "size=" + size +
+                ", payloadBytes=" + arenaSize +
+                ", protocols=" + protocolCount +
+                '}';
+    }
+}
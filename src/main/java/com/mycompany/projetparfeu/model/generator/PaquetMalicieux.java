@@ -40,13 +40,21 @@ public final class PaquetMalicieux extends Packet {
         this(srcIP, destIP, srcPort, destPort, protocol, payload, typeAttaque, null);
     }
 
+    /**
+     * Paquet dont le payload est une tranche d'octets (non recopiée).
+     */
+    public PaquetMalicieux(String srcIP, String destIP, int srcPort, int destPort, String protocol,
+                           byte[] payload, int payloadOffset, int payloadLength,
+                           String typeAttaque, LocalDateTime timestamp) {
+        super(srcIP, destIP, srcPort, destPort, protocol, payload, payloadOffset, payloadLength, timestamp);
+        this.typeAttaque = Objects.requireNonNull(typeAttaque, "typeAttaque ne peut pas être null");
+    }
+
     public String getTypeAttaque() { return typeAttaque; }
 
     @Override
     public byte[] serialize() {
-        String base = new String(super.serialize());
-        String extended = "MALICIEUX|" + typeAttaque + "|" + base;
-        return extended.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        return serialize("MALICIEUX|" + typeAttaque + "|" + getClass().getSimpleName() + "|");
     }
 
     @Override
@@ -58,7 +66,7 @@ public final class PaquetMalicieux extends Packet {
                 ", srcPort=" + srcPort +
                 ", destPort=" + destPort +
                 ", protocol='" + protocol + '\'' +
-                ", payload='" + payload + '\'' +
+                ", payload='" + getPayload() + '\'' +
                 ", size=" + size +
                 ", timestamp=" + timestamp +
                 '}';
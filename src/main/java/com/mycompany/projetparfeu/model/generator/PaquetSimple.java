@@ -28,6 +28,14 @@ public final class PaquetSimple extends Packet {
         this(srcIP, destIP, srcPort, destPort, protocol, payload, null);
     }
 
+    /**
+     * Paquet dont le payload est une tranche d'octets (non recopiée).
+     */
+    public PaquetSimple(String srcIP, String destIP, int srcPort, int destPort, String protocol,
+                        byte[] payload, int payloadOffset, int payloadLength, LocalDateTime timestamp) {
+        super(srcIP, destIP, srcPort, destPort, protocol, payload, payloadOffset, payloadLength, timestamp);
+    }
+
     @Override
     public byte[] serialize() {
         return super.serialize();
@@ -10,6 +10,7 @@ package com.mycompany.projetparfeu.model.initialPacketFIltering;
  */
 
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
 
 
 public abstract class AbstractFilter {
@@ -22,4 +23,22 @@ public abstract class AbstractFilter {
      */
     public abstract boolean accept(Packet packet);
 
+    /**
+     * Filtre un bloc colonnaire : marque dans rejected les paquets refusés.
+     * Les paquets déjà rejetés ne sont pas réexaminés.
+     *
+     * Implémentation par défaut : reconstruit chaque paquet (chemin lent).
+     * Les filtres standards la redéfinissent avec une boucle sur les colonnes.
+     *
+     * @param block bloc de paquets
+     * @param rejected rejected[i] passe à true si le paquet i est refusé
+     */
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        for (int i = 0; i < block.size(); i++) {
+            if (!rejected[i] && !accept(block.toPacket(i))) {
+                rejected[i] = true;
+            }
+        }
+    }
+
 }
@@ -0,0 +1,126 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+/**
+ *
+ * @author ZGARNI
+ */
+
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.IpPrefixTrie;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+
+import java.util.Objects;
+
+/**
+ * Filtrage par préfixes CIDR (ex : "10.0.0.0/8", "2001:db8::/32") sur
+ * l'adresse source ou destination, avec règles d'autorisation et de refus.
+ *
+ * Le préfixe le plus spécifique qui contient l'adresse décide ; si aucun
+ * ne la contient (ou si l'adresse n'est pas une adresse IP), la politique
+ * par défaut s'applique. Les préfixes sont stockés dans un IpPrefixTrie :
+ * une recherche compare des entiers, sans String, en IPv4 comme en IPv6.
+ */
+public class CidrIPFilter extends AbstractFilter {
+
+    /**
+     * Adresse du paquet examinée par le filtre.
+     */
+    public enum Direction {
+        SOURCE, DESTINATION
+    }
+
+    private static final int DENY = 0;
+    private static final int ALLOW = 1;
+
+    private final Direction direction;
+    private final boolean defaultAllow;
+    private final IpPrefixTrie rules;
+
+    /**
+     * @param direction adresse examinée
+     * @param defaultAllow true pour accepter les adresses couvertes par aucune règle
+     */
+    public CidrIPFilter(Direction direction, boolean defaultAllow) {
+        this.direction = Objects.requireNonNull(direction, "direction ne peut pas être null");
+        this.defaultAllow = defaultAllow;
+        this.rules = new IpPrefixTrie();
+    }
+
+    /**
+     * Autorise un préfixe ("a.b.c.d/len", "2001:db8::/32" ou une adresse seule).
+     * Remplace une règle existante sur le même préfixe.
+     */
+    public void allow(String cidr) {
+        rules.insert(cidr, ALLOW);
+    }
+
+    /**
+     * Refuse un préfixe ("a.b.c.d/len", "2001:db8::/32" ou une adresse seule).
+     * Remplace une règle existante sur le même préfixe.
+     */
+    public void deny(String cidr) {
+        rules.insert(cidr, DENY);
+    }
+
+    @Override
+    public boolean accept(Packet packet) {
+        boolean source = direction == Direction.SOURCE;
+        long ipv4 = source ? packet.getSrcIPv4() : packet.getDestIPv4();
+        if (ipv4 != Ipv4.INVALID) {
+            return accept((int) ipv4);
+        }
+        IpAddress address = source ? packet.getSrcAddress() : packet.getDestAddress();
+        if (address == null) {
+            return defaultAllow;
+        }
+        return decide(rules.lookup(address));
+    }
+
+    private boolean accept(int ipv4) {
+        return decide(rules.lookupIpv4(ipv4));
+    }
+
+    private boolean decide(int rule) {
+        return rule == IpPrefixTrie.NO_VALUE ? defaultAllow : rule == ALLOW;
+    }
+
+    @Override
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        int[] column = direction == Direction.SOURCE ? block.srcIPColumn() : block.destIPColumn();
+        for (int i = 0; i < block.size(); i++) {
+            if (!rejected[i] && !accept(column[i])) {
+                rejected[i] = true;
+            }
+        }
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isDefaultAllow() {
+        return defaultAllow;
+    }
+
+    /**
+     * Nombre de préfixes (autorisés et refusés).
+     */
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    @Override
+    public String toString() {
+        return "CidrIPFilter{" +
+                "direction=" + direction +
+                ", defaultAllow=" + defaultAllow +
+                ", rules=" + rules.size() +
+                '}';
+    }
+}
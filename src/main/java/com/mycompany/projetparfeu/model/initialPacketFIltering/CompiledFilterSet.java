@@ -0,0 +1,395 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ensemble de filtres compilé en une structure de classification.
+ *
+ * Un paquet est accepté si tous les filtres l'acceptent. Les filtres
+ * standards (IPFilter, PortFilter, ProtocolFilter) sont des conjonctions
+ * d'égalités sur un champ : ils sont regroupés par champ (IP source,
+ * IP destination, port source, port destination, protocole). Pour chaque
+ * champ, on retient la première contrainte (valeur, index du filtre) et
+ * le premier filtre qui exige une autre valeur. Le premier filtre qui
+ * rejette un paquet s'obtient alors en une comparaison par champ, quel
+ * que soit le nombre de règles.
+ *
+ * Les autres filtres (sous-classes ou filtres personnalisés) restent dans
+ * une chaîne résiduelle évaluée dans l'ordre de la liste.
+ *
+ * Le résultat est identique à la chaîne linéaire, y compris l'index du
+ * premier filtre qui rejette le paquet. Immuable : à recompiler quand la
+ * liste des filtres change.
+ *
+ * En option, firstRejecting est généré en bytecode (FilterBytecodeCompiler) :
+ * les contraintes deviennent des comparaisons avec des constantes et chaque
+ * filtre résiduel a son propre site d'appel.
+ *
+ * @author ZGARNI
+ */
+public final class CompiledFilterSet {
+
+    private final AbstractFilter[] filters;
+    private final String[] names;
+
+    private final StringRule srcIP = new StringRule();
+    private final StringRule destIP = new StringRule();
+    private final IntRule srcPort = new IntRule();
+    private final IntRule destPort = new IntRule();
+    private final IntRule protocol = new IntRule();   // identifiants ProtocolRegistry
+
+    // Index (dans la liste) des filtres non compilés, par ordre croissant
+    private final int[] residual;
+
+    // Programme généré (null = chemin interprété)
+    private final FilterProgram program;
+
+    private CompiledFilterSet(List<AbstractFilter> filters, boolean generateBytecode) {
+        this.filters = filters.toArray(new AbstractFilter[0]);
+        this.names = new String[this.filters.length];
+
+        List<Integer> residualIndices = new ArrayList<>();
+        for (int i = 0; i < this.filters.length; i++) {
+            AbstractFilter filter = Objects.requireNonNull(this.filters[i], "filter ne peut pas être null");
+            names[i] = filter.getClass().getSimpleName();
+            if (!compile(filter, i)) {
+                residualIndices.add(i);
+            }
+        }
+        this.residual = residualIndices.stream().mapToInt(Integer::intValue).toArray();
+        this.program = generateBytecode ? generateProgram() : null;
+    }
+
+    /**
+     * Compile une liste de filtres (la liste est copiée).
+     */
+    public static CompiledFilterSet compile(List<AbstractFilter> filters) {
+        return compile(filters, false);
+    }
+
+    /**
+     * Compile une liste de filtres (la liste est copiée).
+     *
+     * @param generateBytecode true pour générer firstRejecting en bytecode ;
+     *        si la génération n'est pas possible, le chemin interprété est utilisé
+     */
+    public static CompiledFilterSet compile(List<AbstractFilter> filters, boolean generateBytecode) {
+        Objects.requireNonNull(filters, "filters ne peut pas être null");
+        return new CompiledFilterSet(filters, generateBytecode);
+    }
+
+    /**
+     * Traduit les contraintes et la chaîne résiduelle en vérifications
+     * ordonnées par index de filtre, puis génère le programme.
+     */
+    private FilterProgram generateProgram() {
+        List<FilterBytecodeCompiler.Check> checks = new ArrayList<>();
+        srcIP.addChecks(checks, FilterBytecodeCompiler.SRC_IP);
+        destIP.addChecks(checks, FilterBytecodeCompiler.DEST_IP);
+        srcPort.addChecks(checks, FilterBytecodeCompiler.SRC_PORT);
+        destPort.addChecks(checks, FilterBytecodeCompiler.DEST_PORT);
+        protocol.addChecks(checks, FilterBytecodeCompiler.PROTOCOL);
+
+        AbstractFilter[] residualFilters = new AbstractFilter[residual.length];
+        for (int position = 0; position < residual.length; position++) {
+            residualFilters[position] = filters[residual[position]];
+            checks.add(new FilterBytecodeCompiler.Check(FilterBytecodeCompiler.FILTER, residual[position],
+                                                        null, position));
+        }
+        // Tri stable : à index égal, l'ordre des champs est conservé
+        checks.sort(Comparator.comparingInt(check -> check.index));
+        return FilterBytecodeCompiler.compile(checks, residualFilters);
+    }
+
+    /**
+     * Ajoute les contraintes d'un filtre standard.
+     * Seules les classes exactes sont compilées : une sous-classe peut
+     * redéfinir accept().
+     *
+     * @return false si le filtre doit rester dans la chaîne résiduelle
+     */
+    private boolean compile(AbstractFilter filter, int index) {
+        if (filter.getClass() == IPFilter.class) {
+            IPFilter ipFilter = (IPFilter) filter;
+            srcIP.add(ipFilter.getSrcIP(), index);
+            destIP.add(ipFilter.getDestIP(), index);
+            return true;
+        }
+        if (filter.getClass() == PortFilter.class) {
+            PortFilter portFilter = (PortFilter) filter;
+            srcPort.add(portFilter.getSrcPort(), index);
+            destPort.add(portFilter.getDestPort(), index);
+            return true;
+        }
+        if (filter.getClass() == ProtocolFilter.class && ((ProtocolFilter) filter).hasDistinctId()) {
+            protocol.add(((ProtocolFilter) filter).getProtocolId(), index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Premier filtre qui rejette le paquet, dans l'ordre de la liste.
+     *
+     * @return index du filtre, ou -1 si tous l'acceptent
+     */
+    public int firstRejecting(Packet packet) {
+        if (program != null) {
+            return program.firstRejecting(packet);
+        }
+        int rejecting = firstCompiledRejection(packet);
+        // Seuls les filtres résiduels placés avant le rejet compilé peuvent le précéder
+        int limit = rejecting >= 0 ? rejecting : Integer.MAX_VALUE;
+        for (int index : residual) {
+            if (index >= limit) {
+                break;
+            }
+            if (!filters[index].accept(packet)) {
+                return index;
+            }
+        }
+        return rejecting;
+    }
+
+    /**
+     * Premier filtre compilé qui rejette le paquet (chaîne résiduelle ignorée).
+     *
+     * @return index du filtre, ou -1 si tous les filtres compilés l'acceptent
+     */
+    public int firstCompiledRejection(Packet packet) {
+        int rejecting = min(srcIP.firstRejecting(packet.getSrcIP()),
+                            destIP.firstRejecting(packet.getDestIP()));
+        rejecting = min(rejecting, srcPort.firstRejecting(packet.getSrcPort()));
+        rejecting = min(rejecting, destPort.firstRejecting(packet.getDestPort()));
+        return min(rejecting, protocol.firstRejecting(packet.getProtocolId()));
+    }
+
+    /**
+     * Version colonnaire : une passe par champ contraint (et une par filtre
+     * résiduel), quel que soit le nombre de règles compilées.
+     *
+     * @param block bloc de paquets
+     * @param rejected rejected[i] passe à true si le paquet i est refusé
+     */
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        srcIP.rejectBatch(block.srcIPColumn(), block.size(), rejected);
+        destIP.rejectBatch(block.destIPColumn(), block.size(), rejected);
+        srcPort.rejectBatch(block.srcPortColumn(), block.size(), rejected);
+        destPort.rejectBatch(block.destPortColumn(), block.size(), rejected);
+        protocol.rejectProtocols(block, rejected);
+        for (int index : residual) {
+            filters[index].rejectBatch(block, rejected);
+        }
+    }
+
+    /**
+     * Plus petit des deux index, -1 signifiant "aucun".
+     */
+    private static int min(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        return b < 0 ? a : Math.min(a, b);
+    }
+
+    // ========== ACCÈS ==========
+
+    public int size() {
+        return filters.length;
+    }
+
+    public AbstractFilter getFilter(int index) {
+        return filters[index];
+    }
+
+    /**
+     * Nom du filtre (calculé à la compilation).
+     */
+    public String getFilterName(int index) {
+        return names[index];
+    }
+
+    public int getCompiledCount() {
+        return filters.length - residual.length;
+    }
+
+    /**
+     * Vérifie si firstRejecting utilise le programme généré.
+     */
+    public boolean isBytecodeCompiled() {
+        return program != null;
+    }
+
+    public int getResidualCount() {
+        return residual.length;
+    }
+
+    /**
+     * Index dans la liste du filtre résiduel en position donnée.
+     */
+    public int getResidualIndex(int position) {
+        return residual[position];
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledFilterSet{" +
+                "filters=" + filters.length +
+                ", compiled=" + getCompiledCount() +
+                ", residual=" + residual.length +
+                ", bytecode=" + (program != null) +
+                '}';
+    }
+
+    /**
+     * Contraintes d'égalité sur un champ texte (adresse IP).
+     */
+    private static final class StringRule {
+        private String firstValue;
+        private int firstIndex = -1;
+        private int otherIndex = -1;   // premier filtre exigeant une valeur différente
+
+        void add(String value, int index) {
+            if (value == null) {
+                return; // champ ignoré par ce filtre
+            }
+            if (firstIndex < 0) {
+                firstValue = value;
+                firstIndex = index;
+            } else if (otherIndex < 0 && !matches(value)) {
+                otherIndex = index;
+            }
+        }
+
+        /**
+         * Vérifie si une valeur correspond à la première contrainte, avec la
+         * même comparaison que le filtre (la valeur du filtre est l'objet appelant).
+         */
+        private boolean matches(String value) {
+            return firstValue.equals(value);
+        }
+
+        int firstRejecting(String value) {
+            if (firstIndex < 0) {
+                return -1;
+            }
+            return matches(value) ? otherIndex : firstIndex;
+        }
+
+        /**
+         * Rejet en firstIndex si la valeur diffère, puis rejet inconditionnel
+         * en otherIndex (atteint seulement si la valeur correspondait).
+         */
+        void addChecks(List<FilterBytecodeCompiler.Check> checks, int kind) {
+            if (firstIndex < 0) {
+                return;
+            }
+            checks.add(new FilterBytecodeCompiler.Check(kind, firstIndex, firstValue, 0));
+            if (otherIndex >= 0) {
+                checks.add(new FilterBytecodeCompiler.Check(FilterBytecodeCompiler.ALWAYS, otherIndex, null, 0));
+            }
+        }
+
+        /**
+         * Champ adresse d'un bloc (IPv4 en int).
+         */
+        void rejectBatch(int[] column, int n, boolean[] rejected) {
+            if (firstIndex < 0) {
+                return;
+            }
+            long expected = Ipv4.tryParse(firstValue);
+            // Deux valeurs exigées, ou une adresse non IPv4 : aucun paquet ne passe
+            if (otherIndex >= 0 || expected == Ipv4.INVALID) {
+                Arrays.fill(rejected, 0, n, true);
+                return;
+            }
+            int address = (int) expected;
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= column[i] != address;
+            }
+        }
+    }
+
+    /**
+     * Contraintes d'égalité sur un champ entier.
+     */
+    private static final class IntRule {
+        private int firstValue;
+        private int firstIndex = -1;
+        private int otherIndex = -1;
+
+        void add(Integer value, int index) {
+            if (value == null) {
+                return;
+            }
+            if (firstIndex < 0) {
+                firstValue = value;
+                firstIndex = index;
+            } else if (otherIndex < 0 && value != firstValue) {
+                otherIndex = index;
+            }
+        }
+
+        int firstRejecting(int value) {
+            if (firstIndex < 0) {
+                return -1;
+            }
+            return value == firstValue ? otherIndex : firstIndex;
+        }
+
+        void addChecks(List<FilterBytecodeCompiler.Check> checks, int kind) {
+            if (firstIndex < 0) {
+                return;
+            }
+            checks.add(new FilterBytecodeCompiler.Check(kind, firstIndex, null, firstValue));
+            if (otherIndex >= 0) {
+                checks.add(new FilterBytecodeCompiler.Check(FilterBytecodeCompiler.ALWAYS, otherIndex, null, 0));
+            }
+        }
+
+        void rejectBatch(int[] column, int n, boolean[] rejected) {
+            if (firstIndex < 0) {
+                return;
+            }
+            if (otherIndex >= 0) {
+                Arrays.fill(rejected, 0, n, true);
+                return;
+            }
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= column[i] != firstValue;
+            }
+        }
+
+        /**
+         * Champ protocole d'un bloc : l'identifiant est converti une fois en
+         * entrée du dictionnaire du bloc.
+         */
+        void rejectProtocols(PacketBlock block, boolean[] rejected) {
+            if (firstIndex < 0) {
+                return;
+            }
+            int n = block.size();
+            if (otherIndex >= 0) {
+                Arrays.fill(rejected, 0, n, true);
+                return;
+            }
+            int expected = block.findProtocol(firstValue);
+            byte[] column = block.protocolColumn();
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= (column[i] & 0xFF) != expected;
+            }
+        }
+    }
+}
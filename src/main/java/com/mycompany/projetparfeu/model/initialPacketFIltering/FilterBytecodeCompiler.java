@@ -0,0 +1,379 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Génère une classe cachée (MethodHandles.Lookup.defineHiddenClass) qui
+ * implémente FilterProgram pour un ensemble de filtres compilé.
+ *
+ * Les vérifications sont émises en code linéaire, par index de filtre
+ * croissant : comparaisons avec des constantes pour les filtres standards,
+ * appel de accept() pour les filtres résiduels. Chaque appel a son propre
+ * site d'appel, qui ne voit qu'un seul type de filtre : le JIT peut
+ * l'inliner, ce que la boucle sur AbstractFilter (site mégamorphique)
+ * empêche.
+ *
+ * Le fichier de classe est écrit directement (version 49 : pas de table
+ * StackMapTable à calculer). Au-delà de MAX_CHECKS vérifications, la
+ * méthode dépasserait la taille que le JIT accepte de compiler : aucune
+ * classe n'est générée.
+ *
+ * @author ZGARNI
+ */
+final class FilterBytecodeCompiler {
+
+    /** Nombre maximal de vérifications dans la méthode générée. */
+    static final int MAX_CHECKS = 200;
+
+    // Types de vérification
+    static final int SRC_IP = 0;
+    static final int DEST_IP = 1;
+    static final int SRC_PORT = 2;
+    static final int DEST_PORT = 3;
+    static final int PROTOCOL = 4;
+    static final int ALWAYS = 5;
+    static final int FILTER = 6;
+
+    private static final String CLASS_NAME =
+        "com/mycompany/projetparfeu/model/initialPacketFIltering/GeneratedFilterProgram";
+    private static final String PROGRAM = "com/mycompany/projetparfeu/model/initialPacketFIltering/FilterProgram";
+    private static final String FILTER_CLASS = "com/mycompany/projetparfeu/model/initialPacketFIltering/AbstractFilter";
+    private static final String PACKET = "com/mycompany/projetparfeu/model/generator/Packet";
+    private static final String FILTER_DESC = "L" + FILTER_CLASS + ";";
+
+    // Opcodes utilisés
+    private static final int ICONST_M1 = 0x02;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int AALOAD = 0x32;
+    private static final int IFNE = 0x9a;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    // Constructeur privé (classe utilitaire non instanciable)
+    private FilterBytecodeCompiler() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Vérification élémentaire : le paquet est rejeté par le filtre index
+     * si la condition échoue.
+     */
+    static final class Check {
+        final int kind;
+        final int index;
+        final String stringValue;  // SRC_IP, DEST_IP
+        final int intValue;        // ports, protocole, position du filtre résiduel
+
+        Check(int kind, int index, String stringValue, int intValue) {
+            this.kind = kind;
+            this.index = index;
+            this.stringValue = stringValue;
+            this.intValue = intValue;
+        }
+    }
+
+    /**
+     * Génère et instancie le programme.
+     *
+     * @param checks vérifications triées par index croissant
+     * @param residualFilters filtres appelés par les vérifications FILTER
+     * @return programme, ou null si l'ensemble est trop grand ou si la
+     *         génération échoue (le chemin interprété est alors utilisé)
+     */
+    static FilterProgram compile(List<Check> checks, AbstractFilter[] residualFilters) {
+        if (checks.size() > MAX_CHECKS) {
+            return null;
+        }
+        byte[] classBytes = generate(checks, residualFilters.length);
+        try {
+            Class<?> programClass = MethodHandles.lookup().defineHiddenClass(classBytes, true).lookupClass();
+            return (FilterProgram) programClass.getConstructor(AbstractFilter[].class)
+                                               .newInstance((Object) residualFilters.clone());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("⚠ Compilation des filtres en bytecode impossible : " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Écrit le fichier de classe.
+     */
+    static byte[] generate(List<Check> checks, int filterCount) {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int programInterface = pool.classRef(PROGRAM);
+        int code = pool.utf8("Code");
+
+        int[] fieldRefs = new int[filterCount];
+        int[] fieldNames = new int[filterCount];
+        int filterDesc = pool.utf8(FILTER_DESC);
+        for (int i = 0; i < filterCount; i++) {
+            fieldNames[i] = pool.utf8("f" + i);
+            fieldRefs[i] = pool.memberRef(9, CLASS_NAME, "f" + i, FILTER_DESC);
+        }
+
+        byte[] constructor = constructorCode(pool, fieldRefs);
+        byte[] firstRejecting = firstRejectingCode(pool, checks, fieldRefs);
+
+        int initName = pool.utf8("<init>");
+        int initDesc = pool.utf8("([" + FILTER_DESC + ")V");
+        int methodName = pool.utf8("firstRejecting");
+        int methodDesc = pool.utf8("(L" + PACKET + ";)I");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(49);
+            pool.writeTo(out);
+
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(programInterface);
+
+            out.writeShort(filterCount);
+            for (int i = 0; i < filterCount; i++) {
+                out.writeShort(ACC_PRIVATE | ACC_FINAL);
+                out.writeShort(fieldNames[i]);
+                out.writeShort(filterDesc);
+                out.writeShort(0);
+            }
+
+            out.writeShort(2);
+            writeMethod(out, initName, initDesc, code, 3, 2, constructor);
+            writeMethod(out, methodName, methodDesc, code, 2, 2, firstRejecting);
+
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Constructeur : this.fi = filters[i].
+     */
+    private static byte[] constructorCode(ConstantPool pool, int[] fieldRefs) {
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        code.write(ALOAD_0);
+        writeOp(code, INVOKESPECIAL, pool.memberRef(10, "java/lang/Object", "<init>", "()V"));
+        for (int i = 0; i < fieldRefs.length; i++) {
+            code.write(ALOAD_0);
+            code.write(ALOAD_1);
+            pushInt(code, pool, i);
+            code.write(AALOAD);
+            writeOp(code, PUTFIELD, fieldRefs[i]);
+        }
+        code.write(RETURN);
+        return code.toByteArray();
+    }
+
+    /**
+     * firstRejecting : une vérification par bloc, "return index" si elle échoue.
+     */
+    private static byte[] firstRejectingCode(ConstantPool pool, List<Check> checks, int[] fieldRefs) {
+        int equals = pool.memberRef(10, "java/lang/String", "equals", "(Ljava/lang/Object;)Z");
+        int accept = pool.memberRef(10, FILTER_CLASS, "accept", "(L" + PACKET + ";)Z");
+
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        for (Check check : checks) {
+            switch (check.kind) {
+                case SRC_IP, DEST_IP -> {
+                    pushConstant(code, pool.string(check.stringValue));
+                    code.write(ALOAD_1);
+                    writeOp(code, INVOKEVIRTUAL, packetGetter(pool, check.kind == SRC_IP ? "getSrcIP" : "getDestIP",
+                                                              "()Ljava/lang/String;"));
+                    writeOp(code, INVOKEVIRTUAL, equals);
+                    writeRejection(code, pool, IFNE, check.index);
+                }
+                case SRC_PORT, DEST_PORT, PROTOCOL -> {
+                    code.write(ALOAD_1);
+                    String getter = check.kind == SRC_PORT ? "getSrcPort"
+                                  : check.kind == DEST_PORT ? "getDestPort" : "getProtocolId";
+                    writeOp(code, INVOKEVIRTUAL, packetGetter(pool, getter, "()I"));
+                    pushInt(code, pool, check.intValue);
+                    writeRejection(code, pool, IF_ICMPEQ, check.index);
+                }
+                case FILTER -> {
+                    code.write(ALOAD_0);
+                    writeOp(code, GETFIELD, fieldRefs[check.intValue]);
+                    code.write(ALOAD_1);
+                    writeOp(code, INVOKEVIRTUAL, accept);
+                    writeRejection(code, pool, IFNE, check.index);
+                }
+                case ALWAYS -> {
+                    // Les vérifications suivantes ne peuvent plus être atteintes
+                    pushInt(code, pool, check.index);
+                    code.write(IRETURN);
+                    return code.toByteArray();
+                }
+                default -> throw new IllegalArgumentException("Type de vérification inconnu : " + check.kind);
+            }
+        }
+        code.write(ICONST_M1);
+        code.write(IRETURN);
+        return code.toByteArray();
+    }
+
+    /**
+     * Branchement conditionnel qui saute "return index" si la condition est vraie.
+     */
+    private static void writeRejection(ByteArrayOutputStream code, ConstantPool pool, int branchOpcode, int index) {
+        ByteArrayOutputStream rejection = new ByteArrayOutputStream();
+        pushInt(rejection, pool, index);
+        rejection.write(IRETURN);
+        writeOp(code, branchOpcode, 3 + rejection.size());
+        code.writeBytes(rejection.toByteArray());
+    }
+
+    private static int packetGetter(ConstantPool pool, String name, String descriptor) {
+        return pool.memberRef(10, PACKET, name, descriptor);
+    }
+
+    private static void pushInt(ByteArrayOutputStream code, ConstantPool pool, int value) {
+        if (value >= -1 && value <= 5) {
+            code.write(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            writeOp(code, SIPUSH, value);
+        } else {
+            pushConstant(code, pool.integer(value));
+        }
+    }
+
+    private static void pushConstant(ByteArrayOutputStream code, int constant) {
+        if (constant <= 0xFF) {
+            code.write(LDC);
+            code.write(constant);
+        } else {
+            writeOp(code, LDC_W, constant);
+        }
+    }
+
+    /**
+     * Opcode suivi d'un opérande sur 16 bits.
+     */
+    private static void writeOp(ByteArrayOutputStream code, int opcode, int operand) {
+        code.write(opcode);
+        code.write(operand >>> 8);
+        code.write(operand);
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // table des exceptions
+        out.writeShort(0); // attributs
+    }
+
+    /**
+     * Pool de constantes (entrées dédupliquées).
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(entries);
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, 1, () -> out.writeUTF(value));
+        }
+
+        int integer(int value) {
+            return entry("I" + value, 3, () -> out.writeInt(value));
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, 7, () -> out.writeShort(name));
+        }
+
+        int string(String value) {
+            int utf8 = utf8(value);
+            return entry("S" + value, 8, () -> out.writeShort(utf8));
+        }
+
+        /**
+         * @param tag 9 pour un champ, 10 pour une méthode
+         */
+        int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerClass = classRef(owner);
+            int nameUtf8 = utf8(name);
+            int descriptorUtf8 = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, 12, () -> {
+                out.writeShort(nameUtf8);
+                out.writeShort(descriptorUtf8);
+            });
+            return entry("M" + tag + owner + "." + name + ":" + descriptor, tag, () -> {
+                out.writeShort(ownerClass);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, int tag, EntryWriter writer) {
+            Integer existing = indices.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                out.writeByte(tag);
+                writer.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            indices.put(key, count);
+            return count++;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(entries.toByteArray());
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write() throws IOException;
+    }
+}
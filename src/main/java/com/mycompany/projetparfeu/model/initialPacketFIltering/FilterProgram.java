@@ -0,0 +1,22 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+import com.mycompany.projetparfeu.model.generator.Packet;
+
+/**
+ * Ensemble de filtres exécutable : retourne le premier filtre qui
+ * rejette un paquet. Implémenté par les classes générées par
+ * FilterBytecodeCompiler.
+ *
+ * @author ZGARNI
+ */
+public interface FilterProgram {
+
+    /**
+     * @return index du premier filtre qui rejette le paquet, ou -1
+     */
+    int firstRejecting(Packet packet);
+}
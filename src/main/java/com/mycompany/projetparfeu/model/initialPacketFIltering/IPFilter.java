@@ -10,6 +10,8 @@ package com.mycompany.projetparfeu.model.initialPacketFIltering;
  */
 
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.net.Ipv4;
 
 /**
  * Filtrage basé sur l'adresse IP source ou destination.
@@ -19,9 +21,23 @@ public class IPFilter extends AbstractFilter {
     private final String srcIP;   // null = ignore
     private final String destIP;  // null = ignore
 
+    // Adresses converties une fois pour le filtrage en colonnes
+    private final long srcAddress;  // Ipv4.INVALID si ignorée ou non IPv4
+    private final long destAddress;
+
     public IPFilter(String srcIP, String destIP) {
         this.srcIP = srcIP;
         this.destIP = destIP;
+        this.srcAddress = Ipv4.tryParse(srcIP);
+        this.destAddress = Ipv4.tryParse(destIP);
+    }
+
+    public String getSrcIP() {
+        return srcIP;
+    }
+
+    public String getDestIP() {
+        return destIP;
     }
 
     @Override
@@ -34,4 +50,32 @@ public class IPFilter extends AbstractFilter {
         }
         return true;
     }
+
+    @Override
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        // Une adresse de filtre non IPv4 ne peut correspondre à aucun paquet du bloc
+        if ((srcIP != null && srcAddress == Ipv4.INVALID)
+                || (destIP != null && destAddress == Ipv4.INVALID)) {
+            for (int i = 0; i < block.size(); i++) {
+                rejected[i] = true;
+            }
+            return;
+        }
+
+        int n = block.size();
+        if (srcIP != null) {
+            int[] column = block.srcIPColumn();
+            int expected = (int) srcAddress;
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= column[i] != expected;
+            }
+        }
+        if (destIP != null) {
+            int[] column = block.destIPColumn();
+            int expected = (int) destAddress;
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= column[i] != expected;
+            }
+        }
+    }
 }
@@ -10,6 +10,7 @@ package com.mycompany.projetparfeu.model.initialPacketFIltering;
  */
 
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
 
 /**
  * Filtrage basé sur le port source ou destination.
@@ -24,15 +25,43 @@ public class PortFilter extends AbstractFilter {
         this.destPort = destPort;
     }
 
+    public Integer getSrcPort() {
+        return srcPort;
+    }
+
+    public Integer getDestPort() {
+        return destPort;
+    }
+
     @Override
     public boolean accept(Packet packet) {
-        if (srcPort != null && !srcPort.equals(packet.getSrcPort())) {
+        // Comparaison en int : pas d'autoboxing du port du paquet
+        if (srcPort != null && srcPort != packet.getSrcPort()) {
             return false;
         }
-        if (destPort != null && !destPort.equals(packet.getDestPort())) {
+        if (destPort != null && destPort != packet.getDestPort()) {
             return false;
         }
         return true;
     }
+
+    @Override
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        int n = block.size();
+        if (srcPort != null) {
+            int[] column = block.srcPortColumn();
+            int expected = srcPort;
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= column[i] != expected;
+            }
+        }
+        if (destPort != null) {
+            int[] column = block.destPortColumn();
+            int expected = destPort;
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= column[i] != expected;
+            }
+        }
+    }
 }
 
@@ -0,0 +1,98 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+/**
+ *
+ * @author ZGARNI
+ */
+
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.net.PortSet;
+
+/**
+ * Filtrage par plages et ensembles de ports, source et/ou destination.
+ *
+ * Chaque direction est un PortSet (bitmap de 65536 bits) : le test d'un
+ * port est un accès tableau, sans autoboxing. Pour refuser des ports,
+ * passer le complément de l'ensemble, ex : tous les ports éphémères sauf
+ * quelques services :
+ *   PortSet.parse("49152-65535").complement() puis add(50000)...
+ */
+public class PortRangeFilter extends AbstractFilter {
+
+    private final PortSet srcPorts;  // null = ignore
+    private final PortSet destPorts; // null = ignore
+
+    /**
+     * @param srcPorts ports source autorisés (copiés), null pour ignorer
+     * @param destPorts ports destination autorisés (copiés), null pour ignorer
+     */
+    public PortRangeFilter(PortSet srcPorts, PortSet destPorts) {
+        this.srcPorts = srcPorts == null ? null : srcPorts.copy();
+        this.destPorts = destPorts == null ? null : destPorts.copy();
+    }
+
+    /**
+     * @param srcExpression ports source autorisés ("1-1023,3306"), null pour ignorer
+     * @param destExpression ports destination autorisés, null pour ignorer
+     * @throws IllegalArgumentException si une expression est invalide
+     */
+    public PortRangeFilter(String srcExpression, String destExpression) {
+        this.srcPorts = srcExpression == null ? null : PortSet.parse(srcExpression);
+        this.destPorts = destExpression == null ? null : PortSet.parse(destExpression);
+    }
+
+    @Override
+    public boolean accept(Packet packet) {
+        if (srcPorts != null && !srcPorts.contains(packet.getSrcPort())) {
+            return false;
+        }
+        if (destPorts != null && !destPorts.contains(packet.getDestPort())) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        int n = block.size();
+        if (srcPorts != null) {
+            int[] column = block.srcPortColumn();
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= !srcPorts.contains(column[i]);
+            }
+        }
+        if (destPorts != null) {
+            int[] column = block.destPortColumn();
+            for (int i = 0; i < n; i++) {
+                rejected[i] |= !destPorts.contains(column[i]);
+            }
+        }
+    }
+
+    /**
+     * Ports source autorisés (copie), null si ignorés.
+     */
+    public PortSet getSrcPorts() {
+        return srcPorts == null ? null : srcPorts.copy();
+    }
+
+    /**
+     * Ports destination autorisés (copie), null si ignorés.
+     */
+    public PortSet getDestPorts() {
+        return destPorts == null ? null : destPorts.copy();
+    }
+
+    @Override
+    public String toString() {
+        return "PortRangeFilter{" +
+                "src=" + (srcPorts == null ? "*" : srcPorts.toExpression()) +
+                ", dest=" + (destPorts == null ? "*" : destPorts.toExpression()) +
+                '}';
+    }
+}
@@ -10,6 +10,8 @@ package com.mycompany.projetparfeu.model.initialPacketFIltering;
  */
 
 import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.net.ProtocolRegistry;
 
 /**
  * Filtrage basé sur le protocole (TCP, UDP, ICMP…).
@@ -17,13 +19,52 @@ import com.mycompany.projetparfeu.model.generator.Packet;
 public class ProtocolFilter extends AbstractFilter {
 
     private final String protocol; // protocole autorisé
+    // Identifiant du protocole ; OTHER ou UNKNOWN : comparaison des noms
+    private final int protocolId;
 
     public ProtocolFilter(String protocol) {
         this.protocol = protocol;
+        this.protocolId = protocol == null ? ProtocolRegistry.UNKNOWN : ProtocolRegistry.intern(protocol);
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Identifiant du protocole autorisé, ou ProtocolRegistry.OTHER /
+     * ProtocolRegistry.UNKNOWN s'il ne peut pas être comparé par identifiant.
+     */
+    public int getProtocolId() {
+        return protocolId;
+    }
+
+    /**
+     * Indique si le filtre peut comparer les identifiants plutôt que les noms.
+     */
+    boolean hasDistinctId() {
+        return protocolId >= 0 && protocolId != ProtocolRegistry.OTHER;
     }
 
     @Override
     public boolean accept(Packet packet) {
+        if (hasDistinctId()) {
+            return packet.getProtocolId() == protocolId;
+        }
         return protocol.equalsIgnoreCase(packet.getProtocol());
     }
+
+    @Override
+    public void rejectBatch(PacketBlock block, boolean[] rejected) {
+        if (!hasDistinctId()) {
+            super.rejectBatch(block, rejected);
+            return;
+        }
+        // Identifiant local au bloc, puis comparaison d'octets
+        int expected = block.findProtocol(protocolId);
+        byte[] column = block.protocolColumn();
+        for (int i = 0; i < block.size(); i++) {
+            rejected[i] |= (column[i] & 0xFF) != expected;
+        }
+    }
 }
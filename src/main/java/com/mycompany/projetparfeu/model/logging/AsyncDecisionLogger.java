@@ -0,0 +1,294 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.logging;
+
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal asynchrone des décisions du pare-feu.
+ *
+ * Le thread de traitement dépose seulement la décision dans une file
+ * bornée sans verrou ; un thread d'écriture en arrière-plan formate les
+ * lignes et les écrit par lots. Le formatage et les verrous de la console
+ * sortent ainsi du chemin critique.
+ *
+ * Quand la file est pleine, la politique de débordement choisit entre
+ * perdre l'entrée, échantillonner ou bloquer l'appelant.
+ *
+ * Une entrée acceptée (log rend true) est écrite, au plus tard par
+ * close() ; une entrée déposée pendant la fermeture est reprise et
+ * comptée comme perdue.
+ *
+ * @author ZGARNI
+ */
+public final class AsyncDecisionLogger implements AutoCloseable {
+
+    /**
+     * Comportement lorsque la file de log est saturée.
+     */
+    public enum OverflowPolicy {
+        /** L'entrée est perdue (comptée dans getDroppedEntries). */
+        DROP,
+        /** Au-delà de la moitié de la file, une entrée sur sampleRate est gardée. */
+        SAMPLE,
+        /** L'appelant attend qu'une place se libère. */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final PrintStream out;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy policy;
+    private final int sampleRate;
+
+    private final ConcurrentLinkedQueue<DecisionResult> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean closed;
+    private volatile Thread writer;
+
+    // Compteurs
+    private final AtomicLong enqueuedEntries = new AtomicLong();
+    private final AtomicLong writtenEntries = new AtomicLong();
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final AtomicLong sampledOutEntries = new AtomicLong();
+    private final AtomicLong blockedCalls = new AtomicLong();
+    private final AtomicLong writtenBatches = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    /**
+     * Constructeur complet.
+     *
+     * @param out flux de sortie (System.out par défaut)
+     * @param capacity nombre maximal d'entrées en attente
+     * @param batchSize nombre maximal de lignes écrites par lot
+     * @param policy politique de débordement
+     * @param sampleRate pour SAMPLE : une entrée gardée sur sampleRate
+     */
+    public AsyncDecisionLogger(PrintStream out, int capacity, int batchSize,
+                               OverflowPolicy policy, int sampleRate) {
+        this.out = Objects.requireNonNull(out, "out ne peut pas être null");
+        this.policy = Objects.requireNonNull(policy, "policy ne peut pas être null");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity doit etre >= 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize doit etre >= 1");
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate doit etre >= 1");
+        }
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Constructeur par défaut : System.out, politique DROP.
+     */
+    public AsyncDecisionLogger() {
+        this(System.out, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, OverflowPolicy.DROP, 10);
+    }
+
+    /**
+     * Dépose une décision dans la file (appelé sur le chemin critique).
+     * Le thread d'écriture est démarré au premier appel.
+     *
+     * @param result décision à journaliser
+     * @return true si l'entrée a été acceptée
+     */
+    public boolean log(DecisionResult result) {
+        Objects.requireNonNull(result, "result ne peut pas être null");
+        if (closed) {
+            droppedEntries.incrementAndGet();
+            return false;
+        }
+        ensureWriterStarted();
+
+        if (policy == OverflowPolicy.SAMPLE && pending.get() >= capacity / 2
+                && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            sampledOutEntries.incrementAndGet();
+            return false;
+        }
+
+        if (!reserveSlot()) {
+            droppedEntries.incrementAndGet();
+            return false;
+        }
+
+        queue.offer(result);
+        if (closed && queue.remove(result)) {
+            // Fermeture concurrente : le thread d'écriture a pu s'arrêter
+            pending.decrementAndGet();
+            droppedEntries.incrementAndGet();
+            return false;
+        }
+        enqueuedEntries.incrementAndGet();
+        LockSupport.unpark(writer);
+        return true;
+    }
+
+    /**
+     * Réserve une place dans la file selon la politique de débordement.
+     */
+    private boolean reserveSlot() {
+        boolean waited = false;
+        while (true) {
+            int current = pending.get();
+            if (current < capacity) {
+                if (pending.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            Thread t = writer;
+            if (policy != OverflowPolicy.BLOCK || closed || (t != null && !t.isAlive())) {
+                // Plus personne pour libérer une place
+                return false;
+            }
+            if (!waited) {
+                blockedCalls.incrementAndGet();
+                waited = true;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(10_000);
+        }
+    }
+
+    private void ensureWriterStarted() {
+        if (started.compareAndSet(false, true)) {
+            Thread t = new Thread(this::writeLoop, "firewall-decision-log");
+            t.setDaemon(true);
+            t.start();
+            // Publié une fois démarré : un writer non null et arrêté est mort
+            writer = t;
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : formate et écrit les entrées par lots.
+     */
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(batchSize * 128);
+        while (true) {
+            if (writeBatch(batch) > 0) {
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            LockSupport.parkNanos(this, 1_000_000);
+        }
+    }
+
+    /**
+     * Formate et écrit un lot d'au plus batchSize entrées.
+     *
+     * @return nombre d'entrées écrites (0 si la file est vide)
+     */
+    private int writeBatch(StringBuilder batch) {
+        int count = 0;
+        DecisionResult result;
+        while (count < batchSize && (result = queue.poll()) != null) {
+            batch.append(result).append(System.lineSeparator());
+            if (result.needsAlert()) {
+                batch.append(result.getDetailedSummary()).append(System.lineSeparator());
+            }
+            count++;
+        }
+        if (count > 0) {
+            out.print(batch);
+            out.flush();
+            batch.setLength(0);
+            writtenEntries.addAndGet(count);
+            writtenBatches.incrementAndGet();
+            pending.addAndGet(-count);
+        }
+        return count;
+    }
+
+    /**
+     * Attend que toutes les entrées en file soient écrites.
+     */
+    public void flush() {
+        while (pending.get() > 0 && writer != null && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * Écrit les entrées restantes puis arrête le thread d'écriture.
+     * Les entrées encore en file une fois le thread arrêté (déposées
+     * pendant la fermeture) sont écrites par l'appelant.
+     */
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        Thread t = writer;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        StringBuilder batch = new StringBuilder();
+        try {
+            while (writeBatch(batch) > 0) {
+                // lot suivant
+            }
+        } catch (RuntimeException e) {
+            // Sortie inutilisable : le reste est perdu
+            while (queue.poll() != null) {
+                pending.decrementAndGet();
+                droppedEntries.incrementAndGet();
+            }
+        }
+    }
+
+    // Getters
+    public OverflowPolicy getPolicy() { return policy; }
+    public int getCapacity() { return capacity; }
+    public int getPendingEntries() { return pending.get(); }
+    public long getEnqueuedEntries() { return enqueuedEntries.get(); }
+    public long getWrittenEntries() { return writtenEntries.get(); }
+    public long getDroppedEntries() { return droppedEntries.get(); }
+    public long getSampledOutEntries() { return sampledOutEntries.get(); }
+    public long getBlockedCalls() { return blockedCalls.get(); }
+    public long getWrittenBatches() { return writtenBatches.get(); }
+
+    /**
+     * Nombre total d'entrées perdues (débordement + échantillonnage).
+     */
+    public long getLostEntries() {
+        return droppedEntries.get() + sampledOutEntries.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncDecisionLogger{" +
+                "policy=" + policy +
+                ", capacity=" + capacity +
+                ", pending=" + pending.get() +
+                ", written=" + writtenEntries.get() +
+                ", lost=" + getLostEntries() +
+                '}';
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+/**
+ * Adresse IP binaire (IPv4 ou IPv6) sur 128 bits, stockée dans deux long.
+ *
+ * Une adresse IPv4 a.b.c.d est représentée par l'adresse IPv6 mappée
+ * ::ffff:a.b.c.d : les deux familles partagent le même espace de clés,
+ * et "1.2.3.4" et "::ffff:1.2.3.4" désignent la même adresse.
+ *
+ * Immuable.
+ *
+ * @author ZGARNI
+ */
+public final class IpAddress implements Comparable<IpAddress> {
+
+    // Bits 32 à 63 du mot bas d'une adresse IPv4 mappée (::ffff:0:0/96)
+    private static final long IPV4_MAPPED = 0xFFFF_0000_0000L;
+
+    private final long high;   // 64 bits de poids fort
+    private final long low;    // 64 bits de poids faible
+
+    private IpAddress(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Adresse à partir de ses 128 bits.
+     */
+    public static IpAddress of(long high, long low) {
+        return new IpAddress(high, low);
+    }
+
+    /**
+     * Adresse IPv4 (sur 32 bits), sous forme mappée.
+     */
+    public static IpAddress ofIpv4(int address) {
+        return new IpAddress(0, mappedLow(address));
+    }
+
+    /**
+     * Mot bas de l'adresse mappée ::ffff:address.
+     */
+    public static long mappedLow(int address) {
+        return IPV4_MAPPED | (address & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * Vérifie si 128 bits désignent une adresse IPv4 mappée.
+     */
+    public static boolean isIpv4Mapped(long high, long low) {
+        return high == 0 && (low & 0xFFFF_FFFF_0000_0000L) == IPV4_MAPPED;
+    }
+
+    /**
+     * Convertit une adresse textuelle ("a.b.c.d" ou IPv6, forme compressée
+     * "::" et IPv4 finale acceptées).
+     *
+     * @throws IllegalArgumentException si l'adresse est invalide
+     */
+    public static IpAddress parse(String ip) {
+        IpAddress address = tryParse(ip);
+        if (address == null) {
+            throw new IllegalArgumentException("Adresse IP invalide : " + ip);
+        }
+        return address;
+    }
+
+    /**
+     * Convertit une adresse textuelle, sans exception.
+     *
+     * @return adresse, ou null si le texte n'est ni une IPv4 ni une IPv6
+     */
+    public static IpAddress tryParse(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0) {
+            long address = Ipv4.tryParse(ip);
+            return address == Ipv4.INVALID ? null : ofIpv4((int) address);
+        }
+        return parseIpv6(ip);
+    }
+
+    private static IpAddress parseIpv6(String ip) {
+        int length = ip.length();
+        if (length < 2 || length > 45) {
+            return null;
+        }
+        int[] groups = new int[8];
+        int count = 0;
+        int gap = -1;   // position du "::" dans groups
+        int i = 0;
+        if (ip.startsWith("::")) {
+            gap = 0;
+            i = 2;
+        } else if (ip.charAt(0) == ':') {
+            return null;
+        }
+
+        while (i < length) {
+            int start = i;
+            int value = 0;
+            while (i < length && i - start <= 4 && Character.digit(ip.charAt(i), 16) >= 0) {
+                value = (value << 4) | Character.digit(ip.charAt(i), 16);
+                i++;
+            }
+            if (i < length && ip.charAt(i) == '.') {
+                // IPv4 finale : occupe les deux derniers groupes
+                long ipv4 = Ipv4.tryParse(ip.substring(start));
+                if (ipv4 == Ipv4.INVALID || count > 6) {
+                    return null;
+                }
+                groups[count++] = (int) (ipv4 >>> 16);
+                groups[count++] = (int) (ipv4 & 0xFFFF);
+                i = length;
+                break;
+            }
+            int digits = i - start;
+            if (digits == 0 || digits > 4 || count == 8) {
+                return null;
+            }
+            groups[count++] = value;
+            if (i == length) {
+                break;
+            }
+            if (ip.charAt(i) != ':') {
+                return null;
+            }
+            i++;
+            if (i < length && ip.charAt(i) == ':') {
+                if (gap >= 0) {
+                    return null; // un seul "::" autorisé
+                }
+                gap = count;
+                i++;
+            } else if (i == length) {
+                return null; // ":" final isolé
+            }
+        }
+
+        if (gap < 0 ? count != 8 : count > 7) {
+            return null;
+        }
+        int[] words = new int[8];
+        if (gap < 0) {
+            words = groups;
+        } else {
+            System.arraycopy(groups, 0, words, 0, gap);
+            System.arraycopy(groups, gap, words, 8 - (count - gap), count - gap);
+        }
+        long high = 0;
+        long low = 0;
+        for (int w = 0; w < 4; w++) {
+            high = (high << 16) | words[w];
+            low = (low << 16) | words[w + 4];
+        }
+        return new IpAddress(high, low);
+    }
+
+    // ========== CONSULTATION ==========
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Vérifie si l'adresse est une IPv4 (forme mappée).
+     */
+    public boolean isIpv4() {
+        return isIpv4Mapped(high, low);
+    }
+
+    /**
+     * Adresse IPv4 sur 32 bits.
+     *
+     * @throws IllegalStateException si l'adresse n'est pas une IPv4
+     */
+    public int toIpv4() {
+        if (!isIpv4()) {
+            throw new IllegalStateException("Adresse non IPv4 : " + this);
+        }
+        return (int) low;
+    }
+
+    /**
+     * Forme textuelle : "a.b.c.d" pour une IPv4, forme IPv6 canonique
+     * (RFC 5952 : minuscules, "::" sur la plus longue suite de zéros) sinon.
+     */
+    @Override
+    public String toString() {
+        if (isIpv4()) {
+            return Ipv4.toString((int) low);
+        }
+        int[] words = new int[8];
+        for (int w = 0; w < 4; w++) {
+            words[w] = (int) (high >>> (48 - 16 * w)) & 0xFFFF;
+            words[w + 4] = (int) (low >>> (48 - 16 * w)) & 0xFFFF;
+        }
+        // Plus longue suite d'au moins deux groupes nuls (la première en cas d'égalité)
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int w = 0; w < 8; ) {
+            if (words[w] != 0) {
+                w++;
+                continue;
+            }
+            int start = w;
+            while (w < 8 && words[w] == 0) {
+                w++;
+            }
+            if (w - start > bestLength) {
+                bestStart = start;
+                bestLength = w - start;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(39);
+        for (int w = 0; w < 8; w++) {
+            if (w == bestStart) {
+                sb.append("::");
+                w += bestLength - 1;
+                continue;
+            }
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ':') {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(words[w]));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IpAddress other = (IpAddress) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(high) + Long.hashCode(low);
+    }
+
+    /**
+     * Ordre numérique (non signé) sur les 128 bits.
+     */
+    @Override
+    public int compareTo(IpAddress other) {
+        int cmp = Long.compareUnsigned(high, other.high);
+        return cmp != 0 ? cmp : Long.compareUnsigned(low, other.low);
+    }
+}
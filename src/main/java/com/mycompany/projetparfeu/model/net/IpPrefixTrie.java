@@ -0,0 +1,372 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.Arrays;
+
+/**
+ * Table de préfixes IPv4 et IPv6 (clés de 128 bits, voir IpAddress) avec
+ * recherche du plus long préfixe.
+ *
+ * Les préfixes contenus dans l'espace IPv4 mappé (::ffff:0:0/96) sont
+ * confiés à un Ipv4PrefixTrie. Les autres suivent la même organisation
+ * sur 128 bits : premier niveau indexé par les 16 bits de poids fort,
+ * puis un trie compressé (Patricia) par case, dont chaque noeud occupe
+ * quatre long consécutifs (clé sur deux long, longueur et valeur,
+ * enfants), sans objet par préfixe. Un préfixe IPv6 court qui couvre
+ * l'espace mappé (ex : ::/0) s'applique aussi aux adresses IPv4.
+ *
+ * Non thread-safe : les insertions ne doivent pas être concurrentes
+ * des recherches.
+ *
+ * @author ZGARNI
+ */
+public final class IpPrefixTrie {
+
+    /** Valeur retournée par lookup quand aucun préfixe ne correspond. */
+    public static final int NO_VALUE = Ipv4PrefixTrie.NO_VALUE;
+
+    private static final int NONE = -1;
+    private static final int IPV4_OFFSET = 96;   // longueur de ::ffff:0:0/96
+    private static final int ROOT_BITS = 16;
+    private static final int ROOT_SIZE = 1 << ROOT_BITS;
+
+    // Disposition d'un noeud dans nodes[] : 32 octets, deux noeuds par ligne de cache
+    private static final int STRIDE = 4;
+    private static final int KEY_HIGH = 0;
+    private static final int KEY_LOW = 1;
+    private static final int INFO = 2;       // (longueur | HAS_VALUE) << 32 | valeur
+    private static final int CHILDREN = 3;   // gauche << 32 | droite
+    private static final int LENGTH_MASK = 0xFF;
+    private static final int HAS_VALUE = 1 << 8;
+
+    private final Ipv4PrefixTrie ipv4;
+
+    // Premier niveau indexé par les 16 bits de poids fort (comme Ipv4PrefixTrie) :
+    // valeur du plus long préfixe < 16 bits déplié, et sous-arbre de la case
+    private final int[] rootValues;
+    private final byte[] rootLengths;
+    private final int[] rootNodes;
+    // Préfixes de moins de 16 bits : longueur -> (clé -> valeur), pour les remplacements
+    private final int[][] shortValues = new int[ROOT_BITS][];
+
+    private long[] nodes;
+    private int nodeCount;
+    private int wideCount;   // préfixes hors de l'espace IPv4 mappé
+
+    public IpPrefixTrie() {
+        this(16);
+    }
+
+    /**
+     * @param expectedPrefixes nombre de préfixes prévu (le trie s'agrandit si besoin)
+     */
+    public IpPrefixTrie(int expectedPrefixes) {
+        this.ipv4 = new Ipv4PrefixTrie(expectedPrefixes);
+        rootValues = new int[ROOT_SIZE];
+        Arrays.fill(rootValues, NO_VALUE);
+        rootLengths = new byte[ROOT_SIZE];
+        Arrays.fill(rootLengths, (byte) -1);
+        rootNodes = new int[ROOT_SIZE];
+        Arrays.fill(rootNodes, NONE);
+        nodes = new long[16 * STRIDE];
+    }
+
+    /**
+     * Ajoute ou remplace un préfixe : "a.b.c.d/len", "2001:db8::/32", ou une
+     * adresse seule (/32 en IPv4, /128 en IPv6). La longueur se rapporte à
+     * la famille de l'adresse écrite. Les bits d'hôte sont ignorés.
+     *
+     * @param value valeur associée (>= 0)
+     * @throws IllegalArgumentException si le préfixe est invalide
+     */
+    public void insert(String cidr, int value) {
+        if (cidr == null) {
+            throw new IllegalArgumentException("cidr ne peut pas être null");
+        }
+        int slash = cidr.indexOf('/');
+        String text = slash < 0 ? cidr : cidr.substring(0, slash);
+        IpAddress address = IpAddress.tryParse(text);
+        if (address == null) {
+            throw new IllegalArgumentException("Préfixe CIDR invalide : " + cidr);
+        }
+        boolean ipv6Text = text.indexOf(':') >= 0;
+        int length = ipv6Text ? 128 : 32;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Préfixe CIDR invalide : " + cidr);
+            }
+            if (length < 0 || length > (ipv6Text ? 128 : 32)) {
+                throw new IllegalArgumentException("Longueur de préfixe invalide : " + cidr);
+            }
+        }
+        insert(address.getHigh(), address.getLow(), ipv6Text ? length : IPV4_OFFSET + length, value);
+    }
+
+    /**
+     * Ajoute ou remplace un préfixe.
+     *
+     * @param address adresse du préfixe
+     * @param length longueur sur 128 bits (un préfixe IPv4 /n a pour longueur 96 + n)
+     * @param value valeur associée (>= 0)
+     */
+    public void insert(IpAddress address, int length, int value) {
+        insert(address.getHigh(), address.getLow(), length, value);
+    }
+
+    private void insert(long high, long low, int length, int value) {
+        if (length < 0 || length > 128) {
+            throw new IllegalArgumentException("Longueur de préfixe invalide : " + length);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("value doit etre >= 0");
+        }
+        if (length >= IPV4_OFFSET && IpAddress.isIpv4Mapped(high, low)) {
+            ipv4.insert((int) low, length - IPV4_OFFSET, value);
+            return;
+        }
+        long keyHigh = high & maskHigh(length);
+        long keyLow = low & maskLow(length);
+        if (length < ROOT_BITS) {
+            insertShort(keyHigh, length, value);
+        } else {
+            insertWide(keyHigh, keyLow, length, value);
+        }
+    }
+
+    /**
+     * Préfixe de moins de 16 bits : déplié dans les cases du premier niveau
+     * qu'il couvre, sauf celles déjà couvertes par un préfixe plus long.
+     */
+    private void insertShort(long high, int length, int value) {
+        int[] byKey = shortValues[length];
+        if (byKey == null) {
+            byKey = new int[1 << length];
+            Arrays.fill(byKey, NO_VALUE);
+            shortValues[length] = byKey;
+        }
+        int slot = length == 0 ? 0 : (int) (high >>> (64 - length));
+        if (byKey[slot] == NO_VALUE) {
+            wideCount++;
+        }
+        byKey[slot] = value;
+
+        int first = (int) (high >>> (64 - ROOT_BITS));
+        int count = 1 << (ROOT_BITS - length);
+        for (int b = first; b < first + count; b++) {
+            if (rootLengths[b] <= length) {
+                rootLengths[b] = (byte) length;
+                rootValues[b] = value;
+            }
+        }
+    }
+
+    /**
+     * Préfixe de 16 bits ou plus : inséré dans le trie compressé de sa case.
+     */
+    private void insertWide(long high, long low, int length, int value) {
+        int bucket = (int) (high >>> (64 - ROOT_BITS));
+        int node = rootNodes[bucket];
+        if (node == NONE) {
+            // Racine du sous-arbre : le préfixe /16 de la case
+            node = newNode(high & maskHigh(ROOT_BITS), 0, ROOT_BITS);
+            rootNodes[bucket] = node;
+        }
+
+        while (true) {
+            // Invariant : la clé commence par le préfixe du noeud, et length >= sa longueur
+            int nodeLength = length(node);
+            if (length == nodeLength) {
+                setValue(node, value);
+                return;
+            }
+
+            boolean goRight = bit(high, low, nodeLength);
+            int child = child(node, goRight);
+            if (child == NONE) {
+                int leaf = newNode(high, low, length);
+                setValue(leaf, value);
+                setChild(node, goRight, leaf);
+                return;
+            }
+
+            int childLength = length(child);
+            long childHigh = nodes[child * STRIDE + KEY_HIGH];
+            long childLow = nodes[child * STRIDE + KEY_LOW];
+            int common = Math.min(commonLength(high, low, childHigh, childLow), Math.min(length, childLength));
+            if (common == childLength) {
+                node = child;
+                continue;
+            }
+
+            // Bifurcation : noeud intermédiaire sur la partie commune
+            int split = newNode(high & maskHigh(common), low & maskLow(common), common);
+            setChild(split, bit(childHigh, childLow, common), child);
+            setChild(node, goRight, split);
+            if (common == length) {
+                setValue(split, value);
+            } else {
+                int leaf = newNode(high, low, length);
+                setValue(leaf, value);
+                setChild(split, bit(high, low, common), leaf);
+            }
+            return;
+        }
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Recherche du plus long préfixe contenant l'adresse.
+     *
+     * @return valeur du préfixe le plus spécifique, ou NO_VALUE
+     */
+    public int lookup(IpAddress address) {
+        return lookup(address.getHigh(), address.getLow());
+    }
+
+    /**
+     * Recherche sur les 128 bits d'une adresse (sans objet IpAddress).
+     */
+    public int lookup(long high, long low) {
+        if (IpAddress.isIpv4Mapped(high, low)) {
+            return lookupIpv4((int) low);
+        }
+        return lookupWide(high, low);
+    }
+
+    /**
+     * Recherche d'une adresse IPv4 sur 32 bits.
+     */
+    public int lookupIpv4(int address) {
+        int value = ipv4.lookup(address);
+        if (value != NO_VALUE || wideCount == 0) {
+            return value;
+        }
+        // Préfixe IPv6 de moins de 96 bits couvrant l'espace mappé
+        return lookupWide(0, IpAddress.mappedLow(address));
+    }
+
+    private int lookupWide(long high, long low) {
+        int bucket = (int) (high >>> (64 - ROOT_BITS));
+        int best = rootValues[bucket];
+        int node = rootNodes[bucket];
+        while (node != NONE) {
+            int base = node * STRIDE;
+            long info = nodes[base + INFO];
+            int meta = (int) (info >>> 32);
+            int length = meta & LENGTH_MASK;
+            if (((high ^ nodes[base + KEY_HIGH]) & maskHigh(length)) != 0
+                    || ((low ^ nodes[base + KEY_LOW]) & maskLow(length)) != 0) {
+                break;
+            }
+            if ((meta & HAS_VALUE) != 0) {
+                best = (int) info;
+            }
+            if (length == 128) {
+                break;
+            }
+            long children = nodes[base + CHILDREN];
+            node = bit(high, low, length) ? (int) children : (int) (children >>> 32);
+        }
+        return best;
+    }
+
+    /**
+     * Vérifie si un préfixe contient l'adresse.
+     */
+    public boolean contains(IpAddress address) {
+        return lookup(address) != NO_VALUE;
+    }
+
+    public boolean containsIpv4(int address) {
+        return lookupIpv4(address) != NO_VALUE;
+    }
+
+    // ========== NOEUDS ==========
+
+    private int length(int node) {
+        return (int) (nodes[node * STRIDE + INFO] >>> 32) & LENGTH_MASK;
+    }
+
+    private int child(int node, boolean isRight) {
+        long children = nodes[node * STRIDE + CHILDREN];
+        return isRight ? (int) children : (int) (children >>> 32);
+    }
+
+    private void setValue(int node, int value) {
+        int meta = (int) (nodes[node * STRIDE + INFO] >>> 32);
+        if ((meta & HAS_VALUE) == 0) {
+            meta |= HAS_VALUE;
+            wideCount++;
+        }
+        nodes[node * STRIDE + INFO] = (long) meta << 32 | (value & 0xFFFF_FFFFL);
+    }
+
+    private void setChild(int node, boolean isRight, int child) {
+        long children = nodes[node * STRIDE + CHILDREN];
+        nodes[node * STRIDE + CHILDREN] = isRight
+            ? (children & 0xFFFF_FFFF_0000_0000L) | (child & 0xFFFF_FFFFL)
+            : (long) child << 32 | (children & 0xFFFF_FFFFL);
+    }
+
+    private int newNode(long high, long low, int length) {
+        if (nodeCount * STRIDE == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        int node = nodeCount++;
+        int base = node * STRIDE;
+        nodes[base + KEY_HIGH] = high;
+        nodes[base + KEY_LOW] = low;
+        nodes[base + INFO] = (long) length << 32 | (NO_VALUE & 0xFFFF_FFFFL);
+        nodes[base + CHILDREN] = -1L; // NONE, NONE
+        return node;
+    }
+
+    /**
+     * Bit de rang index sur 128 bits (0 = bit de poids fort).
+     */
+    private static boolean bit(long high, long low, int index) {
+        return index < 64
+            ? ((high >>> (63 - index)) & 1) != 0
+            : ((low >>> (127 - index)) & 1) != 0;
+    }
+
+    /**
+     * Nombre de bits de tête communs à deux clés.
+     */
+    private static int commonLength(long high1, long low1, long high2, long low2) {
+        long diff = high1 ^ high2;
+        if (diff != 0) {
+            return Long.numberOfLeadingZeros(diff);
+        }
+        return 64 + Long.numberOfLeadingZeros(low1 ^ low2);
+    }
+
+    private static long maskHigh(int length) {
+        if (length == 0) {
+            return 0;
+        }
+        return length >= 64 ? -1L : -1L << (64 - length);
+    }
+
+    private static long maskLow(int length) {
+        return length <= 64 ? 0 : -1L << (128 - length);
+    }
+
+    /**
+     * Nombre de préfixes distincts (IPv4 et IPv6).
+     */
+    public int size() {
+        return ipv4.size() + wideCount;
+    }
+
+    @Override
+    public String toString() {
+        return "IpPrefixTrie{ipv4=" + ipv4.size() + ", ipv6=" + wideCount + ", nodes=" + nodeCount + '}';
+    }
+}
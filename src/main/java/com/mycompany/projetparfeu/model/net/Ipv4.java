@@ -0,0 +1,95 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+/**
+ * Conversions entre adresses IPv4 textuelles ("a.b.c.d") et entiers 32 bits.
+ * Permet de comparer des adresses sans manipuler de String.
+ *
+ * @author ZGARNI
+ */
+public final class Ipv4 {
+
+    /** Valeur retournée par tryParse pour une adresse non IPv4. */
+    public static final long INVALID = -1L;
+
+    // Constructeur privé (classe utilitaire non instanciable)
+    private Ipv4() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Convertit une adresse "a.b.c.d" en entier.
+     *
+     * @param ip adresse textuelle
+     * @return adresse sur 32 bits
+     * @throws IllegalArgumentException si l'adresse n'est pas une IPv4 valide
+     */
+    public static int parse(String ip) {
+        long value = tryParse(ip);
+        if (value == INVALID) {
+            throw new IllegalArgumentException("Adresse IPv4 invalide : " + ip);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Convertit une adresse "a.b.c.d" en entier, sans exception.
+     * Forme décimale stricte : un octet de plusieurs chiffres ne commence
+     * pas par 0 ("010.0.0.1" est refusée, lue en octal par inet_aton).
+     *
+     * @param ip adresse textuelle
+     * @return adresse sur 32 bits (0 à 2^32-1), ou INVALID
+     */
+    public static long tryParse(String ip) {
+        if (ip == null) {
+            return INVALID;
+        }
+        int length = ip.length();
+        if (length < 7 || length > 15) {
+            return INVALID;
+        }
+
+        long address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = ip.charAt(i);
+            if (c == '.') {
+                if (digits == 0 || ++dots > 3) {
+                    return INVALID;
+                }
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (digits == 1 && octet == 0) {
+                    return INVALID;   // zéro non significatif
+                }
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return INVALID;
+                }
+            } else {
+                return INVALID;
+            }
+        }
+        if (dots != 3 || digits == 0) {
+            return INVALID;
+        }
+        return (address << 8) | octet;
+    }
+
+    /**
+     * Convertit un entier 32 bits en adresse "a.b.c.d".
+     */
+    public static String toString(int address) {
+        return ((address >>> 24) & 0xFF) + "." +
+               ((address >>> 16) & 0xFF) + "." +
+               ((address >>> 8) & 0xFF) + "." +
+               (address & 0xFF);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.Arrays;
+
+/**
+ * Table de préfixes IPv4 avec recherche du plus long préfixe
+ * (longest-prefix match).
+ *
+ * Deux niveaux, sans objet par préfixe :
+ * - un premier niveau indexé directement par les 16 bits de poids fort :
+ *   les préfixes de moins de 16 bits y sont dépliés (expansion de
+ *   préfixes), chaque case pointant aussi vers un sous-arbre ;
+ * - un trie compressé (Patricia) par case pour les préfixes de 16 bits et
+ *   plus. Seuls les noeuds de bifurcation et les préfixes insérés existent.
+ *
+ * Les noeuds sont entrelacés dans un seul tableau (clé, longueur, enfants,
+ * valeur) pour qu'un pas de recherche ne touche qu'une ligne de cache.
+ *
+ * Non thread-safe : les insertions ne doivent pas être concurrentes
+ * des recherches.
+ *
+ * @author ZGARNI
+ */
+public final class Ipv4PrefixTrie {
+
+    /** Valeur retournée par lookup quand aucun préfixe ne correspond. */
+    public static final int NO_VALUE = -1;
+
+    private static final int NONE = -1;
+    private static final int ROOT_BITS = 16;
+    private static final int ROOT_SIZE = 1 << ROOT_BITS;
+
+    // Disposition d'un noeud dans nodes[]
+    private static final int STRIDE = 8;   // 32 octets : deux noeuds par ligne de cache
+    private static final int KEY = 0;
+    private static final int META = 1;     // longueur (8 bits) | HAS_VALUE
+    private static final int LEFT = 2;
+    private static final int RIGHT = 3;
+    private static final int VALUE = 4;
+    private static final int LENGTH_MASK = 0xFF;
+    private static final int HAS_VALUE = 1 << 8;
+
+    // Premier niveau : [2b] = valeur du plus long préfixe < 16 bits, [2b + 1] = sous-arbre
+    private final int[] root;
+    // Longueur du préfixe déplié dans chaque case (-1 si aucun)
+    private final byte[] rootLengths;
+
+    private int[] nodes;
+    private int nodeCount;
+    private int prefixCount;
+
+    // Préfixes de moins de 16 bits : longueur -> (clé -> valeur), pour les remplacements
+    private final int[][] shortValues = new int[ROOT_BITS][];
+
+    public Ipv4PrefixTrie() {
+        this(16);
+    }
+
+    /**
+     * @param expectedPrefixes nombre de préfixes prévu (le trie s'agrandit si besoin)
+     */
+    public Ipv4PrefixTrie(int expectedPrefixes) {
+        root = new int[2 * ROOT_SIZE];
+        for (int b = 0; b < ROOT_SIZE; b++) {
+            root[2 * b] = NO_VALUE;
+            root[2 * b + 1] = NONE;
+        }
+        rootLengths = new byte[ROOT_SIZE];
+        Arrays.fill(rootLengths, (byte) -1);
+
+        int capacity = Math.max(2 * expectedPrefixes, 16);
+        nodes = new int[capacity * STRIDE];
+    }
+
+    /**
+     * Ajoute ou remplace un préfixe au format "a.b.c.d/len" ("a.b.c.d" = /32).
+     * Les bits d'hôte au-delà de la longueur sont ignorés.
+     *
+     * @param value valeur associée (>= 0)
+     * @throws IllegalArgumentException si le préfixe est invalide
+     */
+    public void insert(String cidr, int value) {
+        if (cidr == null) {
+            throw new IllegalArgumentException("cidr ne peut pas être null");
+        }
+        int slash = cidr.indexOf('/');
+        if (slash < 0) {
+            insert(Ipv4.parse(cidr), 32, value);
+            return;
+        }
+        int length;
+        try {
+            length = Integer.parseInt(cidr.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Préfixe CIDR invalide : " + cidr);
+        }
+        insert(Ipv4.parse(cidr.substring(0, slash)), length, value);
+    }
+
+    /**
+     * Ajoute ou remplace un préfixe.
+     *
+     * @param address adresse du préfixe
+     * @param length longueur du préfixe (0 à 32)
+     * @param value valeur associée (>= 0)
+     */
+    public void insert(int address, int length, int value) {
+        if (length < 0 || length > 32) {
+            throw new IllegalArgumentException("Longueur de préfixe invalide : " + length);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("value doit etre >= 0");
+        }
+        int key = address & mask(length);
+        if (length < ROOT_BITS) {
+            insertShort(key, length, value);
+        } else {
+            insertLong(key, length, value);
+        }
+    }
+
+    /**
+     * Préfixe de moins de 16 bits : déplié dans les cases du premier niveau
+     * qu'il couvre, sauf celles déjà couvertes par un préfixe plus long.
+     */
+    private void insertShort(int key, int length, int value) {
+        int[] byKey = shortValues[length];
+        if (byKey == null) {
+            byKey = new int[1 << length];
+            Arrays.fill(byKey, NO_VALUE);
+            shortValues[length] = byKey;
+        }
+        int slot = length == 0 ? 0 : key >>> (32 - length);
+        if (byKey[slot] == NO_VALUE) {
+            prefixCount++;
+        }
+        byKey[slot] = value;
+
+        int first = key >>> ROOT_BITS;
+        int count = 1 << (ROOT_BITS - length);
+        for (int b = first; b < first + count; b++) {
+            if (rootLengths[b] <= length) {
+                rootLengths[b] = (byte) length;
+                root[2 * b] = value;
+            }
+        }
+    }
+
+    /**
+     * Préfixe de 16 bits ou plus : inséré dans le trie compressé de sa case.
+     */
+    private void insertLong(int key, int length, int value) {
+        int bucket = key >>> ROOT_BITS;
+        int node = root[2 * bucket + 1];
+        if (node == NONE) {
+            // Racine du sous-arbre : le préfixe /16 de la case
+            node = newNode(key & mask(ROOT_BITS), ROOT_BITS);
+            root[2 * bucket + 1] = node;
+        }
+
+        while (true) {
+            // Invariant : key commence par le préfixe du noeud, et length >= sa longueur
+            int nodeLength = length(node);
+            if (length == nodeLength) {
+                setValue(node, value);
+                return;
+            }
+
+            boolean goRight = bit(key, nodeLength);
+            int child = nodes[node * STRIDE + (goRight ? RIGHT : LEFT)];
+            if (child == NONE) {
+                int leaf = newNode(key, length);
+                setValue(leaf, value);
+                setChild(node, goRight, leaf);
+                return;
+            }
+
+            int childLength = length(child);
+            int common = Math.min(Integer.numberOfLeadingZeros(key ^ nodes[child * STRIDE + KEY]),
+                                  Math.min(length, childLength));
+            if (common == childLength) {
+                node = child;
+                continue;
+            }
+
+            // Bifurcation : noeud intermédiaire sur la partie commune
+            int split = newNode(key & mask(common), common);
+            setChild(split, bit(nodes[child * STRIDE + KEY], common), child);
+            setChild(node, goRight, split);
+            if (common == length) {
+                setValue(split, value);
+            } else {
+                int leaf = newNode(key, length);
+                setValue(leaf, value);
+                setChild(split, bit(key, common), leaf);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Recherche du plus long préfixe contenant l'adresse.
+     *
+     * @return valeur du préfixe le plus spécifique, ou NO_VALUE
+     */
+    public int lookup(int address) {
+        int bucket = address >>> ROOT_BITS;
+        int best = root[2 * bucket];
+        int node = root[2 * bucket + 1];
+        while (node != NONE) {
+            int base = node * STRIDE;
+            int meta = nodes[base + META];
+            int length = meta & LENGTH_MASK;
+            if (((address ^ nodes[base + KEY]) & mask(length)) != 0) {
+                break;
+            }
+            if ((meta & HAS_VALUE) != 0) {
+                best = nodes[base + VALUE];
+            }
+            if (length == 32) {
+                break;
+            }
+            node = nodes[base + (bit(address, length) ? RIGHT : LEFT)];
+        }
+        return best;
+    }
+
+    /**
+     * Vérifie si un préfixe contient l'adresse.
+     */
+    public boolean contains(int address) {
+        return lookup(address) != NO_VALUE;
+    }
+
+    private int length(int node) {
+        return nodes[node * STRIDE + META] & LENGTH_MASK;
+    }
+
+    private void setValue(int node, int value) {
+        int meta = nodes[node * STRIDE + META];
+        if ((meta & HAS_VALUE) == 0) {
+            nodes[node * STRIDE + META] = meta | HAS_VALUE;
+            prefixCount++;
+        }
+        nodes[node * STRIDE + VALUE] = value;
+    }
+
+    private void setChild(int node, boolean isRight, int child) {
+        nodes[node * STRIDE + (isRight ? RIGHT : LEFT)] = child;
+    }
+
+    private int newNode(int key, int length) {
+        if (nodeCount * STRIDE == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        int node = nodeCount++;
+        int base = node * STRIDE;
+        nodes[base + KEY] = key;
+        nodes[base + META] = length;
+        nodes[base + LEFT] = NONE;
+        nodes[base + RIGHT] = NONE;
+        nodes[base + VALUE] = NO_VALUE;
+        return node;
+    }
+
+    /**
+     * Bit de rang index (0 = bit de poids fort).
+     */
+    private static boolean bit(int key, int index) {
+        return ((key >>> (31 - index)) & 1) != 0;
+    }
+
+    private static int mask(int length) {
+        return length == 0 ? 0 : -1 << (32 - length);
+    }
+
+    /**
+     * Nombre de préfixes distincts.
+     */
+    public int size() {
+        return prefixCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Ipv4PrefixTrie{prefixes=" + prefixCount + ", nodes=" + nodeCount + '}';
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble de ports (0 à 65535) sous forme de bitmap de 65536 bits.
+ *
+ * Un test d'appartenance est un accès à un long[] : pas d'autoboxing ni de
+ * parcours de liste. Les plages sont remplies mot par mot (64 ports à la fois).
+ *
+ * Syntaxe des expressions : liste séparée par des virgules de ports ou de
+ * plages inclusives, ex : "1-1023,3306,8000-8100". Les espaces sont ignorés.
+ *
+ * @author ZGARNI
+ */
+public final class PortSet {
+
+    public static final int MAX_PORT = 65535;
+
+    private static final int WORDS = (MAX_PORT + 1) / 64;
+
+    private final long[] bits;
+
+    /**
+     * Ensemble vide.
+     */
+    public PortSet() {
+        this.bits = new long[WORDS];
+    }
+
+    private PortSet(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Construit un ensemble à partir d'une expression ("1-1023,3306,8000-8100").
+     *
+     * @throws IllegalArgumentException si l'expression est invalide
+     */
+    public static PortSet parse(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("expression ne peut pas être null");
+        }
+        PortSet set = new PortSet();
+        int length = expression.length();
+        int start = 0;
+        while (start <= length) {
+            int comma = expression.indexOf(',', start);
+            int end = comma < 0 ? length : comma;
+            String item = expression.substring(start, end).trim();
+            if (item.isEmpty()) {
+                if (comma >= 0 || start > 0) {
+                    throw new IllegalArgumentException("Élément vide dans l'expression de ports : " + expression);
+                }
+            } else {
+                int dash = item.indexOf('-');
+                if (dash < 0) {
+                    set.add(parsePort(item, expression));
+                } else {
+                    set.addRange(parsePort(item.substring(0, dash).trim(), expression),
+                                 parsePort(item.substring(dash + 1).trim(), expression));
+                }
+            }
+            start = end + 1;
+        }
+        return set;
+    }
+
+    private static int parsePort(String text, String expression) {
+        int port;
+        try {
+            port = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Port invalide '" + text + "' dans : " + expression);
+        }
+        checkPort(port);
+        return port;
+    }
+
+    private static void checkPort(int port) {
+        if (port < 0 || port > MAX_PORT) {
+            throw new IllegalArgumentException("Port hors limites (0-65535) : " + port);
+        }
+    }
+
+    // ========== MODIFICATION ==========
+
+    public void add(int port) {
+        checkPort(port);
+        bits[port >>> 6] |= 1L << port;
+    }
+
+    public void remove(int port) {
+        checkPort(port);
+        bits[port >>> 6] &= ~(1L << port);
+    }
+
+    /**
+     * Ajoute une plage inclusive [from, to].
+     */
+    public void addRange(int from, int to) {
+        applyRange(from, to, true);
+    }
+
+    /**
+     * Retire une plage inclusive [from, to].
+     */
+    public void removeRange(int from, int to) {
+        applyRange(from, to, false);
+    }
+
+    private void applyRange(int from, int to, boolean set) {
+        checkPort(from);
+        checkPort(to);
+        if (from > to) {
+            throw new IllegalArgumentException("Plage de ports invalide : " + from + "-" + to);
+        }
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;          // bits >= from dans le premier mot
+        long lastMask = -1L >>> (63 - (to & 63)); // bits <= to dans le dernier mot
+
+        if (firstWord == lastWord) {
+            update(firstWord, firstMask & lastMask, set);
+            return;
+        }
+        update(firstWord, firstMask, set);
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            bits[word] = set ? -1L : 0L;
+        }
+        update(lastWord, lastMask, set);
+    }
+
+    private void update(int word, long mask, boolean set) {
+        if (set) {
+            bits[word] |= mask;
+        } else {
+            bits[word] &= ~mask;
+        }
+    }
+
+    // ========== CONSULTATION ==========
+
+    /**
+     * Vérifie si un port appartient à l'ensemble (false hors 0-65535).
+     */
+    public boolean contains(int port) {
+        return (port & ~MAX_PORT) == 0 && (bits[port >>> 6] & (1L << port)) != 0;
+    }
+
+    /**
+     * Nouvel ensemble contenant les ports absents de celui-ci.
+     */
+    public PortSet complement() {
+        long[] inverted = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            inverted[i] = ~bits[i];
+        }
+        return new PortSet(inverted);
+    }
+
+    /**
+     * Copie indépendante.
+     */
+    public PortSet copy() {
+        return new PortSet(bits.clone());
+    }
+
+    /**
+     * Nombre de ports dans l'ensemble.
+     */
+    public int size() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : bits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Expression normalisée de l'ensemble (ex : "1-1023,3306").
+     */
+    public String toExpression() {
+        StringBuilder sb = new StringBuilder();
+        int port = nextPort(0);
+        while (port >= 0) {
+            int end = nextMissing(port) - 1;
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(port);
+            if (end > port) {
+                sb.append('-').append(end);
+            }
+            port = end >= MAX_PORT ? -1 : nextPort(end + 1);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Premier port de l'ensemble >= from, ou -1.
+     */
+    private int nextPort(int from) {
+        int word = from >>> 6;
+        long current = bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == WORDS) {
+                return -1;
+            }
+            current = bits[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(current);
+    }
+
+    /**
+     * Premier port absent de l'ensemble >= from (65536 si aucun).
+     */
+    private int nextMissing(int from) {
+        int word = from >>> 6;
+        long current = ~bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == WORDS) {
+                return MAX_PORT + 1;
+            }
+            current = ~bits[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(current);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(bits, ((PortSet) o).bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        return "PortSet{" + toExpression() + '}';
+    }
+}
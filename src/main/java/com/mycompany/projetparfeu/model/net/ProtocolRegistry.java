@@ -0,0 +1,140 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre global des protocoles : chaque nom (insensible à la casse) reçoit
+ * une fois pour toutes un petit identifiant entier.
+ *
+ * Le nom est converti à la construction du paquet ; les filtres, les
+ * statistiques et les tables indexées comparent ensuite des entiers.
+ *
+ * Le nombre de protocoles distincts est borné (MAX_PROTOCOLS) : au-delà,
+ * les nouveaux noms reçoivent l'identifiant partagé OTHER, et les
+ * composants qui doivent les distinguer reviennent à la comparaison
+ * des noms. Les variantes de casse mémorisées sont bornées de la même façon.
+ *
+ * Thread-safe.
+ *
+ * @author ZGARNI
+ */
+public final class ProtocolRegistry {
+
+    public static final int TCP = 0;
+    public static final int UDP = 1;
+    public static final int ICMP = 2;
+
+    /** Identifiant partagé des protocoles au-delà de MAX_PROTOCOLS. */
+    public static final int OTHER = 3;
+
+    /** Valeur retournée par find pour un nom jamais enregistré. */
+    public static final int UNKNOWN = -1;
+
+    public static final int MAX_PROTOCOLS = 1024;
+
+    private static final int MAX_SPELLINGS = 4 * MAX_PROTOCOLS;
+    private static final String OTHER_NAME = "AUTRES";
+
+    // Orthographe exacte -> identifiant (chemin rapide, sans conversion de casse)
+    private static final Map<String, Integer> bySpelling = new ConcurrentHashMap<>();
+    // Nom canonique (majuscules) -> identifiant ; protégé par le verrou de la classe
+    private static final Map<String, Integer> byCanonicalName = new HashMap<>();
+    private static volatile String[] names = new String[0];
+
+    static {
+        intern("TCP");
+        intern("UDP");
+        intern("ICMP");
+        register(OTHER_NAME);
+    }
+
+    // Constructeur privé (classe utilitaire non instanciable)
+    private ProtocolRegistry() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Retourne l'identifiant d'un protocole, en l'enregistrant si besoin.
+     *
+     * @param name nom du protocole (casse indifférente)
+     * @return identifiant (OTHER si le registre est plein)
+     */
+    public static int intern(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name ne peut pas être null");
+        }
+        Integer id = bySpelling.get(name);
+        if (id != null) {
+            return id;
+        }
+        return internSlow(name);
+    }
+
+    private static synchronized int internSlow(String name) {
+        String canonical = name.toUpperCase(Locale.ROOT);
+        Integer id = byCanonicalName.get(canonical);
+        if (id == null) {
+            id = names.length < MAX_PROTOCOLS ? register(canonical) : OTHER;
+        }
+        if (bySpelling.size() < MAX_SPELLINGS) {
+            bySpelling.put(name, id);
+        }
+        return id;
+    }
+
+    private static synchronized int register(String canonical) {
+        int id = names.length;
+        String[] grown = Arrays.copyOf(names, id + 1);
+        grown[id] = canonical;
+        names = grown;
+        byCanonicalName.put(canonical, id);
+        return id;
+    }
+
+    /**
+     * Recherche l'identifiant d'un protocole sans l'enregistrer.
+     *
+     * @return identifiant, ou UNKNOWN si le nom n'a jamais été enregistré
+     */
+    public static int find(String name) {
+        if (name == null) {
+            return UNKNOWN;
+        }
+        Integer id = bySpelling.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (ProtocolRegistry.class) {
+            id = byCanonicalName.get(name.toUpperCase(Locale.ROOT));
+        }
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * Nom canonique (majuscules) d'un identifiant.
+     *
+     * @throws IllegalArgumentException si l'identifiant est inconnu
+     */
+    public static String name(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length) {
+            throw new IllegalArgumentException("Identifiant de protocole inconnu : " + id);
+        }
+        return current[id];
+    }
+
+    /**
+     * Nombre d'identifiants attribués (les identifiants vont de 0 à size() - 1).
+     */
+    public static int size() {
+        return names.length;
+    }
+}
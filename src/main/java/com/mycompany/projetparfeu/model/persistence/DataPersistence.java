@@ -4,6 +4,8 @@
  */
 package com.mycompany.projetparfeu.model.persistence;
 
+import com.mycompany.projetparfeu.model.analyzer.SignatureRule;
+import com.mycompany.projetparfeu.model.blacklist.BlacklistSnapshot;
 import com.mycompany.projetparfeu.model.decision.DecisionResult;
 import com.mycompany.projetparfeu.model.config.FirewallConfig;
 import com.mycompany.projetparfeu.model.exceptions.DatabaseException;
@@ -233,8 +235,17 @@ public final class DataPersistence {
             writer.write("\n# Mots suspects\n");
             writer.write("suspiciousWords=" + String.join(",", config.getSuspiciousWords()) + "\n");
             
-            writer.write("\n# IPs blacklistées\n");
+            writer.write("\n# Signatures (signature.<id>=<score>:<expression>)\n");
+            for (SignatureRule rule : config.getSignatureRules()) {
+                writer.write("signature." + rule.getId() + "=" + rule.getScore() + ":" + rule.getPattern() + "\n");
+            }
+            
+            writer.write("\n# IPs blacklistées (hors instantané, référencé par son fichier)\n");
             writer.write("blacklistedIPs=" + String.join(",", config.getBlacklistedIPs()) + "\n");
+            BlacklistSnapshot snapshot = config.getBlacklist().getSnapshot();
+            if (snapshot != null) {
+                writer.write("blacklistSnapshot=" + snapshot.getFile().toAbsolutePath() + "\n");
+            }
             
             writer.write("\n# Ports surveillés\n");
             writer.write("monitoredPorts=" + 
@@ -277,10 +288,12 @@ public final class DataPersistence {
             
             String line;
             while ((line = reader.readLine()) != null) {
-                line = line.trim();
+                // Pas de trim en fin de ligne : une expression de signature
+                // peut se terminer par un espace
+                line = line.stripLeading();
                 
                 // Ignorer les commentaires et lignes vides
-                if (line.isEmpty() || line.startsWith("#")) {
+                if (line.isBlank() || line.startsWith("#")) {
                     continue;
                 }
                 
@@ -295,6 +308,17 @@ public final class DataPersistence {
                         case "alertThreshold" -> config.setAlertThreshold(Integer.parseInt(value));
                         case "minPacketSize" -> config.setMinPacketSize(Integer.parseInt(value));
                         case "maxPacketSize" -> config.setMaxPacketSize(Integer.parseInt(value));
+                        case "blacklistedIPs" -> {
+                            for (String entry : value.split(",")) {
+                                config.addBlacklistedIP(entry.trim());
+                            }
+                        }
+                        case "blacklistSnapshot" -> config.getBlacklist().loadSnapshot(Paths.get(value));
+                        default -> {
+                            if (key.startsWith("signature.")) {
+                                config.addSignatureRule(parseSignature(key.substring("signature.".length()), parts[1]));
+                            }
+                        }
                     }
                 }
             }
@@ -304,11 +328,23 @@ public final class DataPersistence {
             
         } catch (IOException e) {
             throw new DatabaseException("Erreur lors du chargement de la configuration", e);
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
             throw new DatabaseException("Format de configuration invalide", e);
         }
     }
 
+    /**
+     * Lit une règle de signature au format "score:expression".
+     */
+    private static SignatureRule parseSignature(String id, String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Signature " + id + " : score:expression attendu");
+        }
+        return new SignatureRule(id, value.substring(separator + 1),
+                                 Integer.parseInt(value.substring(0, separator).trim()));
+    }
+
     // ========== EXPORT DES STATISTIQUES ==========
 
     /**
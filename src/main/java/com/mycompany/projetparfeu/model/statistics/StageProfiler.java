@@ -0,0 +1,154 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.statistics;
+
+/**
+ * Profileur d'une chaîne d'étapes (filtres ou détecteurs) avec réordonnancement
+ * adaptatif.
+ *
+ * Pour chaque étape, mesure le coût moyen (sur un paquet sur 16 pour limiter
+ * le coût des appels à System.nanoTime) et le taux de rejet. Tous les
+ * reorderInterval paquets, les étapes sont triées par coût / taux de rejet
+ * croissant : les étapes peu coûteuses et très sélectives passent en
+ * premier. Les compteurs sont ensuite divisés par deux pour suivre
+ * l'évolution du trafic.
+ *
+ * Non thread-safe : un profileur par chaîne et par thread.
+ *
+ * @author ZGARNI
+ */
+public final class StageProfiler {
+
+    private static final int SAMPLE_MASK = 15;
+    private static final double MIN_REJECTION_RATE = 0.001;
+
+    private final int reorderInterval;
+    private final int[] order;
+    private final long[] costNanos;
+    private final long[] costSamples;
+    private final long[] evaluations;
+    private final long[] rejections;
+    private final double[] ranks;
+
+    private long packets;
+    private long reorders;
+
+    /**
+     * Constructeur.
+     *
+     * @param stageCount nombre d'étapes (ordre initial : 0, 1, 2...)
+     * @param reorderInterval nombre de paquets entre deux réordonnancements
+     */
+    public StageProfiler(int stageCount, int reorderInterval) {
+        if (stageCount < 0) {
+            throw new IllegalArgumentException("stageCount doit etre >= 0");
+        }
+        if (reorderInterval < 1) {
+            throw new IllegalArgumentException("reorderInterval doit etre >= 1");
+        }
+        this.reorderInterval = reorderInterval;
+        this.order = new int[stageCount];
+        for (int i = 0; i < stageCount; i++) {
+            order[i] = i;
+        }
+        this.costNanos = new long[stageCount];
+        this.costSamples = new long[stageCount];
+        this.evaluations = new long[stageCount];
+        this.rejections = new long[stageCount];
+        this.ranks = new double[stageCount];
+    }
+
+    /**
+     * Étape à exécuter en position donnée.
+     */
+    public int stageAt(int position) {
+        return order[position];
+    }
+
+    public int getStageCount() {
+        return order.length;
+    }
+
+    /**
+     * Indique si le coût des étapes doit être mesuré pour le paquet courant.
+     */
+    public boolean shouldSample() {
+        return (packets & SAMPLE_MASK) == 0;
+    }
+
+    public void recordCost(int stage, long nanos) {
+        costNanos[stage] += nanos;
+        costSamples[stage]++;
+    }
+
+    /**
+     * Enregistre l'exécution d'une étape.
+     *
+     * @param rejected true si l'étape a rejeté le paquet (ou produit un signal)
+     */
+    public void recordEvaluation(int stage, boolean rejected) {
+        evaluations[stage]++;
+        if (rejected) {
+            rejections[stage]++;
+        }
+    }
+
+    /**
+     * Termine un paquet ; réordonne les étapes périodiquement.
+     */
+    public void endPacket() {
+        if (++packets % reorderInterval == 0) {
+            reorder();
+        }
+    }
+
+    private void reorder() {
+        for (int i = 0; i < order.length; i++) {
+            ranks[i] = getAverageCostNanos(i) / Math.max(getRejectionRate(i), MIN_REJECTION_RATE);
+        }
+
+        // Tri par insertion (peu d'étapes), stable : à rang égal l'ordre est conservé
+        for (int i = 1; i < order.length; i++) {
+            int stage = order[i];
+            int j = i - 1;
+            while (j >= 0 && ranks[order[j]] > ranks[stage]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = stage;
+        }
+        reorders++;
+
+        // Oubli progressif
+        for (int i = 0; i < order.length; i++) {
+            costNanos[i] >>= 1;
+            costSamples[i] >>= 1;
+            evaluations[i] >>= 1;
+            rejections[i] >>= 1;
+        }
+    }
+
+    /**
+     * Coût moyen mesuré d'une étape (1 ns par défaut si jamais mesurée).
+     */
+    public double getAverageCostNanos(int stage) {
+        return costSamples[stage] == 0 ? 1.0 : (double) costNanos[stage] / costSamples[stage];
+    }
+
+    public double getRejectionRate(int stage) {
+        return evaluations[stage] == 0 ? 0.0 : (double) rejections[stage] / evaluations[stage];
+    }
+
+    /**
+     * Ordre courant des étapes (copie).
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    public long getReorderCount() {
+        return reorders;
+    }
+}
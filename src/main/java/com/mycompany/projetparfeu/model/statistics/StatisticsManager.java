@@ -6,13 +6,18 @@ package com.mycompany.projetparfeu.model.statistics;
 
 import com.mycompany.projetparfeu.model.decision.DecisionResult;
 import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.net.ProtocolRegistry;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Gestionnaire centralisé des statistiques du pare-feu.
@@ -28,6 +33,14 @@ public class StatisticsManager {
     private final AtomicInteger droppedPackets = new AtomicInteger(0);
     private final AtomicInteger alertedPackets = new AtomicInteger(0);
     private final AtomicInteger loggedPackets = new AtomicInteger(0);
+    // Décisions prises sans analyse (délestage en surcharge), comprises dans les compteurs ci-dessus
+    private final AtomicInteger degradedPackets = new AtomicInteger(0);
+    
+    // Cache de verdicts
+    private final AtomicLong verdictCacheHits = new AtomicLong(0);
+    private final AtomicLong verdictCacheMisses = new AtomicLong(0);
+    private final AtomicLong verdictCacheEvictions = new AtomicLong(0);
+    private final AtomicLong verdictCacheInvalidations = new AtomicLong(0);
     
     // Historique des décisions
     private final List<DecisionResult> decisionHistory = new CopyOnWriteArrayList<>();
@@ -35,8 +48,8 @@ public class StatisticsManager {
     // Statistiques par IP
     private final Map<String, IPStatistics> ipStats = new HashMap<>();
     
-    // Statistiques par protocole
-    private final Map<String, ProtocolStatistics> protocolStats = new HashMap<>();
+    // Statistiques par protocole, indexées par identifiant ProtocolRegistry
+    private ProtocolStatistics[] protocolStats = new ProtocolStatistics[8];
     
     // Timestamp de démarrage
     private long startTime;
@@ -57,9 +70,14 @@ public class StatisticsManager {
         droppedPackets.set(0);
         alertedPackets.set(0);
         loggedPackets.set(0);
+        degradedPackets.set(0);
+        verdictCacheHits.set(0);
+        verdictCacheMisses.set(0);
+        verdictCacheEvictions.set(0);
+        verdictCacheInvalidations.set(0);
         decisionHistory.clear();
         ipStats.clear();
-        protocolStats.clear();
+        Arrays.fill(protocolStats, null);
         startTime = System.currentTimeMillis();
     }
     
@@ -67,6 +85,22 @@ public class StatisticsManager {
      * Enregistre une nouvelle décision et met à jour les statistiques.
      */
     public void recordDecision(DecisionResult decision) {
+        recordDecision(decision, false);
+    }
+    
+    /**
+     * Enregistre une décision prise sans analyse (délestage : source de
+     * confiance non analysée, trafic non échantillonné, fail-open ou
+     * fail-closed). Elle compte dans les statistiques comme les autres,
+     * mais pas dans la confiance accordée à la source (isTrustedSource) :
+     * un paquet accepté sans analyse ne prouve pas que la source est saine.
+     */
+    public void recordDegradedDecision(DecisionResult decision) {
+        degradedPackets.incrementAndGet();
+        recordDecision(decision, true);
+    }
+    
+    private void recordDecision(DecisionResult decision, boolean degraded) {
         totalPackets.incrementAndGet();
         
         // Mise à jour des compteurs par action
@@ -88,47 +122,131 @@ public class StatisticsManager {
         }
         
         // Mise à jour statistiques IP
-        updateIPStatistics(decision);
+        updateIPStatistics(decision, degraded);
         
         // Mise à jour statistiques protocole
         updateProtocolStatistics(decision);
     }
     
+    /**
+     * Enregistre un rejet sans analyse sur le chemin compact
+     * (voir FirewallEngine.classify) : compteurs globaux et statistiques
+     * par IP/protocole, sans DecisionResult ni historique.
+     */
+    public void recordCompactDrop(Packet packet, int score) {
+        totalPackets.incrementAndGet();
+        droppedPackets.incrementAndGet();
+        updateIPStatistics(packet.getSrcIP(), true, false, score, false);
+        updateProtocolStatistics(packet.getProtocolId(), true, false);
+    }
+    
+    /**
+     * Enregistre les compteurs d'un lot traité en colonnes.
+     * Seuls les compteurs globaux sont mis à jour : un lot ne produit pas
+     * de DecisionResult, donc ni historique ni statistiques par IP/protocole.
+     */
+    public void recordBatch(int accepted, int dropped, int alerted, int logged) {
+        totalPackets.addAndGet(accepted + dropped + alerted + logged);
+        acceptedPackets.addAndGet(accepted + logged);
+        droppedPackets.addAndGet(dropped);
+        alertedPackets.addAndGet(alerted);
+        loggedPackets.addAndGet(logged);
+    }
+    
     /**
      * Met à jour les statistiques par IP.
      */
-    private void updateIPStatistics(DecisionResult decision) {
-        String srcIP = decision.getPacket().getSrcIP();
-        
-        ipStats.putIfAbsent(srcIP, new IPStatistics(srcIP));
+    private void updateIPStatistics(DecisionResult decision, boolean degraded) {
+        updateIPStatistics(decision.getPacket().getSrcIP(), decision.isBlocked(),
+                           decision.isAccepted(), decision.getTotalScore(), degraded);
+    }
+    
+    private void updateIPStatistics(String srcIP, boolean blocked, boolean accepted, int score,
+                                    boolean degraded) {
+        // get puis put : pas d'objet créé quand l'IP est déjà connue
         IPStatistics stats = ipStats.get(srcIP);
+        if (stats == null) {
+            stats = new IPStatistics(srcIP);
+            ipStats.put(srcIP, stats);
+        }
         
         stats.totalPackets++;
-        if (decision.isBlocked()) {
+        if (blocked) {
             stats.blockedPackets++;
-        } else if (decision.isAccepted()) {
+        } else if (accepted) {
             stats.acceptedPackets++;
         }
-        stats.totalScore += decision.getTotalScore();
+        stats.totalScore += score;
+        if (degraded) {
+            stats.degradedPackets++;
+            if (accepted) {
+                stats.degradedAccepted++;
+            }
+        }
     }
     
     /**
      * Met à jour les statistiques par protocole.
      */
     private void updateProtocolStatistics(DecisionResult decision) {
-        String protocol = decision.getPacket().getProtocol();
-        
-        protocolStats.putIfAbsent(protocol, new ProtocolStatistics(protocol));
-        ProtocolStatistics stats = protocolStats.get(protocol);
+        updateProtocolStatistics(decision.getPacket().getProtocolId(),
+                                 decision.isBlocked(), decision.isAccepted());
+    }
+    
+    private void updateProtocolStatistics(int protocolId, boolean blocked, boolean accepted) {
+        if (protocolId >= protocolStats.length) {
+            protocolStats = Arrays.copyOf(protocolStats, Math.max(protocolId + 1, protocolStats.length * 2));
+        }
+        ProtocolStatistics stats = protocolStats[protocolId];
+        if (stats == null) {
+            stats = new ProtocolStatistics(ProtocolRegistry.name(protocolId));
+            protocolStats[protocolId] = stats;
+        }
         
         stats.totalPackets++;
-        if (decision.isBlocked()) {
+        if (blocked) {
             stats.blockedPackets++;
-        } else if (decision.isAccepted()) {
+        } else if (accepted) {
             stats.acceptedPackets++;
         }
     }
     
+    /**
+     * Enregistre une consultation du cache de verdicts.
+     */
+    public void recordVerdictCacheLookup(boolean hit) {
+        if (hit) {
+            verdictCacheHits.incrementAndGet();
+        } else {
+            verdictCacheMisses.incrementAndGet();
+        }
+    }
+    
+    public void recordVerdictCacheEviction() {
+        verdictCacheEvictions.incrementAndGet();
+    }
+    
+    public void recordVerdictCacheInvalidation() {
+        verdictCacheInvalidations.incrementAndGet();
+    }
+    
+    /**
+     * Indique si une IP source est de confiance : au moins minPackets
+     * paquets jugés, tous acceptés (aucun blocage ni alerte). Les décisions
+     * prises sans analyse (recordDegradedDecision) ne comptent pas : sinon
+     * une source acceptée sans analyse deviendrait de confiance, puis ne
+     * serait plus analysée du tout.
+     */
+    public boolean isTrustedSource(String srcIP, int minPackets) {
+        IPStatistics stats = ipStats.get(srcIP);
+        if (stats == null) {
+            return false;
+        }
+        int judged = stats.totalPackets - stats.degradedPackets;
+        return judged >= minPackets
+            && stats.acceptedPackets - stats.degradedAccepted == judged;
+    }
+    
     /**
      * Affiche un rapport complet des statistiques.
      */
@@ -205,7 +323,7 @@ public class StatisticsManager {
      * Affiche les statistiques par protocole.
      */
     public void printProtocolStatistics() {
-        if (protocolStats.isEmpty()) {
+        if (getProtocolStatistics().isEmpty()) {
             return;
         }
         
@@ -213,7 +331,7 @@ public class StatisticsManager {
         System.out.println("📡 STATISTIQUES PAR PROTOCOLE");
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         
-        protocolStats.values().forEach(stats -> {
+        getProtocolStatistics().values().forEach(stats -> {
             double blockRate = stats.totalPackets > 0 
                 ? (stats.blockedPackets * 100.0) / stats.totalPackets 
                 : 0;
@@ -240,6 +358,16 @@ public class StatisticsManager {
         System.out.printf("  Temps d'exécution  : %d secondes\n", uptimeSec);
         System.out.printf("  Débit              : %.2f paquets/seconde\n", packetsPerSecond);
         System.out.printf("  Historique stocké  : %d décisions\n", decisionHistory.size());
+        if (degradedPackets.get() > 0) {
+            System.out.printf("  Sans analyse       : %d décisions (délestage)\n", degradedPackets.get());
+        }
+        
+        long lookups = verdictCacheHits.get() + verdictCacheMisses.get();
+        if (lookups > 0) {
+            System.out.printf("  Cache de verdicts  : %.1f%% de succès (%d/%d), %d évictions, %d invalidations\n",
+                (verdictCacheHits.get() * 100.0) / lookups, verdictCacheHits.get(), lookups,
+                verdictCacheEvictions.get(), verdictCacheInvalidations.get());
+        }
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
     }
     
@@ -249,9 +377,28 @@ public class StatisticsManager {
     public int getDroppedPackets() { return droppedPackets.get(); }
     public int getAlertedPackets() { return alertedPackets.get(); }
     public int getLoggedPackets() { return loggedPackets.get(); }
+    public int getDegradedPackets() { return degradedPackets.get(); }
+    public long getVerdictCacheHits() { return verdictCacheHits.get(); }
+    public long getVerdictCacheMisses() { return verdictCacheMisses.get(); }
+    public long getVerdictCacheEvictions() { return verdictCacheEvictions.get(); }
+    public long getVerdictCacheInvalidations() { return verdictCacheInvalidations.get(); }
     public List<DecisionResult> getDecisionHistory() { return new ArrayList<>(decisionHistory); }
     public Map<String, IPStatistics> getIPStatistics() { return new HashMap<>(ipStats); }
     
+    /**
+     * Statistiques par protocole, par nom canonique (ordre des identifiants).
+     * Les protocoles au-delà de la capacité du registre sont regroupés.
+     */
+    public Map<String, ProtocolStatistics> getProtocolStatistics() {
+        Map<String, ProtocolStatistics> byName = new LinkedHashMap<>();
+        for (ProtocolStatistics stats : protocolStats) {
+            if (stats != null) {
+                byName.put(stats.protocol, stats);
+            }
+        }
+        return byName;
+    }
+    
     /**
      * Classe interne pour statistiques par IP.
      */
@@ -261,6 +408,9 @@ public class StatisticsManager {
         public int acceptedPackets;
         public int blockedPackets;
         public int totalScore;
+        // Décisions sans analyse (délestage), incluses dans les compteurs ci-dessus
+        public int degradedPackets;
+        public int degradedAccepted;
         
         public IPStatistics(String ipAddress) {
             this.ipAddress = ipAddress;
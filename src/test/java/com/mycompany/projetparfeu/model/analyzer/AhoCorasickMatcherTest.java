@@ -0,0 +1,162 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'automate d'Aho-Corasick (mots suspects).
+ * @author ZGARNI
+ */
+class AhoCorasickMatcherTest {
+
+    private static final List<String> WORDS = List.of("javascript:", "etc/passwd", "<script", "union select", "x");
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Zone assez longue pour que le parcours saute aux positions candidates. */
+    private static String filler() {
+        return "-".repeat(300);
+    }
+
+    // ========== PARCOURS VECTORIEL ==========
+
+    private static String randomText(Random random, int length) {
+        // ASCII, lettres accentuées, K de Kelvin (replié en k) et idéogramme (3 octets)
+        String alphabet = "abcdijklmnoprstuvxy <>/:.-_ ÉéèçKK中";
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    @Test
+    void vectorScanMatchesScalarAndTextSearch() {
+        List<String> words = List.of("script", "javascript:", "../", "union", "été", "kk", "中文");
+        AhoCorasickMatcher scalar = new AhoCorasickMatcher(words, false);
+        AhoCorasickMatcher vector = new AhoCorasickMatcher(words, true);
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            assertTrue(vector.isVectorScanEnabled());
+        }
+        Random random = new Random(23);
+        for (int round = 0; round < 2_000; round++) {
+            String text = randomText(random, random.nextInt(2_000));
+            if (random.nextBoolean()) {
+                int at = random.nextInt(text.length() + 1);
+                text = text.substring(0, at) + words.get(random.nextInt(words.size())).toUpperCase() + text.substring(at);
+            }
+            byte[] bytes = utf8(text);
+            int[] expected = scalar.findAll(text);
+            assertArrayEquals(expected, scalar.findAll(bytes, 0, bytes.length), text);
+            assertArrayEquals(expected, vector.findAll(bytes, 0, bytes.length), text);
+            assertEquals(expected.length, vector.countMatches(bytes, 0, bytes.length));
+        }
+    }
+
+    @Test
+    void dottedCapitalIFoldsLikeStringToLowerCase() {
+        // String.toLowerCase : U+0130 -> i + U+0307 (deux caractères)
+        List<String> words = List.of("if", "i", "İf", "i\u0307", "xİ", "İ");
+        List<String> texts = List.of("İf", "if", "IF", "i\u0307f", "xİ", "XI\u0307", "xi", "İ", "aİb",
+                filler() + "İf" + filler());
+        for (boolean vectorScan : new boolean[] {false, true}) {
+            AhoCorasickMatcher matcher = new AhoCorasickMatcher(words, vectorScan);
+            for (String text : texts) {
+                List<Integer> expected = new ArrayList<>();
+                for (int w = 0; w < words.size(); w++) {
+                    if (text.toLowerCase(Locale.ROOT).contains(words.get(w).toLowerCase(Locale.ROOT))) {
+                        expected.add(w);
+                    }
+                }
+                int[] wanted = expected.stream().mapToInt(Integer::intValue).toArray();
+                byte[] bytes = utf8(text);
+                assertArrayEquals(wanted, matcher.findAll(text), text);
+                assertArrayEquals(wanted, matcher.findAll(bytes, 0, bytes.length), text);
+            }
+        }
+    }
+
+    @Test
+    void searchesInsideSliceOnly() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("drop"));
+        byte[] bytes = utf8("drop" + filler() + "drop");
+        assertEquals(0, matcher.countMatches(bytes, 1, bytes.length - 2));
+        assertEquals(1, matcher.countMatches(bytes, 0, bytes.length - 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> matcher.findAll(bytes, 1, bytes.length));
+    }
+
+    // ========== FLUX ==========
+
+    @Test
+    void streamFindsWordSplitAfterEveryPrefix() {
+        for (boolean vectorScan : new boolean[] {false, true}) {
+            AhoCorasickMatcher matcher = new AhoCorasickMatcher(WORDS, vectorScan);
+            for (int index = 0; index < WORDS.size(); index++) {
+                String word = WORDS.get(index);
+                for (int cut = 1; cut < word.length(); cut++) {
+                    long[] states = {AhoCorasickMatcher.STREAM_START};
+                    byte[] head = utf8(filler() + word.substring(0, cut));
+                    byte[] tail = utf8(word.substring(cut) + filler());
+
+                    assertEquals(0, matcher.findAll(head, 0, head.length, states, 0).length);
+                    assertArrayEquals(new int[] {index}, matcher.findAll(tail, 0, tail.length, states, 0),
+                            "vectorScan=" + vectorScan + " " + word.substring(0, cut) + " | " + word.substring(cut));
+                }
+            }
+        }
+    }
+
+    @Test
+    void streamFindsWordWhoseFirstByteEndsTheZone() {
+        // Le premier octet du mot est le dernier de la zone (paire coupée)
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("<script"), true);
+        long[] states = {AhoCorasickMatcher.STREAM_START};
+        byte[] head = utf8(filler() + "<");
+        byte[] tail = utf8("SCRIPT>" + filler());
+        assertEquals(0, matcher.countMatches(head, 0, head.length, states, 0));
+        assertEquals(1, matcher.countMatches(tail, 0, tail.length, states, 0));
+    }
+
+    @Test
+    void streamResumesMultiByteSequenceCutBetweenZones() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("é"), true);
+        byte[] word = utf8("é");
+        long[] states = {AhoCorasickMatcher.STREAM_START};
+        byte[] head = utf8(filler());
+        byte[] cut = new byte[head.length + 1];
+        System.arraycopy(head, 0, cut, 0, head.length);
+        cut[head.length] = word[0];
+        assertEquals(0, matcher.countMatches(cut, 0, cut.length, states, 0));
+        assertEquals(1, matcher.countMatches(word, 1, 1, states, 0));
+    }
+
+    @Test
+    void streamReportsWordOnlyInZoneWhereItEnds() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(WORDS);
+        long[] states = {AhoCorasickMatcher.STREAM_START};
+        byte[] first = utf8("etc/passwd");
+        byte[] second = utf8("rien");
+        assertEquals(1, matcher.countMatches(first, 0, first.length, states, 0));
+        assertEquals(0, matcher.countMatches(second, 0, second.length, states, 0));
+    }
+
+    @Test
+    void rejectsInvalidStreamState() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(WORDS);
+        long[] states = {Integer.MAX_VALUE};
+        byte[] data = utf8("abc");
+        assertThrows(IllegalArgumentException.class, () -> matcher.findAll(data, 0, data.length, states, 0));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'analyseur : le traitement par lots donne les mêmes scores
+ * que l'analyse paquet par paquet.
+ * @author ZGARNI
+ */
+class PacketAnalyzerTest {
+
+    @Test
+    void batchScoresMatchPacketAnalysis() {
+        PacketAnalyzer analyzer = new PacketAnalyzer(40, 1400, List.of("select", "passwd"));
+        List<Packet> packets = new ArrayList<>();
+        for (int port : new int[] {22, 1023, 1024, 8080}) {
+            for (int length : new int[] {6, 100, 1480, 1481, 1600}) {
+                String payload = "a".repeat(length - 6) + "select";
+                packets.add(new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, port, "TCP", payload));
+            }
+        }
+        PacketBlock block = new PacketBlock(packets.size(), 1024);
+        for (Packet packet : packets) {
+            block.add(packet);
+        }
+        int[] totals = new int[packets.size()];
+        int[] maxima = new int[packets.size()];
+        analyzer.analyzeBatch(block, new boolean[packets.size()], totals, maxima);
+
+        for (int i = 0; i < packets.size(); i++) {
+            List<DetectionSignal> signals = analyzer.analyze(packets.get(i));
+            Packet packet = packets.get(i);
+            String context = packet.getDestPort() + "/" + packet.getSize();
+            assertEquals(analyzer.calculateTotalScore(signals), totals[i], context);
+            assertEquals(signals.stream().mapToInt(DetectionSignal::getScore).max().orElse(0), maxima[i], context);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.analyzer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la recherche simultanée des signatures, comparée à
+ * java.util.regex (Pattern.find) sur des zones ASCII.
+ * @author ZGARNI
+ */
+class SignatureMatcherTest {
+
+    private static final String[] PATTERNS = {
+        "(?i)select\\s+\\w+\\s+from",
+        "^GET /[a-z]{1,3}$",
+        "ab{2,4}c",
+        "a{3}",
+        "x{2,}y",
+        "(?:foo|bar)+baz",
+        "\\d{3}-\\d{2,4}",
+        "[^a-z]{2}q",
+        "end$",
+        "^\\x41B?",
+        "a.c",
+        "(?i)[a-c]x",
+        "colou?r",
+        "\\.\\./",
+        "(?i)^drop$",
+        "b{0,2}c{1}d",
+    };
+
+    // Cas limites de $ : saut de ligne final, \r\n, saut de ligne non final
+    private static final String[] EDGE_INPUTS = {
+        "GET /ab\r\n", "GET /ab\n", "GET /abcd", "end\r\n", "end\n\n", "end\r", "end\r\r",
+        "end\n\r", "drop\r\n", "DROP", "xdrop", "SeLeCt  id\tFrOm", "AB", "",
+    };
+
+    private static List<SignatureRule> rules() {
+        List<SignatureRule> rules = new ArrayList<>();
+        for (int i = 0; i < PATTERNS.length; i++) {
+            rules.add(new SignatureRule("R" + i, PATTERNS[i], 1 + i % 10));
+        }
+        return rules;
+    }
+
+    private static List<String> inputs() {
+        List<String> inputs = new ArrayList<>(Arrays.asList(EDGE_INPUTS));
+        String alphabet = "abcdexyqforzSELECTselectFROMfrom GETDROPdrop/0123456789-.\r\n\t";
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            inputs.add(input.toString());
+        }
+        return inputs;
+    }
+
+    private static void assertSameAsPattern(SignatureMatcher matcher) {
+        Pattern[] compiled = new Pattern[PATTERNS.length];
+        for (int r = 0; r < PATTERNS.length; r++) {
+            compiled[r] = Pattern.compile(PATTERNS[r]);
+        }
+        for (String input : inputs()) {
+            // Un octet par caractère, au milieu d'un tableau plus grand
+            byte[] data = ("##" + input + "##").getBytes(StandardCharsets.ISO_8859_1);
+            int[] found = matcher.findAll(data, 2, input.length());
+            int expectedScore = 0;
+            for (int r = 0; r < PATTERNS.length; r++) {
+                boolean expected = compiled[r].matcher(input).find();
+                assertEquals(expected, Arrays.binarySearch(found, r) >= 0,
+                        "/" + PATTERNS[r] + "/ sur \"" + input.replace("\r", "\\r").replace("\n", "\\n") + "\"");
+                if (expected) {
+                    expectedScore += matcher.getRules().get(r).getScore();
+                }
+            }
+            assertEquals(expectedScore, matcher.totalScore(data, 2, input.length()));
+        }
+    }
+
+    @Test
+    void matchesLikePatternFind() {
+        SignatureMatcher matcher = new SignatureMatcher(rules());
+        assertSameAsPattern(matcher);
+        assertEquals(0, matcher.getCacheFlushCount());
+    }
+
+    @Test
+    void tinyStateCacheFlushesWithoutChangingResults() {
+        SignatureMatcher matcher = new SignatureMatcher(rules(), 4);
+        assertSameAsPattern(matcher);
+        assertTrue(matcher.getCacheFlushCount() > 0);
+        assertEquals(4, matcher.getMaxCachedStates());
+        assertThrows(IllegalArgumentException.class, () -> new SignatureMatcher(rules(), 3));
+    }
+
+    @Test
+    void rejectsUnsupportedSyntax() {
+        String[] rejected = {
+            "(ab", "ab)", "a**", "*a", "a{2,1}", "a{1001}", "a{,2}", "a++", "[abc", "[]",
+            "[z-a]", "(?=a)", "(?<n>a)", "\\1", "a^", "$a", "ab\\", "\\xZZ", "[é]", "^a|b",
+        };
+        for (String pattern : rejected) {
+            List<SignatureRule> rules = List.of(new SignatureRule("BAD-1", pattern, 5));
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new SignatureMatcher(rules), pattern);
+            assertTrue(e.getMessage().startsWith("Signature BAD-1 : "), e.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SignatureRule("a b", "x", 5));
+        assertThrows(IllegalArgumentException.class, () -> new SignatureRule("OK", "x", 11));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du bannissement automatique et de ses consultations sans verrou.
+ * @author ZGARNI
+ */
+class AutoBanManagerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AutoBanManager manager(int threshold, int maxTracked) {
+        return new AutoBanManager(threshold, 10_000, 60_000, 1_000, maxTracked, clock::get);
+    }
+
+    @Test
+    void bansAtThresholdUntilExpiry() {
+        AutoBanManager bans = manager(3, 100);
+        int source = 0x0A000001;
+        assertFalse(bans.recordOffenseIpv4(source));
+        assertFalse(bans.recordOffenseIpv4(source));
+        assertFalse(bans.isBannedIpv4(source));
+        assertTrue(bans.recordOffenseIpv4(source));
+        assertTrue(bans.isBannedIpv4(source));
+        assertFalse(bans.recordOffenseIpv4(source));
+        assertEquals(1, bans.getTotalBans());
+
+        clock.set(59_999);
+        assertTrue(bans.isBannedIpv4(source));
+        // Échu même avant que la roue ne l'ait fait expirer
+        clock.set(60_000);
+        assertFalse(bans.isBannedIpv4(source));
+        bans.expire();
+        assertEquals(0, bans.getActiveBanCount());
+        assertEquals(1, bans.getExpiredBans());
+    }
+
+    @Test
+    void unbanAndBanAgain() {
+        AutoBanManager bans = manager(1, 100);
+        IpAddress address = IpAddress.parse("2001:db8::1");
+        assertTrue(bans.ban(address, 5_000));
+        assertTrue(bans.isBanned(address));
+        assertTrue(bans.unban(address));
+        assertFalse(bans.isBanned(address));
+        assertTrue(bans.ban(address, 5_000));
+        assertTrue(bans.isBanned(address));
+        assertFalse(bans.isBanned(IpAddress.parse("2001:db8::2")));
+    }
+
+    @Test
+    void manyBansStayVisibleAcrossTableGrowth() {
+        AutoBanManager bans = manager(1, 10_000);
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(bans.recordOffenseIpv4(i + 1));
+            // Levées régulières : les cases libérées ne doivent pas masquer les autres
+            if (i % 3 == 0) {
+                bans.unban(IpAddress.ofIpv4(i + 1));
+            }
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(i % 3 != 0, bans.isBannedIpv4(i + 1), "source " + (i + 1));
+        }
+        assertFalse(bans.isBannedIpv4(5_001));
+    }
+
+    @Test
+    void lookupDoesNotTakeTheLock() throws Exception {
+        AutoBanManager bans = manager(1, 100);
+        bans.recordOffenseIpv4(42);
+        synchronized (bans) {
+            // Un autre thread (un autre shard) consulte pendant que le verrou est tenu
+            boolean banned = CompletableFuture
+                    .supplyAsync(() -> bans.isBannedIpv4(42) && !bans.isBannedIpv4(43)
+                            && !bans.recordOffenseIpv4(42))
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(banned);
+        }
+    }
+}
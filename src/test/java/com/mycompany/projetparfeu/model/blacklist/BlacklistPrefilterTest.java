@@ -0,0 +1,127 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.DecisionEngine;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du filtre de Bloom de la blacklist et de sa reconstruction.
+ * @author ZGARNI
+ */
+class BlacklistPrefilterTest {
+
+    private static PaquetSimple from(String source) {
+        return new PaquetSimple(source, "192.168.1.1", 4000, 80, "TCP", "bonjour");
+    }
+
+    @Test
+    void noFalseNegativesAndCountersTrackFalsePositives() {
+        BlacklistStore store = new BlacklistStore();
+        for (int i = 0; i < 2_000; i++) {
+            store.add("10.1." + (i / 250) + "." + (i % 250));
+        }
+        store.add("2001:db8::1");
+        BlacklistPrefilter filter = BlacklistPrefilter.build(store, 0.01);
+        assertEquals(2_001, filter.getKeyCount());
+        assertTrue(filter.isCurrentFor(store));
+
+        for (int i = 0; i < 2_000; i++) {
+            assertTrue(filter.mightContainIpv4(Ipv4.parse("10.1." + (i / 250) + "." + (i % 250))));
+        }
+        assertTrue(filter.mightContain(IpAddress.parse("2001:db8::1")));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int absent = 0x0B000000 + i;
+            if (filter.mightContainIpv4(absent) && !store.containsIpv4(absent)) {
+                filter.recordFalsePositive();
+                falsePositives++;
+            }
+        }
+        assertEquals(falsePositives, filter.getFalsePositiveCount());
+        assertEquals(12_001, filter.getQueryCount());
+        assertTrue(falsePositives < 500, "faux positifs : " + falsePositives);
+        // Taux observé sur les seules recherches d'adresses absentes
+        assertEquals(falsePositives / 10_000.0, filter.getObservedFalsePositiveRate(), 1e-9);
+    }
+
+    @Test
+    void coversSnapshotEntriesWithoutCopy() throws IOException {
+        BlacklistStore exported = new BlacklistStore();
+        exported.add("198.51.100.7");
+        exported.add("2001:db8::7");
+        Path file = Files.createTempFile("blacklist", ".snap");
+        try {
+            BlacklistSnapshot.write(exported, file);
+            BlacklistStore store = new BlacklistStore();
+            store.add("203.0.113.1");
+            store.loadSnapshot(file);
+
+            BlacklistPrefilter filter = BlacklistPrefilter.build(store, 0.01);
+            assertEquals(3, filter.getKeyCount());
+            assertTrue(filter.mightContainIpv4(Ipv4.parse("198.51.100.7")));
+            assertTrue(filter.mightContainIpv4(Ipv4.parse("203.0.113.1")));
+            assertTrue(filter.mightContain(IpAddress.parse("2001:db8::7")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void staleFilterStillBlocksAndIsRebuiltInBackground() throws InterruptedException {
+        FirewallConfig config = new FirewallConfig();
+        config.addBlacklistedIP("203.0.113.1");
+        DecisionEngine first = new DecisionEngine(config);
+        DecisionEngine second = new DecisionEngine(config);
+        first.enableBlacklistPrefilter(0.01);
+        second.enableBlacklistPrefilter(0.01);
+        BlacklistPrefilter initial = first.getBlacklistPrefilter();
+        // Les moteurs sur la même configuration partagent le filtre
+        assertSame(initial, second.getBlacklistPrefilter());
+
+        config.addBlacklistedIP("203.0.113.2");
+        assertFalse(initial.isCurrentFor(config.getBlacklist()));
+        // Avant la reconstruction, l'adresse ajoutée est vérifiée dans la liste
+        assertTrue(first.shouldBlockImmediately(from("203.0.113.2")));
+        assertTrue(second.shouldBlockImmediately(from("203.0.113.1")));
+        assertFalse(first.shouldBlockImmediately(from("203.0.113.3")));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        BlacklistPrefilter rebuilt = first.getBlacklistPrefilter();
+        while (!rebuilt.isCurrentFor(config.getBlacklist()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            rebuilt = first.getBlacklistPrefilter();
+        }
+        assertNotSame(initial, rebuilt);
+        assertTrue(rebuilt.isCurrentFor(config.getBlacklist()));
+        assertSame(rebuilt, second.getBlacklistPrefilter());
+        assertEquals(0.01, rebuilt.getTargetFalsePositiveRate());
+        assertTrue(rebuilt.mightContainIpv4(Ipv4.parse("203.0.113.2")));
+        assertTrue(second.shouldBlockImmediately(from("203.0.113.2")));
+    }
+
+    @Test
+    void disablingStopsUsingTheFilter() {
+        FirewallConfig config = new FirewallConfig();
+        config.addBlacklistedIP("203.0.113.1");
+        DecisionEngine engine = new DecisionEngine(config);
+        engine.enableBlacklistPrefilter(0.05);
+        assertNotNull(engine.getBlacklistPrefilter());
+        engine.enableBlacklistPrefilter(0);
+        assertNull(engine.getBlacklistPrefilter());
+        assertTrue(engine.shouldBlockImmediately(from("203.0.113.1")));
+        assertThrows(IllegalArgumentException.class, () -> engine.enableBlacklistPrefilter(1.5));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import com.mycompany.projetparfeu.model.net.Ipv4;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la blacklist à tables primitives.
+ * @author ZGARNI
+ */
+class BlacklistStoreTest {
+
+    @Test
+    void storesEachEntryKind() {
+        BlacklistStore store = new BlacklistStore();
+        assertTrue(store.add("203.0.113.7"));
+        assertTrue(store.add("2001:db8::1"));
+        assertTrue(store.add("10.0.0.0/8"));
+        assertTrue(store.add("serveur.interne"));
+        assertFalse(store.add("203.0.113.7"));
+        assertEquals(4, store.size());
+
+        assertTrue(store.containsIpv4(Ipv4.parse("203.0.113.7")));
+        assertTrue(store.containsIpv4(Ipv4.parse("10.20.30.40")));
+        assertFalse(store.containsIpv4(Ipv4.parse("11.0.0.1")));
+        assertTrue(store.contains(IpAddress.parse("2001:db8::1")));
+        assertTrue(store.contains(IpAddress.parse("::ffff:10.1.1.1")));
+        assertFalse(store.contains(IpAddress.parse("2001:db8::2")));
+        assertTrue(store.containsName("serveur.interne"));
+        assertFalse(store.containsName("autre"));
+    }
+
+    @Test
+    void prefixesAreNormalized() {
+        BlacklistStore store = new BlacklistStore();
+        assertTrue(store.add("10.1.2.3/8"));
+        assertFalse(store.add("10.0.0.0/8"));
+        assertTrue(store.remove("10.9.9.9/8"));
+        assertFalse(store.containsIpv4(Ipv4.parse("10.1.2.3")));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void removeAndVersion() {
+        BlacklistStore store = new BlacklistStore();
+        long version = store.getVersion();
+        store.add("192.0.2.1");
+        assertTrue(store.getVersion() > version);
+
+        version = store.getVersion();
+        assertFalse(store.remove("192.0.2.2"));
+        assertEquals(version, store.getVersion());
+        assertTrue(store.remove("192.0.2.1"));
+        assertFalse(store.containsIpv4(Ipv4.parse("192.0.2.1")));
+        assertFalse(store.remove(null));
+    }
+
+    @Test
+    void matchesHashSetOnRandomIpv4() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            Random random = new Random(17);
+            BlacklistStore store = new BlacklistStore(0, offHeap);
+            Set<Integer> reference = new HashSet<>();
+            for (int i = 0; i < 50_000; i++) {
+                // Petit domaine (et 0) pour mêler ajouts, doublons et retraits
+                int address = random.nextInt(20_000) - 10_000;
+                String text = Ipv4.toString(address);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(reference.remove(address), store.remove(text));
+                } else {
+                    assertEquals(reference.add(address), store.add(text));
+                }
+            }
+            assertEquals(reference.size(), store.getIpv4Count());
+            for (int address = -10_000; address < 10_000; address++) {
+                assertEquals(reference.contains(address), store.containsIpv4(address), "offHeap=" + offHeap);
+            }
+        }
+    }
+
+    @Test
+    void bulkAddIpv4() {
+        BlacklistStore store = new BlacklistStore();
+        int[] addresses = {1, 2, 3, 2, 99};
+        assertEquals(3, store.addAllIpv4(addresses, 4));
+        assertTrue(store.containsIpv4(3));
+        assertFalse(store.containsIpv4(99));
+        assertThrows(IllegalArgumentException.class, () -> store.addAllIpv4(addresses, 6));
+        assertEquals(2, store.addAll(List.of("198.51.100.1", "", "198.51.100.0/24")));
+    }
+
+    @Test
+    void loadsFeedFile() throws IOException {
+        Path file = Files.createTempFile("blacklist", ".txt");
+        try {
+            Files.writeString(file, "# flux\n198.51.100.1\n\n198.51.100.2\r\n2001:db8::/32\nhote.exemple\n198.51.100.1\n",
+                              StandardCharsets.UTF_8);
+            BlacklistStore store = new BlacklistStore();
+            assertEquals(4, store.load(file, 0));
+            assertTrue(store.containsIpv4(Ipv4.parse("198.51.100.2")));
+            assertTrue(store.contains(IpAddress.parse("2001:db8:5::1")));
+            assertTrue(store.containsName("hote.exemple"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void leadingZerosAreNotIpv4InBothParsers() throws IOException {
+        // "010.0.0.1" n'est pas 10.0.0.1 (octal pour inet_aton) : texte quelconque
+        BlacklistStore added = new BlacklistStore();
+        assertTrue(added.add("010.0.0.1"));
+        assertTrue(added.containsName("010.0.0.1"));
+        assertFalse(added.containsIpv4(Ipv4.parse("10.0.0.1")));
+
+        Path file = Files.createTempFile("blacklist", ".txt");
+        try {
+            Files.writeString(file, "010.0.0.1\n192.168.001.1\n10.0.0.0\n", StandardCharsets.UTF_8);
+            BlacklistStore loaded = new BlacklistStore();
+            assertEquals(3, loaded.load(file, 0));
+            assertTrue(loaded.containsName("010.0.0.1"));
+            assertTrue(loaded.containsName("192.168.001.1"));
+            assertFalse(loaded.containsIpv4(Ipv4.parse("10.0.0.1")));
+            assertFalse(loaded.containsIpv4(Ipv4.parse("192.168.1.1")));
+            assertTrue(loaded.containsIpv4(Ipv4.parse("10.0.0.0")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void snapshotRoundTripAndSwap() throws IOException {
+        Path file = Files.createTempFile("blacklist", ".snap");
+        try {
+            BlacklistStore source = new BlacklistStore();
+            source.add("203.0.113.9");
+            source.add("2001:db8::9");
+            source.add("172.16.0.0/12");
+            BlacklistSnapshot.write(source, file);
+
+            BlacklistStore store = new BlacklistStore();
+            assertNull(store.loadSnapshot(file));
+            assertTrue(store.containsIpv4(Ipv4.parse("203.0.113.9")));
+            assertTrue(store.containsIpv4(Ipv4.parse("172.20.0.1")));
+            assertTrue(store.contains(IpAddress.parse("2001:db8::9")));
+
+            assertNotNull(store.attachSnapshot(null));
+            assertFalse(store.containsIpv4(Ipv4.parse("203.0.113.9")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
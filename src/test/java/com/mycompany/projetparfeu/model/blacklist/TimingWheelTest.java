@@ -0,0 +1,145 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.blacklist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la roue temporelle hiérarchique.
+ * @author ZGARNI
+ */
+class TimingWheelTest {
+
+    @Test
+    void expiresAtDeadlineNotBefore() {
+        TimingWheel wheel = new TimingWheel(0, 4);
+        List<Integer> expired = new ArrayList<>();
+        wheel.schedule(10, 1);
+        wheel.schedule(300, 2);          // niveau 1
+        wheel.schedule(70_000, 3);       // niveau 2
+
+        wheel.advance(9, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(10, expired::add);
+        assertEquals(List.of(1), expired);
+        wheel.advance(299, expired::add);
+        assertEquals(List.of(1), expired);
+        wheel.advance(69_999, expired::add);
+        assertEquals(List.of(1, 2), expired);
+        wheel.advance(70_000, expired::add);
+        assertEquals(List.of(1, 2, 3), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        TimingWheel wheel = new TimingWheel(1_000, 4);
+        List<Integer> expired = new ArrayList<>();
+        wheel.schedule(5, 7);
+        wheel.advance(1_000, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(1_001, expired::add);
+        assertEquals(List.of(7), expired);
+    }
+
+    @Test
+    void cancelRemovesPendingTimerOnly() {
+        TimingWheel wheel = new TimingWheel(0, 4);
+        List<Integer> expired = new ArrayList<>();
+        int first = wheel.schedule(5, 1);
+        int second = wheel.schedule(5, 2);
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        assertFalse(wheel.cancel(TimingWheel.NO_TIMER));
+        assertEquals(1, wheel.size());
+
+        wheel.advance(5, expired::add);
+        assertEquals(List.of(2), expired);
+        assertFalse(wheel.cancel(second));
+    }
+
+    @Test
+    void deadlineBeyondWheelRangeIsRescheduled() {
+        TimingWheel wheel = new TimingWheel(0, 4);
+        List<Integer> expired = new ArrayList<>();
+        long far = (1L << 33) + 5;
+        wheel.schedule(far, 9);
+        wheel.advance(far - 1, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(far, expired::add);
+        assertEquals(List.of(9), expired);
+    }
+
+    @Test
+    void matchesReferenceOnRandomSchedule() {
+        Random random = new Random(18);
+        TimingWheel wheel = new TimingWheel(0, 16);
+        // Minuteries en attente : identifiant -> {échéance effective, valeur}
+        Map<Integer, long[]> pending = new HashMap<>();
+        int nextPayload = 0;
+        long now = 0;
+
+        for (int round = 0; round < 5_000; round++) {
+            int schedules = random.nextInt(5);
+            for (int i = 0; i < schedules; i++) {
+                long delay = switch (random.nextInt(4)) {
+                    case 0 -> random.nextInt(256);
+                    case 1 -> random.nextInt(65_536);
+                    case 2 -> random.nextInt(1 << 24);
+                    default -> -random.nextInt(100);  // échéance passée
+                };
+                long deadline = now + delay;
+                int payload = nextPayload++;
+                int timer = wheel.schedule(deadline, payload);
+                assertNull(pending.put(timer, new long[] {Math.max(deadline, now + 1), payload}));
+            }
+            if (!pending.isEmpty() && random.nextInt(4) == 0) {
+                Integer timer = pending.keySet().iterator().next();
+                assertTrue(wheel.cancel(timer));
+                pending.remove(timer);
+            }
+
+            long target = now + switch (random.nextInt(3)) {
+                case 0 -> random.nextInt(16);
+                case 1 -> random.nextInt(4_096);
+                default -> random.nextInt(1 << 20);
+            };
+            Map<Long, Long> deadlineByPayload = new HashMap<>();
+            for (long[] timer : pending.values()) {
+                deadlineByPayload.put(timer[1], timer[0]);
+            }
+            List<Long> firedDeadlines = new ArrayList<>();
+            wheel.advance(target, payload -> {
+                Long deadline = deadlineByPayload.remove((long) payload);
+                assertNotNull(deadline, "valeur inconnue ou déjà expirée : " + payload);
+                firedDeadlines.add(deadline);
+            });
+            now = target;
+
+            for (int i = 1; i < firedDeadlines.size(); i++) {
+                assertTrue(firedDeadlines.get(i - 1) <= firedDeadlines.get(i), "ordre des échéances");
+            }
+            pending.values().removeIf(timer -> timer[0] <= target);
+            for (long[] timer : pending.values()) {
+                assertTrue(deadlineByPayload.containsKey(timer[1]));
+            }
+            assertEquals(pending.size(), deadlineByPayload.size(), "minuteries échues non déclenchées");
+            assertEquals(pending.size(), wheel.size());
+            assertEquals(target, wheel.getCurrentTick());
+        }
+    }
+
+    @Test
+    void rejectsNegativeStart() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(-1, 4));
+    }
+}
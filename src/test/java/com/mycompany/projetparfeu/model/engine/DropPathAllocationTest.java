@@ -0,0 +1,107 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.blacklist.AutoBanManager;
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.CompactVerdict;
+import com.mycompany.projetparfeu.model.decision.DropReason;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.ProtocolFilter;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Chemin de rejet compact (FirewallEngine.classify) : aucune allocation
+ * par paquet rejeté, mesurée avec le compteur d'octets alloués du thread.
+ * @author ZGARNI
+ */
+class DropPathAllocationTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int PACKETS = 100_000;
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Octets alloués par paquet, après préchauffage.
+     */
+    private static double allocatedPerPacket(FirewallEngine engine, Packet packet, DropReason expected) {
+        com.sun.management.ThreadMXBean threads = threads();
+        assumeTrue(threads != null, "Mesure des allocations par thread non disponible");
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += engine.classify(packet);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < PACKETS; i++) {
+            sink += engine.classify(packet);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        long verdict = engine.classify(packet);
+        assertTrue(CompactVerdict.isDrop(verdict));
+        assertEquals(expected, CompactVerdict.dropReason(verdict));
+        assertEquals((WARMUP + PACKETS) * verdict, sink);
+        return (double) allocated / PACKETS;
+    }
+
+    private static FirewallEngine engine(FirewallConfig config) {
+        FirewallEngine engine = new FirewallEngine(config);
+        engine.addFilter(new ProtocolFilter("TCP"));
+        engine.start();
+        return engine;
+    }
+
+    // Un objet par paquet coûterait au moins 16 octets : moins d'un octet
+    // par paquet laisse seulement la marge des événements ponctuels (JIT...)
+
+    @Test
+    void filterDropDoesNotAllocate() {
+        FirewallEngine engine = engine(new FirewallConfig());
+        Packet udp = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 53, "UDP", "query");
+        assertTrue(allocatedPerPacket(engine, udp, DropReason.FILTER) < 1.0);
+    }
+
+    @Test
+    void blacklistDropDoesNotAllocate() {
+        FirewallConfig config = new FirewallConfig();
+        config.addBlacklistedIP("203.0.113.7");
+        FirewallEngine engine = engine(config);
+        Packet blacklisted = new PaquetSimple("203.0.113.7", "10.0.0.2", 4000, 80, "TCP", "GET /");
+        assertTrue(allocatedPerPacket(engine, blacklisted, DropReason.BLACKLIST) < 1.0);
+    }
+
+    @Test
+    void autoBanDropDoesNotAllocate() {
+        FirewallEngine engine = engine(new FirewallConfig());
+        AutoBanManager bans = new AutoBanManager(3, 60_000, 60_000);
+        bans.ban(IpAddress.parse("198.51.100.9"), 60_000);
+        engine.setAutoBanManager(bans);
+        Packet banned = new PaquetSimple("198.51.100.9", "10.0.0.2", 4000, 80, "TCP", "GET /");
+        assertTrue(allocatedPerPacket(engine, banned, DropReason.AUTO_BAN) < 1.0);
+    }
+
+    @Test
+    void describeRendersReasonOnDemand() {
+        FirewallEngine engine = engine(new FirewallConfig());
+        Packet udp = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 53, "UDP", "query");
+        long verdict = engine.classify(udp);
+        assertTrue(engine.describe(verdict, udp).contains("ProtocolFilter"));
+    }
+}
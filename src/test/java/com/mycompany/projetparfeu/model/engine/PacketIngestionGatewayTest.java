@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la passerelle d'ingestion concurrente.
+ * @author ZGARNI
+ */
+class PacketIngestionGatewayTest {
+
+    private static final Packet PACKET = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 80, "TCP", "bonjour");
+
+    private static FirewallEngine engine() {
+        FirewallEngine engine = new FirewallEngine(new FirewallConfig());
+        engine.start();
+        return engine;
+    }
+
+    @Test
+    void producersAreProcessedBeforeClose() throws Exception {
+        PacketIngestionGateway gateway = new PacketIngestionGateway(engine(), 8);
+        ConcurrentLinkedQueue<CompletableFuture<DecisionResult>> futures = new ConcurrentLinkedQueue<>();
+        for (int p = 0; p < 4; p++) {
+            gateway.startProducer(g -> {
+                for (int i = 0; i < 100; i++) {
+                    futures.add(g.submit(PACKET));
+                }
+            });
+        }
+        gateway.close();
+        assertEquals(400, futures.size());
+        for (CompletableFuture<DecisionResult> future : futures) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(400, gateway.getProcessedPackets());
+        assertThrows(IllegalStateException.class, () -> gateway.submit(PACKET));
+    }
+
+    @Test
+    void closeWhileSubmittingCompletesEveryFuture() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            PacketIngestionGateway gateway = new PacketIngestionGateway(engine(), 1);
+            ConcurrentLinkedQueue<CompletableFuture<DecisionResult>> futures = new ConcurrentLinkedQueue<>();
+            List<Thread> submitters = new ArrayList<>();
+            // Soumissions hors startProducer : close() ne les attend pas
+            for (int t = 0; t < 8; t++) {
+                Thread submitter = new Thread(() -> {
+                    try {
+                        while (true) {
+                            futures.add(gateway.submit(PACKET));
+                        }
+                    } catch (IllegalStateException closed) {
+                        // passerelle fermée
+                    }
+                });
+                submitter.setDaemon(true);
+                submitter.start();
+                submitters.add(submitter);
+            }
+            Thread.sleep(2);
+            gateway.close();
+            for (Thread submitter : submitters) {
+                submitter.join(5_000);
+                assertFalse(submitter.isAlive(), "producteur bloqué après close()");
+            }
+
+            int accepted = 0;
+            for (CompletableFuture<DecisionResult> future : futures) {
+                try {
+                    assertNotNull(future.get(5, TimeUnit.SECONDS));
+                    accepted++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+            assertEquals(accepted, gateway.getProcessedPackets());
+            assertEquals(0, gateway.getQueueDepth());
+        }
+    }
+}
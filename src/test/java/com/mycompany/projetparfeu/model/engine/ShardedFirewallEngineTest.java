@@ -0,0 +1,161 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.ProtocolFilter;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du moteur partitionné : répartition par flux, ordre des
+ * résultats, journal et messages communs aux shards.
+ * @author ZGARNI
+ */
+class ShardedFirewallEngineTest {
+
+    private static final int FLOWS = 40;
+    private static final int PACKETS_PER_FLOW = 10;
+
+    private static long countLines(String output, String prefix) {
+        return output.lines().filter(line -> line.startsWith(prefix)).count();
+    }
+
+    /**
+     * Paquets de FLOWS flux entrelacés, dans les deux sens ; le payload
+     * porte le flux et le rang du paquet dans son flux.
+     */
+    private static List<Packet> interleavedFlows() {
+        List<Packet> packets = new ArrayList<>();
+        for (int seq = 0; seq < PACKETS_PER_FLOW; seq++) {
+            for (int flow = 0; flow < FLOWS; flow++) {
+                String client = "10.1." + flow + ".7";
+                int clientPort = 40_000 + flow;
+                String payload = "flux " + flow + " rang " + seq;
+                packets.add(seq % 2 == 0
+                        ? new PaquetSimple(client, "192.168.0.1", clientPort, 443, "TCP", payload)
+                        : new PaquetSimple("192.168.0.1", client, 443, clientPort, "TCP", payload));
+            }
+        }
+        return packets;
+    }
+
+    private static int flowOf(Packet packet) {
+        return Integer.parseInt(packet.getPayload().split(" ")[1]);
+    }
+
+    private static int rankOf(Packet packet) {
+        return Integer.parseInt(packet.getPayload().split(" ")[3]);
+    }
+
+    @Test
+    void bothDirectionsOfAFlowShareAShard() {
+        ShardedFirewallEngine engine = new ShardedFirewallEngine(new FirewallConfig(), 8);
+        Set<Integer> used = new HashSet<>();
+        for (int flow = 0; flow < 200; flow++) {
+            String client = "10.2." + (flow / 250) + "." + (flow % 250 + 1);
+            Packet out = new PaquetSimple(client, "192.168.0.1", 50_000 + flow, 80, "TCP", "a");
+            Packet back = new PaquetSimple("192.168.0.1", client, 80, 50_000 + flow, "UDP", "b");
+            int shard = engine.shardFor(out);
+            assertEquals(shard, engine.shardFor(back), client);
+            assertTrue(shard >= 0 && shard < 8);
+            used.add(shard);
+        }
+        // Les flux sont répartis sur tous les shards
+        assertEquals(8, used.size());
+    }
+
+    @Test
+    void inputOrderReturnsResultsInInputOrder() {
+        ShardedFirewallEngine engine = new ShardedFirewallEngine(new FirewallConfig(), 4);
+        List<Packet> packets = interleavedFlows();
+        engine.start();
+        try {
+            List<DecisionResult> results = engine.processPackets(packets, ShardedFirewallEngine.ResultOrder.INPUT);
+            assertEquals(packets.size(), results.size());
+            for (int i = 0; i < packets.size(); i++) {
+                assertSame(packets.get(i), results.get(i).getPacket());
+            }
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void completionOrderKeepsOneResultPerPacketAndFlowOrder() {
+        ShardedFirewallEngine engine = new ShardedFirewallEngine(new FirewallConfig(), 4);
+        List<Packet> packets = interleavedFlows();
+        engine.start();
+        try {
+            List<DecisionResult> results = engine.processPackets(packets, ShardedFirewallEngine.ResultOrder.COMPLETION);
+            assertEquals(packets.size(), results.size());
+            Set<Packet> seen = new HashSet<>();
+            Map<Integer, Integer> lastRank = new HashMap<>();
+            for (DecisionResult result : results) {
+                Packet packet = result.getPacket();
+                assertTrue(seen.add(packet), "paquet rendu deux fois : " + packet.getPayload());
+                // Dans un flux, les résultats sortent dans l'ordre d'entrée
+                int previous = lastRank.getOrDefault(flowOf(packet), -1);
+                assertEquals(previous + 1, rankOf(packet), packet.getPayload());
+                lastRank.put(flowOf(packet), rankOf(packet));
+            }
+            assertEquals(FLOWS, lastRank.size());
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void bannerAndFilterMessagesArePrintedOnce() {
+        PrintStream out = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            ShardedFirewallEngine engine = new ShardedFirewallEngine(new FirewallConfig(), 4);
+            engine.addFilter(new ProtocolFilter("TCP"));
+        } finally {
+            System.setOut(out);
+        }
+        String output = captured.toString(StandardCharsets.UTF_8);
+        assertEquals(1, countLines(output, "✓ Analyseur de paquets initialisé"), output);
+        assertEquals(1, countLines(output, "✓ Pare-feu initialisé"), output);
+        assertEquals(1, countLines(output, "✓ Pare-feu partitionné initialisé (4 shards)"), output);
+        assertEquals(1, countLines(output, "✓ Filtre ajouté"), output);
+    }
+
+    @Test
+    void shardsLogThroughSharedLogger() {
+        ShardedFirewallEngine engine = new ShardedFirewallEngine(new FirewallConfig(), 4);
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            // Sources distinctes : réparties sur tous les shards ; DROP loggé
+            packets.add(new PaquetSimple("10.0.0." + (i + 1), "10.0.1.1", 4000 + i, 80, "TCP",
+                                         "<script>alert(1)</script> UNION SELECT"));
+        }
+        engine.start();
+        try {
+            engine.processPackets(packets);
+        } finally {
+            engine.stop();
+        }
+        assertEquals(64, engine.getDroppedPackets());
+        assertEquals(64, engine.getDecisionLogger().getEnqueuedEntries()
+                         + engine.getDecisionLogger().getSampledOutEntries()
+                         + engine.getDecisionLogger().getDroppedEntries());
+    }
+}
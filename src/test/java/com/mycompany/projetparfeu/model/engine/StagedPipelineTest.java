@@ -0,0 +1,100 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import com.mycompany.projetparfeu.model.initialPacketFIltering.AbstractFilter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du mode pipeline (une étape par thread).
+ * @author ZGARNI
+ */
+class StagedPipelineTest {
+
+    private static final int FAULTY_PORT = 666;
+
+    private static Packet packet(int srcPort) {
+        return new PaquetSimple("10.0.0.1", "10.0.0.2", srcPort, 80, "TCP", "bonjour");
+    }
+
+    private static FirewallEngine engine() {
+        FirewallEngine engine = new FirewallEngine(new FirewallConfig());
+        // Filtre résiduel qui échoue sur un port donné (étape FILTER)
+        engine.addFilter(new AbstractFilter() {
+            @Override
+            public boolean accept(Packet packet) {
+                if (packet.getSrcPort() == FAULTY_PORT) {
+                    throw new IllegalStateException("filtre en panne");
+                }
+                return true;
+            }
+        });
+        engine.start();
+        return engine;
+    }
+
+    @Test
+    void everyPacketReachesTheSinkInOrder() {
+        List<DecisionResult> results = new CopyOnWriteArrayList<>();
+        try (StagedPipeline pipeline = new StagedPipeline(engine(), 8, results::add)) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(packet(1_000 + i));
+            }
+            pipeline.flush();
+            assertEquals(100, pipeline.getCompletedPackets());
+        }
+        assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1_000 + i, results.get(i).getPacket().getSrcPort());
+        }
+    }
+
+    @Test
+    void failingStageDropsThePacketAndKeepsRunning() throws Exception {
+        List<DecisionResult> results = new CopyOnWriteArrayList<>();
+        StagedPipeline pipeline = new StagedPipeline(engine(), 4, result -> {
+            if (result.getPacket().getSrcPort() == FAULTY_PORT + 1) {
+                throw new IllegalStateException("sink en panne");
+            }
+            results.add(result);
+        });
+        // Plus de paquets que de slots : l'anneau doit continuer à tourner
+        CompletableFuture<Void> run = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 50; i++) {
+                pipeline.submit(packet(i % 5 == 0 ? FAULTY_PORT : 1_000 + i));
+            }
+            pipeline.submit(packet(FAULTY_PORT + 1));
+            pipeline.submit(packet(2_000));
+            pipeline.close();
+        });
+        run.get(10, TimeUnit.SECONDS);
+
+        assertEquals(52, pipeline.getCompletedPackets());
+        assertEquals(10, pipeline.getFailureCount(StagedPipeline.Stage.FILTER));
+        assertEquals(1, pipeline.getFailureCount(StagedPipeline.Stage.STATISTICS));
+        assertEquals(0, pipeline.getFailureCount(StagedPipeline.Stage.ANALYSIS));
+        assertEquals(51, results.size());
+        for (DecisionResult result : results) {
+            if (result.getPacket().getSrcPort() == FAULTY_PORT) {
+                assertEquals(Actions.DROP, result.getAction());
+                assertTrue(result.getReason().contains("FILTER"), result.getReason());
+            } else {
+                assertFalse(result.isBlocked(), result.getReason());
+            }
+        }
+        assertEquals(2_000, results.get(50).getPacket().getSrcPort());
+    }
+}
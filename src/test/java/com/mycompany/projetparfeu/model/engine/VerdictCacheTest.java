@@ -0,0 +1,77 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.engine;
+
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.PaquetMalicieux;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de verdicts du moteur, avec et sans arrêt anticipé de l'analyse.
+ * @author ZGARNI
+ */
+class VerdictCacheTest {
+
+    private static final Packet ATTACK = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 80, "TCP",
+            "<script>alert(1)</script> UNION SELECT ../etc/passwd");
+    private static final Packet BENIGN = new PaquetSimple("10.0.0.3", "10.0.0.2", 4000, 8080, "TCP",
+            "bonjour");
+
+    private static FirewallEngine engine(int reorderInterval) {
+        FirewallEngine engine = new FirewallEngine(new FirewallConfig());
+        engine.enableVerdictCache(64);
+        engine.enableAdaptiveOrdering(reorderInterval);
+        engine.start();
+        return engine;
+    }
+
+    @Test
+    void identicalPacketIsServedFromCache() {
+        FirewallEngine engine = engine(0);
+        DecisionResult first = engine.processPacket(ATTACK);
+        DecisionResult second = engine.processPacket(ATTACK);
+        assertEquals(Actions.DROP, first.getAction());
+        assertEquals(first.getTotalScore(), second.getTotalScore());
+        assertEquals(1, engine.getStatistics().getVerdictCacheHits());
+    }
+
+    @Test
+    void earlyStoppedAnalysisIsNotCached() {
+        FirewallEngine full = engine(0);
+        int fullScore = full.processPacket(ATTACK).getTotalScore();
+
+        FirewallEngine adaptive = engine(1_000);
+        for (int i = 0; i < 3; i++) {
+            DecisionResult result = adaptive.processPacket(ATTACK);
+            assertEquals(Actions.DROP, result.getAction());
+            assertTrue(result.getTotalScore() <= fullScore);
+        }
+        assertEquals(0, adaptive.getStatistics().getVerdictCacheHits());
+
+        // Analyse complète (score sous le seuil) : toujours mise en cache
+        adaptive.processPacket(BENIGN);
+        adaptive.processPacket(BENIGN);
+        assertEquals(1, adaptive.getStatistics().getVerdictCacheHits());
+    }
+
+    @Test
+    void attackTypeIsPartOfTheKey() {
+        FirewallEngine engine = engine(0);
+        Packet dos = new PaquetMalicieux("10.0.0.4", "10.0.0.2", 4000, 80, "TCP", "GET /", "DOS");
+        Packet xss = new PaquetMalicieux("10.0.0.4", "10.0.0.2", 4000, 80, "TCP", "GET /", "XSS");
+        assertNotEquals(VerdictCache.fingerprint(dos), VerdictCache.fingerprint(xss));
+
+        assertTrue(engine.processPacket(dos).getReason().contains("DOS"));
+        DecisionResult result = engine.processPacket(xss);
+        assertTrue(result.getReason().contains("XSS"), result.getReason());
+        assertFalse(result.getReason().contains("DOS"), result.getReason());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.flow;
+
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la table des flux.
+ * @author ZGARNI
+ */
+class FlowTableTest {
+
+    private static final long TIMEOUT_MILLIS = 1_000;
+    private static final long TIMEOUT_NANOS = TIMEOUT_MILLIS * 1_000_000L;
+
+    private static Packet packet(String src, String dest, int srcPort, int destPort) {
+        return new PaquetSimple(src, dest, srcPort, destPort, "TCP", "x");
+    }
+
+    private static int record(FlowTable table, Packet packet, byte verdict, long now) {
+        return table.recordInspection(FlowTable.addressKey(packet), FlowTable.portKey(packet), verdict, now);
+    }
+
+    private static int find(FlowTable table, Packet packet, long now) {
+        return table.find(FlowTable.addressKey(packet), FlowTable.portKey(packet), now);
+    }
+
+    @Test
+    void sourcesDifferingOnlyInTopBitHaveDistinctKeys() {
+        // 10.0.0.1 et 138.0.0.1 ne diffèrent que par le bit de poids fort
+        Packet trusted = packet("10.0.0.1", "10.0.0.2", 40000, 80);
+        Packet other = packet("138.0.0.1", "10.0.0.2", 40000, 80);
+        assertNotEquals(FlowTable.addressKey(trusted), FlowTable.addressKey(other));
+
+        FlowTable table = new FlowTable(16, TIMEOUT_MILLIS);
+        record(table, trusted, Actions.ACCEPT_CODE, 0);
+        assertEquals(-1, find(table, other, 1), "le flux accepté ne doit pas couvrir une autre source");
+
+        int slot = record(table, other, Actions.DROP_CODE, 2);
+        assertEquals(Actions.DROP_CODE, table.getVerdict(slot));
+        assertEquals(Actions.ACCEPT_CODE, table.getVerdict(find(table, trusted, 3)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void allZeroKeyIsTracked() {
+        Packet zero = new PaquetSimple("0.0.0.0", "0.0.0.0", 0, 0, "TCP", "x");
+        assertEquals(0L, FlowTable.addressKey(zero));
+
+        FlowTable table = new FlowTable(16, TIMEOUT_MILLIS);
+        assertEquals(-1, find(table, zero, 0));
+        int slot = record(table, zero, Actions.DROP_CODE, 0);
+        assertEquals(slot, find(table, zero, 1));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void recordInspectionResetsCounterAndStartsStream() {
+        FlowTable table = new FlowTable(16, TIMEOUT_MILLIS);
+        Packet p = packet("10.0.0.1", "10.0.0.2", 40000, 80);
+        int slot = record(table, p, Actions.ACCEPT_CODE, 0);
+        assertEquals(FlowTable.STREAM_START, table.getStreamState(slot));
+
+        table.setStreamState(slot, 42L);
+        assertEquals(1, table.touch(slot, 1));
+        assertEquals(2, table.touch(slot, 2));
+
+        assertEquals(slot, record(table, p, Actions.ACCEPT_CODE, 3));
+        assertEquals(0, table.getPacketsSinceInspection(slot));
+        assertEquals(42L, table.getStreamState(slot), "un flux existant garde son état d'inspection");
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void idleFlowExpiresOnLookup() {
+        FlowTable table = new FlowTable(16, TIMEOUT_MILLIS);
+        Packet p = packet("10.0.0.1", "10.0.0.2", 40000, 80);
+        record(table, p, Actions.ACCEPT_CODE, 0);
+
+        assertTrue(find(table, p, TIMEOUT_NANOS) >= 0);
+        assertEquals(-1, find(table, p, 2 * TIMEOUT_NANOS + 1));
+        assertEquals(0, table.size());
+        assertEquals(1, table.getIdleEvictions());
+    }
+
+    @Test
+    void removalKeepsOtherFlowsReachable() {
+        // Table minimale : les 40 flux partagent des chaînes de sondage
+        FlowTable table = new FlowTable(40, TIMEOUT_MILLIS);
+        for (int i = 0; i < 40; i++) {
+            record(table, packet("10.0.0." + i, "10.0.1.1", 1000 + i, 80), Actions.ACCEPT_CODE, i % 2 == 0 ? 0 : TIMEOUT_NANOS);
+        }
+        // Expire les flux pairs un par un (suppression par décalage arrière)
+        long now = TIMEOUT_NANOS + 1;
+        for (int i = 0; i < 40; i += 2) {
+            assertEquals(-1, find(table, packet("10.0.0." + i, "10.0.1.1", 1000 + i, 80), now));
+        }
+        for (int i = 1; i < 40; i += 2) {
+            assertTrue(find(table, packet("10.0.0." + i, "10.0.1.1", 1000 + i, 80), now) >= 0, "flux " + i);
+        }
+        assertEquals(20, table.size());
+    }
+
+    @Test
+    void fullTableEvictsInsteadOfGrowing() {
+        FlowTable table = new FlowTable(8, TIMEOUT_MILLIS);
+        for (int i = 0; i < 100; i++) {
+            record(table, packet("10.0.0.1", "10.0.0.2", 1000 + i, 80), Actions.ACCEPT_CODE, i);
+        }
+        assertEquals(8, table.size());
+        assertEquals(92, table.getCapacityEvictions());
+        // Le flux le plus récent est toujours suivi
+        assertTrue(find(table, packet("10.0.0.1", "10.0.0.2", 1099, 80), 100) >= 0);
+    }
+
+    @Test
+    void clearForgetsAllFlows() {
+        FlowTable table = new FlowTable(16, TIMEOUT_MILLIS);
+        Packet p = packet("10.0.0.1", "10.0.0.2", 40000, 80);
+        record(table, p, Actions.DROP_CODE, 0);
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(-1, find(table, p, 1));
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new FlowTable(0, TIMEOUT_MILLIS));
+        assertThrows(IllegalArgumentException.class, () -> new FlowTable(16, 0));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.generator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du bloc de paquets en colonnes.
+ * @author ZGARNI
+ */
+class PacketBlockTest {
+
+    @Test
+    void toPacketKeepsAttackType() {
+        PacketBlock block = new PacketBlock(1, 16);
+        block.add(new PaquetMalicieux("10.0.0.1", "10.0.0.2", 4000, 80, "TCP", "<script>", "XSS"));
+        block.add(new PaquetSimple("10.0.0.3", "10.0.0.2", 4001, 443, "TCP", "GET /"));
+        byte[] payload = {1, 2, 3};
+        block.add(1, 2, 5, 6, "UDP", payload, 0, payload.length, true);
+
+        Packet malicious = block.toPacket(0);
+        assertInstanceOf(PaquetMalicieux.class, malicious);
+        assertEquals("XSS", ((PaquetMalicieux) malicious).getTypeAttaque());
+        assertEquals("<script>", malicious.getPayload());
+        assertEquals("10.0.0.1", malicious.getSrcIP());
+
+        assertInstanceOf(PaquetSimple.class, block.toPacket(1));
+        assertNull(block.getAttackType(1));
+        assertEquals(PacketBlock.UNKNOWN_ATTACK, ((PaquetMalicieux) block.toPacket(2)).getTypeAttaque());
+
+        block.clear();
+        block.add(new PaquetSimple("10.0.0.3", "10.0.0.2", 4001, 443, "TCP", "GET /"));
+        assertNull(block.getAttackType(0));
+        assertFalse(block.isMalicious(0));
+    }
+
+    @Test
+    void rejectsAddressesWithLeadingZeros() {
+        // Même lecture que le chemin objet : "010.0.0.1" n'est pas une IPv4
+        Packet packet = new PaquetSimple("010.0.0.1", "10.0.0.2", 4000, 80, "TCP", "x");
+        assertFalse(packet.hasIPv4Addresses());
+        PacketBlock block = new PacketBlock(1, 16);
+        assertThrows(IllegalArgumentException.class, () -> block.add(packet));
+        assertEquals(0, block.size());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'ensemble de filtres compilé : même premier filtre rejetant
+ * que la chaîne linéaire, en interprété comme en bytecode.
+ * @author ZGARNI
+ */
+class CompiledFilterSetTest {
+
+    private static final String[] ADDRESSES = {"10.0.0.1", "10.0.0.2", "192.168.1.1"};
+    private static final int[] PORTS = {22, 80, 443};
+    private static final String[] PROTOCOLS = {"TCP", "UDP", "ICMP"};
+
+    /** Chaîne linéaire de référence. */
+    private static int linearFirstRejecting(List<AbstractFilter> filters, Packet packet) {
+        for (int i = 0; i < filters.size(); i++) {
+            if (!filters.get(i).accept(packet)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Integer pickPort(Random random) {
+        return random.nextInt(3) == 0 ? null : PORTS[random.nextInt(PORTS.length)];
+    }
+
+    private static AbstractFilter randomFilter(Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return new IPFilter(random.nextBoolean() ? pick(random, ADDRESSES) : null,
+                                    random.nextBoolean() ? pick(random, ADDRESSES) : null);
+            case 1:
+                return new PortFilter(pickPort(random), pickPort(random));
+            case 2:
+                return new ProtocolFilter(pick(random, PROTOCOLS));
+            case 3: {
+                // Sous-classe : reste dans la chaîne résiduelle
+                int port = PORTS[random.nextInt(PORTS.length)];
+                return new PortFilter(null, port) { };
+            }
+            case 4: {
+                CidrIPFilter filter = new CidrIPFilter(CidrIPFilter.Direction.SOURCE, random.nextBoolean());
+                filter.deny("10.0.0.0/30");
+                filter.allow(pick(random, ADDRESSES));
+                return filter;
+            }
+            default:
+                return new PortRangeFilter(random.nextBoolean() ? "1-1023" : "0-65535", null);
+        }
+    }
+
+    private static Packet randomPacket(Random random) {
+        return new PaquetSimple(pick(random, ADDRESSES), pick(random, ADDRESSES),
+                                PORTS[random.nextInt(PORTS.length)], PORTS[random.nextInt(PORTS.length)],
+                                pick(random, PROTOCOLS), "x");
+    }
+
+    @Test
+    void matchesLinearChainOnRandomFilterSets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            List<AbstractFilter> filters = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                filters.add(randomFilter(random));
+            }
+            CompiledFilterSet interpreted = CompiledFilterSet.compile(filters);
+            CompiledFilterSet bytecode = CompiledFilterSet.compile(filters, true);
+            assertTrue(bytecode.isBytecodeCompiled());
+
+            for (int k = 0; k < 30; k++) {
+                Packet packet = randomPacket(random);
+                int expected = linearFirstRejecting(filters, packet);
+                assertEquals(expected, interpreted.firstRejecting(packet), filters + " / " + packet);
+                assertEquals(expected, bytecode.firstRejecting(packet), filters + " / " + packet);
+            }
+        }
+    }
+
+    @Test
+    void rejectBatchMatchesPerPacketVerdict() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            List<AbstractFilter> filters = new ArrayList<>();
+            int count = 1 + random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                filters.add(randomFilter(random));
+            }
+            CompiledFilterSet compiled = CompiledFilterSet.compile(filters);
+
+            PacketBlock block = new PacketBlock(32, 1024);
+            List<Packet> packets = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                Packet packet = randomPacket(random);
+                packets.add(packet);
+                block.add(packet);
+            }
+            boolean[] rejected = new boolean[block.size()];
+            compiled.rejectBatch(block, rejected);
+            for (int i = 0; i < packets.size(); i++) {
+                assertEquals(linearFirstRejecting(filters, packets.get(i)) >= 0, rejected[i], filters + " / " + packets.get(i));
+            }
+        }
+    }
+
+    @Test
+    void tenThousandRulesKeepFirstMatchIndex() {
+        List<AbstractFilter> filters = new ArrayList<>();
+        for (int i = 0; i < 9_999; i++) {
+            switch (i % 3) {
+                case 0 -> filters.add(new IPFilter(null, "10.0.0.2"));
+                case 1 -> filters.add(new PortFilter(null, 80));
+                default -> filters.add(new ProtocolFilter("TCP"));
+            }
+        }
+        filters.add(new PortFilter(4000, null));
+        CompiledFilterSet compiled = CompiledFilterSet.compile(filters);
+        assertEquals(10_000, compiled.getCompiledCount());
+        assertEquals(0, compiled.getResidualCount());
+
+        Packet allowed = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 80, "TCP", "x");
+        Packet lastRuleRejects = new PaquetSimple("10.0.0.1", "10.0.0.2", 5000, 80, "TCP", "x");
+        Packet firstRuleRejects = new PaquetSimple("10.0.0.1", "10.0.0.3", 4000, 80, "TCP", "x");
+        assertEquals(-1, compiled.firstRejecting(allowed));
+        assertEquals(9_999, compiled.firstRejecting(lastRuleRejects));
+        assertEquals(0, compiled.firstRejecting(firstRuleRejects));
+    }
+
+    @Test
+    void residualFilterBeforeCompiledRejectionWins() {
+        AbstractFilter residual = new PortFilter(null, 443) { };
+        List<AbstractFilter> filters = List.of(new IPFilter("10.0.0.1", null), residual, new ProtocolFilter("UDP"));
+        CompiledFilterSet compiled = CompiledFilterSet.compile(filters);
+        assertEquals(2, compiled.getCompiledCount());
+        assertEquals(1, compiled.getResidualCount());
+
+        Packet packet = new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 80, "TCP", "x");
+        assertEquals(1, compiled.firstRejecting(packet));
+        assertEquals(2, compiled.firstCompiledRejection(packet));
+        assertEquals("IPFilter", compiled.getFilterName(0));
+    }
+
+    @Test
+    void emptySetAcceptsEverything() {
+        CompiledFilterSet compiled = CompiledFilterSet.compile(List.of());
+        assertEquals(-1, compiled.firstRejecting(new PaquetSimple("10.0.0.1", "10.0.0.2", 1, 2, "TCP", "x")));
+        assertThrows(NullPointerException.class, () -> CompiledFilterSet.compile(null));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.initialPacketFIltering;
+
+import com.mycompany.projetparfeu.model.generator.PacketBlock;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import com.mycompany.projetparfeu.model.generator.Packet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du filtre par plages de ports : un port unique se comporte
+ * comme PortFilter, paquet par paquet et par bloc.
+ * @author ZGARNI
+ */
+class PortRangeFilterTest {
+
+    private static final int[] PORTS = {0, 1, 22, 63, 64, 80, 443, 1023, 1024, 65534, 65535};
+
+    private static List<Packet> packets() {
+        List<Packet> packets = new ArrayList<>();
+        for (int src : PORTS) {
+            for (int dest : PORTS) {
+                packets.add(new PaquetSimple("10.0.0.1", "10.0.0.2", src, dest, "TCP", "x"));
+            }
+        }
+        return packets;
+    }
+
+    private static boolean[] rejectBatch(AbstractFilter filter, List<Packet> packets) {
+        PacketBlock block = new PacketBlock(packets.size(), 1024);
+        for (Packet packet : packets) {
+            block.add(packet);
+        }
+        boolean[] rejected = new boolean[packets.size()];
+        filter.rejectBatch(block, rejected);
+        return rejected;
+    }
+
+    private static void assertSameVerdicts(AbstractFilter expected, AbstractFilter actual) {
+        List<Packet> packets = packets();
+        for (Packet packet : packets) {
+            assertEquals(expected.accept(packet), actual.accept(packet),
+                    actual + " sur " + packet.getSrcPort() + " -> " + packet.getDestPort());
+        }
+        assertArrayEquals(rejectBatch(expected, packets), rejectBatch(actual, packets));
+    }
+
+    @Test
+    void singlePortMatchesPortFilter() {
+        for (int port : PORTS) {
+            String single = Integer.toString(port);
+            assertSameVerdicts(new PortFilter(port, null), new PortRangeFilter(single, null));
+            assertSameVerdicts(new PortFilter(null, port), new PortRangeFilter(null, single));
+            assertSameVerdicts(new PortFilter(port, 443), new PortRangeFilter(single, "443"));
+        }
+        assertSameVerdicts(new PortFilter(null, null), new PortRangeFilter((String) null, null));
+    }
+
+    @Test
+    void rangesAcceptTheirBounds() {
+        PortRangeFilter filter = new PortRangeFilter("63-64,1024-65535", "0-1023");
+        List<Packet> packets = packets();
+        boolean[] rejected = rejectBatch(filter, packets);
+        for (int i = 0; i < packets.size(); i++) {
+            Packet packet = packets.get(i);
+            int src = packet.getSrcPort();
+            boolean expected = (src == 63 || src == 64 || src >= 1024) && packet.getDestPort() <= 1023;
+            assertEquals(expected, filter.accept(packet), src + " -> " + packet.getDestPort());
+            assertEquals(!expected, rejected[i]);
+        }
+        assertEquals("PortRangeFilter{src=63-64,1024-65535, dest=0-1023}", filter.toString());
+        assertThrows(IllegalArgumentException.class, () -> new PortRangeFilter("80,", null));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.logging;
+
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du journal asynchrone des décisions.
+ * @author ZGARNI
+ */
+class AsyncDecisionLoggerTest {
+
+    private static final DecisionResult RESULT = new DecisionResult(
+            new PaquetSimple("10.0.0.1", "10.0.0.2", 4000, 80, "TCP", "bonjour"),
+            List.of(), 0, Actions.ACCEPT, "test");
+
+    private static long lines(ByteArrayOutputStream bytes) {
+        return bytes.toString(StandardCharsets.UTF_8).lines().count();
+    }
+
+    @Test
+    void closeWritesEveryAcceptedEntry() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            AsyncDecisionLogger logger = new AsyncDecisionLogger(new PrintStream(bytes, true, StandardCharsets.UTF_8),
+                    64, 16, AsyncDecisionLogger.OverflowPolicy.BLOCK, 1);
+            AtomicLong accepted = new AtomicLong();
+            AtomicLong refused = new AtomicLong();
+            List<CompletableFuture<Void>> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                producers.add(CompletableFuture.runAsync(() -> {
+                    // Journalise jusqu'à la fermeture, puis encore un peu
+                    int afterClose = 0;
+                    while (afterClose < 100) {
+                        if (logger.log(RESULT)) {
+                            accepted.incrementAndGet();
+                        } else {
+                            refused.incrementAndGet();
+                            afterClose++;
+                        }
+                    }
+                }));
+            }
+            Thread.sleep(2);
+            logger.close();
+            for (CompletableFuture<Void> producer : producers) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(0, logger.getPendingEntries());
+            assertEquals(accepted.get(), logger.getEnqueuedEntries());
+            assertEquals(accepted.get(), logger.getWrittenEntries());
+            assertEquals(accepted.get(), lines(bytes));
+            assertEquals(refused.get(), logger.getDroppedEntries());
+        }
+    }
+
+    @Test
+    void blockedCallerGivesUpWhenTheWriterDies() throws Exception {
+        PrintStream broken = new PrintStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void print(Object value) {
+                throw new IllegalStateException("sortie en panne");
+            }
+        };
+        AsyncDecisionLogger logger = new AsyncDecisionLogger(broken, 1, 1,
+                AsyncDecisionLogger.OverflowPolicy.BLOCK, 1);
+        assertTrue(logger.log(RESULT));
+        // File pleine et plus de thread d'écriture : l'appel ne doit pas attendre sans fin
+        boolean second = CompletableFuture.supplyAsync(() -> logger.log(RESULT)).get(10, TimeUnit.SECONDS);
+        assertFalse(second);
+        assertEquals(1, logger.getDroppedEntries());
+        logger.close();
+    }
+
+    @Test
+    void logAfterCloseIsDropped() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncDecisionLogger logger = new AsyncDecisionLogger(new PrintStream(bytes, true, StandardCharsets.UTF_8),
+                8, 4, AsyncDecisionLogger.OverflowPolicy.DROP, 1);
+        assertTrue(logger.log(RESULT));
+        logger.close();
+        assertFalse(logger.log(RESULT));
+        assertEquals(1, lines(bytes));
+        assertEquals(1, logger.getDroppedEntries());
+    }
+}
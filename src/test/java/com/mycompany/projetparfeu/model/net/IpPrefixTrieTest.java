@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la table de préfixes IPv4/IPv6 sur 128 bits.
+ * @author ZGARNI
+ */
+class IpPrefixTrieTest {
+
+    private record Prefix(long high, long low, int length, int value) {
+        boolean contains(long addressHigh, long addressLow) {
+            if (length <= 64) {
+                long mask = length == 0 ? 0 : -1L << (64 - length);
+                return ((addressHigh ^ high) & mask) == 0;
+            }
+            long mask = -1L << (128 - length);
+            return addressHigh == high && ((addressLow ^ low) & mask) == 0;
+        }
+    }
+
+    /** Recherche de référence (le dernier préfixe inséré remplace un préfixe égal). */
+    private static int referenceLookup(List<Prefix> prefixes, long high, long low) {
+        int bestLength = -1;
+        int best = IpPrefixTrie.NO_VALUE;
+        for (Prefix prefix : prefixes) {
+            if (prefix.contains(high, low) && prefix.length >= bestLength) {
+                bestLength = prefix.length;
+                best = prefix.value;
+            }
+        }
+        return best;
+    }
+
+    private static long maskHigh(int length) {
+        return length == 0 ? 0 : length >= 64 ? -1L : -1L << (64 - length);
+    }
+
+    private static long maskLow(int length) {
+        return length <= 64 ? 0 : -1L << (128 - length);
+    }
+
+    @Test
+    void longestPrefixWinsInIpv6() {
+        IpPrefixTrie trie = new IpPrefixTrie();
+        trie.insert("2001:db8::/32", 1);
+        trie.insert("2001:db8:1::/48", 2);
+        trie.insert("2001:db8:1::42", 3);
+
+        assertEquals(1, trie.lookup(IpAddress.parse("2001:db8:ffff::1")));
+        assertEquals(2, trie.lookup(IpAddress.parse("2001:db8:1::1")));
+        assertEquals(3, trie.lookup(IpAddress.parse("2001:db8:1::42")));
+        assertFalse(trie.contains(IpAddress.parse("2001:db9::1")));
+    }
+
+    @Test
+    void ipv4PrefixesUseIpv4Lengths() {
+        IpPrefixTrie trie = new IpPrefixTrie();
+        trie.insert("10.0.0.0/8", 1);
+        trie.insert("10.1.2.3", 2);
+
+        assertEquals(1, trie.lookupIpv4(Ipv4.parse("10.9.9.9")));
+        assertEquals(2, trie.lookupIpv4(Ipv4.parse("10.1.2.3")));
+        assertEquals(1, trie.lookup(IpAddress.parse("::ffff:10.9.9.9")));
+        assertFalse(trie.containsIpv4(Ipv4.parse("11.0.0.1")));
+        assertFalse(trie.contains(IpAddress.parse("a00::1")));
+    }
+
+    @Test
+    void shortIpv6PrefixCoversIpv4Space() {
+        IpPrefixTrie trie = new IpPrefixTrie();
+        trie.insert("::/0", 7);
+        trie.insert("192.168.0.0/16", 8);
+        assertEquals(7, trie.lookupIpv4(Ipv4.parse("8.8.8.8")));
+        assertEquals(8, trie.lookupIpv4(Ipv4.parse("192.168.3.4")));
+        assertEquals(7, trie.lookup(IpAddress.parse("2001:db8::1")));
+    }
+
+    @Test
+    void rejectsInvalidPrefixes() {
+        IpPrefixTrie trie = new IpPrefixTrie();
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("10.0.0.0/40", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("2001:db8::/129", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("pas une adresse", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("2001:db8::/32", -1));
+    }
+
+    @Test
+    void matchesReferenceOnRandomPrefixes() {
+        Random random = new Random(16);
+        for (int round = 0; round < 20; round++) {
+            IpPrefixTrie trie = new IpPrefixTrie(4);
+            List<Prefix> prefixes = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                // Préfixes voisins (2001:db8::/32) pour qu'ils se chevauchent
+                long high = 0x20010DB800000000L | (random.nextLong() & 0xFFFFL) << 16;
+                long low = random.nextInt(4) == 0 ? random.nextLong() : random.nextInt(256);
+                int length = random.nextInt(129);
+                high &= maskHigh(length);
+                low &= maskLow(length);
+                trie.insert(IpAddress.of(high, low), length, i);
+                prefixes.add(new Prefix(high, low, length, i));
+            }
+            for (int k = 0; k < 2_000; k++) {
+                long high = 0x20010DB800000000L | (random.nextLong() & 0xFFFFL) << 16;
+                if (random.nextInt(8) == 0) {
+                    high = random.nextLong();
+                }
+                long low = random.nextBoolean() ? random.nextLong() : random.nextInt(256);
+                assertEquals(referenceLookup(prefixes, high, low), trie.lookup(high, low),
+                             IpAddress.of(high, low).toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la table de préfixes IPv4 (plus long préfixe).
+ * @author ZGARNI
+ */
+class Ipv4PrefixTrieTest {
+
+    private static int mask(int length) {
+        return length == 0 ? 0 : -1 << (32 - length);
+    }
+
+    /** Recherche de référence : parcours de tous les préfixes. */
+    private static int referenceLookup(Map<Long, Integer> prefixes, int address) {
+        int bestLength = -1;
+        int best = Ipv4PrefixTrie.NO_VALUE;
+        for (Map.Entry<Long, Integer> entry : prefixes.entrySet()) {
+            int key = (int) (entry.getKey() >>> 8);
+            int length = (int) (entry.getKey() & 0xFF);
+            if (((address ^ key) & mask(length)) == 0 && length > bestLength) {
+                bestLength = length;
+                best = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void longestPrefixWins() {
+        Ipv4PrefixTrie trie = new Ipv4PrefixTrie();
+        trie.insert("0.0.0.0/0", 0);
+        trie.insert("10.0.0.0/8", 1);
+        trie.insert("10.1.0.0/16", 2);
+        trie.insert("10.1.2.0/24", 3);
+        trie.insert("10.1.2.3", 4);
+
+        assertEquals(0, trie.lookup(Ipv4.parse("192.168.1.1")));
+        assertEquals(1, trie.lookup(Ipv4.parse("10.200.0.1")));
+        assertEquals(2, trie.lookup(Ipv4.parse("10.1.200.1")));
+        assertEquals(3, trie.lookup(Ipv4.parse("10.1.2.200")));
+        assertEquals(4, trie.lookup(Ipv4.parse("10.1.2.3")));
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    void hostBitsAreIgnoredAndInsertReplaces() {
+        Ipv4PrefixTrie trie = new Ipv4PrefixTrie();
+        trie.insert("192.168.1.77/24", 1);
+        trie.insert("192.168.1.0/24", 2);
+        assertEquals(1, trie.size());
+        assertEquals(2, trie.lookup(Ipv4.parse("192.168.1.5")));
+        assertFalse(trie.contains(Ipv4.parse("192.168.2.5")));
+    }
+
+    @Test
+    void emptyTrieHasNoValue() {
+        Ipv4PrefixTrie trie = new Ipv4PrefixTrie();
+        assertEquals(Ipv4PrefixTrie.NO_VALUE, trie.lookup(0));
+        assertEquals(Ipv4PrefixTrie.NO_VALUE, trie.lookup(-1));
+    }
+
+    @Test
+    void rejectsInvalidPrefixes() {
+        Ipv4PrefixTrie trie = new Ipv4PrefixTrie();
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("10.0.0.0/33", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("10.0.0.0/x", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("10.0.0/8", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert(0, 8, -1));
+    }
+
+    @Test
+    void matchesReferenceOnRandomPrefixes() {
+        Random random = new Random(12);
+        for (int round = 0; round < 20; round++) {
+            Ipv4PrefixTrie trie = new Ipv4PrefixTrie(4);
+            Map<Long, Integer> prefixes = new LinkedHashMap<>();
+            // Adresses proches (10.0.x.x) pour que les préfixes se chevauchent
+            for (int i = 0; i < 200; i++) {
+                int length = random.nextInt(33);
+                int address = 0x0A000000 | random.nextInt(1 << 16);
+                if (random.nextInt(4) == 0) {
+                    address = random.nextInt();
+                }
+                int key = address & mask(length);
+                trie.insert(address, length, i);
+                prefixes.put(((long) key << 8) | length, i);
+            }
+            assertEquals(prefixes.size(), trie.size());
+            for (int k = 0; k < 2_000; k++) {
+                int address = random.nextBoolean() ? 0x0A000000 | random.nextInt(1 << 16) : random.nextInt();
+                assertEquals(referenceLookup(prefixes, address), trie.lookup(address), Ipv4.toString(address));
+            }
+        }
+    }
+}
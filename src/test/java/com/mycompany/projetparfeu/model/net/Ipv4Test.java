@@ -0,0 +1,44 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la conversion des adresses IPv4 textuelles.
+ * @author ZGARNI
+ */
+class Ipv4Test {
+
+    @Test
+    void parsesDottedDecimal() {
+        assertEquals(0x0A000001L, Ipv4.tryParse("10.0.0.1"));
+        assertEquals(0xFFFFFFFFL, Ipv4.tryParse("255.255.255.255"));
+        assertEquals(0L, Ipv4.tryParse("0.0.0.0"));
+        assertEquals(0xC0A8640AL, Ipv4.tryParse("192.168.100.10"));
+        assertEquals("192.168.100.10", Ipv4.toString(Ipv4.parse("192.168.100.10")));
+    }
+
+    @Test
+    void rejectsLeadingZeros() {
+        assertEquals(Ipv4.INVALID, Ipv4.tryParse("010.0.0.1"));
+        assertEquals(Ipv4.INVALID, Ipv4.tryParse("10.00.0.1"));
+        assertEquals(Ipv4.INVALID, Ipv4.tryParse("10.0.0.01"));
+        assertEquals(Ipv4.INVALID, Ipv4.tryParse("192.168.001.1"));
+        assertNull(IpAddress.tryParse("010.0.0.1"));
+        assertNull(IpAddress.tryParse("::ffff:010.0.0.1"));
+    }
+
+    @Test
+    void rejectsMalformedAddresses() {
+        for (String ip : new String[] {null, "", "1.2.3", "1.2.3.4.5", "256.0.0.1", "1..2.3",
+                                       "1.2.3.", ".1.2.3", "1.2.3.a", "1234.1.1.1", " 1.2.3.4"}) {
+            assertEquals(Ipv4.INVALID, Ipv4.tryParse(ip), ip);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Ipv4.parse("010.0.0.1"));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.net;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'ensemble de ports en bitmap, comparé à un BitSet.
+ * @author ZGARNI
+ */
+class PortSetTest {
+
+    private static void assertSameContent(BitSet expected, PortSet actual) {
+        for (int port = 0; port <= PortSet.MAX_PORT; port++) {
+            assertEquals(expected.get(port), actual.contains(port), "port " + port);
+        }
+        assertEquals(expected.cardinality(), actual.size());
+    }
+
+    @Test
+    void rangesAcrossWordBoundaries() {
+        int[][] ranges = {
+            {63, 64}, {0, 63}, {64, 127}, {0, 65535}, {65535, 65535}, {0, 0},
+            {1, 1023}, {127, 129}, {65472, 65535}, {100, 100}, {60, 200},
+        };
+        for (int[] range : ranges) {
+            PortSet set = new PortSet();
+            set.addRange(range[0], range[1]);
+            BitSet expected = new BitSet();
+            expected.set(range[0], range[1] + 1);
+            assertSameContent(expected, set);
+            assertEquals(range[0] == range[1] ? "" + range[0] : range[0] + "-" + range[1], set.toExpression());
+
+            // Retrait de la même plage depuis l'ensemble complet
+            PortSet full = PortSet.parse("0-65535");
+            full.removeRange(range[0], range[1]);
+            BitSet rest = new BitSet();
+            rest.set(0, PortSet.MAX_PORT + 1);
+            rest.clear(range[0], range[1] + 1);
+            assertSameContent(rest, full);
+            assertEquals(set.complement(), full);
+        }
+        assertFalse(new PortSet().contains(-1));
+        assertFalse(PortSet.parse("0-65535").contains(65536));
+    }
+
+    @Test
+    void randomRangesMatchBitSet() {
+        Random random = new Random(7);
+        PortSet set = new PortSet();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(PortSet.MAX_PORT + 1);
+            int to = Math.min(PortSet.MAX_PORT, from + random.nextInt(300));
+            if (random.nextInt(3) == 0) {
+                set.removeRange(from, to);
+                expected.clear(from, to + 1);
+            } else {
+                set.addRange(from, to);
+                expected.set(from, to + 1);
+            }
+        }
+        assertSameContent(expected, set);
+    }
+
+    @Test
+    void parseAndToExpressionRoundTrip() {
+        PortSet set = PortSet.parse(" 8000-8100 , 22,1-1023,3306, 1024 ");
+        assertEquals("1-1024,3306,8000-8100", set.toExpression());
+        assertEquals(set, PortSet.parse(set.toExpression()));
+        assertTrue(set.contains(1024));
+        assertFalse(set.contains(0));
+
+        assertEquals("0-65535", PortSet.parse("0-65535").toExpression());
+        assertEquals("63-64", PortSet.parse("64,63").toExpression());
+        assertEquals("", PortSet.parse("").toExpression());
+        assertTrue(PortSet.parse("").isEmpty());
+
+        Random random = new Random(11);
+        for (int i = 0; i < 100; i++) {
+            PortSet randomSet = new PortSet();
+            for (int j = 0; j < 20; j++) {
+                int from = random.nextInt(PortSet.MAX_PORT + 1);
+                randomSet.addRange(from, Math.min(PortSet.MAX_PORT, from + random.nextInt(130)));
+            }
+            assertEquals(randomSet, PortSet.parse(randomSet.toExpression()));
+        }
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        String[] invalid = {
+            ",", ",80", "80,", "80,,81", "80, ,81", "90-80", "65536", "-1", "0-65536",
+            "-", "80-", "-80", "1-2-3", "abc", "8 0", null,
+        };
+        for (String expression : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> PortSet.parse(expression), expression);
+        }
+        PortSet set = new PortSet();
+        assertThrows(IllegalArgumentException.class, () -> set.addRange(10, 9));
+        assertThrows(IllegalArgumentException.class, () -> set.addRange(-1, 9));
+        assertThrows(IllegalArgumentException.class, () -> set.removeRange(0, 65536));
+        assertThrows(IllegalArgumentException.class, () -> set.add(65536));
+        assertTrue(set.isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.persistence;
+
+import com.mycompany.projetparfeu.model.analyzer.SignatureRule;
+import com.mycompany.projetparfeu.model.blacklist.BlacklistSnapshot;
+import com.mycompany.projetparfeu.model.blacklist.BlacklistStore;
+import com.mycompany.projetparfeu.model.config.FirewallConfig;
+import com.mycompany.projetparfeu.model.exceptions.DatabaseException;
+import com.mycompany.projetparfeu.model.net.IpAddress;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la sauvegarde et du rechargement de la configuration.
+ * @author ZGARNI
+ */
+class DataPersistenceTest {
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void signatureRulesRoundTrip() throws Exception {
+        Path directory = Files.createTempDirectory("firewall-config");
+        try {
+            DataPersistence persistence = new DataPersistence(directory.toString());
+            FirewallConfig config = new FirewallConfig();
+            // Séparateurs du format (= : #) et espaces dans les expressions
+            List<SignatureRule> rules = List.of(
+                    new SignatureRule("SQLI-001", "(?i)union\\s+select", 8),
+                    new SignatureRule("KV.2", "a=b:c#d", 3),
+                    new SignatureRule("TRAIL_3", "drop table ", 10),
+                    new SignatureRule("LEAD-4", " x{2,3}$", 1));
+            for (SignatureRule rule : rules) {
+                config.addSignatureRule(rule);
+            }
+            persistence.saveConfig(config);
+
+            assertEquals(rules, persistence.loadConfig().getSignatureRules());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void snapshotEntriesStayInTheSnapshotFile() throws Exception {
+        Path directory = Files.createTempDirectory("firewall-config");
+        try {
+            BlacklistStore exported = new BlacklistStore();
+            for (int i = 0; i < 1_000; i++) {
+                exported.add("198.51." + (i / 250) + "." + (i % 250));
+            }
+            Path snapshotFile = directory.resolve("blacklist.snap");
+            BlacklistSnapshot.write(exported, snapshotFile);
+
+            DataPersistence persistence = new DataPersistence(directory.toString());
+            FirewallConfig config = new FirewallConfig();
+            config.addBlacklistedIP("203.0.113.9");
+            config.addBlacklistedIP("2001:db8::/32");
+            config.getBlacklist().loadSnapshot(snapshotFile);
+            assertEquals(List.of("203.0.113.9", "2001:db8::/32"), config.getBlacklistedIPs());
+            persistence.saveConfig(config);
+
+            String saved = Files.readString(directory.resolve("config.properties"), StandardCharsets.UTF_8);
+            assertFalse(saved.contains("198.51."));
+            assertTrue(saved.contains("blacklistSnapshot=" + snapshotFile.toAbsolutePath()));
+
+            FirewallConfig loaded = persistence.loadConfig();
+            assertEquals(config.getBlacklistedIPs(), loaded.getBlacklistedIPs());
+            assertEquals(1_000, loaded.getBlacklist().getSnapshot().size());
+            assertTrue(loaded.isBlacklisted(IpAddress.parse("198.51.3.249")));
+            assertTrue(loaded.isBlacklisted(IpAddress.parse("2001:db8::5")));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void malformedSignatureIsRejected() throws Exception {
+        Path directory = Files.createTempDirectory("firewall-config");
+        try {
+            DataPersistence persistence = new DataPersistence(directory.toString());
+            Files.writeString(directory.resolve("config.properties"),
+                    "signature.SANS-SCORE=select\n", StandardCharsets.UTF_8);
+            assertThrows(DatabaseException.class, persistence::loadConfig);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
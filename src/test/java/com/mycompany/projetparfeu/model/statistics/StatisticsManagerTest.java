@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.projetparfeu.model.statistics;
+
+import com.mycompany.projetparfeu.model.decision.Action;
+import com.mycompany.projetparfeu.model.decision.Actions;
+import com.mycompany.projetparfeu.model.decision.DecisionResult;
+import com.mycompany.projetparfeu.model.generator.PaquetSimple;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du gestionnaire de statistiques (confiance des sources).
+ * @author ZGARNI
+ */
+class StatisticsManagerTest {
+
+    private static final String SOURCE = "10.0.0.1";
+
+    private static DecisionResult decision(Action action) {
+        return new DecisionResult(new PaquetSimple(SOURCE, "10.0.0.2", 4000, 80, "TCP", "x"),
+                                  List.of(), 0, action, "test");
+    }
+
+    @Test
+    void analyzedAcceptsBuildTrust() {
+        StatisticsManager statistics = new StatisticsManager();
+        for (int i = 0; i < 4; i++) {
+            statistics.recordDecision(decision(Actions.ACCEPT));
+        }
+        assertFalse(statistics.isTrustedSource(SOURCE, 5));
+        statistics.recordDecision(decision(Actions.ACCEPT));
+        assertTrue(statistics.isTrustedSource(SOURCE, 5));
+
+        statistics.recordDecision(decision(Actions.DROP));
+        assertFalse(statistics.isTrustedSource(SOURCE, 5));
+    }
+
+    @Test
+    void degradedAcceptsDoNotBuildTrust() {
+        StatisticsManager statistics = new StatisticsManager();
+        for (int i = 0; i < 100; i++) {
+            statistics.recordDegradedDecision(decision(Actions.ACCEPT));
+        }
+        assertFalse(statistics.isTrustedSource(SOURCE, 5));
+
+        for (int i = 0; i < 5; i++) {
+            statistics.recordDecision(decision(Actions.ACCEPT));
+        }
+        assertTrue(statistics.isTrustedSource(SOURCE, 5));
+        assertEquals(105, statistics.getTotalPackets());
+        assertEquals(105, statistics.getAcceptedPackets());
+        assertEquals(100, statistics.getDegradedPackets());
+    }
+
+    @Test
+    void degradedDropsDoNotRemoveTrust() {
+        StatisticsManager statistics = new StatisticsManager();
+        for (int i = 0; i < 5; i++) {
+            statistics.recordDecision(decision(Actions.ACCEPT));
+        }
+        // Fail-closed : rejet sans analyse, qui ne dit rien de la source
+        statistics.recordDegradedDecision(decision(Actions.DROP));
+        assertTrue(statistics.isTrustedSource(SOURCE, 5));
+        assertEquals(1, statistics.getDroppedPackets());
+    }
+
+    @Test
+    void unknownSourceIsNotTrusted() {
+        assertFalse(new StatisticsManager().isTrustedSource(SOURCE, 1));
+    }
+}